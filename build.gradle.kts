@@ -60,4 +60,8 @@ dependencies {
 
 tasks.test {
     useJUnitPlatform()
+    // Forward opt-in benchmark switches, e.g. -Dlinkvault.benchmark=true
+    System.getProperties().stringPropertyNames()
+        .filter { it.startsWith("linkvault.benchmark") }
+        .forEach { systemProperty(it, System.getProperty(it)) }
 }
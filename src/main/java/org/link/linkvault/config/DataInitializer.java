@@ -527,6 +527,38 @@ public class DataInitializer implements CommandLineRunner {
         ensureSetting("security.lockout-duration-minutes", "30",
                 "Account lockout duration in minutes (30-1440)", "SECURITY");
 
+        // Rate limits: requests per period, per user when signed in (login/register per IP)
+        ensureSetting("rate-limit.enabled", "true",
+                "Enable request rate limiting", "RATE_LIMIT");
+        ensureSetting("rate-limit.login.capacity", "10",
+                "Login attempts per period per IP", "RATE_LIMIT");
+        ensureSetting("rate-limit.login.period-seconds", "60",
+                "Login rate-limit period in seconds", "RATE_LIMIT");
+        ensureSetting("rate-limit.register.capacity", "5",
+                "Registration attempts per period per IP", "RATE_LIMIT");
+        ensureSetting("rate-limit.register.period-seconds", "60",
+                "Registration rate-limit period in seconds", "RATE_LIMIT");
+        ensureSetting("rate-limit.search.capacity", "60",
+                "Search requests per period", "RATE_LIMIT");
+        ensureSetting("rate-limit.search.period-seconds", "60",
+                "Search rate-limit period in seconds", "RATE_LIMIT");
+        ensureSetting("rate-limit.suggest.capacity", "600",
+                "Search suggestions per period", "RATE_LIMIT");
+        ensureSetting("rate-limit.suggest.period-seconds", "60",
+                "Search suggestion rate-limit period in seconds", "RATE_LIMIT");
+        ensureSetting("rate-limit.guest-event.capacity", "120",
+                "Guest analytics events per period per IP", "RATE_LIMIT");
+        ensureSetting("rate-limit.guest-event.period-seconds", "60",
+                "Guest event rate-limit period in seconds", "RATE_LIMIT");
+        ensureSetting("rate-limit.comment.capacity", "10",
+                "Comments posted per period", "RATE_LIMIT");
+        ensureSetting("rate-limit.comment.period-seconds", "60",
+                "Comment rate-limit period in seconds", "RATE_LIMIT");
+        ensureSetting("rate-limit.import.capacity", "5",
+                "Bookmark imports per period", "RATE_LIMIT");
+        ensureSetting("rate-limit.import.period-seconds", "600",
+                "Import rate-limit period in seconds", "RATE_LIMIT");
+
         // Audit policy settings
         ensureSetting("audit.retention.enabled", "false",
                 "Enable automatic audit log retention cleanup", "AUDIT_POLICY");
@@ -1,15 +1,15 @@
 package org.link.linkvault.config;
 
 import lombok.RequiredArgsConstructor;
-import org.link.linkvault.dto.FavoriteBookmarkResponseDto;
+import org.link.linkvault.dto.ChromeSummaryDto;
 import org.link.linkvault.dto.MenuItemResponseDto;
 import org.link.linkvault.entity.MenuType;
 import org.link.linkvault.entity.Role;
-import org.link.linkvault.entity.User;
-import org.link.linkvault.service.*;;
+import org.link.linkvault.service.*;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ModelAttribute;
 
@@ -22,13 +22,8 @@ import java.util.List;
 public class MenuModelAdvice {
 
     private final MenuService menuService;
-    private final SavedBookmarkService savedBookmarkService;
-    private final FavoriteBookmarkService favoriteBookmarkService;
-    private final NotificationService notificationService;
-    private final UserService userService;
-    private final AnnouncementService announcementService;
-    private final QnaArticleService qnaArticleService;
-    private final UserSettingsService userSettingsService;
+    private final CurrentUserResolver currentUserResolver;
+    private final ChromeSummaryService chromeSummaryService;
 
     @ModelAttribute("sidebarMenuItems")
     public List<MenuItemResponseDto> sidebarMenuItems() {
@@ -40,56 +35,16 @@ public class MenuModelAdvice {
         return getFilteredMenu(MenuType.ADMIN_SIDEBAR);
     }
 
-    @ModelAttribute("savedCount")
-    public long savedCount() {
-        User user = getCurrentUser();
-        if (user == null) return 0;
-        return savedBookmarkService.getCount(user);
-    }
-
-    @ModelAttribute("favorites")
-    public List<FavoriteBookmarkResponseDto> favorites() {
-        User user = getCurrentUser();
-        if (user == null) return Collections.emptyList();
-        return favoriteBookmarkService.getFavorites(user);
-    }
-
-    @ModelAttribute("unreadNotificationCount")
-    public long unreadNotificationCount() {
-        User user = getCurrentUser();
-        if (user == null) return 0;
-        return notificationService.getUnreadCount(user);
-    }
-
-    @ModelAttribute("unreadAnnouncementCount")
-    public long unreadAnnouncementCount() {
-        User user = getCurrentUser();
-        if (user == null) return 0;
-        return announcementService.getUnreadCountForUser(user);
-    }
-
-    @ModelAttribute("qnaHasRecentUpdate")
-    public boolean qnaHasRecentUpdate() {
-        return qnaArticleService.hasRecentlyUpdatedArticles();
-    }
-
-    @ModelAttribute("currentTheme")
-    public String currentTheme() {
-        User user = getCurrentUser();
-        if (user == null) return "DARK";
-        return userSettingsService.getThemeForUser(user.getId()).name();
-    }
-
-    private User getCurrentUser() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || !auth.isAuthenticated() || "anonymousUser".equals(auth.getPrincipal())) {
-            return null;
-        }
-        try {
-            return userService.getUserEntity(auth.getName());
-        } catch (Exception e) {
-            return null;
-        }
+    // One user lookup and one cached summary per request instead of a query per attribute
+    @ModelAttribute
+    public void chromeSummary(Model model) {
+        ChromeSummaryDto summary = chromeSummaryService.getSummary(currentUserResolver.getCurrentUser());
+        model.addAttribute("savedCount", summary.getSavedCount());
+        model.addAttribute("favorites", summary.getFavorites());
+        model.addAttribute("unreadNotificationCount", summary.getUnreadNotificationCount());
+        model.addAttribute("unreadAnnouncementCount", summary.getUnreadAnnouncementCount());
+        model.addAttribute("currentTheme", summary.getTheme());
+        model.addAttribute("qnaHasRecentUpdate", chromeSummaryService.hasRecentQnaUpdate());
     }
 
     private List<MenuItemResponseDto> getFilteredMenu(MenuType menuType) {
@@ -2,9 +2,8 @@ package org.link.linkvault.config;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.link.linkvault.dto.PrivacyPolicyResponseDto;
 import org.link.linkvault.entity.User;
-import org.link.linkvault.repository.UserRepository;
+import org.link.linkvault.service.CurrentUserResolver;
 import org.link.linkvault.service.PrivacyPolicyService;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -16,6 +15,7 @@ import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
@@ -25,9 +25,12 @@ import java.util.List;
 @RequiredArgsConstructor
 public class PrivacyConsentFilter extends OncePerRequestFilter {
 
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
     private final PrivacyPolicyService privacyPolicyService;
 
+    // Policy version the signed-in user agreed to (0 = never), kept for the life of the session
+    public static final String AGREED_VERSION_ATTRIBUTE = PrivacyConsentFilter.class.getName() + ".AGREED_VERSION";
+
     private static final List<String> EXCLUDED_PATHS = Arrays.asList(
             "/privacy-consent", "/login", "/register", "/logout", "/error"
     );
@@ -62,19 +65,39 @@ public class PrivacyConsentFilter extends OncePerRequestFilter {
             return;
         }
 
-        // Check consent
-        PrivacyPolicyResponseDto activePolicy = privacyPolicyService.getActivePolicy();
-        if (activePolicy != null) {
-            User user = userRepository.findByUsername(auth.getName()).orElse(null);
-            if (user != null) {
-                Integer agreedVersion = user.getPrivacyAgreedVersion();
-                if (agreedVersion == null || agreedVersion != activePolicy.getVersion()) {
-                    response.sendRedirect("/privacy-consent");
-                    return;
-                }
+        // Check consent: both versions come from memory, so a consented user costs no queries
+        int activeVersion = privacyPolicyService.getActiveVersion();
+        if (activeVersion != PrivacyPolicyService.NO_POLICY) {
+            Integer agreedVersion = getAgreedVersion(request, auth.getName());
+            if (agreedVersion != null && agreedVersion != activeVersion) {
+                response.sendRedirect("/privacy-consent");
+                return;
             }
         }
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Records the user's agreed version in their session. Called wherever consent is given or
+     * re-read from the database, so the filter sees a policy bump and a new consent without a query.
+     */
+    public static void rememberAgreedVersion(HttpServletRequest request, Integer agreedVersion) {
+        request.getSession().setAttribute(AGREED_VERSION_ATTRIBUTE, agreedVersion != null ? agreedVersion : 0);
+    }
+
+    // Null when the account no longer exists; loaded from the database once per session
+    private Integer getAgreedVersion(HttpServletRequest request, String username) {
+        HttpSession session = request.getSession(false);
+        Object cached = session != null ? session.getAttribute(AGREED_VERSION_ATTRIBUTE) : null;
+        if (cached instanceof Integer) {
+            return (Integer) cached;
+        }
+        User user = currentUserResolver.findByUsername(username).orElse(null);
+        if (user == null) {
+            return null;
+        }
+        rememberAgreedVersion(request, user.getPrivacyAgreedVersion());
+        return (Integer) request.getSession().getAttribute(AGREED_VERSION_ATTRIBUTE);
+    }
 }
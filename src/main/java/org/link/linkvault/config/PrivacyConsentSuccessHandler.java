@@ -2,7 +2,6 @@ package org.link.linkvault.config;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.link.linkvault.dto.PrivacyPolicyResponseDto;
 import org.link.linkvault.entity.User;
 import org.link.linkvault.repository.UserRepository;
 import org.link.linkvault.service.AccountLockoutService;
@@ -41,11 +40,12 @@ public class PrivacyConsentSuccessHandler implements AuthenticationSuccessHandle
             user.recordLogin();
             userRepository.save(user);
 
-            PrivacyPolicyResponseDto activePolicy = privacyPolicyService.getActivePolicy();
-            if (activePolicy != null) {
+            PrivacyConsentFilter.rememberAgreedVersion(request, user.getPrivacyAgreedVersion());
+            int activeVersion = privacyPolicyService.getActiveVersion();
+            if (activeVersion != PrivacyPolicyService.NO_POLICY) {
                 Integer agreedVersion = user.getPrivacyAgreedVersion();
-                if (agreedVersion == null || agreedVersion != activePolicy.getVersion()) {
-                    log.info("User '{}' needs to consent to privacy policy v{}", username, activePolicy.getVersion());
+                if (agreedVersion == null || agreedVersion != activeVersion) {
+                    log.info("User '{}' needs to consent to privacy policy v{}", username, activeVersion);
                     response.sendRedirect("/privacy-consent");
                     return;
                 }
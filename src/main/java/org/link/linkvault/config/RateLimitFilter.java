@@ -1,83 +1,89 @@
 package org.link.linkvault.config;
 
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Refill;
+import lombok.RequiredArgsConstructor;
+import org.link.linkvault.service.RateLimitService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import javax.annotation.PostConstruct;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Component
+@RequiredArgsConstructor
 public class RateLimitFilter extends OncePerRequestFilter {
 
-    // Per-IP bucket cache
-    private final Map<String, Bucket> loginBuckets = new ConcurrentHashMap<>();
-    private final Map<String, Bucket> registerBuckets = new ConcurrentHashMap<>();
+    private final RateLimitService rateLimitService;
 
-    // Login: 10 attempts per minute per IP
-    private Bucket createLoginBucket() {
-        return Bucket.builder()
-                .addLimit(Bandwidth.classic(10, Refill.greedy(10, Duration.ofMinutes(1))))
-                .build();
-    }
+    // Only these peers may name the client in X-Forwarded-For / X-Real-IP; anyone else could rotate it per request
+    @Value("${linkvault.rate-limit.trusted-proxies:127.0.0.1,0:0:0:0:0:0:0:1}")
+    private String trustedProxiesSetting;
+
+    private Set<String> trustedProxies;
 
-    // Register: 5 attempts per minute per IP
-    private Bucket createRegisterBucket() {
-        return Bucket.builder()
-                .addLimit(Bandwidth.classic(5, Refill.greedy(5, Duration.ofMinutes(1))))
-                .build();
+    @PostConstruct
+    void init() {
+        trustedProxies = Arrays.stream(trustedProxiesSetting.split(","))
+                .map(String::trim)
+                .filter(address -> !address.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
-        String path = request.getRequestURI();
-        String method = request.getMethod();
-
-        // Only rate-limit POST to /login and /api/auth/register
-        if ("POST".equalsIgnoreCase(method)) {
-            String clientIp = getClientIp(request);
-
-            if ("/login".equals(path)) {
-                Bucket bucket = loginBuckets.computeIfAbsent(clientIp, k -> createLoginBucket());
-                if (!bucket.tryConsume(1)) {
-                    response.setStatus(429);
-                    response.setContentType("application/json");
-                    response.getWriter().write("{\"message\":\"Too many login attempts. Please try again later.\"}");
-                    return;
-                }
-            } else if ("/api/auth/register".equals(path)) {
-                Bucket bucket = registerBuckets.computeIfAbsent(clientIp, k -> createRegisterBucket());
-                if (!bucket.tryConsume(1)) {
-                    response.setStatus(429);
-                    response.setContentType("application/json");
-                    response.getWriter().write("{\"message\":\"Too many registration attempts. Please try again later.\"}");
-                    return;
-                }
-            }
+        RateLimitService.Rejection rejection = rateLimitService.tryAcquire(
+                request.getMethod(), request.getRequestURI(), getClientIp(request), getUsername());
+        if (rejection != null) {
+            response.setStatus(429);
+            response.setHeader("Retry-After", String.valueOf(rejection.getRetryAfterSeconds()));
+            response.setContentType("application/json");
+            response.getWriter().write("{\"message\":\"" + rejection.getPolicy().getMessage() + "\"}");
+            return;
         }
 
         filterChain.doFilter(request, response);
     }
 
+    // Runs after the session's security context is restored, so signed-in callers are known here
+    private String getUsername() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || auth instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return auth.getName();
+    }
+
     private String getClientIp(HttpServletRequest request) {
-        // Support reverse proxy X-Forwarded-For (production LB)
+        String remoteAddr = request.getRemoteAddr();
+        if (!trustedProxies.contains(remoteAddr)) {
+            return remoteAddr;
+        }
+        // Walk back from the nearest hop: the first address not added by one of our proxies is the client
         String xff = request.getHeader("X-Forwarded-For");
         if (xff != null && !xff.isBlank()) {
-            return xff.split(",")[0].trim();
+            String[] hops = xff.split(",");
+            for (int i = hops.length - 1; i >= 0; i--) {
+                String hop = hops[i].trim();
+                if (!hop.isEmpty() && (!trustedProxies.contains(hop) || i == 0)) {
+                    return hop;
+                }
+            }
         }
         String realIp = request.getHeader("X-Real-IP");
         if (realIp != null && !realIp.isBlank()) {
             return realIp.trim();
         }
-        return request.getRemoteAddr();
+        return remoteAddr;
     }
 }
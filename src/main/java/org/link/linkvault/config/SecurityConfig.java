@@ -47,13 +47,13 @@ public class SecurityConfig {
                 .antMatchers("/css/**", "/js/**", "/files/**", "/login", "/register", "/error").permitAll()
                 .antMatchers("/api/auth/register", "/api/auth/validate-code", "/api/auth/privacy-policy").permitAll()
                 // Guest access: read-only pages
-                .antMatchers(HttpMethod.GET, "/", "/map", "/bookmark/**", "/search", "/tag/**",
+                .antMatchers(HttpMethod.GET, "/", "/feed/more", "/map", "/bookmark/**", "/search", "/tag/**",
                         "/qna", "/qna/**", "/announcements", "/announcements/**",
                         "/transparency", "/transparency/**",
                         "/policies/**").permitAll()
                 // Guest read-only APIs
-                .antMatchers(HttpMethod.GET, "/api/search").permitAll()
-                .antMatchers(HttpMethod.GET, "/api/comments/bookmark/**", "/api/comments/announcement/**").permitAll()
+                .antMatchers(HttpMethod.GET, "/api/search", "/api/search/suggest").permitAll()
+                .antMatchers(HttpMethod.GET, "/api/comments/bookmark/**", "/api/comments/announcement/**", "/api/comments/*/replies").permitAll()
                 // Guest event tracking + ad feedback
                 .antMatchers(HttpMethod.POST, "/api/guest/event").permitAll()
                 .antMatchers(HttpMethod.POST, "/api/ad/hide").permitAll()
@@ -9,6 +9,7 @@ import org.link.linkvault.service.*;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -20,6 +21,7 @@ import javax.validation.Valid;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import org.springframework.validation.annotation.Validated;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -44,14 +46,22 @@ public class AdminApiController {
     private final PrivacyPolicyService privacyPolicyService;
     private final ReportService reportService;
     private final SystemSettingsService systemSettingsService;
-    private final FileVaultService fileVaultService;
     private final TransparencyReportService transparencyReportService;
     private final MonetizationStatsService monetizationStatsService;
     private final GuestEventService guestEventService;
+    private final PhotoVariantService photoVariantService;
     private final StripeService stripeService;
     private final org.link.linkvault.repository.AdFreePassRepository adFreePassRepository;
     private final AccountLockoutService accountLockoutService;
     private final GuidelineStepService guidelineStepService;
+    private final MetadataEnricher metadataEnricher;
+    private final CacheStatsService cacheStatsService;
+    private final AuditLogService auditLogService;
+    private final AuditRetentionService auditRetentionService;
+    private final NotificationDispatcher notificationDispatcher;
+    private final NotificationPushRegistry notificationPushRegistry;
+    private final UnreadCounterService unreadCounterService;
+    private final RateLimitService rateLimitService;
 
     // --- User CRUD ---
 
@@ -145,8 +155,101 @@ public class AdminApiController {
         return ResponseEntity.ok(systemStatsService.getSystemStats());
     }
 
+    @GetMapping("/stats/bookmarks-per-day")
+    @PreAuthorize("hasAuthority('VIEW_STATS')")
+    public ResponseEntity<Map<LocalDate, Long>> getBookmarksPerDay(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(systemStatsService.getBookmarksPerDay(from, to));
+    }
+
+    @GetMapping("/stats/metadata")
+    @PreAuthorize("hasAuthority('VIEW_STATS')")
+    public ResponseEntity<MetadataEnrichmentStatsDto> getMetadataStats() {
+        return ResponseEntity.ok(metadataEnricher.getStats());
+    }
+
+    @GetMapping("/stats/caches")
+    @PreAuthorize("hasAuthority('VIEW_STATS')")
+    public ResponseEntity<List<CacheStatsDto>> getCacheStats() {
+        return ResponseEntity.ok(cacheStatsService.getAllCacheStats());
+    }
+
+    @GetMapping("/stats/audit-writer")
+    @PreAuthorize("hasAuthority('VIEW_STATS')")
+    public ResponseEntity<AuditWriterStatsDto> getAuditWriterStats() {
+        return ResponseEntity.ok(auditLogService.getWriterStats());
+    }
+
+    @GetMapping("/stats/notifications")
+    @PreAuthorize("hasAuthority('VIEW_STATS')")
+    public ResponseEntity<NotificationDispatchStatsDto> getNotificationStats() {
+        return ResponseEntity.ok(notificationDispatcher.getStats());
+    }
+
+    @GetMapping("/stats/push")
+    @PreAuthorize("hasAuthority('VIEW_STATS')")
+    public ResponseEntity<PushStatsDto> getPushStats() {
+        return ResponseEntity.ok(notificationPushRegistry.getStats());
+    }
+
+    @GetMapping("/stats/unread-counters")
+    @PreAuthorize("hasAuthority('VIEW_STATS')")
+    public ResponseEntity<UnreadCounterStatsDto> getUnreadCounterStats() {
+        return ResponseEntity.ok(unreadCounterService.getStats());
+    }
+
+    @GetMapping("/stats/rate-limit")
+    @PreAuthorize("hasAuthority('VIEW_STATS')")
+    public ResponseEntity<RateLimitStatsDto> getRateLimitStats() {
+        return ResponseEntity.ok(rateLimitService.getStats());
+    }
+
+    @PostMapping("/unread-counters/reconcile")
+    @PreAuthorize("hasAuthority('SYSTEM_SETTINGS')")
+    public ResponseEntity<UnreadCounterStatsDto> reconcileUnreadCounters() {
+        return ResponseEntity.ok(unreadCounterService.reconcile());
+    }
+
+    // --- Audit Retention ---
+
+    @PostMapping("/audit/retention/run")
+    @PreAuthorize("hasAuthority('SYSTEM_SETTINGS')")
+    public ResponseEntity<AuditRetentionResultDto> runAuditRetention(@AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(auditRetentionService.runRetention(userDetails.getUsername()));
+    }
+
+    @GetMapping("/audit/retention")
+    @PreAuthorize("hasAuthority('AUDIT_VIEW')")
+    public ResponseEntity<AuditRetentionResultDto> getLastAuditRetention() {
+        AuditRetentionResultDto lastRun = auditRetentionService.getLastRun();
+        return lastRun != null ? ResponseEntity.ok(lastRun) : ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/audit/archive")
+    @PreAuthorize("hasAuthority('AUDIT_VIEW')")
+    public ResponseEntity<List<AuditLogResponseDto>> searchAuditArchive(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String actor,
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) Long entityId,
+            @RequestParam(defaultValue = "100") @Min(1) @Max(500) int limit) {
+        return ResponseEntity.ok(auditRetentionService.searchArchive(from, to, action, actor, entityType, entityId, limit));
+    }
+
     // --- Bookmark Management ---
 
+    @GetMapping("/bookmarks/feed")
+    @PreAuthorize("hasAuthority('MANAGE_BOOKMARKS')")
+    public ResponseEntity<CursorPageDto<BookmarkResponseDto>> getBookmarkFeed(
+            @RequestParam(defaultValue = "NEWEST") FeedCursor.Sort sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size) {
+        return ResponseEntity.ok(bookmarkService.findFeedForAdmin(sort, cursor, size));
+    }
+
     @DeleteMapping("/bookmarks/{id}")
     @PreAuthorize("hasAuthority('BOOKMARK_DELETE_ANY')")
     public ResponseEntity<Void> deleteBookmark(
@@ -527,9 +630,6 @@ public class AdminApiController {
             @AuthenticationPrincipal UserDetails userDetails) {
         String value = body.get("value");
         var updated = systemSettingsService.updateValue(key, value, userDetails.getUsername());
-        if (key.startsWith("file-vault.")) {
-            fileVaultService.reloadSettings();
-        }
         return ResponseEntity.ok(SystemSettingsResponseDto.from(updated));
     }
 
@@ -603,6 +703,25 @@ public class AdminApiController {
         return ResponseEntity.ok(guestEventService.getFunnelStats(from, to));
     }
 
+    @GetMapping("/stats/guest-events")
+    @PreAuthorize("hasAuthority('VIEW_STATS')")
+    public ResponseEntity<GuestEventStatsDto> getGuestEventStats() {
+        return ResponseEntity.ok(guestEventService.getStats());
+    }
+
+    @GetMapping("/stats/photo-variants")
+    @PreAuthorize("hasAuthority('VIEW_STATS')")
+    public ResponseEntity<PhotoVariantStatsDto> getPhotoVariantStats() {
+        return ResponseEntity.ok(photoVariantService.getStats());
+    }
+
+    @PostMapping("/guest-analytics/rollup")
+    @PreAuthorize("hasAuthority('SYSTEM_SETTINGS')")
+    public ResponseEntity<GuestEventStatsDto> rollupGuestEvents() {
+        guestEventService.rollupClosedHours();
+        return ResponseEntity.ok(guestEventService.getStats());
+    }
+
     // --- Account Lockout Management ---
 
     @GetMapping("/users/locked")
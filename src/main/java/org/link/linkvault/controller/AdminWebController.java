@@ -37,6 +37,7 @@ public class AdminWebController {
     private final MonetizationStatsService monetizationStatsService;
     private final GuestEventService guestEventService;
     private final TransparencyReportService transparencyReportService;
+    private final CacheStatsService cacheStatsService;
     private final Environment env;
 
     @GetMapping
@@ -44,6 +45,7 @@ public class AdminWebController {
     public String dashboard(Model model) {
         SystemStatsDto stats = systemStatsService.getSystemStats();
         model.addAttribute("stats", stats);
+        model.addAttribute("caches", cacheStatsService.getAllCacheStats());
         return "admin/dashboard";
     }
 
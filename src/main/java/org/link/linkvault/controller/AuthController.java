@@ -1,6 +1,7 @@
 package org.link.linkvault.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.link.linkvault.config.PrivacyConsentFilter;
 import org.link.linkvault.dto.RegisterRequestDto;
 import org.link.linkvault.entity.InvitationCode;
 import org.link.linkvault.entity.User;
@@ -15,6 +16,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import java.util.Map;
 
@@ -50,7 +52,8 @@ public class AuthController {
     @PostMapping("/privacy-consent")
     public ResponseEntity<Map<String, String>> privacyConsent(
             @AuthenticationPrincipal UserDetails userDetails,
-            @RequestBody Map<String, Boolean> body) {
+            @RequestBody Map<String, Boolean> body,
+            HttpServletRequest request) {
         if (userDetails == null) {
             return ResponseEntity.status(401).body(Map.of("message", "Authentication required"));
         }
@@ -67,6 +70,7 @@ public class AuthController {
                     .orElseThrow(() -> new IllegalArgumentException("User not found"));
             user.agreeToPrivacyPolicy(activePolicy.getVersion());
             userRepository.save(user);
+            PrivacyConsentFilter.rememberAgreedVersion(request, activePolicy.getVersion());
 
             return ResponseEntity.ok(Map.of("message", "Privacy policy consent recorded"));
         }
@@ -4,9 +4,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.link.linkvault.dto.BookmarkRequestDto;
 import org.link.linkvault.dto.BookmarkResponseDto;
+import org.link.linkvault.dto.CursorPageDto;
+import org.link.linkvault.dto.MapViewportDto;
 import org.link.linkvault.entity.Role;
 import org.link.linkvault.entity.User;
 import org.link.linkvault.service.BookmarkService;
+import org.link.linkvault.service.FeedCursor;
 import org.link.linkvault.service.UserService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -44,6 +47,24 @@ public class BookmarkController {
         return ResponseEntity.ok(bookmarkService.findAll(getUser(userDetails), pageable));
     }
 
+    // Keyset-paginated public feed: no count query, pass nextCursor back for the following page
+    @GetMapping("/feed")
+    public ResponseEntity<CursorPageDto<BookmarkResponseDto>> getFeed(
+            @RequestParam(defaultValue = "NEWEST") FeedCursor.Sort sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(bookmarkService.findFeed(sort, cursor, size));
+    }
+
+    @GetMapping("/feed/mine")
+    public ResponseEntity<CursorPageDto<BookmarkResponseDto>> getMyFeed(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(defaultValue = "NEWEST") FeedCursor.Sort sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(bookmarkService.findFeedByUser(getUser(userDetails), sort, cursor, size));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<BookmarkResponseDto> getBookmark(
             @AuthenticationPrincipal UserDetails userDetails,
@@ -117,7 +138,7 @@ public class BookmarkController {
     public ResponseEntity<Page<BookmarkResponseDto>> searchBookmarks(
             @AuthenticationPrincipal UserDetails userDetails,
             @RequestParam String keyword,
-            @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
+            @PageableDefault(size = 20) Pageable pageable) {
         return ResponseEntity.ok(bookmarkService.searchByKeyword(getUser(userDetails), keyword, pageable));
     }
 
@@ -189,17 +210,33 @@ public class BookmarkController {
 
     // --- Map data ---
 
+    // Clusters or pins for the visible area; response size is bounded whatever the zoom
+    @GetMapping("/map-viewport")
+    public ResponseEntity<MapViewportDto> getMapViewport(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam double south,
+            @RequestParam double west,
+            @RequestParam double north,
+            @RequestParam double east,
+            @RequestParam int zoom,
+            @RequestParam(defaultValue = "false") boolean admin) {
+        return ResponseEntity.ok(bookmarkService.findMapViewport(south, west, north, east, zoom,
+                admin && userDetails != null && isMapAdmin(getUser(userDetails))));
+    }
+
+    // Full list of geotagged posts; kept for API clients, the discovery map uses /map-viewport
     @GetMapping("/map-data")
     public ResponseEntity<List<BookmarkResponseDto>> getMapData(
             @AuthenticationPrincipal UserDetails userDetails,
             @RequestParam(defaultValue = "false") boolean admin) {
-        if (admin && userDetails != null) {
-            User user = getUser(userDetails);
-            if (user.getRole() == Role.SUPER_ADMIN || user.getRole() == Role.COMMUNITY_ADMIN
-                    || user.getRole() == Role.MODERATOR) {
-                return ResponseEntity.ok(bookmarkService.findAllWithLocationAdmin());
-            }
+        if (admin && userDetails != null && isMapAdmin(getUser(userDetails))) {
+            return ResponseEntity.ok(bookmarkService.findAllWithLocationAdmin());
         }
         return ResponseEntity.ok(bookmarkService.findAllWithLocation());
     }
+
+    private boolean isMapAdmin(User user) {
+        return user.getRole() == Role.SUPER_ADMIN || user.getRole() == Role.COMMUNITY_ADMIN
+                || user.getRole() == Role.MODERATOR;
+    }
 }
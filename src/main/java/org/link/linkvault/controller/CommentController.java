@@ -4,9 +4,11 @@ import lombok.RequiredArgsConstructor;
 import org.link.linkvault.dto.CommentRequestDto;
 import org.link.linkvault.dto.CommentResponseDto;
 import org.link.linkvault.dto.CommentVoteResponseDto;
+import org.link.linkvault.dto.CursorPageDto;
 import org.link.linkvault.entity.User;
 import org.link.linkvault.entity.VoteType;
 import org.link.linkvault.service.CommentService;
+import org.link.linkvault.service.CommentThread;
 import org.link.linkvault.service.UserService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -16,7 +18,6 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -28,19 +29,35 @@ public class CommentController {
     private final UserService userService;
 
     @GetMapping("/bookmark/{bookmarkId}")
-    public ResponseEntity<List<CommentResponseDto>> getComments(
+    public ResponseEntity<CursorPageDto<CommentResponseDto>> getComments(
             @PathVariable Long bookmarkId,
+            @RequestParam(defaultValue = "OLDEST") CommentThread.Sort sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
             @AuthenticationPrincipal UserDetails userDetails) {
         User user = userDetails != null ? userService.getUserEntity(userDetails.getUsername()) : null;
-        return ResponseEntity.ok(commentService.getCommentsForBookmark(bookmarkId, user));
+        return ResponseEntity.ok(commentService.getThreadForBookmark(bookmarkId, user, sort, cursor, size));
     }
 
     @GetMapping("/announcement/{announcementId}")
-    public ResponseEntity<List<CommentResponseDto>> getAnnouncementComments(
+    public ResponseEntity<CursorPageDto<CommentResponseDto>> getAnnouncementComments(
             @PathVariable Long announcementId,
+            @RequestParam(defaultValue = "OLDEST") CommentThread.Sort sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
             @AuthenticationPrincipal UserDetails userDetails) {
         User user = userDetails != null ? userService.getUserEntity(userDetails.getUsername()) : null;
-        return ResponseEntity.ok(commentService.getCommentsForAnnouncement(announcementId, user));
+        return ResponseEntity.ok(commentService.getThreadForAnnouncement(announcementId, user, sort, cursor, size));
+    }
+
+    @GetMapping("/{id}/replies")
+    public ResponseEntity<CursorPageDto<CommentResponseDto>> getReplies(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        User user = userDetails != null ? userService.getUserEntity(userDetails.getUsername()) : null;
+        return ResponseEntity.ok(commentService.getReplies(id, user, cursor, size));
     }
 
     @PostMapping
@@ -1,8 +1,10 @@
 package org.link.linkvault.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.link.linkvault.dto.ImportJobDto;
 import org.link.linkvault.entity.User;
 import org.link.linkvault.service.ExportImportService;
+import org.link.linkvault.service.ImportJobService;
 import org.link.linkvault.service.UserService;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -11,9 +13,10 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.nio.charset.StandardCharsets;
-import java.util.Map;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/data")
@@ -21,6 +24,7 @@ import java.util.Map;
 public class ExportImportController {
 
     private final ExportImportService exportImportService;
+    private final ImportJobService importJobService;
     private final UserService userService;
 
     private User getUser(UserDetails userDetails) {
@@ -28,38 +32,54 @@ public class ExportImportController {
     }
 
     @GetMapping("/export/json")
-    public ResponseEntity<byte[]> exportJson(@AuthenticationPrincipal UserDetails userDetails) throws Exception {
-        String json = exportImportService.exportToJson(getUser(userDetails));
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=linkvault-bookmarks.json")
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(json.getBytes(StandardCharsets.UTF_8));
+    public ResponseEntity<StreamingResponseBody> exportJson(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        User user = getUser(userDetails);
+        return streamed("linkvault-bookmarks.json", MediaType.APPLICATION_JSON, gzip,
+                out -> exportImportService.exportToJson(user, out));
     }
 
     @GetMapping("/export/html")
-    public ResponseEntity<byte[]> exportHtml(@AuthenticationPrincipal UserDetails userDetails) {
-        String html = exportImportService.exportToHtml(getUser(userDetails));
+    public ResponseEntity<StreamingResponseBody> exportHtml(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        User user = getUser(userDetails);
+        return streamed("linkvault-bookmarks.html", MediaType.TEXT_HTML, gzip,
+                out -> exportImportService.exportToHtml(user, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamed(String filename, MediaType mediaType, boolean gzip,
+                                                           StreamingResponseBody writer) {
+        StreamingResponseBody body = !gzip ? writer : out -> {
+            GZIPOutputStream compressed = new GZIPOutputStream(out, 8192);
+            writer.writeTo(compressed);
+            compressed.finish();
+        };
         return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=linkvault-bookmarks.html")
-                .contentType(MediaType.TEXT_HTML)
-                .body(html.getBytes(StandardCharsets.UTF_8));
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename + (gzip ? ".gz" : ""))
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : mediaType)
+                .body(body);
     }
 
     @PostMapping("/import/json")
-    public ResponseEntity<Map<String, Object>> importJson(
+    public ResponseEntity<ImportJobDto> importJson(
             @AuthenticationPrincipal UserDetails userDetails,
-            @RequestParam("file") MultipartFile file) throws Exception {
-        String json = new String(file.getBytes(), StandardCharsets.UTF_8);
-        int count = exportImportService.importFromJson(getUser(userDetails), json);
-        return ResponseEntity.ok(Map.of("imported", count, "message", count + " bookmarks imported successfully"));
+            @RequestParam("file") MultipartFile file) throws IOException {
+        return ResponseEntity.accepted().body(importJobService.submit(getUser(userDetails), "json", file));
     }
 
     @PostMapping("/import/html")
-    public ResponseEntity<Map<String, Object>> importHtml(
+    public ResponseEntity<ImportJobDto> importHtml(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam("file") MultipartFile file) throws IOException {
+        return ResponseEntity.accepted().body(importJobService.submit(getUser(userDetails), "html", file));
+    }
+
+    @GetMapping("/import/jobs/{jobId}")
+    public ResponseEntity<ImportJobDto> getImportJob(
             @AuthenticationPrincipal UserDetails userDetails,
-            @RequestParam("file") MultipartFile file) throws Exception {
-        String html = new String(file.getBytes(), StandardCharsets.UTF_8);
-        int count = exportImportService.importFromHtml(getUser(userDetails), html);
-        return ResponseEntity.ok(Map.of("imported", count, "message", count + " bookmarks imported from HTML"));
+            @PathVariable String jobId) {
+        return ResponseEntity.ok(importJobService.getJob(getUser(userDetails), jobId));
     }
 }
@@ -1,6 +1,7 @@
 package org.link.linkvault.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.link.linkvault.entity.PhotoVariant;
 import org.link.linkvault.service.FileVaultService;
 import org.springframework.core.io.Resource;
 import org.springframework.http.CacheControl;
@@ -10,6 +11,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.io.IOException;
@@ -25,8 +27,20 @@ public class FileController {
     private final FileVaultService fileVaultService;
 
     @GetMapping("/photos/{filename}")
-    public ResponseEntity<Resource> servePhoto(@PathVariable String filename) throws IOException {
-        Resource resource = fileVaultService.loadAsResource(filename);
+    public ResponseEntity<Resource> servePhoto(@PathVariable String filename,
+                                               @RequestParam(required = false) String size) throws IOException {
+        Resource resource = null;
+        boolean fallback = false;
+        if (!FileVaultService.isVariantFilename(filename)) {
+            // Without a known ?size= the metadata-free full variant stands in for the original once it exists
+            PhotoVariant requested = PhotoVariant.fromParam(size);
+            resource = fileVaultService.loadVariantAsResource(filename, requested != null ? requested : PhotoVariant.FULL);
+            // Variant not generated yet: serve the original, but only cache it briefly so clients pick up the variant
+            fallback = resource == null;
+        }
+        if (resource == null) {
+            resource = fileVaultService.loadAsResource(filename);
+        }
         String contentType = Files.probeContentType(Path.of(resource.getFile().getAbsolutePath()));
         if (contentType == null) {
             contentType = "application/octet-stream";
@@ -34,7 +48,9 @@ public class FileController {
 
         return ResponseEntity.ok()
                 .contentType(MediaType.parseMediaType(contentType))
-                .cacheControl(CacheControl.maxAge(30, TimeUnit.DAYS).cachePublic())
+                .cacheControl(fallback
+                        ? CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic()
+                        : CacheControl.maxAge(30, TimeUnit.DAYS).cachePublic())
                 .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + resource.getFilename() + "\"")
                 .body(resource);
     }
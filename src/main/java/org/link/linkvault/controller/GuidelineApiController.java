@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.link.linkvault.dto.GuidelineStepResponseDto;
 import org.link.linkvault.entity.User;
 import org.link.linkvault.service.GuidelineStepService;
+import org.link.linkvault.service.SettingsSnapshot;
 import org.link.linkvault.service.SystemSettingsService;
 import org.link.linkvault.service.UserService;
 import org.link.linkvault.service.UserSettingsService;
@@ -35,22 +36,22 @@ public class GuidelineApiController {
             return ResponseEntity.ok(Map.of("enabled", false));
         }
 
-        boolean enabled = "true".equals(systemSettingsService.getValue("guideline.enabled").orElse("false"));
+        SettingsSnapshot settings = systemSettingsService.snapshot();
+        boolean enabled = settings.getBoolean("guideline.enabled", false);
         if (!enabled) {
             return ResponseEntity.ok(Map.of("enabled", false));
         }
 
         User user = userService.getUserEntity(userDetails.getUsername());
         boolean completed = userSettingsService.isGuidelinesCompleted(user);
-        boolean firstLoginOnly = "true".equals(systemSettingsService.getValue("guideline.first-login-only").orElse("true"));
+        boolean firstLoginOnly = settings.getBoolean("guideline.first-login-only", true);
 
         if (completed && firstLoginOnly) {
             return ResponseEntity.ok(Map.of("enabled", false, "completed", true));
         }
 
         // Check per-screen toggle
-        boolean screenEnabled = "true".equals(
-                systemSettingsService.getValue("guideline.screen." + screen + ".enabled").orElse("false"));
+        boolean screenEnabled = settings.getBoolean("guideline.screen." + screen + ".enabled", false);
 
         List<GuidelineStepResponseDto> steps = guidelineStepService.findEnabledByScreen(screen);
 
@@ -58,10 +59,10 @@ public class GuidelineApiController {
         result.put("enabled", true);
         result.put("completed", completed);
         result.put("screenEnabled", screenEnabled);
-        result.put("dismissible", "true".equals(systemSettingsService.getValue("guideline.dismissible").orElse("true")));
-        result.put("displayMode", systemSettingsService.getValue("guideline.default-mode").orElse("TOOLTIP"));
-        result.put("welcomeTitle", systemSettingsService.getValue("guideline.welcome.title").orElse("Welcome to LinkVault!"));
-        result.put("welcomeDescription", systemSettingsService.getValue("guideline.welcome.description").orElse(""));
+        result.put("dismissible", settings.getBoolean("guideline.dismissible", true));
+        result.put("displayMode", settings.getString("guideline.default-mode", "TOOLTIP"));
+        result.put("welcomeTitle", settings.getString("guideline.welcome.title", "Welcome to LinkVault!"));
+        result.put("welcomeDescription", settings.getString("guideline.welcome.description", ""));
         result.put("steps", steps);
         return ResponseEntity.ok(result);
     }
@@ -1,17 +1,22 @@
 package org.link.linkvault.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.link.linkvault.dto.ChromeSummaryDto;
 import org.link.linkvault.dto.NotificationResponseDto;
 import org.link.linkvault.entity.User;
+import org.link.linkvault.service.ChromeSummaryService;
+import org.link.linkvault.service.NotificationPushRegistry;
 import org.link.linkvault.service.NotificationService;
 import org.link.linkvault.service.UserService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Map;
 
@@ -22,6 +27,8 @@ public class NotificationController {
 
     private final NotificationService notificationService;
     private final UserService userService;
+    private final ChromeSummaryService chromeSummaryService;
+    private final NotificationPushRegistry notificationPushRegistry;
 
     @GetMapping
     public ResponseEntity<Page<NotificationResponseDto>> getNotifications(
@@ -40,6 +47,14 @@ public class NotificationController {
         return ResponseEntity.ok(Map.of("count", notificationService.getUnreadCount(user)));
     }
 
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@AuthenticationPrincipal UserDetails userDetails) {
+        User user = userService.getUserEntity(userDetails.getUsername());
+        ChromeSummaryDto summary = chromeSummaryService.getSummary(user);
+        return notificationPushRegistry.subscribe(user.getId(), user.getRole(),
+                summary.getUnreadNotificationCount(), summary.getUnreadAnnouncementCount());
+    }
+
     @PutMapping("/{id}/read")
     public ResponseEntity<Void> markAsRead(
             @AuthenticationPrincipal UserDetails userDetails,
@@ -3,14 +3,16 @@ package org.link.linkvault.controller;
 import lombok.RequiredArgsConstructor;
 import org.link.linkvault.dto.BookmarkResponseDto;
 import org.link.linkvault.dto.FolderResponseDto;
+import org.link.linkvault.dto.SuggestionDto;
 import org.link.linkvault.dto.TagResponseDto;
 import org.link.linkvault.entity.User;
 import org.link.linkvault.service.BookmarkService;
+import org.link.linkvault.service.CurrentUserResolver;
 import org.link.linkvault.service.FolderService;
 import org.link.linkvault.service.TagService;
+import org.link.linkvault.service.TypeaheadIndex;
 import org.link.linkvault.service.UserService;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -33,6 +35,8 @@ public class SearchController {
     private final TagService tagService;
     private final FolderService folderService;
     private final UserService userService;
+    private final TypeaheadIndex typeaheadIndex;
+    private final CurrentUserResolver currentUserResolver;
 
     @GetMapping
     public ResponseEntity<Map<String, Object>> search(
@@ -44,13 +48,13 @@ public class SearchController {
 
         if (userDetails == null) {
             bookmarks = bookmarkService.searchByKeywordPublic(q,
-                    PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "createdAt"))).getContent();
+                    PageRequest.of(0, 5)).getContent();
             tags = tagService.searchByName(q);
             folders = Collections.emptyList();
         } else {
             User user = userService.getUserEntity(userDetails.getUsername());
             bookmarks = bookmarkService.searchByKeyword(user, q,
-                    PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "createdAt"))).getContent();
+                    PageRequest.of(0, 5)).getContent();
             tags = tagService.searchByName(q);
             folders = folderService.searchByName(user, q);
         }
@@ -61,4 +65,24 @@ public class SearchController {
         result.put("folders", folders);
         return ResponseEntity.ok(result);
     }
+
+    // --- Prefix completion (served from in-memory indexes, no DB scans per keystroke) ---
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Map<String, Object>> suggest(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "5") int limit) {
+        int size = Math.max(1, Math.min(limit, TypeaheadIndex.MAX_SUGGESTIONS));
+        User user = currentUserResolver.getCurrentUser();
+
+        List<SuggestionDto> folders = user != null
+                ? typeaheadIndex.suggestFolders(user, q, size)
+                : Collections.emptyList();
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("bookmarks", typeaheadIndex.suggestBookmarks(user, q, size));
+        result.put("tags", typeaheadIndex.suggestTags(q, size));
+        result.put("folders", folders);
+        return ResponseEntity.ok(result);
+    }
 }
@@ -1,7 +1,9 @@
 package org.link.linkvault.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.link.linkvault.config.PrivacyConsentFilter;
 import org.link.linkvault.dto.BookmarkResponseDto;
+import org.link.linkvault.dto.CursorPageDto;
 import org.link.linkvault.dto.FolderResponseDto;
 import org.link.linkvault.dto.PrivacyPolicyResponseDto;
 import org.link.linkvault.entity.User;
@@ -9,7 +11,6 @@ import org.link.linkvault.service.*;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Controller;
@@ -42,8 +43,7 @@ public class WebController {
     private final AdPolicyService adPolicyService;
 
     private boolean isGuestAccessEnabled() {
-        return systemSettingsService.getValue("feature.guest-access-enabled")
-                .map("true"::equals).orElse(false);
+        return systemSettingsService.snapshot().getBoolean("feature.guest-access-enabled", false);
     }
 
     private void populateGuestModel(Model model) {
@@ -61,9 +61,12 @@ public class WebController {
     }
 
     @GetMapping("/privacy-consent")
-    public String privacyConsent(@AuthenticationPrincipal UserDetails userDetails, Model model) {
+    public String privacyConsent(@AuthenticationPrincipal UserDetails userDetails, Model model,
+                                 HttpServletRequest request) {
         User currentUser = userService.getUserEntity(userDetails.getUsername());
         PrivacyPolicyResponseDto policy = privacyPolicyService.getActivePolicy();
+        // Consent given from another session reaches this one here, ending the redirect
+        PrivacyConsentFilter.rememberAgreedVersion(request, currentUser.getPrivacyAgreedVersion());
 
         // Already consented → redirect to home
         if (policy != null && currentUser.getPrivacyAgreedVersion() != null
@@ -91,33 +94,49 @@ public class WebController {
     @GetMapping("/")
     public String home(
             @AuthenticationPrincipal UserDetails userDetails,
-            @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             Model model,
             HttpServletRequest request) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-
         if (userDetails == null) {
             if (!isGuestAccessEnabled()) return "redirect:/login";
-            Page<BookmarkResponseDto> bookmarks = bookmarkService.findAllPublic(pageable);
+            CursorPageDto<BookmarkResponseDto> feed = bookmarkService.findFeed(FeedCursor.Sort.NEWEST, null, size);
             populateGuestModel(model);
-            populateAdModel(model, null, bookmarks.getNumberOfElements(), request);
-            model.addAttribute("bookmarks", bookmarks);
+            populateAdModel(model, null, feed.getContent().size(), request);
+            model.addAttribute("feed", feed);
             model.addAttribute("pageTitle", "Feed");
             model.addAttribute("frequent", Collections.emptyList());
             return "index";
         }
 
         User currentUser = userService.getUserEntity(userDetails.getUsername());
-        Page<BookmarkResponseDto> bookmarks = bookmarkService.findAll(currentUser, pageable);
+        CursorPageDto<BookmarkResponseDto> feed = bookmarkService.findFeed(FeedCursor.Sort.NEWEST, null, size);
         populateCommonModel(model, currentUser);
-        populateAdModel(model, currentUser, bookmarks.getNumberOfElements(), request);
-        model.addAttribute("bookmarks", bookmarks);
+        populateAdModel(model, currentUser, feed.getContent().size(), request);
+        model.addAttribute("feed", feed);
         model.addAttribute("pageTitle", "Feed");
         model.addAttribute("frequent", bookmarkService.findFrequentlyAccessed(currentUser, 5));
         return "index";
     }
 
+    // Next slice of the home feed as post-card HTML, appended by the infinite scroll in app.js
+    @GetMapping("/feed/more")
+    public String feedMore(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            Model model,
+            HttpServletRequest request) {
+        if (userDetails == null && !isGuestAccessEnabled()) return "redirect:/login";
+        User currentUser = userDetails != null ? userService.getUserEntity(userDetails.getUsername()) : null;
+        CursorPageDto<BookmarkResponseDto> feed = bookmarkService.findFeed(FeedCursor.Sort.NEWEST, cursor, size);
+        // Cards compare their owner to currentUser for the Edit/Del buttons, and ads continue past page 1
+        model.addAttribute("currentUser", currentUser != null ? currentUser.getUsername() : null);
+        model.addAttribute("isGuest", currentUser == null);
+        populateAdModel(model, currentUser, feed.getContent().size(), request, false);
+        model.addAttribute("feed", feed);
+        return "index :: feedItems";
+    }
+
     @GetMapping("/folder/{id}")
     public String folderView(
             @AuthenticationPrincipal UserDetails userDetails,
@@ -166,7 +185,8 @@ public class WebController {
             @RequestParam(defaultValue = "20") int size,
             Model model,
             HttpServletRequest request) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+        // Search results are ranked by relevance
+        Pageable pageable = PageRequest.of(page, size);
 
         if (userDetails == null) {
             if (!isGuestAccessEnabled()) return "redirect:/login";
@@ -366,16 +386,15 @@ public class WebController {
         model.addAttribute("pageTitle", "Settings");
 
         // Feature flags for conditional tab visibility
-        boolean adsEnabled = systemSettingsService.getValue("feature.ads-enabled")
-                .map("true"::equals).orElse(false);
-        boolean donationsEnabled = systemSettingsService.getValue("feature.donations-enabled")
-                .map("true"::equals).orElse(false);
+        SettingsSnapshot systemSettings = systemSettingsService.snapshot();
+        boolean adsEnabled = systemSettings.getBoolean("feature.ads-enabled", false);
+        boolean donationsEnabled = systemSettings.getBoolean("feature.donations-enabled", false);
         model.addAttribute("subscriptionTabEnabled", adsEnabled);
         model.addAttribute("supportTabEnabled", donationsEnabled);
 
         // Donation amounts from SystemSettings (comma-separated dollar values)
-        String oneTimeRaw = systemSettingsService.getValue("donation.one-time-amounts").orElse("5,10,25,50");
-        String recurringRaw = systemSettingsService.getValue("donation.recurring-amounts").orElse("3,5,10");
+        String oneTimeRaw = systemSettings.getString("donation.one-time-amounts", "5,10,25,50");
+        String recurringRaw = systemSettings.getString("donation.recurring-amounts", "3,5,10");
         model.addAttribute("donationOneTimeAmounts", parseAmounts(oneTimeRaw));
         model.addAttribute("donationRecurringAmounts", parseAmounts(recurringRaw));
         return "settings";
@@ -396,6 +415,12 @@ public class WebController {
     }
 
     private void populateAdModel(Model model, User currentUser, int totalPosts, HttpServletRequest request) {
+        populateAdModel(model, currentUser, totalPosts, request, true);
+    }
+
+    // A further feed slice is part of the same page view, so it reads the guest count without bumping it
+    private void populateAdModel(Model model, User currentUser, int totalPosts, HttpServletRequest request,
+                                 boolean newPageView) {
         boolean adsEnabled = adPolicyService.isAdsEnabled();
         boolean isAdFree = currentUser != null && adPolicyService.isAdFree(currentUser);
         boolean isGuest = currentUser == null;
@@ -409,8 +434,10 @@ public class WebController {
             if (isGuest && request != null) {
                 Integer pageViews = (Integer) request.getSession().getAttribute("guestPageViews");
                 if (pageViews == null) pageViews = 0;
-                pageViews++;
-                request.getSession().setAttribute("guestPageViews", pageViews);
+                if (newPageView) {
+                    pageViews++;
+                    request.getSession().setAttribute("guestPageViews", pageViews);
+                }
                 sessionPageViews = pageViews;
             }
             model.addAttribute("adPositions", adPolicyService.getAdInsertionPositions(totalPosts, isGuest, sessionPageViews));
@@ -0,0 +1,21 @@
+package org.link.linkvault.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Builder
+public class AuditRetentionResultDto {
+
+    private String deleteMode;
+    private LocalDateTime cutoff;
+    private LocalDateTime startedAt;
+    private long rowsArchived;
+    private long rowsDeleted;
+    private int chunks;
+    private List<String> archiveFiles;
+    private long durationMs;
+}
@@ -0,0 +1,22 @@
+package org.link.linkvault.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class AuditWriterStatsDto {
+
+    private String writeMode;
+    private int queueDepth;
+    private int queueCapacity;
+    private long enqueued;
+    private long written;
+    private long syncWritten;
+    private long dropped;
+    private long failed;
+    private long batches;
+    private long lastBatchSize;
+    private long maxBatchSize;
+    private double avgBatchSize;
+}
@@ -3,6 +3,7 @@ package org.link.linkvault.dto;
 import lombok.Builder;
 import lombok.Getter;
 import org.link.linkvault.entity.Bookmark;
+import org.link.linkvault.entity.MetadataStatus;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -11,7 +12,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 @Getter
-@Builder
+@Builder(toBuilder = true)
 public class BookmarkResponseDto {
 
     private Long id;
@@ -19,6 +20,7 @@ public class BookmarkResponseDto {
     private String url;
     private String description;
     private String favicon;
+    private MetadataStatus metadataStatus;
     private Set<String> tagNames;
     private Long folderId;
     private String folderName;
@@ -39,6 +41,7 @@ public class BookmarkResponseDto {
     private boolean privatePost;
     private List<PhotoResponseDto> photos;
     private String leadPhotoUrl;
+    private String leadThumbnailUrl;
     private boolean ownerSupporter;
 
     public static BookmarkResponseDto from(Bookmark bookmark) {
@@ -48,7 +51,8 @@ public class BookmarkResponseDto {
                     .collect(Collectors.toList())
                 : Collections.emptyList();
 
-        String leadPhoto = photoDtos.isEmpty() ? null : photoDtos.get(0).getUrl();
+        String leadPhoto = photoDtos.isEmpty() ? null : photoDtos.get(0).getFeedUrl();
+        String leadThumbnail = photoDtos.isEmpty() ? null : photoDtos.get(0).getThumbnailUrl();
 
         return BookmarkResponseDto.builder()
                 .id(bookmark.getId())
@@ -56,6 +60,7 @@ public class BookmarkResponseDto {
                 .url(bookmark.getUrl())
                 .description(bookmark.getDescription())
                 .favicon(bookmark.getFavicon())
+                .metadataStatus(bookmark.getMetadataStatus())
                 .tagNames(bookmark.getTags().stream()
                         .map(tag -> tag.getName())
                         .collect(Collectors.toSet()))
@@ -76,6 +81,7 @@ public class BookmarkResponseDto {
                 .privatePost(bookmark.isPrivatePost())
                 .photos(photoDtos)
                 .leadPhotoUrl(leadPhoto)
+                .leadThumbnailUrl(leadThumbnail)
                 .ownerSupporter(bookmark.getUser() != null && bookmark.getUser().isSupporter())
                 .build();
     }
@@ -0,0 +1,31 @@
+package org.link.linkvault.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+
+@Getter
+@Builder
+public class ChromeSummaryDto {
+
+    private static final ChromeSummaryDto ANONYMOUS = ChromeSummaryDto.builder()
+            .favorites(Collections.emptyList())
+            .theme("DARK")
+            .build();
+
+    private long savedCount;
+    private List<FavoriteBookmarkResponseDto> favorites;
+    private long unreadNotificationCount;
+    private long unreadAnnouncementCount;
+    private String theme;
+
+    public static ChromeSummaryDto anonymous() {
+        return ANONYMOUS;
+    }
+
+    public boolean hasFavorite(Long bookmarkId) {
+        return favorites.stream().anyMatch(f -> f.getBookmarkId().equals(bookmarkId));
+    }
+}
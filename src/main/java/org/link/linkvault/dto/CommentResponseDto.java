@@ -25,6 +25,10 @@ public class CommentResponseDto {
     private int dislikeCount;
     private int score;
     private int replyCount;
+    private int directReplyCount;
+    // Set when only some direct replies are included; fetch the rest from /api/comments/{id}/replies
+    private boolean hasMoreReplies;
+    private String repliesCursor;
     private boolean deleted;
     private boolean edited;
     private LocalDateTime createdAt;
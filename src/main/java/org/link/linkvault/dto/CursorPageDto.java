@@ -0,0 +1,16 @@
+package org.link.linkvault.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+// One slice of a keyset-paginated feed; pass nextCursor back to get the following slice
+@Getter
+@Builder
+public class CursorPageDto<T> {
+
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+}
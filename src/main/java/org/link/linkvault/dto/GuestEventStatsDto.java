@@ -0,0 +1,25 @@
+package org.link.linkvault.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Builder
+public class GuestEventStatsDto {
+
+    private int queueDepth;
+    private long enqueued;
+    private long written;
+    private long dropped;
+    private long failed;
+    private long batches;
+    private long throttled;
+    private LocalDateTime rollupWatermark;
+    private LocalDateTime lastRollupAt;
+    private int lastRollupHours;
+    private long lastRollupEvents;
+    private long lastPrunedEvents;
+    private long lastRollupDurationMs;
+}
@@ -0,0 +1,28 @@
+package org.link.linkvault.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Builder
+public class ImportJobDto {
+
+    private String id;
+    private String format;
+    private String status;
+    private long totalBytes;
+    private long bytesRead;
+    private long processed;
+    private long imported;
+    private long skipped;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+
+    public int getPercent() {
+        if ("COMPLETED".equals(status)) return 100;
+        return totalBytes <= 0 ? 0 : (int) Math.min(99, bytesRead * 100 / totalBytes);
+    }
+}
@@ -0,0 +1,14 @@
+package org.link.linkvault.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class MapClusterDto {
+
+    // Centroid of the clustered posts
+    private double latitude;
+    private double longitude;
+    private long count;
+}
@@ -0,0 +1,17 @@
+package org.link.linkvault.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+// Just enough to draw a marker; the popup loads the full bookmark on demand
+@Getter
+@Builder
+public class MapPinDto {
+
+    private long id;
+    private double latitude;
+    private double longitude;
+    private String mapEmoji;
+    private String title;
+    private boolean privatePost;
+}
@@ -0,0 +1,17 @@
+package org.link.linkvault.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class MapViewportDto {
+
+    private int zoom;
+    private boolean clustered;
+    private long totalCount;
+    private List<MapClusterDto> clusters;
+    private List<MapPinDto> pins;
+}
@@ -0,0 +1,22 @@
+package org.link.linkvault.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class MetadataEnrichmentStatsDto {
+
+    private int queueDepth;
+    private int scheduledRetries;
+    private int activeFetches;
+    private long pendingBookmarks;
+    private long submitted;
+    private long completed;
+    private long failed;
+    private long retried;
+    private long rejected;
+    private long fetchCount;
+    private double avgFetchMs;
+    private double maxFetchMs;
+}
@@ -0,0 +1,20 @@
+package org.link.linkvault.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class NotificationDispatchStatsDto {
+
+    private int queueDepth;
+    private int queueCapacity;
+    private long received;
+    private long dropped;
+    private long batches;
+    private long inserted;
+    private long merged;
+    private long coalesced;
+    private long deduplicated;
+    private long failed;
+}
@@ -18,6 +18,7 @@ public class NotificationResponseDto {
     private Long relatedBookmarkId;
     private Long relatedCommentId;
     private boolean read;
+    private int actorCount;
     private LocalDateTime createdAt;
 
     public static NotificationResponseDto from(Notification notification) {
@@ -29,6 +30,7 @@ public class NotificationResponseDto {
                 .relatedBookmarkId(notification.getRelatedBookmarkId())
                 .relatedCommentId(notification.getRelatedCommentId())
                 .read(notification.isRead())
+                .actorCount(notification.getActorCount())
                 .createdAt(notification.getCreatedAt())
                 .build();
     }
@@ -2,24 +2,40 @@ package org.link.linkvault.dto;
 
 import lombok.Builder;
 import lombok.Getter;
+import org.link.linkvault.entity.PhotoVariant;
 import org.link.linkvault.entity.PostPhoto;
 
+import java.util.Locale;
+
 @Getter
 @Builder
 public class PhotoResponseDto {
 
     private Long id;
     private String url;
+    private String feedUrl;
+    private String thumbnailUrl;
     private String originalFilename;
     private int displayOrder;
 
     public static PhotoResponseDto from(PostPhoto photo) {
-        String filename = photo.getStoragePath();
+        // Each URL points at the original until its variant has been generated
         return PhotoResponseDto.builder()
                 .id(photo.getId())
-                .url("/files/photos/" + filename)
+                .url(photoUrl(photo, PhotoVariant.FULL))
+                .feedUrl(photoUrl(photo, PhotoVariant.FEED))
+                .thumbnailUrl(photoUrl(photo, PhotoVariant.THUMBNAIL))
                 .originalFilename(photo.getOriginalFilename())
                 .displayOrder(photo.getDisplayOrder())
                 .build();
     }
+
+    private static String photoUrl(PostPhoto photo, PhotoVariant variant) {
+        String path = photo.getServedPath(variant);
+        // The bare original resolves to FULL, so smaller fallbacks name their size to get the variant once it exists
+        if (variant != PhotoVariant.FULL && path.equals(photo.getStoragePath())) {
+            return "/files/photos/" + path + "?size=" + variant.name().toLowerCase(Locale.ROOT);
+        }
+        return "/files/photos/" + path;
+    }
 }
@@ -0,0 +1,21 @@
+package org.link.linkvault.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class PhotoVariantStatsDto {
+
+    private int queueDepth;
+    private int activeJobs;
+    private long pendingPhotos;
+    private long submitted;
+    private long completed;
+    private long skipped;
+    private long failed;
+    private long rejected;
+    private long bytesIn;
+    private long bytesOut;
+    private double avgProcessMs;
+}
@@ -0,0 +1,18 @@
+package org.link.linkvault.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class PushStatsDto {
+
+    private int connections;
+    private int users;
+    private long opened;
+    private long closed;
+    private long sent;
+    private long dropped;
+    private long failedSends;
+    private long heartbeats;
+}
@@ -0,0 +1,27 @@
+package org.link.linkvault.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class RateLimitStatsDto {
+
+    private boolean enabled;
+    private String backend;
+    private List<CacheStatsDto> store;
+    private List<PolicyStats> policies;
+
+    @Getter
+    @Builder
+    public static class PolicyStats {
+        private String name;
+        private int capacity;
+        private long periodSeconds;
+        private boolean perUser;
+        private long allowed;
+        private long rejected;
+    }
+}
@@ -0,0 +1,13 @@
+package org.link.linkvault.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class SuggestionDto {
+
+    private Long id;
+    private String label;
+    private long weight;
+}
@@ -16,7 +16,7 @@ public class TagResponseDto {
         return TagResponseDto.builder()
                 .id(tag.getId())
                 .name(tag.getName())
-                .bookmarkCount(tag.getBookmarks().size())
+                .bookmarkCount(tag.getBookmarkCount())
                 .build();
     }
 }
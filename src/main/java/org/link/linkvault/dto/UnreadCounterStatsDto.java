@@ -0,0 +1,19 @@
+package org.link.linkvault.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Builder
+public class UnreadCounterStatsDto {
+
+    private long rows;
+    private long initialized;
+    private LocalDateTime lastReconciledAt;
+    private long lastChecked;
+    private long lastCorrected;
+    private long lastOrphansRemoved;
+    private long lastDurationMs;
+}
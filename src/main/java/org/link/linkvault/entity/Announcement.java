@@ -51,10 +51,11 @@ public class Announcement {
     @Column(nullable = false)
     private boolean enableVoting = false;
 
-    @Column(nullable = false)
+    // See AnnouncementRepository.applyVoteDelta
+    @Column(nullable = false, updatable = false)
     private int likeCount = 0;
 
-    @Column(nullable = false)
+    @Column(nullable = false, updatable = false)
     private int dislikeCount = 0;
 
     @OneToMany(mappedBy = "announcement", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -123,20 +124,4 @@ public class Announcement {
     public boolean shouldArchive() {
         return status == AnnouncementStatus.PUBLISHED && endAt != null && !endAt.isAfter(LocalDateTime.now());
     }
-
-    public void incrementLikeCount() {
-        this.likeCount++;
-    }
-
-    public void decrementLikeCount() {
-        if (this.likeCount > 0) this.likeCount--;
-    }
-
-    public void incrementDislikeCount() {
-        this.dislikeCount++;
-    }
-
-    public void decrementDislikeCount() {
-        if (this.dislikeCount > 0) this.dislikeCount--;
-    }
 }
@@ -16,10 +16,12 @@ import java.util.Set;
 @Table(name = "bookmarks", indexes = {
         @Index(name = "idx_bookmark_url", columnList = "url"),
         @Index(name = "idx_bookmark_title", columnList = "title"),
-        @Index(name = "idx_bookmark_folder", columnList = "folder_id"),
+        @Index(name = "idx_bookmark_folder", columnList = "folder_id, id"),
         @Index(name = "idx_bookmark_user", columnList = "user_id"),
-        @Index(name = "idx_bookmark_access_count", columnList = "accessCount"),
-        @Index(name = "idx_bookmark_created_at", columnList = "createdAt"),
+        @Index(name = "idx_bookmark_user_folder", columnList = "user_id, folder_id, id"),
+        @Index(name = "idx_bookmark_access_count", columnList = "accessCount, id"),
+        @Index(name = "idx_bookmark_created_at", columnList = "createdAt, id"),
+        @Index(name = "idx_bookmark_user_created_at", columnList = "user_id, createdAt, id"),
         @Index(name = "idx_bookmark_location", columnList = "latitude, longitude")
 })
 @Getter
@@ -42,6 +44,11 @@ public class Bookmark {
     @Column(length = 2048)
     private String favicon;
 
+    // Null for posts without a URL; PENDING until the background fetch patches the row
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private MetadataStatus metadataStatus;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
@@ -147,6 +154,17 @@ public class Bookmark {
         this.favicon = favicon;
     }
 
+    public void setMetadataStatus(MetadataStatus metadataStatus) {
+        this.metadataStatus = metadataStatus;
+    }
+
+    public void applyMetadata(String title, String description, String favicon) {
+        this.title = title;
+        this.description = description;
+        this.favicon = favicon;
+        this.metadataStatus = MetadataStatus.COMPLETE;
+    }
+
     public void setFolder(Folder folder) {
         this.folder = folder;
     }
@@ -156,14 +174,21 @@ public class Bookmark {
         this.lastAccessedAt = LocalDateTime.now();
     }
 
-    public void addTag(Tag tag) {
-        this.tags.add(tag);
-        tag.getBookmarks().add(this);
+    // Returns whether the tag was added; callers pass that on to TagUsageCounter
+    public boolean addTag(Tag tag) {
+        if (this.tags.add(tag)) {
+            tag.getBookmarks().add(this);
+            return true;
+        }
+        return false;
     }
 
-    public void removeTag(Tag tag) {
-        this.tags.remove(tag);
-        tag.getBookmarks().remove(this);
+    public boolean removeTag(Tag tag) {
+        if (this.tags.remove(tag)) {
+            tag.getBookmarks().remove(this);
+            return true;
+        }
+        return false;
     }
 
     public void incrementCommentCount() {
@@ -60,10 +60,11 @@ public class Comment {
     @Column(nullable = false)
     private int depth = 0;
 
-    @Column(nullable = false)
+    // Moved only by CommentRepository.applyVoteDelta, so an edit never writes back stale tallies
+    @Column(nullable = false, updatable = false)
     private int likeCount = 0;
 
-    @Column(nullable = false)
+    @Column(nullable = false, updatable = false)
     private int dislikeCount = 0;
 
     @Column(nullable = false, updatable = false)
@@ -106,20 +107,4 @@ public class Comment {
         }
         this.deleted = false;
     }
-
-    public void incrementLikeCount() {
-        this.likeCount++;
-    }
-
-    public void decrementLikeCount() {
-        if (this.likeCount > 0) this.likeCount--;
-    }
-
-    public void incrementDislikeCount() {
-        this.dislikeCount++;
-    }
-
-    public void decrementDislikeCount() {
-        if (this.dislikeCount > 0) this.dislikeCount--;
-    }
 }
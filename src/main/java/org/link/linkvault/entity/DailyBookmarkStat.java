@@ -0,0 +1,29 @@
+package org.link.linkvault.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Bookmarks created on one closed (past) day, as counted when the day was rolled up.
+ * Rows are written once by SystemStatsService and never updated.
+ */
+@Entity
+@Table(name = "daily_bookmark_stats")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class DailyBookmarkStat {
+
+    @Id
+    private LocalDate statDate;
+
+    @Column(nullable = false)
+    private long bookmarksCreated;
+
+    @Column(nullable = false)
+    private LocalDateTime rolledUpAt;
+}
@@ -0,0 +1,42 @@
+package org.link.linkvault.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Guest events of one type in one closed hour: the raw event count and a HyperLogLog sketch of
+ * the distinct sessions (null when there were none). Every closed hour gets a row per type, so
+ * the rollup stays contiguous. Rows are written once by GuestEventService and never updated.
+ */
+@Entity
+@Table(name = "guest_event_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_guestrollup_hour_type", columnNames = {"bucketHour", "eventType"})
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class GuestEventRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDateTime bucketHour;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private GuestEventType eventType;
+
+    @Column(nullable = false)
+    private long events;
+
+    @Column(length = 4096)
+    private byte[] sessionSketch;
+
+    @Column(nullable = false)
+    private LocalDateTime rolledUpAt;
+}
@@ -0,0 +1,5 @@
+package org.link.linkvault.entity;
+
+public enum MetadataStatus {
+    PENDING, COMPLETE, FAILED
+}
@@ -43,6 +43,10 @@ public class Notification {
     @Column(name = "is_read", nullable = false)
     private boolean read = false;
 
+    // Number of people folded into a grouped notification such as "alice and 11 others liked ..."
+    @Column(nullable = false)
+    private int actorCount = 1;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
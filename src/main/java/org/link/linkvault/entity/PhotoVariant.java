@@ -0,0 +1,41 @@
+package org.link.linkvault.entity;
+
+import java.util.Locale;
+
+/**
+ * Resized renditions generated for every uploaded photo. Widths are upper bounds; smaller
+ * originals are re-encoded at their own size and never upscaled.
+ */
+public enum PhotoVariant {
+    THUMBNAIL("thumb", 320),
+    FEED("feed", 960),
+    FULL("full", 2048);
+
+    private final String suffix;
+    private final int maxWidth;
+
+    PhotoVariant(String suffix, int maxWidth) {
+        this.suffix = suffix;
+        this.maxWidth = maxWidth;
+    }
+
+    public String getSuffix() {
+        return suffix;
+    }
+
+    public int getMaxWidth() {
+        return maxWidth;
+    }
+
+    // Lenient parse of a ?size= parameter; null for missing or unknown sizes
+    public static PhotoVariant fromParam(String value) {
+        if (value == null || value.isBlank()) return null;
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        for (PhotoVariant variant : values()) {
+            if (variant.suffix.equals(normalized) || variant.name().toLowerCase(Locale.ROOT).equals(normalized)) {
+                return variant;
+            }
+        }
+        return null;
+    }
+}
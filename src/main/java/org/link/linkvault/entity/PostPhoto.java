@@ -7,6 +7,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Entity
 @Table(name = "post_photos")
@@ -35,6 +36,17 @@ public class PostPhoto {
     @Column(nullable = false)
     private int displayOrder;
 
+    // Resized, EXIF-free renditions written by PhotoVariantService; null until it has run
+    private String thumbnailPath;
+
+    private String feedPath;
+
+    private String fullPath;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private PhotoVariantStatus variantStatus;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -52,6 +64,27 @@ public class PostPhoto {
         this.fileSize = fileSize;
         this.contentType = contentType;
         this.displayOrder = displayOrder;
+        this.variantStatus = PhotoVariantStatus.PENDING;
+    }
+
+    // File to serve for the requested size: the variant once generated, the original until then
+    public String getServedPath(PhotoVariant variant) {
+        String path = null;
+        if (variant == PhotoVariant.THUMBNAIL) path = thumbnailPath;
+        else if (variant == PhotoVariant.FEED) path = feedPath;
+        else if (variant == PhotoVariant.FULL) path = fullPath;
+        return path != null ? path : storagePath;
+    }
+
+    public void recordVariants(Map<PhotoVariant, String> paths) {
+        this.thumbnailPath = paths.get(PhotoVariant.THUMBNAIL);
+        this.feedPath = paths.get(PhotoVariant.FEED);
+        this.fullPath = paths.get(PhotoVariant.FULL);
+        this.variantStatus = PhotoVariantStatus.READY;
+    }
+
+    public void setVariantStatus(PhotoVariantStatus variantStatus) {
+        this.variantStatus = variantStatus;
     }
 
     public void setBookmark(Bookmark bookmark) {
@@ -24,6 +24,11 @@ public class Tag {
     @ManyToMany(mappedBy = "tags")
     private Set<Bookmark> bookmarks = new HashSet<>();
 
+    // Maintained by TagUsageCounter with relative UPDATEs so listings never have to load the
+    // bookmarks; never written from the entity, which would overwrite concurrent changes
+    @Column(nullable = false, updatable = false)
+    private int bookmarkCount = 0;
+
     public Tag(String name) {
         this.name = name;
     }
@@ -0,0 +1,39 @@
+package org.link.linkvault.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Materialized unread counts for one user, so page views read a row by primary key instead of
+ * counting notifications and announcement receipts. Created on first read and then moved by
+ * relative updates from the write paths; UnreadCounterService reconciles drift periodically.
+ */
+@Entity
+@Table(name = "user_unread_counters")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class UserUnreadCounter {
+
+    @Id
+    private Long userId;
+
+    @Column(nullable = false)
+    private long notifications;
+
+    @Column(nullable = false)
+    private long announcements;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    public UserUnreadCounter(Long userId, long notifications, long announcements) {
+        this.userId = userId;
+        this.notifications = notifications;
+        this.announcements = announcements;
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,29 @@
+package org.link.linkvault.event;
+
+import lombok.Getter;
+
+/**
+ * Published when a user saves or favorites someone's bookmark. Listeners run after commit.
+ */
+@Getter
+public class BookmarkEngagedEvent {
+
+    public enum Kind { SAVED, FAVORITED }
+
+    private final Kind kind;
+    private final Long bookmarkId;
+    private final String bookmarkTitle;
+    private final Long ownerId;
+    private final Long userId;
+    private final String username;
+
+    public BookmarkEngagedEvent(Kind kind, Long bookmarkId, String bookmarkTitle, Long ownerId,
+                                Long userId, String username) {
+        this.kind = kind;
+        this.bookmarkId = bookmarkId;
+        this.bookmarkTitle = bookmarkTitle;
+        this.ownerId = ownerId;
+        this.userId = userId;
+        this.username = username;
+    }
+}
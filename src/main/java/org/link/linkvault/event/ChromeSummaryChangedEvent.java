@@ -0,0 +1,35 @@
+package org.link.linkvault.event;
+
+import lombok.Getter;
+
+/**
+ * Published when data shown in the page chrome (sidebar counts, favorites, theme) changes.
+ * Listeners run after commit, so cached summaries are never refreshed from uncommitted state.
+ */
+@Getter
+public class ChromeSummaryChangedEvent {
+
+    private final Long userId;
+    private final Long bookmarkId;
+    private final boolean allUsers;
+
+    private ChromeSummaryChangedEvent(Long userId, Long bookmarkId, boolean allUsers) {
+        this.userId = userId;
+        this.bookmarkId = bookmarkId;
+        this.allUsers = allUsers;
+    }
+
+    public static ChromeSummaryChangedEvent forUser(Long userId) {
+        return new ChromeSummaryChangedEvent(userId, null, false);
+    }
+
+    // Title, URL or favicon of a bookmark changed; affects everyone who favorited it
+    public static ChromeSummaryChangedEvent forBookmark(Long bookmarkId) {
+        return new ChromeSummaryChangedEvent(null, bookmarkId, false);
+    }
+
+    // Announcement or QnA changes that apply to every user
+    public static ChromeSummaryChangedEvent forAllUsers() {
+        return new ChromeSummaryChangedEvent(null, null, true);
+    }
+}
@@ -0,0 +1,24 @@
+package org.link.linkvault.event;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Published when a comment is posted. Carries ids and display values only, so listeners that run
+ * after commit never touch the entities of the finished transaction.
+ */
+@Getter
+@Builder
+public class CommentCreatedEvent {
+
+    private final Long commentId;
+    private final Long authorId;
+    private final String authorUsername;
+    private final String content;
+    private final Long bookmarkId;
+    private final String bookmarkTitle;
+    // Author of the parent comment, if this is a reply to a comment that is still visible
+    private final Long replyToUserId;
+    // Owner of the bookmark, set for top-level comments only
+    private final Long bookmarkOwnerId;
+}
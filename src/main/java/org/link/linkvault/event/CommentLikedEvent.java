@@ -0,0 +1,24 @@
+package org.link.linkvault.event;
+
+import lombok.Getter;
+
+/**
+ * Published when a user adds a new like to a comment. Listeners run after commit.
+ */
+@Getter
+public class CommentLikedEvent {
+
+    private final Long commentId;
+    private final Long bookmarkId;
+    private final Long commentAuthorId;
+    private final Long voterId;
+    private final String voterUsername;
+
+    public CommentLikedEvent(Long commentId, Long bookmarkId, Long commentAuthorId, Long voterId, String voterUsername) {
+        this.commentId = commentId;
+        this.bookmarkId = bookmarkId;
+        this.commentAuthorId = commentAuthorId;
+        this.voterId = voterId;
+        this.voterUsername = voterUsername;
+    }
+}
@@ -0,0 +1,30 @@
+package org.link.linkvault.event;
+
+import lombok.Getter;
+
+/**
+ * Published when a system setting value is saved, or with no key once every setting has been
+ * (re)loaded at startup. Listeners run after commit and after SystemSettingsService has swapped
+ * in the new snapshot, so reading settings from the listener already sees the new value.
+ */
+@Getter
+public class SystemSettingChangedEvent {
+
+    private final String key;
+
+    public SystemSettingChangedEvent(String key) {
+        this.key = key;
+    }
+
+    public static SystemSettingChangedEvent allKeys() {
+        return new SystemSettingChangedEvent(null);
+    }
+
+    public boolean isAllKeys() {
+        return key == null;
+    }
+
+    public boolean affects(String keyOrPrefix) {
+        return key == null || key.startsWith(keyOrPrefix);
+    }
+}
@@ -0,0 +1,8 @@
+package org.link.linkvault.event;
+
+/**
+ * Published when tags are created, removed or (un)assigned, i.e. whenever a tag's name set or
+ * bookmark counts change. Listeners run after commit.
+ */
+public class TagUsageChangedEvent {
+}
@@ -5,6 +5,7 @@ import org.link.linkvault.entity.Role;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -48,4 +49,12 @@ public interface AnnouncementRepository extends JpaRepository<Announcement, Long
     long countUnreadForUser(@Param("userId") Long userId, @Param("role") Role role);
 
     List<Announcement> findByCreatedById(Long userId);
+
+    // Vote tallies only move through these relative updates, so concurrent voters never overwrite each other
+    @Modifying
+    @Query("UPDATE Announcement a SET a.likeCount = a.likeCount + :likeDelta, a.dislikeCount = a.dislikeCount + :dislikeDelta WHERE a.id = :id")
+    int applyVoteDelta(@Param("id") Long id, @Param("likeDelta") int likeDelta, @Param("dislikeDelta") int dislikeDelta);
+
+    @Query("SELECT a.likeCount, a.dislikeCount FROM Announcement a WHERE a.id = :id")
+    List<Object[]> findVoteCounts(@Param("id") Long id);
 }
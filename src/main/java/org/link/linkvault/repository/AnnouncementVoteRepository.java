@@ -1,7 +1,11 @@
 package org.link.linkvault.repository;
 
 import org.link.linkvault.entity.AnnouncementVote;
+import org.link.linkvault.entity.VoteType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
@@ -10,4 +14,13 @@ public interface AnnouncementVoteRepository extends JpaRepository<AnnouncementVo
     Optional<AnnouncementVote> findByUserIdAndAnnouncementId(Long userId, Long announcementId);
 
     void deleteByAnnouncementId(Long announcementId);
+
+    // Guarded on the type read earlier: a concurrent duplicate request matches no row and changes nothing
+    @Modifying
+    @Query("DELETE FROM AnnouncementVote v WHERE v.id = :id AND v.voteType = :voteType")
+    int deleteByIdAndVoteType(@Param("id") Long id, @Param("voteType") VoteType voteType);
+
+    @Modifying
+    @Query("UPDATE AnnouncementVote v SET v.voteType = :to WHERE v.id = :id AND v.voteType = :from")
+    int changeVoteType(@Param("id") Long id, @Param("from") VoteType from, @Param("to") VoteType to);
 }
@@ -1,6 +1,7 @@
 package org.link.linkvault.repository;
 
 import org.link.linkvault.entity.Bookmark;
+import org.link.linkvault.entity.MetadataStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
@@ -28,20 +29,113 @@ public interface BookmarkRepository extends JpaRepository<Bookmark, Long> {
     @Query("SELECT b FROM Bookmark b WHERE b.deleted = false AND b.privatePost = false")
     Page<Bookmark> findAllWithTagsAndFolder(Pageable pageable);
 
+    // --- Keyset (cursor) feeds: no OFFSET and no COUNT; the first page passes sentinel keys ---
+
+    @EntityGraph(attributePaths = {"folder"})
+    @Query("SELECT b FROM Bookmark b WHERE b.deleted = false AND b.privatePost = false " +
+            "AND (b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) " +
+            "ORDER BY b.createdAt DESC, b.id DESC")
+    List<Bookmark> findPublicFeedByCreatedAt(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"folder"})
+    @Query("SELECT b FROM Bookmark b WHERE b.deleted = false AND b.privatePost = false " +
+            "AND (b.accessCount < :accessCount OR (b.accessCount = :accessCount AND b.id < :id)) " +
+            "ORDER BY b.accessCount DESC, b.id DESC")
+    List<Bookmark> findPublicFeedByAccessCount(@Param("accessCount") int accessCount, @Param("id") Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"folder"})
+    @Query("SELECT b FROM Bookmark b WHERE b.deleted = false " +
+            "AND (b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) " +
+            "ORDER BY b.createdAt DESC, b.id DESC")
+    List<Bookmark> findAdminFeedByCreatedAt(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"folder"})
+    @Query("SELECT b FROM Bookmark b WHERE b.deleted = false " +
+            "AND (b.accessCount < :accessCount OR (b.accessCount = :accessCount AND b.id < :id)) " +
+            "ORDER BY b.accessCount DESC, b.id DESC")
+    List<Bookmark> findAdminFeedByAccessCount(@Param("accessCount") int accessCount, @Param("id") Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"folder"})
+    @Query("SELECT b FROM Bookmark b WHERE b.user.id = :userId AND b.deleted = false " +
+            "AND (b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) " +
+            "ORDER BY b.createdAt DESC, b.id DESC")
+    List<Bookmark> findUserFeedByCreatedAt(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"folder"})
+    @Query("SELECT b FROM Bookmark b WHERE b.user.id = :userId AND b.deleted = false " +
+            "AND (b.accessCount < :accessCount OR (b.accessCount = :accessCount AND b.id < :id)) " +
+            "ORDER BY b.accessCount DESC, b.id DESC")
+    List<Bookmark> findUserFeedByAccessCount(@Param("userId") Long userId, @Param("accessCount") int accessCount,
+                                             @Param("id") Long id, Pageable pageable);
+
     // --- User-scoped paginated listing ---
 
     @EntityGraph(attributePaths = {"folder"})
     @Query("SELECT b FROM Bookmark b WHERE b.user.id = :userId AND b.deleted = false")
     Page<Bookmark> findByUserId(@Param("userId") Long userId, Pageable pageable);
 
-    // --- Full-text search with pagination ---
+    // --- Search index support: hydrate ranked ids, keyset scan for rebuild ---
 
     @EntityGraph(attributePaths = {"folder"})
-    @Query("SELECT b FROM Bookmark b " +
-            "WHERE b.deleted = false AND b.privatePost = false AND (" +
-            "LOWER(b.title) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
-            "OR LOWER(b.description) LIKE LOWER(CONCAT('%', :keyword, '%')))")
-    Page<Bookmark> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
+    @Query("SELECT b FROM Bookmark b WHERE b.id IN :ids AND b.deleted = false AND b.privatePost = false")
+    List<Bookmark> findPublicByIdIn(@Param("ids") List<Long> ids);
+
+    @Query("SELECT b.id FROM Bookmark b WHERE b.deleted = false AND b.id > :afterId ORDER BY b.id")
+    List<Long> findActiveIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT DISTINCT b FROM Bookmark b LEFT JOIN FETCH b.tags WHERE b.id IN :ids")
+    List<Bookmark> findAllWithTagsByIdIn(@Param("ids") List<Long> ids);
+
+    // Typeahead rebuild: [id, title, userId, privatePost, accessCount]
+    @Query("SELECT b.id, b.title, u.id, b.privatePost, b.accessCount FROM Bookmark b LEFT JOIN b.user u " +
+            "WHERE b.deleted = false AND b.id > :afterId ORDER BY b.id")
+    List<Object[]> findTitlesForTypeahead(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Metadata enrichment resume: [id, url]
+    @Query("SELECT b.id, b.url FROM Bookmark b WHERE b.metadataStatus = :status AND b.url IS NOT NULL ORDER BY b.id")
+    List<Object[]> findIdAndUrlByMetadataStatus(@Param("status") MetadataStatus status);
+
+    long countByMetadataStatus(MetadataStatus status);
+
+    // Import duplicate check, including soft-deleted rows like existsByUrlAndUserId
+    @Query("SELECT b.url FROM Bookmark b WHERE b.user.id = :userId AND b.url IS NOT NULL")
+    List<String> findUrlsByUserId(@Param("userId") Long userId);
+
+    // Export keyset scans, one folder (or the no-folder set) at a time in id order, so each page
+    // is a range read on idx_bookmark_user_folder / idx_bookmark_folder
+    @Query("SELECT b.id FROM Bookmark b WHERE b.user.id = :userId AND b.folder IS NULL " +
+            "AND b.deleted = false AND b.id > :afterId ORDER BY b.id")
+    List<Long> findExportIdsByUserIdWithoutFolder(@Param("userId") Long userId, @Param("afterId") Long afterId,
+                                                  Pageable pageable);
+
+    @Query("SELECT b.id FROM Bookmark b WHERE b.user.id = :userId AND b.folder.id = :folderId " +
+            "AND b.deleted = false AND b.id > :afterId ORDER BY b.id")
+    List<Long> findExportIdsByUserIdAndFolderId(@Param("userId") Long userId, @Param("folderId") Long folderId,
+                                                @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT DISTINCT b.folder.id FROM Bookmark b WHERE b.user.id = :userId AND b.deleted = false " +
+            "ORDER BY b.folder.id")
+    List<Long> findExportFolderIdsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT b.id FROM Bookmark b WHERE b.folder IS NULL " +
+            "AND b.deleted = false AND b.privatePost = false AND b.id > :afterId ORDER BY b.id")
+    List<Long> findPublicExportIdsWithoutFolder(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT b.id FROM Bookmark b WHERE b.folder.id = :folderId " +
+            "AND b.deleted = false AND b.privatePost = false AND b.id > :afterId ORDER BY b.id")
+    List<Long> findPublicExportIdsByFolderId(@Param("folderId") Long folderId, @Param("afterId") Long afterId,
+                                             Pageable pageable);
+
+    @Query("SELECT DISTINCT b.folder.id FROM Bookmark b WHERE b.deleted = false AND b.privatePost = false " +
+            "ORDER BY b.folder.id")
+    List<Long> findPublicExportFolderIds();
+
+    @Query("SELECT COUNT(b) FROM Bookmark b WHERE b.deleted = false AND b.user.id = :userId")
+    long countActiveByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT COUNT(b) FROM Bookmark b WHERE b.deleted = false AND b.privatePost = false")
+    long countPublic();
 
     // --- User-scoped search ---
 
@@ -109,10 +203,24 @@ public interface BookmarkRepository extends JpaRepository<Bookmark, Long> {
     @Query("SELECT b FROM Bookmark b WHERE b.deleted = false AND b.privatePost = false AND b.lastAccessedAt IS NOT NULL ORDER BY b.lastAccessedAt DESC")
     List<Bookmark> findRecentlyAccessed(Pageable pageable);
 
+    // Hydrates bookmarks with buffered (not yet flushed) views so they can compete in the rankings above
+    @EntityGraph(attributePaths = {"folder"})
+    @Query("SELECT b FROM Bookmark b WHERE b.id IN :ids AND b.deleted = false AND b.user.id = :userId")
+    List<Bookmark> findActiveByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") List<Long> ids);
+
     // --- Admin stats ---
 
     long countByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
 
+    // Rows of {year, month, day, count} for days in [start, end) that have at least one bookmark
+    @Query("SELECT YEAR(b.createdAt), MONTH(b.createdAt), DAY(b.createdAt), COUNT(b) FROM Bookmark b " +
+            "WHERE b.createdAt >= :start AND b.createdAt < :end " +
+            "GROUP BY YEAR(b.createdAt), MONTH(b.createdAt), DAY(b.createdAt)")
+    List<Object[]> countCreatedPerDay(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Query("SELECT MIN(b.createdAt) FROM Bookmark b")
+    LocalDateTime findEarliestCreatedAt();
+
     List<Bookmark> findAllByUserId(Long userId);
 
     // --- Map discovery: posts with location ---
@@ -125,6 +233,11 @@ public interface BookmarkRepository extends JpaRepository<Bookmark, Long> {
             "WHERE b.deleted = false AND b.latitude IS NOT NULL AND b.longitude IS NOT NULL")
     List<Bookmark> findAllWithLocationAdmin();
 
+    // Rows of {id, latitude, longitude, mapEmoji, title, privatePost} for rebuilding the map grid
+    @Query("SELECT b.id, b.latitude, b.longitude, b.mapEmoji, b.title, b.privatePost FROM Bookmark b " +
+            "WHERE b.deleted = false AND b.latitude IS NOT NULL AND b.longitude IS NOT NULL AND b.id > :afterId ORDER BY b.id")
+    List<Object[]> findGeoPinRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
     // --- Admin listing (includes private posts) ---
 
     @EntityGraph(attributePaths = {"folder"})
@@ -156,13 +269,6 @@ public interface BookmarkRepository extends JpaRepository<Bookmark, Long> {
             "WHERE b.id = :id AND b.deleted = false AND b.privatePost = false")
     Optional<Bookmark> findByIdPublic(@Param("id") Long id);
 
-    @EntityGraph(attributePaths = {"folder"})
-    @Query("SELECT b FROM Bookmark b " +
-            "WHERE b.deleted = false AND b.privatePost = false AND (" +
-            "LOWER(b.title) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
-            "OR LOWER(b.description) LIKE LOWER(CONCAT('%', :keyword, '%')))")
-    Page<Bookmark> searchByKeywordPublic(@Param("keyword") String keyword, Pageable pageable);
-
     @Query("SELECT DISTINCT b FROM Bookmark b LEFT JOIN FETCH b.tags LEFT JOIN FETCH b.folder " +
             "JOIN b.tags t WHERE b.deleted = false AND b.privatePost = false AND t.name = :tagName")
     List<Bookmark> findByTagNamePublic(@Param("tagName") String tagName);
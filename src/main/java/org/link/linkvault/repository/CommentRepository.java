@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
@@ -16,8 +17,21 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.bookmark.id = :bookmarkId AND c.parent IS NULL ORDER BY c.createdAt ASC")
     List<Comment> findTopLevelByBookmarkId(@Param("bookmarkId") Long bookmarkId);
 
-    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.announcement.id = :announcementId ORDER BY c.createdAt ASC")
-    List<Comment> findAllByAnnouncementId(@Param("announcementId") Long announcementId);
+    // Thread shape only: id, parent id, score, created at
+    @Query("SELECT c.id, c.parent.id, c.likeCount - c.dislikeCount, c.createdAt FROM Comment c WHERE c.bookmark.id = :bookmarkId")
+    List<Object[]> findThreadShapeByBookmarkId(@Param("bookmarkId") Long bookmarkId);
+
+    @Query("SELECT c.id, c.parent.id, c.likeCount - c.dislikeCount, c.createdAt FROM Comment c WHERE c.announcement.id = :announcementId")
+    List<Object[]> findThreadShapeByAnnouncementId(@Param("announcementId") Long announcementId);
+
+    // Display columns for the comments actually rendered, with the parent's author for reply labels
+    @Query("SELECT c.id, c.content, u.id, u.username, c.bookmark.id, c.announcement.id, c.depth, c.likeCount, c.dislikeCount, " +
+            "c.deleted, c.edited, c.createdAt, c.updatedAt, p.deleted, pu.username " +
+            "FROM Comment c JOIN c.user u LEFT JOIN c.parent p LEFT JOIN p.user pu WHERE c.id IN :ids")
+    List<Object[]> findDisplayRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT c.bookmark.id, c.announcement.id FROM Comment c WHERE c.id = :id")
+    List<Object[]> findThreadOwnerById(@Param("id") Long id);
 
     @Query("SELECT c FROM Comment c JOIN FETCH c.user LEFT JOIN FETCH c.bookmark LEFT JOIN FETCH c.announcement ORDER BY c.createdAt DESC")
     List<Comment> findAllWithUserAndBookmark();
@@ -37,4 +51,12 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     void detachRepliesFromComment(@Param("parentId") Long parentId);
 
     void deleteByUserId(Long userId);
+
+    // Vote tallies only move through these relative updates, so concurrent voters never overwrite each other
+    @Modifying
+    @Query("UPDATE Comment c SET c.likeCount = c.likeCount + :likeDelta, c.dislikeCount = c.dislikeCount + :dislikeDelta WHERE c.id = :id")
+    int applyVoteDelta(@Param("id") Long id, @Param("likeDelta") int likeDelta, @Param("dislikeDelta") int dislikeDelta);
+
+    @Query("SELECT c.likeCount, c.dislikeCount FROM Comment c WHERE c.id = :id")
+    List<Object[]> findVoteCounts(@Param("id") Long id);
 }
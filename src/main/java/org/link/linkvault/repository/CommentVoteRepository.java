@@ -1,7 +1,11 @@
 package org.link.linkvault.repository;
 
 import org.link.linkvault.entity.CommentVote;
+import org.link.linkvault.entity.VoteType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -15,4 +19,13 @@ public interface CommentVoteRepository extends JpaRepository<CommentVote, Long>
     void deleteByUserId(Long userId);
 
     void deleteByCommentId(Long commentId);
+
+    // Guarded on the type read earlier: a concurrent duplicate request matches no row and changes nothing
+    @Modifying
+    @Query("DELETE FROM CommentVote v WHERE v.id = :id AND v.voteType = :voteType")
+    int deleteByIdAndVoteType(@Param("id") Long id, @Param("voteType") VoteType voteType);
+
+    @Modifying
+    @Query("UPDATE CommentVote v SET v.voteType = :to WHERE v.id = :id AND v.voteType = :from")
+    int changeVoteType(@Param("id") Long id, @Param("from") VoteType from, @Param("to") VoteType to);
 }
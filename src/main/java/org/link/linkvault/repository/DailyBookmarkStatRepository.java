@@ -0,0 +1,17 @@
+package org.link.linkvault.repository;
+
+import org.link.linkvault.entity.DailyBookmarkStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailyBookmarkStatRepository extends JpaRepository<DailyBookmarkStat, LocalDate> {
+
+    List<DailyBookmarkStat> findByStatDateBetweenOrderByStatDateAsc(LocalDate from, LocalDate to);
+
+    // Rollups are contiguous, so the latest day is the watermark for the next run
+    @Query("SELECT MAX(d.statDate) FROM DailyBookmarkStat d")
+    LocalDate findLatestStatDate();
+}
@@ -13,6 +13,10 @@ public interface FavoriteBookmarkRepository extends JpaRepository<FavoriteBookma
     @Query("SELECT fb FROM FavoriteBookmark fb LEFT JOIN FETCH fb.bookmark b LEFT JOIN FETCH b.tags LEFT JOIN FETCH b.folder WHERE fb.user.id = :userId ORDER BY fb.displayOrder ASC")
     List<FavoriteBookmark> findByUserIdOrderByDisplayOrder(@Param("userId") Long userId);
 
+    // Sidebar only shows title/url/favicon, so tags and folder are not fetched
+    @Query("SELECT fb FROM FavoriteBookmark fb JOIN FETCH fb.bookmark WHERE fb.user.id = :userId ORDER BY fb.displayOrder ASC")
+    List<FavoriteBookmark> findWithBookmarkByUserId(@Param("userId") Long userId);
+
     Optional<FavoriteBookmark> findByUserIdAndBookmarkId(Long userId, Long bookmarkId);
 
     long countByUserId(Long userId);
@@ -29,4 +29,12 @@ public interface FolderRepository extends JpaRepository<Folder, Long> {
     List<Folder> findByNameContainingIgnoreCase(String name);
 
     void deleteByUserId(Long userId);
+
+    // Typeahead rebuild: [id, name, userId]
+    @Query("SELECT f.id, f.name, u.id FROM Folder f LEFT JOIN f.user u")
+    List<Object[]> findAllForTypeahead();
+
+    // Export folder paths: [id, name, parentId]
+    @Query("SELECT f.id, f.name, p.id FROM Folder f LEFT JOIN f.parent p")
+    List<Object[]> findAllForPathMap();
 }
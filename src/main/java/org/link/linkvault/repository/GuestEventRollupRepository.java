@@ -0,0 +1,21 @@
+package org.link.linkvault.repository;
+
+import org.link.linkvault.entity.GuestEventRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface GuestEventRollupRepository extends JpaRepository<GuestEventRollup, Long> {
+
+    // Rollups are contiguous, so the latest hour is the watermark for the next run
+    @Query("SELECT MAX(r.bucketHour) FROM GuestEventRollup r")
+    LocalDateTime findLatestBucketHour();
+
+    // [eventType, events, sessionSketch] for the non-empty hours in [from, to)
+    @Query("SELECT r.eventType, r.events, r.sessionSketch FROM GuestEventRollup r " +
+           "WHERE r.bucketHour >= :from AND r.bucketHour < :to AND r.events > 0")
+    List<Object[]> findNonEmptyBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
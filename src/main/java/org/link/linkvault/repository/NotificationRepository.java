@@ -1,6 +1,7 @@
 package org.link.linkvault.repository;
 
 import org.link.linkvault.entity.Notification;
+import org.link.linkvault.entity.NotificationType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,6 +10,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
 
@@ -25,14 +28,22 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
 
     long countByRecipientIdAndReadFalse(Long recipientId);
 
+    // Conditional so two concurrent reads of the same notification only count once
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true WHERE n.id = :id AND n.read = false")
+    int markAsReadIfUnread(@Param("id") Long id);
+
     @Modifying
     @Query("UPDATE Notification n SET n.read = true WHERE n.recipient.id = :recipientId AND n.read = false")
-    void markAllAsRead(@Param("recipientId") Long recipientId);
+    int markAllAsRead(@Param("recipientId") Long recipientId);
 
     void deleteByRecipientId(Long recipientId);
 
     void deleteBySourceUserId(Long sourceUserId);
 
-    boolean existsBySourceUserIdAndRecipientIdAndTypeAndRelatedCommentId(
-            Long sourceUserId, Long recipientId, org.link.linkvault.entity.NotificationType type, Long relatedCommentId);
+    // Unread rows that new reactions can be folded into: id, recipientId, type, bookmarkId, commentId, actorCount
+    @Query("SELECT n.id, n.recipient.id, n.type, n.relatedBookmarkId, n.relatedCommentId, n.actorCount " +
+            "FROM Notification n WHERE n.read = false AND n.type IN :types AND n.recipient.id IN :recipientIds")
+    List<Object[]> findUnreadGroupable(@Param("recipientIds") Collection<Long> recipientIds,
+                                       @Param("types") Collection<NotificationType> types);
 }
@@ -1,7 +1,10 @@
 package org.link.linkvault.repository;
 
+import org.link.linkvault.entity.PhotoVariantStatus;
 import org.link.linkvault.entity.PostPhoto;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
@@ -9,5 +12,11 @@ public interface PostPhotoRepository extends JpaRepository<PostPhoto, Long> {
 
     List<PostPhoto> findByBookmarkId(Long bookmarkId);
 
+    // [id, storagePath, contentType] of photos still waiting for variants
+    @Query("SELECT p.id, p.storagePath, p.contentType FROM PostPhoto p WHERE p.variantStatus = :status")
+    List<Object[]> findVariantJobsByStatus(@Param("status") PhotoVariantStatus status);
+
+    long countByVariantStatus(PhotoVariantStatus status);
+
     void deleteByBookmarkId(Long bookmarkId);
 }
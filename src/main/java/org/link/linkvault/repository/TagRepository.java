@@ -1,7 +1,9 @@
 package org.link.linkvault.repository;
 
 import org.link.linkvault.entity.Tag;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
@@ -13,14 +15,29 @@ public interface TagRepository extends JpaRepository<Tag, Long> {
 
     boolean existsByName(String name);
 
-    @Query("SELECT DISTINCT t FROM Tag t LEFT JOIN FETCH t.bookmarks")
-    List<Tag> findAllWithBookmarks();
+    // Tag cloud order; reads the maintained counter, never the bookmarks
+    @Query("SELECT t FROM Tag t ORDER BY t.bookmarkCount DESC, t.name ASC")
+    List<Tag> findAllOrderByBookmarkCountDesc();
+
+    @Query("SELECT t FROM Tag t ORDER BY t.bookmarkCount DESC, t.name ASC")
+    List<Tag> findAllOrderByBookmarkCountDesc(Pageable pageable);
 
+    // Checks the join table rather than the counter so a drifted count can never delete a used tag
     @Query("SELECT t FROM Tag t WHERE t.bookmarks IS EMPTY")
     List<Tag> findUnusedTags();
 
-    @Query("SELECT t FROM Tag t LEFT JOIN t.bookmarks b GROUP BY t ORDER BY COUNT(b) DESC")
-    List<Tag> findAllOrderByBookmarkCountDesc();
+    // Recomputes every counter from the join table; returns the number of tags updated
+    @Modifying
+    @Query("UPDATE Tag t SET t.bookmarkCount = (SELECT COUNT(b) FROM Bookmark b JOIN b.tags bt WHERE bt.id = t.id)")
+    int reconcileBookmarkCounts();
 
     List<Tag> findByNameContainingIgnoreCase(String name);
+
+    // Typeahead rebuild: [id, name, bookmarkCount]
+    @Query("SELECT t.id, t.name, COUNT(b) FROM Tag t LEFT JOIN t.bookmarks b GROUP BY t.id, t.name")
+    List<Object[]> findAllWithBookmarkCount();
+
+    // Import preload: [id, name]
+    @Query("SELECT t.id, t.name FROM Tag t")
+    List<Object[]> findAllIdAndName();
 }
@@ -2,10 +2,12 @@ package org.link.linkvault.repository;
 
 import org.link.linkvault.entity.Role;
 import org.link.linkvault.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +17,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByEmail(String email);
 
+    @Query("SELECT u.id FROM User u WHERE u.username = :username")
+    Optional<Long> findIdByUsername(@Param("username") String username);
+
+    @Query("SELECT u.id, u.username FROM User u WHERE u.username IN :usernames")
+    List<Object[]> findIdAndUsernameByUsernameIn(@Param("usernames") Collection<String> usernames);
+
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
@@ -22,6 +30,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT COUNT(b) FROM Bookmark b WHERE b.user.id = :userId")
     long countBookmarksByUserId(@Param("userId") Long userId);
 
+    // Rows of {username, bookmarkCount}, most bookmarks first
+    @Query("SELECT u.username, COUNT(b) FROM User u LEFT JOIN Bookmark b ON b.user = u " +
+           "GROUP BY u.id, u.username ORDER BY COUNT(b) DESC, u.username ASC")
+    List<Object[]> findTopUsersByBookmarkCount(Pageable pageable);
+
     long countByRoleAndEnabledTrue(Role role);
 
     @Query("SELECT u FROM User u WHERE u.enabled = true " +
@@ -31,4 +44,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     @Query("SELECT u FROM User u WHERE u.accountLockedUntil IS NOT NULL AND u.accountLockedUntil > CURRENT_TIMESTAMP")
     List<User> findLockedUsers();
+
+    // Page chrome counters in one round trip: [savedCount, unreadNotifications, unreadAnnouncements, theme].
+    // Unread counts come from the materialized counter row and are null until it has been created
+    @Query("SELECT " +
+           "(SELECT COUNT(s) FROM SavedBookmark s WHERE s.user.id = u.id), " +
+           "(SELECT c.notifications FROM UserUnreadCounter c WHERE c.userId = u.id), " +
+           "(SELECT c.announcements FROM UserUnreadCounter c WHERE c.userId = u.id), " +
+           "(SELECT st.theme FROM UserSettings st WHERE st.user.id = u.id) " +
+           "FROM User u WHERE u.id = :userId")
+    List<Object[]> findChromeCounters(@Param("userId") Long userId);
 }
@@ -0,0 +1,44 @@
+package org.link.linkvault.repository;
+
+import org.link.linkvault.entity.Role;
+import org.link.linkvault.entity.UserUnreadCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+// Counters only move through relative updates; a user without a row is simply counted on next read
+public interface UserUnreadCounterRepository extends JpaRepository<UserUnreadCounter, Long> {
+
+    @Modifying
+    @Query("UPDATE UserUnreadCounter c SET c.notifications = c.notifications + :delta WHERE c.userId = :userId")
+    int adjustNotifications(@Param("userId") Long userId, @Param("delta") long delta);
+
+    @Modifying
+    @Query("UPDATE UserUnreadCounter c SET c.announcements = c.announcements + :delta WHERE c.userId = :userId")
+    int adjustAnnouncements(@Param("userId") Long userId, @Param("delta") long delta);
+
+    // Everyone who has not read the announcement; used when an untargeted announcement is (un)published
+    @Modifying
+    @Query("UPDATE UserUnreadCounter c SET c.announcements = c.announcements + :delta " +
+           "WHERE NOT EXISTS (SELECT ar.id FROM AnnouncementRead ar " +
+           "WHERE ar.user.id = c.userId AND ar.announcement.id = :announcementId)")
+    int adjustAnnouncementsForAll(@Param("announcementId") Long announcementId, @Param("delta") long delta);
+
+    @Modifying
+    @Query("UPDATE UserUnreadCounter c SET c.announcements = c.announcements + :delta " +
+           "WHERE c.userId IN (SELECT u.id FROM User u WHERE u.role = :role) " +
+           "AND NOT EXISTS (SELECT ar.id FROM AnnouncementRead ar " +
+           "WHERE ar.user.id = c.userId AND ar.announcement.id = :announcementId)")
+    int adjustAnnouncementsForRole(@Param("role") Role role, @Param("announcementId") Long announcementId,
+                                   @Param("delta") long delta);
+
+    // Run before a user's notifications are deleted: their unread ones leave other users' counters
+    @Modifying
+    @Query("UPDATE UserUnreadCounter c SET c.notifications = c.notifications - " +
+           "(SELECT COUNT(n) FROM Notification n WHERE n.recipient.id = c.userId " +
+           "AND n.sourceUser.id = :sourceUserId AND n.read = false) " +
+           "WHERE c.userId IN (SELECT n2.recipient.id FROM Notification n2 " +
+           "WHERE n2.sourceUser.id = :sourceUserId AND n2.read = false)")
+    int subtractUnreadFromSource(@Param("sourceUserId") Long sourceUserId);
+}
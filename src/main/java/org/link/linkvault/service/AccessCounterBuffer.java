@@ -0,0 +1,175 @@
+package org.link.linkvault.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind buffer for bookmark view counts. Views only bump an in-memory LongAdder per
+ * bookmark; a scheduled flush folds the deltas into the bookmarks table with one batched UPDATE,
+ * so popular posts no longer serialize on their row lock and the access-count index is touched
+ * once per interval instead of once per view.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccessCounterBuffer {
+
+    private static final int FLUSH_BATCH_SIZE = 500;
+    // Counters idle for this many flushes are dropped so the map only holds recently viewed posts
+    private static final int IDLE_FLUSHES_BEFORE_EVICTION = 2;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConcurrentHashMap<Long, Counter> counters = new ConcurrentHashMap<>();
+    // Evicted in the previous flush; swept once more to settle writers that raced the eviction
+    private Map<Long, Counter> evictedLastFlush = new HashMap<>();
+
+    public void record(Long bookmarkId) {
+        long now = System.currentTimeMillis();
+        while (true) {
+            Counter counter = counters.computeIfAbsent(bookmarkId, id -> new Counter());
+            counter.hits.increment();
+            counter.lastAccessMillis.accumulateAndGet(now, Math::max);
+            if (!counter.evicted) return;
+            // Raced an eviction: take the hit back and retry on a fresh counter. Whichever way the
+            // race went, the evicted counter's residue is settled by the next flush.
+            counter.hits.decrement();
+        }
+    }
+
+    public long pendingHits(Long bookmarkId) {
+        Counter counter = counters.get(bookmarkId);
+        return counter == null ? 0 : Math.max(0, counter.hits.sum());
+    }
+
+    /**
+     * Unflushed views per bookmark, for queries that rank by access count or recency.
+     */
+    public Map<Long, PendingAccess> snapshot() {
+        Map<Long, PendingAccess> snapshot = new HashMap<>();
+        counters.forEach((id, counter) -> {
+            long hits = counter.hits.sum();
+            if (hits > 0) {
+                snapshot.put(id, new PendingAccess(hits, toLocalDateTime(counter.lastAccessMillis.get())));
+            }
+        });
+        return snapshot;
+    }
+
+    @Scheduled(fixedDelayString = "${linkvault.access-counter.flush-interval-ms:5000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        int flushed = flush();
+        if (flushed > 0) {
+            log.info("Flushed {} buffered access counters on shutdown", flushed);
+        }
+    }
+
+    /**
+     * Writes all buffered deltas and returns the number of bookmarks updated. Deltas that fail to
+     * write are put back so the next flush retries them.
+     */
+    public synchronized int flush() {
+        Map<Long, long[]> deltas = new HashMap<>();
+
+        evictedLastFlush.forEach((id, counter) -> collect(deltas, id, counter));
+        evictedLastFlush = new HashMap<>();
+
+        counters.forEach((id, counter) -> {
+            if (collect(deltas, id, counter)) {
+                counter.idleFlushes = 0;
+            } else if (++counter.idleFlushes >= IDLE_FLUSHES_BEFORE_EVICTION) {
+                counter.evicted = true;
+                counters.remove(id, counter);
+                collect(deltas, id, counter);
+                evictedLastFlush.put(id, counter);
+            }
+        });
+
+        List<Object[]> updates = new ArrayList<>(deltas.size());
+        deltas.forEach((id, delta) -> {
+            if (delta[0] != 0) {
+                Timestamp lastAccess = new Timestamp(delta[1]);
+                updates.add(new Object[]{delta[0], lastAccess, lastAccess, id});
+            }
+        });
+        if (updates.isEmpty()) return 0;
+
+        try {
+            // One transaction for every chunk: a failure rolls all of them back, so restoring every delta is exact
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int from = 0; from < updates.size(); from += FLUSH_BATCH_SIZE) {
+                    jdbcTemplate.batchUpdate("UPDATE bookmarks SET access_count = access_count + ?, " +
+                                    "last_accessed_at = CASE WHEN last_accessed_at IS NULL OR last_accessed_at < ? " +
+                                    "THEN ? ELSE last_accessed_at END WHERE id = ?",
+                            updates.subList(from, Math.min(updates.size(), from + FLUSH_BATCH_SIZE)));
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Access counter flush failed, keeping {} deltas for the next attempt: {}",
+                    updates.size(), e.getMessage());
+            deltas.forEach((id, delta) -> {
+                Counter counter = counters.computeIfAbsent(id, key -> new Counter());
+                counter.hits.add(delta[0]);
+                counter.lastAccessMillis.accumulateAndGet(delta[1], Math::max);
+            });
+            return 0;
+        }
+        return updates.size();
+    }
+
+    // Moves a counter's hits into deltas; returns false if it had none
+    private boolean collect(Map<Long, long[]> deltas, Long id, Counter counter) {
+        long hits = counter.hits.sumThenReset();
+        if (hits == 0) return false;
+        long[] delta = deltas.computeIfAbsent(id, key -> new long[2]);
+        delta[0] += hits;
+        delta[1] = Math.max(delta[1], counter.lastAccessMillis.get());
+        return true;
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static final class Counter {
+        private final LongAdder hits = new LongAdder();
+        private final AtomicLong lastAccessMillis = new AtomicLong();
+        private volatile boolean evicted;
+        private int idleFlushes; // flush thread only
+    }
+
+    @Getter
+    public static final class PendingAccess {
+        private final long hits;
+        private final LocalDateTime lastAccessedAt;
+
+        private PendingAccess(long hits, LocalDateTime lastAccessedAt) {
+            this.hits = hits;
+            this.lastAccessedAt = lastAccessedAt;
+        }
+    }
+}
@@ -21,13 +21,11 @@ public class AccountLockoutService {
     private final AuditLogService auditLogService;
 
     private int getMaxAttempts() {
-        return systemSettingsService.getValue("security.lockout-threshold")
-                .map(Integer::parseInt).orElse(5);
+        return systemSettingsService.snapshot().getInt("security.lockout-threshold", 5);
     }
 
     private int getLockDurationMinutes() {
-        return systemSettingsService.getValue("security.lockout-duration-minutes")
-                .map(Integer::parseInt).orElse(30);
+        return systemSettingsService.snapshot().getInt("security.lockout-duration-minutes", 30);
     }
 
     @Transactional
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.link.linkvault.entity.User;
 import org.link.linkvault.repository.AdFreePassRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -19,9 +20,10 @@ public class AdPolicyService {
     private final SystemSettingsService systemSettingsService;
     private final AdFreePassRepository adFreePassRepository;
 
+    // Settings reads come from the in-memory snapshot and need no transaction
+    @Transactional(propagation = Propagation.SUPPORTS)
     public boolean isAdsEnabled() {
-        return systemSettingsService.getValue("feature.ads-enabled")
-                .map("true"::equals).orElse(false);
+        return systemSettingsService.snapshot().getBoolean("feature.ads-enabled", false);
     }
 
     public boolean isAdFree(User user) {
@@ -29,19 +31,22 @@ public class AdPolicyService {
         return !adFreePassRepository.findActiveByUserId(user.getId(), LocalDateTime.now()).isEmpty();
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public boolean shouldShowAds(User user) {
         if (!isAdsEnabled()) return false;
         if (user != null && isAdFree(user)) return false;
         return true;
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<Integer> getAdInsertionPositions(int totalPosts, boolean isGuest, int sessionPageViewCount) {
-        if (!isAdsEnabled() || totalPosts == 0) return Collections.emptyList();
+        SettingsSnapshot settings = systemSettingsService.snapshot();
+        if (!settings.getBoolean("feature.ads-enabled", false) || totalPosts == 0) return Collections.emptyList();
 
-        int interval = getIntSetting("ad.feed-insertion-interval", 6);
-        int maxPerPage = getIntSetting("ad.max-per-page", 3);
-        int gracePageViews = getIntSetting("ad.guest-first-session-grace", 3);
-        double guestMultiplier = getDoubleSetting("ad.guest-frequency-multiplier", 1.5);
+        int interval = settings.getInt("ad.feed-insertion-interval", 6);
+        int maxPerPage = settings.getInt("ad.max-per-page", 3);
+        int gracePageViews = settings.getInt("ad.guest-first-session-grace", 3);
+        double guestMultiplier = settings.getDouble("ad.guest-frequency-multiplier", 1.5);
 
         if (isGuest) {
             if (sessionPageViewCount < gracePageViews) return Collections.emptyList();
@@ -58,31 +63,18 @@ public class AdPolicyService {
         return positions;
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public String getAdsenseClientId() {
-        return systemSettingsService.getValue("ad.adsense-client-id").orElse("");
+        return systemSettingsService.snapshot().getString("ad.adsense-client-id", "");
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public String getAdsenseSlotFeed() {
-        return systemSettingsService.getValue("ad.adsense-slot-feed").orElse("");
+        return systemSettingsService.snapshot().getString("ad.adsense-slot-feed", "");
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public String getAdsenseLayoutKey() {
-        return systemSettingsService.getValue("ad.adsense-layout-key").orElse("");
-    }
-
-    private int getIntSetting(String key, int defaultValue) {
-        return systemSettingsService.getValue(key)
-                .map(v -> {
-                    try { return Integer.parseInt(v); }
-                    catch (NumberFormatException e) { return defaultValue; }
-                }).orElse(defaultValue);
-    }
-
-    private double getDoubleSetting(String key, double defaultValue) {
-        return systemSettingsService.getValue(key)
-                .map(v -> {
-                    try { return Double.parseDouble(v); }
-                    catch (NumberFormatException e) { return defaultValue; }
-                }).orElse(defaultValue);
+        return systemSettingsService.snapshot().getString("ad.adsense-layout-key", "");
     }
 }
@@ -4,8 +4,11 @@ import lombok.RequiredArgsConstructor;
 import org.link.linkvault.dto.AnnouncementRequestDto;
 import org.link.linkvault.dto.AnnouncementResponseDto;
 import org.link.linkvault.entity.*;
+import org.link.linkvault.event.ChromeSummaryChangedEvent;
 import org.link.linkvault.exception.ResourceNotFoundException;
 import org.link.linkvault.repository.*;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -27,6 +30,9 @@ public class AnnouncementService {
     private final AnnouncementPollOptionRepository announcementPollOptionRepository;
     private final AnnouncementPollVoteRepository announcementPollVoteRepository;
     private final AuditLogService auditLogService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NotificationPushRegistry pushRegistry;
+    private final UnreadCounterService unreadCounterService;
 
     @Transactional
     public List<AnnouncementResponseDto> findVisibleForGuest() {
@@ -126,6 +132,9 @@ public class AnnouncementService {
             Announcement announcement = announcementRepository.findById(announcementId)
                     .orElseThrow(() -> new ResourceNotFoundException("Announcement not found: " + announcementId));
             announcementReadRepository.save(new AnnouncementRead(user, announcement));
+            unreadCounterService.announcementRead(user, announcement.getStatus(), announcement.getTargetRole());
+            eventPublisher.publishEvent(ChromeSummaryChangedEvent.forUser(user.getId()));
+            pushAnnouncementRead(user);
         }
     }
 
@@ -141,11 +150,14 @@ public class AnnouncementService {
             AnnouncementRead ar = new AnnouncementRead(user, announcement);
             ar.acknowledge();
             announcementReadRepository.save(ar);
+            unreadCounterService.announcementRead(user, announcement.getStatus(), announcement.getTargetRole());
+            eventPublisher.publishEvent(ChromeSummaryChangedEvent.forUser(user.getId()));
+            pushAnnouncementRead(user);
         }
     }
 
     public long getUnreadCountForUser(User user) {
-        return announcementRepository.countUnreadForUser(user.getId(), user.getRole());
+        return unreadCounterService.getUnreadAnnouncements(user);
     }
 
     @Transactional
@@ -159,11 +171,21 @@ public class AnnouncementService {
     @Transactional
     public void processScheduledAndExpired() {
         LocalDateTime now = LocalDateTime.now();
+        boolean changed = false;
         for (Announcement a : announcementRepository.findScheduledReadyToPublish(now)) {
             a.updateStatus(AnnouncementStatus.PUBLISHED);
+            unreadCounterService.announcementPublished(a.getId(), a.getTargetRole());
+            pushPublished(a);
+            changed = true;
         }
         for (Announcement a : announcementRepository.findPublishedReadyToArchive(now)) {
             a.updateStatus(AnnouncementStatus.ARCHIVED);
+            unreadCounterService.announcementUnpublished(a.getId(), a.getTargetRole());
+            pushWithdrawn(a.getTargetRole());
+            changed = true;
+        }
+        if (changed) {
+            eventPublisher.publishEvent(ChromeSummaryChangedEvent.forAllUsers());
         }
     }
 
@@ -196,6 +218,11 @@ public class AnnouncementService {
         }
 
         AnnouncementResponseDto result = AnnouncementResponseDto.from(announcement);
+        eventPublisher.publishEvent(ChromeSummaryChangedEvent.forAllUsers());
+        if (announcement.getStatus() == AnnouncementStatus.PUBLISHED) {
+            unreadCounterService.announcementPublished(announcement.getId(), announcement.getTargetRole());
+            pushPublished(announcement);
+        }
         auditLogService.log(actorUsername, AuditActionCodes.ANNOUNCEMENT_CREATE, "Announcement", result.getId(),
                 AuditDetailFormatter.format("priority", String.valueOf(dto.getPriority())));
         return result;
@@ -205,9 +232,21 @@ public class AnnouncementService {
     public AnnouncementResponseDto update(Long id, AnnouncementRequestDto dto, String actorUsername) {
         Announcement announcement = announcementRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Announcement not found: " + id));
+        Role previousTargetRole = announcement.getTargetRole();
         announcement.update(dto.getTitle(), dto.getContent(), dto.getPriority(),
                 dto.getTargetRole(), dto.getStartAt(), dto.getEndAt(), dto.isPinned(),
                 dto.isEnableComments(), dto.isEnableVoting());
+        if (announcement.getStatus() == AnnouncementStatus.PUBLISHED && previousTargetRole != dto.getTargetRole()) {
+            unreadCounterService.announcementUnpublished(id, previousTargetRole);
+            unreadCounterService.announcementPublished(id, dto.getTargetRole());
+            // Either side being "everyone" means every connected badge may have moved
+            if (previousTargetRole == null || dto.getTargetRole() == null) {
+                pushWithdrawn(null);
+            } else {
+                pushWithdrawn(previousTargetRole);
+                pushWithdrawn(dto.getTargetRole());
+            }
+        }
 
         // Update poll options only if no votes have been cast yet
         if (dto.getPollOptions() != null) {
@@ -225,6 +264,7 @@ public class AnnouncementService {
             }
         }
 
+        eventPublisher.publishEvent(ChromeSummaryChangedEvent.forAllUsers());
         auditLogService.log(actorUsername, AuditActionCodes.ANNOUNCEMENT_UPDATE, "Announcement", id, null);
         return AnnouncementResponseDto.from(announcement);
     }
@@ -233,24 +273,60 @@ public class AnnouncementService {
     public void updateStatus(Long id, AnnouncementStatus status, String actorUsername) {
         Announcement announcement = announcementRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Announcement not found: " + id));
+        boolean wasPublished = announcement.getStatus() == AnnouncementStatus.PUBLISHED;
+        boolean publishing = status == AnnouncementStatus.PUBLISHED && !wasPublished;
         announcement.updateStatus(status);
+        if (publishing) {
+            unreadCounterService.announcementPublished(id, announcement.getTargetRole());
+        } else if (wasPublished && status != AnnouncementStatus.PUBLISHED) {
+            unreadCounterService.announcementUnpublished(id, announcement.getTargetRole());
+            pushWithdrawn(announcement.getTargetRole());
+        }
+        eventPublisher.publishEvent(ChromeSummaryChangedEvent.forAllUsers());
+        if (publishing) {
+            pushPublished(announcement);
+        }
         auditLogService.log(actorUsername, AuditActionCodes.ANNOUNCEMENT_STATUS, "Announcement", id,
                 AuditDetailFormatter.format("status", String.valueOf(status)));
     }
 
     @Transactional
     public void delete(Long id, String actorUsername) {
-        if (!announcementRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Announcement not found: " + id);
+        Announcement announcement = announcementRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Announcement not found: " + id));
+        if (announcement.getStatus() == AnnouncementStatus.PUBLISHED) {
+            unreadCounterService.announcementUnpublished(id, announcement.getTargetRole());
+            pushWithdrawn(announcement.getTargetRole());
         }
         announcementPollVoteRepository.deleteByAnnouncementId(id);
         announcementPollOptionRepository.deleteByAnnouncementId(id);
         announcementVoteRepository.deleteByAnnouncementId(id);
         announcementReadRepository.deleteByAnnouncementId(id);
         announcementRepository.deleteById(id);
+        eventPublisher.publishEvent(ChromeSummaryChangedEvent.forAllUsers());
         auditLogService.log(actorUsername, AuditActionCodes.ANNOUNCEMENT_DELETE, "Announcement", id, null);
     }
 
+    private void pushPublished(Announcement announcement) {
+        Long id = announcement.getId();
+        String title = announcement.getTitle();
+        AnnouncementPriority priority = announcement.getPriority();
+        Role targetRole = announcement.getTargetRole();
+        TransactionCallbacks.afterCommit(() -> pushRegistry.pushAnnouncement(id, title, priority, targetRole));
+    }
+
+    // Readers who had already opened it lose nothing, so the clients refetch instead of taking a delta
+    private void pushWithdrawn(Role targetRole) {
+        TransactionCallbacks.afterCommit(() ->
+                pushRegistry.pushUnreadResync(NotificationPushRegistry.COUNTER_ANNOUNCEMENTS, targetRole));
+    }
+
+    private void pushAnnouncementRead(User user) {
+        Long userId = user.getId();
+        TransactionCallbacks.afterCommit(() ->
+                pushRegistry.pushUnreadDelta(userId, NotificationPushRegistry.COUNTER_ANNOUNCEMENTS, -1));
+    }
+
     public AnnouncementResponseDto findByIdAdmin(Long id) {
         Announcement announcement = announcementRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Announcement not found: " + id));
@@ -279,38 +355,48 @@ public class AnnouncementService {
                 .findByUserIdAndAnnouncementId(user.getId(), announcementId);
 
         VoteType resultVote = null;
+        VoteType removed = null;
+        VoteType added = null;
 
         if (existingVote.isPresent()) {
             AnnouncementVote vote = existingVote.get();
             if (vote.getVoteType() == voteType) {
                 // Same vote: remove it
-                if (voteType == VoteType.LIKE) announcement.decrementLikeCount();
-                else announcement.decrementDislikeCount();
-                announcementVoteRepository.delete(vote);
+                if (announcementVoteRepository.deleteByIdAndVoteType(vote.getId(), voteType) == 1) {
+                    removed = voteType;
+                }
             } else {
                 // Different vote: switch
-                if (vote.getVoteType() == VoteType.LIKE) {
-                    announcement.decrementLikeCount();
-                    announcement.incrementDislikeCount();
-                } else {
-                    announcement.decrementDislikeCount();
-                    announcement.incrementLikeCount();
+                if (announcementVoteRepository.changeVoteType(vote.getId(), vote.getVoteType(), voteType) == 1) {
+                    removed = vote.getVoteType();
+                    added = voteType;
                 }
-                vote.changeVoteType(voteType);
                 resultVote = voteType;
             }
         } else {
             // New vote
-            if (voteType == VoteType.LIKE) announcement.incrementLikeCount();
-            else announcement.incrementDislikeCount();
-            announcementVoteRepository.save(new AnnouncementVote(user, announcement, voteType));
+            try {
+                announcementVoteRepository.saveAndFlush(new AnnouncementVote(user, announcement, voteType));
+            } catch (DataIntegrityViolationException e) {
+                throw new IllegalStateException("Vote already recorded");
+            }
+            added = voteType;
             resultVote = voteType;
         }
 
+        int likeDelta = (added == VoteType.LIKE ? 1 : 0) - (removed == VoteType.LIKE ? 1 : 0);
+        int dislikeDelta = (added == VoteType.DISLIKE ? 1 : 0) - (removed == VoteType.DISLIKE ? 1 : 0);
+        if (likeDelta != 0 || dislikeDelta != 0) {
+            announcementRepository.applyVoteDelta(announcementId, likeDelta, dislikeDelta);
+        }
+
+        Object[] counts = announcementRepository.findVoteCounts(announcementId).get(0);
+        int likeCount = (Integer) counts[0];
+        int dislikeCount = (Integer) counts[1];
         return AnnouncementResponseDto.builder()
-                .likeCount(announcement.getLikeCount())
-                .dislikeCount(announcement.getDislikeCount())
-                .score(announcement.getLikeCount() - announcement.getDislikeCount())
+                .likeCount(likeCount)
+                .dislikeCount(dislikeCount)
+                .score(likeCount - dislikeCount)
                 .userVote(resultVote)
                 .build();
     }
@@ -1,5 +1,7 @@
 package org.link.linkvault.service;
 
+import java.util.Set;
+
 public final class AuditActionCodes {
 
     private AuditActionCodes() {}
@@ -65,6 +67,7 @@ public final class AuditActionCodes {
     public static final String GUIDELINE_STEP_TOGGLE  = "ADMIN_GUIDELINE_STEP_TOGGLE";
     public static final String GUIDELINE_STEP_REORDER = "ADMIN_GUIDELINE_STEP_REORDER";
     public static final String AUDIT_POLICY_UPDATE = "ADMIN_AUDIT_POLICY_UPDATE";
+    public static final String AUDIT_RETENTION_RUN = "AUDIT_RETENTION_RUN";
 
     // Comment moderation
     public static final String COMMENT_SOFT_DELETE = "SOFT_DELETE_COMMENT";
@@ -91,4 +94,11 @@ public final class AuditActionCodes {
     public static final String DONATION_REFUND = "DONATION_REFUND";
     public static final String TRANSPARENCY_REPORT_PUBLISH = "TRANSPARENCY_REPORT_PUBLISH";
     public static final String GUEST_ACCESS_TOGGLE = "GUEST_ACCESS_TOGGLE";
+
+    // Written before the caller continues, even when the audit write mode is ASYNC
+    public static final Set<String> SYNC_WRITE = Set.of(
+            USER_DELETE, PERMISSION_TOGGLE, BACKUP_RESTORE,
+            AUDIT_POLICY_UPDATE, AUDIT_RETENTION_RUN, LOCKOUT_POLICY_UPDATE, ACCOUNT_LOCKED, ACCOUNT_UNLOCK,
+            AD_FREE_PURCHASE, AD_FREE_REFUND, REWARD_REDEEM, DONATION_CREATE, DONATION_REFUND,
+            BOOKMARK_PURGE, COMMENT_PURGE);
 }
@@ -3,17 +3,30 @@ package org.link.linkvault.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.link.linkvault.dto.AuditLogResponseDto;
-import org.link.linkvault.entity.AuditLog;
-import org.link.linkvault.entity.User;
+import org.link.linkvault.dto.AuditWriterStatsDto;
+import org.link.linkvault.dto.CacheStatsDto;
+import org.link.linkvault.event.SystemSettingChangedEvent;
 import org.link.linkvault.repository.AuditLogRepository;
 import org.link.linkvault.repository.SystemSettingsRepository;
 import org.link.linkvault.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records audit entries. The actor id and masking level come from in-memory caches, so a call on
+ * the request path costs no queries; the row itself is handed to {@link AuditLogWriter}, which
+ * batches it in the background unless the action is one of {@link AuditActionCodes#SYNC_WRITE}
+ * or the write mode is SYNC.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -22,22 +35,71 @@ public class AuditLogService {
     private final AuditLogRepository auditLogRepository;
     private final UserRepository userRepository;
     private final SystemSettingsRepository systemSettingsRepository;
+    private final AuditLogWriter auditLogWriter;
 
     private static final String DEFAULT_MASKING_LEVEL = "BASIC";
+    private static final String MASKING_LEVEL_KEY = "audit.masking.level";
+    private static final long MASKING_LEVEL_TTL_NANOS = TimeUnit.SECONDS.toNanos(60);
+    // Cached for usernames with no account, e.g. failed logins, so they are not looked up every time
+    private static final Long UNKNOWN_USER = -1L;
+
+    @Value("${linkvault.audit.write-mode:ASYNC}")
+    private AuditLogWriter.WriteMode writeMode;
+
+    @Value("${linkvault.audit.user-cache.max-entries:10000}")
+    private int userCacheMaxEntries;
+
+    @Value("${linkvault.audit.user-cache.negative-ttl-seconds:30}")
+    private long userCacheNegativeTtlSeconds;
+
+    private ExpiringLruCache<String, Long> userIds;
+
+    private volatile String maskingLevel;
+    private volatile long maskingLevelLoadedAt;
+
+    @PostConstruct
+    void initCache() {
+        // Usernames never change, so positive entries only expire to bound memory
+        userIds = new ExpiringLruCache<>("audit-user-ids", userCacheMaxEntries, Duration.ofHours(1));
+    }
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void log(String username, String action, String entityType, Long entityId, String details) {
         try {
             String maskedDetails = AuditDetailFormatter.applyMasking(details, getMaskingLevel());
-            User user = username != null ? userRepository.findByUsername(username).orElse(null) : null;
-            AuditLog auditLog = new AuditLog(user, action, entityType, entityId, maskedDetails);
-            auditLogRepository.save(auditLog);
+            Long userId = resolveUserId(username);
+            AuditLogWriter.Entry entry = new AuditLogWriter.Entry(
+                    userId, userId != null ? username : null, action, entityType, entityId, maskedDetails);
+            if (writeMode == AuditLogWriter.WriteMode.SYNC || AuditActionCodes.SYNC_WRITE.contains(action)) {
+                auditLogWriter.writeNow(entry);
+            } else {
+                auditLogWriter.enqueue(entry);
+            }
         } catch (Exception e) {
             log.warn("AUDIT_PERSIST_FAILURE action={} entityType={} entityId={} actor={}: {}",
                     action, entityType, entityId, username, e.getMessage());
         }
     }
 
+    public AuditWriterStatsDto getWriterStats() {
+        return auditLogWriter.getStats(writeMode);
+    }
+
+    public List<CacheStatsDto> getCacheStats() {
+        return List.of(userIds.stats());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSettingChanged(SystemSettingChangedEvent event) {
+        if (event.affects(MASKING_LEVEL_KEY)) {
+            maskingLevel = null;
+        }
+    }
+
+    // A deleted username can be registered again, so its cached id must not outlive the account
+    public void evictUser(String username) {
+        userIds.invalidate(username);
+    }
+
     @Transactional(readOnly = true)
     public Page<AuditLogResponseDto> findAll(Pageable pageable) {
         return auditLogRepository.findAllWithUser(pageable)
@@ -56,9 +118,34 @@ public class AuditLogService {
                 .map(AuditLogResponseDto::from);
     }
 
+    private Long resolveUserId(String username) {
+        if (username == null) return null;
+        Long cached = userIds.get(username);
+        if (cached == null) {
+            cached = userRepository.findIdByUsername(username).orElse(UNKNOWN_USER);
+            if (UNKNOWN_USER.equals(cached)) {
+                userIds.put(username, cached, Duration.ofSeconds(userCacheNegativeTtlSeconds));
+            } else {
+                userIds.put(username, cached);
+            }
+        }
+        return UNKNOWN_USER.equals(cached) ? null : cached;
+    }
+
     private String getMaskingLevel() {
+        String level = maskingLevel;
+        if (level != null && System.nanoTime() - maskingLevelLoadedAt < MASKING_LEVEL_TTL_NANOS) {
+            return level;
+        }
+        level = loadMaskingLevel();
+        maskingLevelLoadedAt = System.nanoTime();
+        maskingLevel = level;
+        return level;
+    }
+
+    private String loadMaskingLevel() {
         try {
-            return systemSettingsRepository.findBySettingKey("audit.masking.level")
+            return systemSettingsRepository.findBySettingKey(MASKING_LEVEL_KEY)
                     .map(s -> {
                         String val = s.getSettingValue();
                         if ("NONE".equals(val) || "BASIC".equals(val) || "STRICT".equals(val)) {
@@ -0,0 +1,246 @@
+package org.link.linkvault.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.link.linkvault.dto.AuditWriterStatsDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Persists audit entries off the request path. Callers hand over fully resolved entries; a single
+ * background thread drains the bounded queue and batch-inserts them in one short transaction.
+ * When the queue is full the entry is dropped and counted rather than blocking the caller.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuditLogWriter {
+
+    public enum WriteMode { ASYNC, SYNC }
+
+    // The sub-select leaves user_id null if the actor was deleted while the entry sat in the queue
+    private static final String INSERT_SQL = "INSERT INTO audit_logs " +
+            "(user_id, action, entity_type, entity_id, details, actor_username, timestamp) " +
+            "VALUES ((SELECT u.id FROM users u WHERE u.id = ?), ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${linkvault.audit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${linkvault.audit.batch-size:500}")
+    private int batchSize;
+
+    @Value("${linkvault.audit.flush-interval-ms:500}")
+    private long flushIntervalMs;
+
+    private ArrayBlockingQueue<Entry> queue;
+    private TransactionTemplate transactionTemplate;
+    private Thread writer;
+    private volatile boolean running;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder syncWritten = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchedEntries = new LongAdder();
+    private final AtomicLong lastBatchSize = new AtomicLong();
+    private final AtomicLong maxBatchSize = new AtomicLong();
+    private final AtomicLong droppedUnreported = new AtomicLong();
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        // Each write commits on its own, independent of whatever transaction the caller is in
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        running = true;
+        writer = new Thread(this::drainLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // No interrupt: let an in-flight batch finish; the loop exits within one poll interval
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+        int remaining = flush();
+        if (remaining > 0) {
+            log.info("Flushed {} queued audit entries on shutdown", remaining);
+        }
+    }
+
+    /**
+     * Queues an entry for the background writer. Once the writer has stopped, entries are written
+     * directly so nothing logged during shutdown is lost.
+     */
+    void enqueue(Entry entry) {
+        if (!running) {
+            writeNow(entry);
+            return;
+        }
+        if (queue.offer(entry)) {
+            enqueued.increment();
+        } else {
+            dropped.increment();
+            droppedUnreported.incrementAndGet();
+        }
+    }
+
+    // Durable before return: used for sensitive actions and when the write mode is SYNC
+    void writeNow(Entry entry) {
+        syncWritten.add(write(Collections.singletonList(entry)));
+    }
+
+    /**
+     * Writes everything queued so far on the calling thread and returns the number of entries
+     * taken from the queue.
+     */
+    public int flush() {
+        List<Entry> batch = new ArrayList<>();
+        int total = 0;
+        while (queue.drainTo(batch, batchSize) > 0) {
+            total += batch.size();
+            writeBatch(batch);
+            batch.clear();
+        }
+        return total;
+    }
+
+    public AuditWriterStatsDto getStats(WriteMode writeMode) {
+        long batchCount = batches.sum();
+        return AuditWriterStatsDto.builder()
+                .writeMode(writeMode.name())
+                .queueDepth(queue.size())
+                .queueCapacity(queueCapacity)
+                .enqueued(enqueued.sum())
+                .written(written.sum())
+                .syncWritten(syncWritten.sum())
+                .dropped(dropped.sum())
+                .failed(failed.sum())
+                .batches(batchCount)
+                .lastBatchSize(lastBatchSize.get())
+                .maxBatchSize(maxBatchSize.get())
+                .avgBatchSize(batchCount == 0 ? 0 : (double) batchedEntries.sum() / batchCount)
+                .build();
+    }
+
+    private void drainLoop() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Entry first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                reportDrops();
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Audit writer iteration failed", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<Entry> batch) {
+        write(batch);
+        batches.increment();
+        batchedEntries.add(batch.size());
+        lastBatchSize.set(batch.size());
+        maxBatchSize.accumulateAndGet(batch.size(), Math::max);
+    }
+
+    // Returns the number of entries persisted
+    private int write(List<Entry> entries) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, toArgs(entries)));
+            written.add(entries.size());
+            return entries.size();
+        } catch (RuntimeException batchFailure) {
+            if (entries.size() == 1) {
+                recordFailure(entries.get(0), batchFailure);
+                return 0;
+            }
+            int persisted = 0;
+            // Retry one by one so a single bad entry does not take the whole batch with it
+            for (Entry entry : entries) {
+                try {
+                    transactionTemplate.executeWithoutResult(status ->
+                            jdbcTemplate.update(INSERT_SQL, toArgs(Collections.singletonList(entry)).get(0)));
+                    written.increment();
+                    persisted++;
+                } catch (RuntimeException e) {
+                    recordFailure(entry, e);
+                }
+            }
+            return persisted;
+        }
+    }
+
+    private void recordFailure(Entry entry, RuntimeException e) {
+        failed.increment();
+        log.warn("AUDIT_PERSIST_FAILURE action={} entityType={} entityId={} actor={}: {}",
+                entry.action, entry.entityType, entry.entityId, entry.actorUsername, e.getMessage());
+    }
+
+    private void reportDrops() {
+        long count = droppedUnreported.getAndSet(0);
+        if (count > 0) {
+            log.warn("Audit queue full, dropped {} entries", count);
+        }
+    }
+
+    private static List<Object[]> toArgs(List<Entry> entries) {
+        List<Object[]> args = new ArrayList<>(entries.size());
+        for (Entry e : entries) {
+            args.add(new Object[]{e.userId, e.action, e.entityType, e.entityId, e.details, e.actorUsername,
+                    Timestamp.valueOf(e.timestamp)});
+        }
+        return args;
+    }
+
+    // One audit row, resolved and masked on the caller's thread
+    static final class Entry {
+        private final Long userId;
+        private final String actorUsername;
+        private final String action;
+        private final String entityType;
+        private final Long entityId;
+        private final String details;
+        private final LocalDateTime timestamp;
+
+        Entry(Long userId, String actorUsername, String action, String entityType, Long entityId, String details) {
+            this.userId = userId;
+            this.actorUsername = actorUsername;
+            this.action = action;
+            this.entityType = entityType;
+            this.entityId = entityId;
+            this.details = details;
+            this.timestamp = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package org.link.linkvault.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.link.linkvault.dto.AuditLogResponseDto;
+import org.link.linkvault.dto.AuditRetentionResultDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Enforces the audit retention settings. Expired rows are walked in id order and removed in small
+ * chunks, each in its own short transaction. In SOFT mode every chunk is first appended to a
+ * gzip-compressed JSON-lines file per month, which admins can search without restoring it.
+ * A chunk is archived before it is deleted, so a crash in between can archive a row twice but
+ * never lose one; search drops such duplicates by id.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AuditRetentionService {
+
+    static final int MAX_SEARCH_RESULTS = 500;
+    private static final Pattern ARCHIVE_FILENAME_PATTERN = Pattern.compile("^audit-(\\d{4}-\\d{2})\\.jsonl\\.gz$");
+    private static final int DEFAULT_RETENTION_DAYS = 365;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final SystemSettingsService systemSettingsService;
+    private final AuditLogService auditLogService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${linkvault.audit.retention.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${linkvault.audit.retention.chunk-pause-ms:50}")
+    private long chunkPauseMs;
+
+    @Value("${linkvault.audit.archive.path:./archives/audit}")
+    private String archivePath;
+
+    private TransactionTemplate transactionTemplate;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile AuditRetentionResultDto lastRun;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${linkvault.audit.retention.cron:0 30 3 * * *}")
+    public void scheduledRun() {
+        if (!"true".equals(systemSettingsService.getValue("audit.retention.enabled").orElse("false"))) {
+            return;
+        }
+        try {
+            runRetention("SYSTEM");
+        } catch (IllegalStateException e) {
+            log.info("Skipping scheduled audit retention: {}", e.getMessage());
+        }
+    }
+
+    public AuditRetentionResultDto runRetention(String actorUsername) {
+        int days = systemSettingsService.getValue("audit.retention.days")
+                .map(v -> {
+                    try {
+                        return Integer.parseInt(v);
+                    } catch (NumberFormatException e) {
+                        return DEFAULT_RETENTION_DAYS;
+                    }
+                })
+                .orElse(DEFAULT_RETENTION_DAYS);
+        boolean archive = !"HARD".equals(systemSettingsService.getValue("audit.delete.mode").orElse("SOFT"));
+
+        AuditRetentionResultDto result = purgeBefore(LocalDate.now().minusDays(days).atStartOfDay(), archive);
+        auditLogService.log(actorUsername, AuditActionCodes.AUDIT_RETENTION_RUN, "AuditLog", null,
+                AuditDetailFormatter.format("mode", result.getDeleteMode(),
+                        "cutoff", result.getCutoff().toLocalDate().toString(),
+                        "deleted", String.valueOf(result.getRowsDeleted()),
+                        "archived", String.valueOf(result.getRowsArchived())));
+        return result;
+    }
+
+    public AuditRetentionResultDto getLastRun() {
+        return lastRun;
+    }
+
+    /**
+     * Removes every row older than {@code cutoff}, archiving it first when {@code archive} is set.
+     * Only one run may be active at a time.
+     */
+    AuditRetentionResultDto purgeBefore(LocalDateTime cutoff, boolean archive) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Audit retention is already running");
+        }
+        try {
+            long started = System.nanoTime();
+            LocalDateTime startedAt = LocalDateTime.now();
+            Timestamp cutoffTs = Timestamp.valueOf(cutoff);
+            // Bounds the walk so the last chunk does not scan rows that are still retained
+            Long maxId = jdbcTemplate.queryForObject(
+                    "SELECT MAX(id) FROM audit_logs WHERE timestamp < ?", Long.class, cutoffTs);
+
+            long archived = 0;
+            long deleted = 0;
+            int chunks = 0;
+            Set<String> files = new TreeSet<>();
+            long lastId = 0;
+            while (maxId != null && lastId < maxId) {
+                List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                        "SELECT a.id, a.timestamp, a.user_id, u.username, a.actor_username, a.action, " +
+                        "a.entity_type, a.entity_id, a.details FROM audit_logs a " +
+                        "LEFT JOIN users u ON u.id = a.user_id " +
+                        "WHERE a.id > ? AND a.id <= ? AND a.timestamp < ? ORDER BY a.id LIMIT ?",
+                        lastId, maxId, cutoffTs, chunkSize);
+                if (rows.isEmpty()) break;
+                long firstId = ((Number) rows.get(0).get("ID")).longValue();
+                lastId = ((Number) rows.get(rows.size() - 1).get("ID")).longValue();
+
+                if (archive) {
+                    files.addAll(appendToArchive(rows));
+                    archived += rows.size();
+                }
+                long from = firstId;
+                long to = lastId;
+                Integer removed = transactionTemplate.execute(status -> jdbcTemplate.update(
+                        "DELETE FROM audit_logs WHERE id BETWEEN ? AND ? AND timestamp < ?", from, to, cutoffTs));
+                deleted += removed != null ? removed : 0;
+                chunks++;
+                pauseBetweenChunks();
+            }
+
+            AuditRetentionResultDto result = AuditRetentionResultDto.builder()
+                    .deleteMode(archive ? "SOFT" : "HARD")
+                    .cutoff(cutoff)
+                    .startedAt(startedAt)
+                    .rowsArchived(archived)
+                    .rowsDeleted(deleted)
+                    .chunks(chunks)
+                    .archiveFiles(new ArrayList<>(files))
+                    .durationMs((System.nanoTime() - started) / 1_000_000)
+                    .build();
+            lastRun = result;
+            log.info("Audit retention removed {} row(s) older than {} in {} chunk(s), archived {}, took {} ms",
+                    deleted, cutoff, chunks, archived, result.getDurationMs());
+            return result;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Scans the archive newest month first and returns up to {@code limit} matching entries,
+     * newest first. Only months overlapping [from, to] are opened; each file is streamed.
+     */
+    public List<AuditLogResponseDto> searchArchive(LocalDate from, LocalDate to, String action, String actor,
+                                                   String entityType, Long entityId, int limit) {
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_SEARCH_RESULTS);
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        LocalDateTime fromTime = from != null ? from.atStartOfDay() : null;
+        LocalDateTime toTime = to != null ? to.plusDays(1).atStartOfDay() : null;
+
+        List<AuditLogResponseDto> results = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (File file : listArchiveFiles(from, to)) {
+            // Rows are appended in id order, so the newest matches sit at the end of each file
+            Deque<AuditLogResponseDto> newest = new ArrayDeque<>();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(new FileInputStream(file)), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    JsonNode node = objectMapper.readTree(line);
+                    AuditLogResponseDto entry = toDto(node);
+                    if (!matches(entry, node, fromTime, toTime, action, actor, entityType, entityId)) continue;
+                    newest.addLast(entry);
+                    if (newest.size() > limit - results.size()) newest.removeFirst();
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to read audit archive " + file.getName(), e);
+            }
+            for (Iterator<AuditLogResponseDto> it = newest.descendingIterator(); it.hasNext(); ) {
+                AuditLogResponseDto entry = it.next();
+                if (seen.add(entry.getId())) results.add(entry);
+            }
+            if (results.size() >= limit) break;
+        }
+        return results.size() > limit ? results.subList(0, limit) : results;
+    }
+
+    private List<String> appendToArchive(List<Map<String, Object>> rows) {
+        Map<YearMonth, List<Map<String, Object>>> byMonth = new TreeMap<>();
+        for (Map<String, Object> row : rows) {
+            LocalDateTime timestamp = ((Timestamp) row.get("TIMESTAMP")).toLocalDateTime();
+            byMonth.computeIfAbsent(YearMonth.from(timestamp), m -> new ArrayList<>()).add(row);
+        }
+        File dir = new File(archivePath);
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IllegalStateException("Cannot create audit archive directory " + dir.getAbsolutePath());
+        }
+
+        List<String> files = new ArrayList<>();
+        for (Map.Entry<YearMonth, List<Map<String, Object>>> month : byMonth.entrySet()) {
+            File file = new File(dir, "audit-" + month.getKey() + ".jsonl.gz");
+            // Each chunk is its own gzip member; concatenated members read back as one stream
+            try (FileOutputStream out = new FileOutputStream(file, true)) {
+                GZIPOutputStream gzip = new GZIPOutputStream(out);
+                Writer writer = new OutputStreamWriter(gzip, StandardCharsets.UTF_8);
+                for (Map<String, Object> row : month.getValue()) {
+                    writer.write(objectMapper.writeValueAsString(toRecord(row)));
+                    writer.write('\n');
+                }
+                writer.flush();
+                gzip.finish();
+                out.getFD().sync();
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to write audit archive " + file.getName(), e);
+            }
+            files.add(file.getName());
+        }
+        return files;
+    }
+
+    private List<File> listArchiveFiles(LocalDate from, LocalDate to) {
+        File[] files = new File(archivePath).listFiles((d, name) -> ARCHIVE_FILENAME_PATTERN.matcher(name).matches());
+        if (files == null) return Collections.emptyList();
+        List<File> selected = new ArrayList<>();
+        for (File file : files) {
+            Matcher m = ARCHIVE_FILENAME_PATTERN.matcher(file.getName());
+            if (!m.matches()) continue;
+            YearMonth month = YearMonth.parse(m.group(1));
+            if (from != null && month.isBefore(YearMonth.from(from))) continue;
+            if (to != null && month.isAfter(YearMonth.from(to))) continue;
+            selected.add(file);
+        }
+        selected.sort(Comparator.comparing(File::getName).reversed());
+        return selected;
+    }
+
+    private void pauseBetweenChunks() {
+        if (chunkPauseMs <= 0) return;
+        try {
+            Thread.sleep(chunkPauseMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Audit retention interrupted");
+        }
+    }
+
+    private static Map<String, Object> toRecord(Map<String, Object> row) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("id", row.get("ID"));
+        record.put("timestamp", ((Timestamp) row.get("TIMESTAMP")).toLocalDateTime().toString());
+        record.put("userId", row.get("USER_ID"));
+        record.put("username", row.get("USERNAME"));
+        record.put("actorUsername", row.get("ACTOR_USERNAME"));
+        record.put("action", row.get("ACTION"));
+        record.put("entityType", row.get("ENTITY_TYPE"));
+        record.put("entityId", row.get("ENTITY_ID"));
+        record.put("details", row.get("DETAILS"));
+        return record;
+    }
+
+    private static AuditLogResponseDto toDto(JsonNode node) {
+        String username = text(node, "username");
+        String actorUsername = text(node, "actorUsername");
+        String actorLabel = username != null ? username :
+                (actorUsername != null ? actorUsername + " (deleted)" : "system");
+        LocalDateTime timestamp;
+        try {
+            timestamp = LocalDateTime.parse(node.path("timestamp").asText());
+        } catch (DateTimeParseException e) {
+            timestamp = null;
+        }
+        return AuditLogResponseDto.builder()
+                .id(node.path("id").asLong())
+                .username(username)
+                .actorLabel(actorLabel)
+                .action(text(node, "action"))
+                .entityType(text(node, "entityType"))
+                .entityId(node.hasNonNull("entityId") ? node.get("entityId").asLong() : null)
+                .details(text(node, "details"))
+                .timestamp(timestamp)
+                .build();
+    }
+
+    private static boolean matches(AuditLogResponseDto entry, JsonNode node, LocalDateTime from, LocalDateTime to,
+                                   String action, String actor, String entityType, Long entityId) {
+        if (entry.getTimestamp() == null) return false;
+        if (from != null && entry.getTimestamp().isBefore(from)) return false;
+        if (to != null && !entry.getTimestamp().isBefore(to)) return false;
+        if (action != null && !action.equals(entry.getAction())) return false;
+        if (entityType != null && !entityType.equals(entry.getEntityType())) return false;
+        if (entityId != null && !entityId.equals(entry.getEntityId())) return false;
+        return actor == null || actor.equals(entry.getUsername()) || actor.equals(text(node, "actorUsername"));
+    }
+
+    private static String text(JsonNode node, String field) {
+        return node.hasNonNull(field) ? node.get(field).asText() : null;
+    }
+}
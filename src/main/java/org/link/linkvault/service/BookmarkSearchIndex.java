@@ -0,0 +1,427 @@
+package org.link.linkvault.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.link.linkvault.entity.Bookmark;
+import org.link.linkvault.entity.Tag;
+import org.link.linkvault.repository.BookmarkRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over bookmark title, description, caption, address and tag names.
+ * Ranks hits with BM25 over field-weighted term frequencies; every query term must match
+ * (exactly or as a prefix of an indexed term). Only non-deleted bookmarks are indexed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookmarkSearchIndex {
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final int MAX_TOKEN_LENGTH = 64;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final float PREFIX_MATCH_WEIGHT = 0.5f;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Field weights applied to term frequency (BM25F-style)
+    private static final int TITLE_WEIGHT = 3;
+    private static final int TAG_WEIGHT = 2;
+    private static final int TEXT_WEIGHT = 1;
+
+    private final BookmarkRepository bookmarkRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> dictionary = new TreeMap<>();
+    private final Map<Long, Integer> slotByBookmarkId = new HashMap<>();
+    private final BitSet liveSlots = new BitSet();
+    private final BitSet privateSlots = new BitSet();
+    private long[] bookmarkIds = new long[1024];
+    private long[] createdAtEpochs = new long[1024];
+    private int[] docLengths = new int[1024];
+    private int nextSlot;
+    private long totalLength;
+    // Changes applied while a rebuild is loading its snapshot, replayed on top of it
+    private List<Runnable> pendingChanges;
+
+    // --- Lifecycle ---
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long started = System.currentTimeMillis();
+        // Record changes from before the snapshot is read so commits landing mid-load are replayed
+        List<Runnable> changes = new ArrayList<>();
+        write(() -> pendingChanges = changes);
+        List<IndexedDocument> documents = new ArrayList<>();
+        try {
+            long afterId = 0L;
+            while (true) {
+                List<Long> ids = bookmarkRepository.findActiveIdsAfter(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                if (ids.isEmpty()) break;
+                for (Bookmark bookmark : bookmarkRepository.findAllWithTagsByIdIn(ids)) {
+                    documents.add(IndexedDocument.of(bookmark));
+                }
+                afterId = ids.get(ids.size() - 1);
+            }
+        } catch (RuntimeException e) {
+            // The live index kept receiving changes, so it is left as it was
+            write(() -> pendingChanges = null);
+            throw e;
+        }
+
+        int[] termCount = new int[1];
+        write(() -> {
+            pendingChanges = null;
+            clear();
+            documents.forEach(this::apply);
+            changes.forEach(Runnable::run);
+            termCount[0] = dictionary.size();
+        });
+        log.info("Bookmark search index rebuilt: {} documents, {} terms in {}ms",
+                documents.size(), termCount[0], System.currentTimeMillis() - started);
+    }
+
+    // --- Incremental maintenance (applied after the surrounding transaction commits) ---
+
+    public void index(Bookmark bookmark) {
+        if (bookmark.getId() == null) return;
+        if (bookmark.isDeleted()) {
+            remove(bookmark.getId());
+            return;
+        }
+        IndexedDocument document = IndexedDocument.of(bookmark);
+        TransactionCallbacks.afterCommit(() -> change(() -> apply(document)));
+    }
+
+    public void remove(Long bookmarkId) {
+        TransactionCallbacks.afterCommit(() -> change(() -> retire(bookmarkId)));
+    }
+
+    private void change(Runnable change) {
+        write(() -> {
+            change.run();
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        });
+    }
+
+    private void write(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // --- Query ---
+
+    /**
+     * Returns ranked ids of public bookmarks matching every term of the query.
+     * Ties are broken by newest first.
+     */
+    public SearchHits searchPublic(String query, int offset, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (terms.isEmpty() || limit <= 0) {
+            return SearchHits.EMPTY;
+        }
+
+        lock.readLock().lock();
+        try {
+            int liveCount = slotByBookmarkId.size();
+            if (liveCount == 0) return SearchHits.EMPTY;
+            double avgDocLength = Math.max(1.0, (double) totalLength / liveCount);
+
+            List<TermMatches> expansions = new ArrayList<>();
+            for (String term : terms) {
+                TermMatches matches = expand(term);
+                if (matches.postingsByTerm.isEmpty()) return SearchHits.EMPTY;
+                expansions.add(matches);
+            }
+            // Intersect starting from the rarest term so the candidate set stays small
+            expansions.sort(Comparator.comparingInt(TermMatches::docFrequency));
+
+            Map<Integer, Float> scores = null;
+            for (TermMatches matches : expansions) {
+                Map<Integer, Float> termScores = new HashMap<>();
+                for (Map.Entry<String, Postings> entry : matches.postingsByTerm.entrySet()) {
+                    float weight = entry.getKey().equals(matches.term) ? 1.0f : PREFIX_MATCH_WEIGHT;
+                    Postings postings = entry.getValue();
+                    // Postings may still hold retired slots, so cap df at the live count to keep idf positive
+                    int docFrequency = Math.min(postings.size, liveCount);
+                    double idf = Math.log(1.0 + (liveCount - docFrequency + 0.5) / (docFrequency + 0.5));
+                    for (int p = 0; p < postings.size; p++) {
+                        int slot = postings.slots[p];
+                        if (!liveSlots.get(slot) || privateSlots.get(slot)) continue;
+                        if (scores != null && !scores.containsKey(slot)) continue;
+                        double tf = postings.freqs[p];
+                        double norm = K1 * (1 - B + B * docLengths[slot] / avgDocLength);
+                        float score = (float) (weight * idf * tf * (K1 + 1) / (tf + norm));
+                        termScores.merge(slot, score, Float::sum);
+                    }
+                }
+                if (scores != null) {
+                    for (Map.Entry<Integer, Float> entry : termScores.entrySet()) {
+                        entry.setValue(entry.getValue() + scores.get(entry.getKey()));
+                    }
+                }
+                scores = termScores;
+                if (scores.isEmpty()) return SearchHits.EMPTY;
+            }
+
+            return topHits(scores, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotByBookmarkId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) return Collections.emptyList();
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        text.codePoints().forEach(cp -> {
+            if (Character.isLetterOrDigit(cp)) {
+                current.appendCodePoint(Character.toLowerCase(cp));
+            } else if (current.length() > 0) {
+                addToken(tokens, current);
+            }
+        });
+        if (current.length() > 0) {
+            addToken(tokens, current);
+        }
+        return tokens;
+    }
+
+    // --- Internal helpers (callers hold the appropriate lock) ---
+
+    private static void addToken(List<String> tokens, StringBuilder current) {
+        String token = current.length() > MAX_TOKEN_LENGTH ? current.substring(0, MAX_TOKEN_LENGTH) : current.toString();
+        tokens.add(token);
+        current.setLength(0);
+    }
+
+    private TermMatches expand(String term) {
+        TermMatches matches = new TermMatches(term);
+        Postings exact = dictionary.get(term);
+        if (exact != null) {
+            matches.postingsByTerm.put(term, exact);
+        }
+        for (Map.Entry<String, Postings> entry : dictionary.subMap(term, false, term + Character.MAX_VALUE, false).entrySet()) {
+            if (matches.postingsByTerm.size() >= MAX_PREFIX_EXPANSIONS) break;
+            matches.postingsByTerm.put(entry.getKey(), entry.getValue());
+        }
+        return matches;
+    }
+
+    private SearchHits topHits(Map<Integer, Float> scores, int offset, int limit) {
+        Comparator<Map.Entry<Integer, Float>> ranking = Comparator
+                .comparing((Map.Entry<Integer, Float> e) -> e.getValue())
+                .thenComparingLong(e -> createdAtEpochs[e.getKey()])
+                .thenComparingLong(e -> bookmarkIds[e.getKey()]);
+
+        int wanted = offset + limit;
+        PriorityQueue<Map.Entry<Integer, Float>> heap = new PriorityQueue<>(Math.min(wanted, scores.size()) + 1, ranking);
+        for (Map.Entry<Integer, Float> entry : scores.entrySet()) {
+            heap.offer(entry);
+            if (heap.size() > wanted) heap.poll();
+        }
+
+        List<Map.Entry<Integer, Float>> ranked = new ArrayList<>(heap);
+        ranked.sort(ranking.reversed());
+        List<Long> ids = new ArrayList<>();
+        for (int i = offset; i < ranked.size(); i++) {
+            ids.add(bookmarkIds[ranked.get(i).getKey()]);
+        }
+        return new SearchHits(ids, scores.size());
+    }
+
+    private void apply(IndexedDocument document) {
+        retire(document.bookmarkId);
+        if (nextSlot == bookmarkIds.length) {
+            int capacity = bookmarkIds.length * 2;
+            bookmarkIds = Arrays.copyOf(bookmarkIds, capacity);
+            createdAtEpochs = Arrays.copyOf(createdAtEpochs, capacity);
+            docLengths = Arrays.copyOf(docLengths, capacity);
+        }
+        int slot = nextSlot++;
+        bookmarkIds[slot] = document.bookmarkId;
+        createdAtEpochs[slot] = document.createdAtEpoch;
+        docLengths[slot] = document.length;
+        liveSlots.set(slot);
+        privateSlots.set(slot, document.privatePost);
+        slotByBookmarkId.put(document.bookmarkId, slot);
+        totalLength += document.length;
+        for (Map.Entry<String, Integer> entry : document.termFreqs.entrySet()) {
+            dictionary.computeIfAbsent(entry.getKey(), k -> new Postings()).add(slot, entry.getValue());
+        }
+    }
+
+    private void retire(Long bookmarkId) {
+        Integer slot = slotByBookmarkId.remove(bookmarkId);
+        if (slot == null) return;
+        liveSlots.clear(slot);
+        totalLength -= docLengths[slot];
+        // Retired slots stay in the postings until dead entries outnumber live ones
+        int deadSlots = nextSlot - slotByBookmarkId.size();
+        if (deadSlots > 1024 && deadSlots > slotByBookmarkId.size()) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        int[] remap = new int[nextSlot];
+        int live = 0;
+        for (int slot = 0; slot < nextSlot; slot++) {
+            if (liveSlots.get(slot)) {
+                remap[slot] = live;
+                bookmarkIds[live] = bookmarkIds[slot];
+                createdAtEpochs[live] = createdAtEpochs[slot];
+                docLengths[live] = docLengths[slot];
+                privateSlots.set(live, privateSlots.get(slot));
+                slotByBookmarkId.put(bookmarkIds[live], live);
+                live++;
+            } else {
+                remap[slot] = -1;
+            }
+        }
+        dictionary.values().removeIf(postings -> postings.compact(remap) == 0);
+        liveSlots.clear();
+        liveSlots.set(0, live);
+        privateSlots.clear(live, nextSlot);
+        nextSlot = live;
+    }
+
+    private void clear() {
+        dictionary.clear();
+        slotByBookmarkId.clear();
+        liveSlots.clear();
+        privateSlots.clear();
+        nextSlot = 0;
+        totalLength = 0;
+    }
+
+    // --- Value types ---
+
+    private static final class Postings {
+        private int[] slots = new int[4];
+        private int[] freqs = new int[4];
+        private int size;
+
+        void add(int slot, int freq) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            slots[size] = slot;
+            freqs[size] = freq;
+            size++;
+        }
+
+        int compact(int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int target = remap[slots[i]];
+                if (target < 0) continue;
+                slots[kept] = target;
+                freqs[kept] = freqs[i];
+                kept++;
+            }
+            size = kept;
+            return kept;
+        }
+    }
+
+    private static final class TermMatches {
+        private final String term;
+        private final Map<String, Postings> postingsByTerm = new LinkedHashMap<>();
+
+        TermMatches(String term) {
+            this.term = term;
+        }
+
+        int docFrequency() {
+            int total = 0;
+            for (Postings postings : postingsByTerm.values()) {
+                total += postings.size;
+            }
+            return total;
+        }
+    }
+
+    private static final class IndexedDocument {
+        private final long bookmarkId;
+        private final boolean privatePost;
+        private final long createdAtEpoch;
+        private final Map<String, Integer> termFreqs = new HashMap<>();
+        private int length;
+
+        private IndexedDocument(Bookmark bookmark) {
+            this.bookmarkId = bookmark.getId();
+            this.privatePost = bookmark.isPrivatePost();
+            LocalDateTime createdAt = bookmark.getCreatedAt();
+            this.createdAtEpoch = createdAt != null ? createdAt.toEpochSecond(ZoneOffset.UTC) : 0L;
+        }
+
+        static IndexedDocument of(Bookmark bookmark) {
+            IndexedDocument document = new IndexedDocument(bookmark);
+            document.addField(bookmark.getTitle(), TITLE_WEIGHT);
+            document.addField(bookmark.getDescription(), TEXT_WEIGHT);
+            document.addField(bookmark.getCaption(), TEXT_WEIGHT);
+            document.addField(bookmark.getAddress(), TEXT_WEIGHT);
+            for (Tag tag : bookmark.getTags()) {
+                document.addField(tag.getName(), TAG_WEIGHT);
+            }
+            return document;
+        }
+
+        private void addField(String text, int weight) {
+            for (String token : tokenize(text)) {
+                termFreqs.merge(token, weight, Integer::sum);
+                length += weight;
+            }
+        }
+    }
+
+    @Getter
+    public static class SearchHits {
+        static final SearchHits EMPTY = new SearchHits(Collections.emptyList(), 0);
+
+        private final List<Long> bookmarkIds;
+        private final long totalHits;
+
+        SearchHits(List<Long> bookmarkIds, long totalHits) {
+            this.bookmarkIds = bookmarkIds;
+            this.totalHits = totalHits;
+        }
+    }
+}
@@ -3,13 +3,18 @@ package org.link.linkvault.service;
 import lombok.RequiredArgsConstructor;
 import org.link.linkvault.dto.BookmarkRequestDto;
 import org.link.linkvault.dto.BookmarkResponseDto;
+import org.link.linkvault.dto.CursorPageDto;
+import org.link.linkvault.dto.MapViewportDto;
 import org.link.linkvault.entity.Bookmark;
 import org.link.linkvault.entity.Comment;
 import org.link.linkvault.entity.Folder;
+import org.link.linkvault.entity.MetadataStatus;
 import org.link.linkvault.entity.PostPhoto;
 import org.link.linkvault.entity.Role;
 import org.link.linkvault.entity.Tag;
 import org.link.linkvault.entity.User;
+import org.link.linkvault.event.ChromeSummaryChangedEvent;
+import org.link.linkvault.event.TagUsageChangedEvent;
 import org.link.linkvault.exception.DuplicateUrlException;
 import org.link.linkvault.exception.ResourceNotFoundException;
 import org.link.linkvault.repository.BookmarkRepository;
@@ -18,7 +23,9 @@ import org.link.linkvault.repository.CommentVoteRepository;
 import org.link.linkvault.repository.FolderRepository;
 import org.link.linkvault.repository.PostPhotoRepository;
 import org.link.linkvault.repository.TagRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -26,10 +33,17 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -37,15 +51,27 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class BookmarkService {
 
+    private static final int PENDING_ACCESS_CHUNK = 500;
+    static final int MAX_FEED_PAGE_SIZE = 100;
+
     private final BookmarkRepository bookmarkRepository;
     private final TagRepository tagRepository;
     private final FolderRepository folderRepository;
     private final PostPhotoRepository postPhotoRepository;
     private final CommentRepository commentRepository;
     private final CommentVoteRepository commentVoteRepository;
+    private final CommentService commentService;
     private final MetadataExtractor metadataExtractor;
+    private final MetadataEnricher metadataEnricher;
+    private final PhotoVariantService photoVariantService;
     private final AuditLogService auditLogService;
     private final FileVaultService fileVaultService;
+    private final BookmarkSearchIndex bookmarkSearchIndex;
+    private final GeoGridIndex geoGridIndex;
+    private final TypeaheadIndex typeaheadIndex;
+    private final TagUsageCounter tagUsageCounter;
+    private final AccessCounterBuffer accessCounterBuffer;
+    private final ApplicationEventPublisher eventPublisher;
 
     private boolean isAdmin(User user) {
         return user.getRole() == Role.SUPER_ADMIN
@@ -82,7 +108,7 @@ public class BookmarkService {
         return BookmarkResponseDto.from(bookmark);
     }
 
-    // --- Create with duplicate detection & metadata extraction ---
+    // --- Create with duplicate detection & background metadata enrichment ---
 
     @Transactional
     public BookmarkResponseDto create(User currentUser, BookmarkRequestDto requestDto, List<MultipartFile> photos) {
@@ -99,16 +125,12 @@ public class BookmarkService {
         String description = requestDto.getDescription();
         String favicon = "";
 
-        // Extract metadata from URL only if URL is provided
+        // Page metadata is fetched in the background; until then the URL stands in for a missing title
         if (hasUrl) {
-            Map<String, String> metadata = metadataExtractor.extract(url);
             if (title == null || title.isBlank()) {
-                title = metadata.getOrDefault("title", url);
-            }
-            if (description == null || description.isBlank()) {
-                description = metadata.getOrDefault("description", "");
+                title = url;
             }
-            favicon = metadata.getOrDefault("favicon", "");
+            favicon = metadataExtractor.defaultFavicon(url);
         }
 
         Bookmark bookmark = Bookmark.builder()
@@ -126,12 +148,26 @@ public class BookmarkService {
                 .privatePost(Boolean.TRUE.equals(requestDto.getPrivatePost()))
                 .build();
 
+        if (hasUrl) {
+            bookmark.setMetadataStatus(MetadataStatus.PENDING);
+        }
+
         assignTags(bookmark, requestDto.getTagNames());
 
         Bookmark saved = bookmarkRepository.save(bookmark);
 
         // Process photos (max 4)
         processPhotos(saved, photos);
+        bookmarkSearchIndex.index(saved);
+        geoGridIndex.index(saved);
+        typeaheadIndex.indexBookmark(saved);
+        typeaheadIndex.adjustTagUsage(Collections.emptySet(), saved.getTags());
+        if (!saved.getTags().isEmpty()) {
+            eventPublisher.publishEvent(new TagUsageChangedEvent());
+        }
+        if (hasUrl) {
+            metadataEnricher.enqueue(saved);
+        }
 
         auditLogService.log(currentUser.getUsername(), AuditActionCodes.BOOKMARK_CREATE, "Bookmark", saved.getId(), title);
         return BookmarkResponseDto.from(saved);
@@ -206,15 +242,23 @@ public class BookmarkService {
         bookmark.setFolder(resolveFolder(currentUser, requestDto.getFolderId()));
         bookmark.setPrivatePost(Boolean.TRUE.equals(requestDto.getPrivatePost()));
 
-        // Refresh favicon if URL changed
-        if (hasNewUrl && !newUrl.equals(oldUrl)) {
-            Map<String, String> metadata = metadataExtractor.extract(newUrl);
-            bookmark.setFavicon(metadata.getOrDefault("favicon", ""));
+        // Refresh favicon in the background if URL changed
+        boolean urlChanged = hasNewUrl && !newUrl.equals(oldUrl);
+        if (urlChanged) {
+            bookmark.setFavicon(metadataExtractor.defaultFavicon(newUrl));
+            bookmark.setMetadataStatus(MetadataStatus.PENDING);
+        } else if (!hasNewUrl) {
+            bookmark.setMetadataStatus(null);
         }
 
         // Clear existing tags and reassign
-        new HashSet<>(bookmark.getTags()).forEach(bookmark::removeTag);
+        Set<Tag> previousTags = new HashSet<>(bookmark.getTags());
+        removeTags(bookmark, previousTags);
         assignTags(bookmark, requestDto.getTagNames());
+        typeaheadIndex.adjustTagUsage(previousTags, bookmark.getTags());
+        if (!previousTags.equals(bookmark.getTags())) {
+            eventPublisher.publishEvent(new TagUsageChangedEvent());
+        }
 
         // Handle photo deletions
         if (deletePhotoIds != null && !deletePhotoIds.isEmpty()) {
@@ -229,6 +273,13 @@ public class BookmarkService {
 
         // Handle new photo additions
         processPhotos(bookmark, newPhotos);
+        bookmarkSearchIndex.index(bookmark);
+        geoGridIndex.index(bookmark);
+        typeaheadIndex.indexBookmark(bookmark);
+        if (urlChanged) {
+            metadataEnricher.enqueue(bookmark);
+        }
+        eventPublisher.publishEvent(ChromeSummaryChangedEvent.forBookmark(id));
 
         auditLogService.log(currentUser.getUsername(), AuditActionCodes.BOOKMARK_UPDATE, "Bookmark", id, requestDto.getTitle());
         return BookmarkResponseDto.from(bookmark);
@@ -251,6 +302,9 @@ public class BookmarkService {
         }
 
         bookmark.softDelete();
+        bookmarkSearchIndex.remove(id);
+        geoGridIndex.remove(id);
+        typeaheadIndex.removeBookmark(id);
         auditLogService.log(currentUser.getUsername(), AuditActionCodes.BOOKMARK_SOFT_DELETE, "Bookmark", id, bookmark.getTitle());
     }
 
@@ -259,6 +313,9 @@ public class BookmarkService {
         Bookmark bookmark = bookmarkRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Bookmark not found with id: " + id));
         bookmark.restore();
+        bookmarkSearchIndex.index(bookmark);
+        geoGridIndex.index(bookmark);
+        typeaheadIndex.indexBookmark(bookmark);
         auditLogService.log(currentUser.getUsername(), AuditActionCodes.BOOKMARK_RESTORE, "Bookmark", id, bookmark.getTitle());
     }
 
@@ -283,6 +340,7 @@ public class BookmarkService {
 
         // 2. Detach child comments and delete all comments on this bookmark
         commentRepository.deleteByBookmarkId(id);
+        commentService.evictBookmarkThread(id);
 
         // 3. Delete photo files from disk
         if (bookmark.getPhotos() != null) {
@@ -292,7 +350,14 @@ public class BookmarkService {
         }
 
         // 4. Delete bookmark only after dependencies are cleaned
+        typeaheadIndex.adjustTagUsage(bookmark.getTags(), Collections.emptySet());
+        removeTags(bookmark, new HashSet<>(bookmark.getTags()));
         bookmarkRepository.delete(bookmark);
+        bookmarkSearchIndex.remove(id);
+        geoGridIndex.remove(id);
+        typeaheadIndex.removeBookmark(id);
+        eventPublisher.publishEvent(ChromeSummaryChangedEvent.forBookmark(id));
+        eventPublisher.publishEvent(new TagUsageChangedEvent());
 
         // 5. Audit log after successful purge
         auditLogService.log(currentUser.getUsername(), AuditActionCodes.BOOKMARK_PURGE, "Bookmark", id, bookmark.getTitle());
@@ -300,11 +365,17 @@ public class BookmarkService {
 
     // --- Access tracking ---
 
-    @Transactional
+    /**
+     * Counts a view without writing the row: the hit goes to {@link AccessCounterBuffer} and is
+     * flushed in batches, so the returned count includes views not yet persisted.
+     */
     public BookmarkResponseDto recordAccess(Long id, User currentUser) {
         Bookmark bookmark = findByIdWithAccessControl(id, currentUser);
-        bookmark.recordAccess();
-        return BookmarkResponseDto.from(bookmark);
+        accessCounterBuffer.record(id);
+        return BookmarkResponseDto.from(bookmark).toBuilder()
+                .accessCount(bookmark.getAccessCount() + (int) accessCounterBuffer.pendingHits(id))
+                .lastAccessedAt(LocalDateTime.now())
+                .build();
     }
 
     @Transactional(readOnly = true)
@@ -328,23 +399,70 @@ public class BookmarkService {
         return bookmark;
     }
 
+    // Rankings merge the buffered views on top of the persisted counts so they don't lag a flush behind
     public List<BookmarkResponseDto> findFrequentlyAccessed(User currentUser, int limit) {
-        return bookmarkRepository.findTopByAccessCountAndUserId(currentUser.getId(), PageRequest.of(0, limit)).stream()
-                .map(BookmarkResponseDto::from)
+        Map<Long, AccessCounterBuffer.PendingAccess> pending = accessCounterBuffer.snapshot();
+        Map<Long, Bookmark> candidates = new LinkedHashMap<>();
+        bookmarkRepository.findTopByAccessCountAndUserId(currentUser.getId(), PageRequest.of(0, limit))
+                .forEach(b -> candidates.put(b.getId(), b));
+        List<Long> pendingIds = pending.keySet().stream()
+                .filter(id -> !candidates.containsKey(id))
+                .collect(Collectors.toList());
+        for (int from = 0; from < pendingIds.size(); from += PENDING_ACCESS_CHUNK) {
+            bookmarkRepository.findActiveByUserIdAndIdIn(currentUser.getId(),
+                            pendingIds.subList(from, Math.min(pendingIds.size(), from + PENDING_ACCESS_CHUNK)))
+                    .forEach(b -> candidates.put(b.getId(), b));
+        }
+        return candidates.values().stream()
+                .map(b -> withPendingAccess(b, pending.get(b.getId())))
+                .sorted(Comparator.comparingInt(BookmarkResponseDto::getAccessCount).reversed())
+                .limit(limit)
                 .collect(Collectors.toList());
     }
 
     public List<BookmarkResponseDto> findRecentlyAccessed(int limit) {
-        return bookmarkRepository.findRecentlyAccessed(PageRequest.of(0, limit)).stream()
-                .map(BookmarkResponseDto::from)
+        Map<Long, AccessCounterBuffer.PendingAccess> pending = accessCounterBuffer.snapshot();
+        Map<Long, Bookmark> candidates = new LinkedHashMap<>();
+        bookmarkRepository.findRecentlyAccessed(PageRequest.of(0, limit))
+                .forEach(b -> candidates.put(b.getId(), b));
+        // Most recent buffered views first; stop once enough public ones are loaded
+        List<Long> pendingIds = pending.entrySet().stream()
+                .filter(e -> !candidates.containsKey(e.getKey()))
+                .sorted(Comparator.comparing((Map.Entry<Long, AccessCounterBuffer.PendingAccess> e) ->
+                        e.getValue().getLastAccessedAt()).reversed())
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        int loaded = 0;
+        for (int from = 0; from < pendingIds.size() && loaded < limit; from += PENDING_ACCESS_CHUNK) {
+            List<Bookmark> found = bookmarkRepository.findPublicByIdIn(
+                    pendingIds.subList(from, Math.min(pendingIds.size(), from + PENDING_ACCESS_CHUNK)));
+            found.forEach(b -> candidates.put(b.getId(), b));
+            loaded += found.size();
+        }
+        return candidates.values().stream()
+                .map(b -> withPendingAccess(b, pending.get(b.getId())))
+                .sorted(Comparator.comparing(BookmarkResponseDto::getLastAccessedAt,
+                        Comparator.nullsLast(Comparator.reverseOrder())))
+                .limit(limit)
                 .collect(Collectors.toList());
     }
 
+    private BookmarkResponseDto withPendingAccess(Bookmark bookmark, AccessCounterBuffer.PendingAccess pending) {
+        BookmarkResponseDto dto = BookmarkResponseDto.from(bookmark);
+        if (pending == null) return dto;
+        LocalDateTime lastAccessedAt = bookmark.getLastAccessedAt() == null
+                || pending.getLastAccessedAt().isAfter(bookmark.getLastAccessedAt())
+                ? pending.getLastAccessedAt() : bookmark.getLastAccessedAt();
+        return dto.toBuilder()
+                .accessCount(bookmark.getAccessCount() + (int) pending.getHits())
+                .lastAccessedAt(lastAccessedAt)
+                .build();
+    }
+
     // --- Search & filter ---
 
     public Page<BookmarkResponseDto> searchByKeyword(User currentUser, String keyword, Pageable pageable) {
-        return bookmarkRepository.searchByKeyword(keyword, pageable)
-                .map(BookmarkResponseDto::from);
+        return searchPublicIndex(keyword, pageable);
     }
 
     public List<BookmarkResponseDto> findByTagName(User currentUser, String tagName) {
@@ -379,8 +497,7 @@ public class BookmarkService {
     }
 
     public Page<BookmarkResponseDto> searchByKeywordPublic(String keyword, Pageable pageable) {
-        return bookmarkRepository.searchByKeywordPublic(keyword, pageable)
-                .map(BookmarkResponseDto::from);
+        return searchPublicIndex(keyword, pageable);
     }
 
     public List<BookmarkResponseDto> findByTagNamePublic(String tagName) {
@@ -389,6 +506,42 @@ public class BookmarkService {
                 .collect(Collectors.toList());
     }
 
+    // --- Cursor feeds (keyset pagination, no count query) ---
+
+    public CursorPageDto<BookmarkResponseDto> findFeed(FeedCursor.Sort sort, String cursor, int size) {
+        return cursorPage(sort, cursor, size, (c, limit) -> sort == FeedCursor.Sort.NEWEST
+                ? bookmarkRepository.findPublicFeedByCreatedAt(c.getCreatedAt(), c.getId(), limit)
+                : bookmarkRepository.findPublicFeedByAccessCount(c.getAccessCount(), c.getId(), limit));
+    }
+
+    public CursorPageDto<BookmarkResponseDto> findFeedForAdmin(FeedCursor.Sort sort, String cursor, int size) {
+        return cursorPage(sort, cursor, size, (c, limit) -> sort == FeedCursor.Sort.NEWEST
+                ? bookmarkRepository.findAdminFeedByCreatedAt(c.getCreatedAt(), c.getId(), limit)
+                : bookmarkRepository.findAdminFeedByAccessCount(c.getAccessCount(), c.getId(), limit));
+    }
+
+    public CursorPageDto<BookmarkResponseDto> findFeedByUser(User user, FeedCursor.Sort sort, String cursor, int size) {
+        return cursorPage(sort, cursor, size, (c, limit) -> sort == FeedCursor.Sort.NEWEST
+                ? bookmarkRepository.findUserFeedByCreatedAt(user.getId(), c.getCreatedAt(), c.getId(), limit)
+                : bookmarkRepository.findUserFeedByAccessCount(user.getId(), c.getAccessCount(), c.getId(), limit));
+    }
+
+    // Reads one row past the page to learn whether another page exists
+    private CursorPageDto<BookmarkResponseDto> cursorPage(FeedCursor.Sort sort, String token, int size,
+                                                          BiFunction<FeedCursor, Pageable, List<Bookmark>> query) {
+        if (size < 1 || size > MAX_FEED_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_FEED_PAGE_SIZE);
+        }
+        List<Bookmark> rows = query.apply(FeedCursor.decode(token, sort), PageRequest.of(0, size + 1));
+        boolean hasNext = rows.size() > size;
+        List<Bookmark> page = hasNext ? rows.subList(0, size) : rows;
+        return CursorPageDto.<BookmarkResponseDto>builder()
+                .content(page.stream().map(BookmarkResponseDto::from).collect(Collectors.toList()))
+                .nextCursor(hasNext ? FeedCursor.after(sort, page.get(size - 1)).encode() : null)
+                .hasNext(hasNext)
+                .build();
+    }
+
     // --- Admin listing (includes private posts) ---
 
     public Page<BookmarkResponseDto> findAllForAdmin(Pageable pageable) {
@@ -406,6 +559,12 @@ public class BookmarkService {
 
     // --- Map discovery ---
 
+    // Served from the in-memory grid; admins also see private posts
+    public MapViewportDto findMapViewport(double south, double west, double north, double east,
+                                          int zoom, boolean includePrivate) {
+        return geoGridIndex.query(south, west, north, east, zoom, includePrivate);
+    }
+
     public List<BookmarkResponseDto> findAllWithLocation() {
         return bookmarkRepository.findAllWithLocation().stream()
                 .map(BookmarkResponseDto::from)
@@ -441,6 +600,25 @@ public class BookmarkService {
 
     // --- Internal helpers ---
 
+    // Results are ranked by relevance, so any sort on the pageable is ignored
+    private Page<BookmarkResponseDto> searchPublicIndex(String keyword, Pageable pageable) {
+        BookmarkSearchIndex.SearchHits hits = bookmarkSearchIndex.searchPublic(
+                keyword, (int) pageable.getOffset(), pageable.getPageSize());
+        if (hits.getBookmarkIds().isEmpty()) {
+            return new PageImpl<>(Collections.emptyList(), pageable, hits.getTotalHits());
+        }
+
+        // Re-check visibility against the DB in case the index trails a concurrent change
+        Map<Long, Bookmark> byId = bookmarkRepository.findPublicByIdIn(hits.getBookmarkIds()).stream()
+                .collect(Collectors.toMap(Bookmark::getId, Function.identity()));
+        List<BookmarkResponseDto> content = hits.getBookmarkIds().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(BookmarkResponseDto::from)
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, hits.getTotalHits());
+    }
+
     private void assignTags(Bookmark bookmark, Set<String> tagNames) {
         if (tagNames == null || tagNames.isEmpty()) {
             return;
@@ -450,7 +628,17 @@ public class BookmarkService {
             if (trimmed.isEmpty()) continue;
             Tag tag = tagRepository.findByName(trimmed)
                     .orElseGet(() -> tagRepository.save(new Tag(trimmed)));
-            bookmark.addTag(tag);
+            if (bookmark.addTag(tag)) {
+                tagUsageCounter.adjust(tag, 1);
+            }
+        }
+    }
+
+    private void removeTags(Bookmark bookmark, Set<Tag> tags) {
+        for (Tag tag : tags) {
+            if (bookmark.removeTag(tag)) {
+                tagUsageCounter.adjust(tag, -1);
+            }
         }
     }
 
@@ -489,6 +677,7 @@ public class BookmarkService {
                         .displayOrder(currentCount + i)
                         .build();
                 bookmark.addPhoto(postPhoto);
+                photoVariantService.enqueue(postPhoto);
             } catch (IOException e) {
                 throw new RuntimeException("Failed to store photo: " + file.getOriginalFilename(), e);
             }
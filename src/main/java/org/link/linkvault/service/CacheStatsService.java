@@ -0,0 +1,37 @@
+package org.link.linkvault.service;
+
+import lombok.RequiredArgsConstructor;
+import org.link.linkvault.dto.CacheStatsDto;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Collects stats from the in-memory caches for the admin dashboard
+@Service
+@RequiredArgsConstructor
+public class CacheStatsService {
+
+    private final MetadataExtractor metadataExtractor;
+    private final ChromeSummaryService chromeSummaryService;
+    private final SystemStatsService systemStatsService;
+    private final AuditLogService auditLogService;
+    private final NotificationDispatcher notificationDispatcher;
+    private final PermissionService permissionService;
+    private final RateLimitService rateLimitService;
+    private final GuestEventService guestEventService;
+    private final CommentService commentService;
+
+    public List<CacheStatsDto> getAllCacheStats() {
+        List<CacheStatsDto> stats = new ArrayList<>(metadataExtractor.getCacheStats());
+        stats.addAll(chromeSummaryService.getCacheStats());
+        stats.addAll(systemStatsService.getCacheStats());
+        stats.addAll(auditLogService.getCacheStats());
+        stats.addAll(notificationDispatcher.getCacheStats());
+        stats.addAll(permissionService.getCacheStats());
+        stats.addAll(rateLimitService.getCacheStats());
+        stats.addAll(guestEventService.getCacheStats());
+        stats.addAll(commentService.getCacheStats());
+        return stats;
+    }
+}
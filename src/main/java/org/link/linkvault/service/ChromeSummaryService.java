@@ -0,0 +1,134 @@
+package org.link.linkvault.service;
+
+import lombok.RequiredArgsConstructor;
+import org.link.linkvault.dto.CacheStatsDto;
+import org.link.linkvault.dto.ChromeSummaryDto;
+import org.link.linkvault.dto.FavoriteBookmarkResponseDto;
+import org.link.linkvault.entity.Theme;
+import org.link.linkvault.entity.User;
+import org.link.linkvault.entity.UserUnreadCounter;
+import org.link.linkvault.event.ChromeSummaryChangedEvent;
+import org.link.linkvault.repository.FavoriteBookmarkRepository;
+import org.link.linkvault.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Per-user summary of everything the page chrome shows (sidebar counters, favorites, theme).
+ * Loaded with one aggregated query plus the favorites list and cached per user; writers publish
+ * {@link ChromeSummaryChangedEvent} and the affected entries are dropped after commit. The TTL
+ * only bounds staleness for changes that have no event, such as time-based publishing.
+ */
+@Service
+@RequiredArgsConstructor
+public class ChromeSummaryService {
+
+    private final UserRepository userRepository;
+    private final FavoriteBookmarkRepository favoriteBookmarkRepository;
+    private final QnaArticleService qnaArticleService;
+    private final UnreadCounterService unreadCounterService;
+
+    @Value("${linkvault.chrome-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${linkvault.chrome-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private ExpiringLruCache<Long, ChromeSummaryDto> summaries;
+    // QnA freshness is the same for everyone, so it is cached once rather than per user
+    private ExpiringLruCache<Boolean, Boolean> qnaRecentlyUpdated;
+
+    // Bumped on every invalidation; a load that overlaps one is returned but not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    @PostConstruct
+    void initCaches() {
+        summaries = new ExpiringLruCache<>("chrome-summaries", maxEntries, Duration.ofSeconds(ttlSeconds));
+        qnaRecentlyUpdated = new ExpiringLruCache<>("chrome-qna-flag", 1, Duration.ofSeconds(ttlSeconds));
+    }
+
+    @Transactional(readOnly = true)
+    public ChromeSummaryDto getSummary(User user) {
+        if (user == null) return ChromeSummaryDto.anonymous();
+        ChromeSummaryDto cached = summaries.get(user.getId());
+        if (cached != null) return cached;
+
+        long loadGeneration = generation.get();
+        ChromeSummaryDto loaded = load(user);
+        if (generation.get() == loadGeneration) {
+            summaries.put(user.getId(), loaded);
+        }
+        return loaded;
+    }
+
+    public boolean hasRecentQnaUpdate() {
+        Boolean cached = qnaRecentlyUpdated.get(Boolean.TRUE);
+        if (cached != null) return cached;
+        long loadGeneration = generation.get();
+        boolean loaded = qnaArticleService.hasRecentlyUpdatedArticles();
+        if (generation.get() == loadGeneration) {
+            qnaRecentlyUpdated.put(Boolean.TRUE, loaded);
+        }
+        return loaded;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChromeSummaryChanged(ChromeSummaryChangedEvent event) {
+        generation.incrementAndGet();
+        if (event.isAllUsers()) {
+            summaries.clear();
+            qnaRecentlyUpdated.clear();
+        } else if (event.getUserId() != null) {
+            summaries.invalidate(event.getUserId());
+        } else if (event.getBookmarkId() != null) {
+            summaries.invalidateIf(summary -> summary.hasFavorite(event.getBookmarkId()));
+        }
+    }
+
+    public List<CacheStatsDto> getCacheStats() {
+        return List.of(summaries.stats());
+    }
+
+    @Scheduled(fixedDelay = 600_000)
+    public void purgeExpiredEntries() {
+        summaries.purgeExpired();
+    }
+
+    private ChromeSummaryDto load(User user) {
+        Long userId = user.getId();
+        List<Object[]> rows = userRepository.findChromeCounters(userId);
+        if (rows.isEmpty()) return ChromeSummaryDto.anonymous();
+        Object[] row = rows.get(0);
+        long unreadNotifications;
+        long unreadAnnouncements;
+        if (row[1] != null) {
+            unreadNotifications = ((Number) row[1]).longValue();
+            unreadAnnouncements = ((Number) row[2]).longValue();
+        } else {
+            UserUnreadCounter counter = unreadCounterService.getCounter(userId, user.getRole());
+            unreadNotifications = counter.getNotifications();
+            unreadAnnouncements = counter.getAnnouncements();
+        }
+
+        List<FavoriteBookmarkResponseDto> favorites = favoriteBookmarkRepository.findWithBookmarkByUserId(userId).stream()
+                .map(FavoriteBookmarkResponseDto::from)
+                .collect(Collectors.toList());
+
+        return ChromeSummaryDto.builder()
+                .savedCount(((Number) row[0]).longValue())
+                .unreadNotificationCount(Math.max(0, unreadNotifications))
+                .unreadAnnouncementCount(Math.max(0, unreadAnnouncements))
+                .theme(row[3] != null ? row[3].toString() : Theme.DARK.name())
+                .favorites(favorites)
+                .build();
+    }
+}
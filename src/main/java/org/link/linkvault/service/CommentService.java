@@ -1,19 +1,31 @@
 package org.link.linkvault.service;
 
 import lombok.RequiredArgsConstructor;
+import org.link.linkvault.dto.CacheStatsDto;
 import org.link.linkvault.dto.CommentRequestDto;
 import org.link.linkvault.dto.CommentResponseDto;
 import org.link.linkvault.dto.CommentVoteResponseDto;
+import org.link.linkvault.dto.CursorPageDto;
 import org.link.linkvault.entity.*;
+import org.link.linkvault.event.CommentCreatedEvent;
+import org.link.linkvault.event.CommentLikedEvent;
 import org.link.linkvault.exception.ResourceNotFoundException;
 import org.link.linkvault.repository.AnnouncementRepository;
 import org.link.linkvault.repository.BookmarkRepository;
 import org.link.linkvault.repository.CommentRepository;
 import org.link.linkvault.repository.CommentVoteRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,123 +34,211 @@ import java.util.stream.Collectors;
 public class CommentService {
 
     private static final int MAX_DEPTH = 5;
+    private static final int MAX_THREAD_PAGE_SIZE = 50;
+    // Direct replies inlined under each comment, and the cap on comments in one response
+    private static final int REPLY_PREVIEW = 3;
+    private static final int MAX_COMMENTS_PER_RESPONSE = 200;
 
     private final CommentRepository commentRepository;
     private final CommentVoteRepository commentVoteRepository;
     private final BookmarkRepository bookmarkRepository;
     private final AnnouncementRepository announcementRepository;
-    private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
     private final AuditLogService auditLogService;
 
-    public List<CommentResponseDto> getCommentsForBookmark(Long bookmarkId, User currentUser) {
-        List<Comment> allComments = commentRepository.findAllByBookmarkId(bookmarkId);
+    @Value("${linkvault.comments.thread-cache-max-entries:1000}")
+    private int threadCacheMaxEntries;
 
-        // Batch load user votes
-        List<Long> commentIds = allComments.stream().map(Comment::getId).collect(Collectors.toList());
-        Map<Long, VoteType> userVotes = new HashMap<>();
-        if (currentUser != null && !commentIds.isEmpty()) {
-            commentVoteRepository.findByUserIdAndCommentIdIn(currentUser.getId(), commentIds)
-                    .forEach(v -> userVotes.put(v.getComment().getId(), v.getVoteType()));
-        }
+    // Bounds how long a TOP ordering can lag behind votes, which do not change the thread shape
+    @Value("${linkvault.comments.thread-cache-ttl-seconds:60}")
+    private long threadCacheTtlSeconds;
 
-        // Build tree from flat list
-        Map<Long, List<Comment>> childrenMap = new HashMap<>();
-        List<Comment> rootComments = new ArrayList<>();
+    // Thread shapes keyed by "b:<bookmarkId>" / "a:<announcementId>". A page request reads only the
+    // cached shape plus the rows it renders, so its cost follows the page size, not the thread size.
+    // Entries are dropped after any commit that adds or removes comments in the thread.
+    private ExpiringLruCache<String, CommentThread> threads;
+    // Bumped on every invalidation; a load that overlaps one is returned but not cached
+    private final AtomicLong threadGeneration = new AtomicLong();
 
-        for (Comment comment : allComments) {
-            if (comment.getParent() == null) {
-                rootComments.add(comment);
-            } else {
-                childrenMap.computeIfAbsent(comment.getParent().getId(), k -> new ArrayList<>()).add(comment);
-            }
+    @PostConstruct
+    void initThreadCache() {
+        threads = new ExpiringLruCache<>("comment-threads", threadCacheMaxEntries,
+                Duration.ofSeconds(threadCacheTtlSeconds));
+    }
+
+    public CursorPageDto<CommentResponseDto> getThreadForBookmark(Long bookmarkId, User currentUser,
+                                                                 CommentThread.Sort sort, String cursor, int size) {
+        CommentThread thread = threadFor(bookmarkId, null);
+        return threadPage(thread.roots(sort), sort, cursor, size, currentUser);
+    }
+
+    public CursorPageDto<CommentResponseDto> getThreadForAnnouncement(Long announcementId, User currentUser,
+                                                                     CommentThread.Sort sort, String cursor, int size) {
+        CommentThread thread = threadFor(null, announcementId);
+        return threadPage(thread.roots(sort), sort, cursor, size, currentUser);
+    }
+
+    // "Load more" for one comment's direct replies, oldest first
+    public CursorPageDto<CommentResponseDto> getReplies(Long commentId, User currentUser, String cursor, int size) {
+        Object[] owner = commentRepository.findThreadOwnerById(commentId).stream().findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Comment not found: " + commentId));
+        CommentThread thread = threadFor((Long) owner[0], (Long) owner[1]);
+        CommentThread.Node parent = thread.get(commentId);
+        if (parent == null) {
+            throw new ResourceNotFoundException("Comment not found: " + commentId);
         }
+        return threadPage(parent.children, CommentThread.Sort.OLDEST, cursor, size, currentUser);
+    }
 
-        return rootComments.stream()
-                .map(c -> buildCommentTree(c, childrenMap, userVotes, currentUser))
-                .collect(Collectors.toList());
+    /** Drops the cached shape of a bookmark's thread once the current transaction commits. */
+    public void evictBookmarkThread(Long bookmarkId) {
+        evictThreadAfterCommit(threadKey(bookmarkId, null));
     }
 
-    public List<CommentResponseDto> getCommentsForAnnouncement(Long announcementId, User currentUser) {
-        List<Comment> allComments = commentRepository.findAllByAnnouncementId(announcementId);
+    // For bulk changes that touch comments in many threads, e.g. deleting a user
+    public void evictAllThreads() {
+        TransactionCallbacks.afterCommit(() -> {
+            threadGeneration.incrementAndGet();
+            threads.clear();
+        });
+    }
 
-        List<Long> commentIds = allComments.stream().map(Comment::getId).collect(Collectors.toList());
-        Map<Long, VoteType> userVotes = new HashMap<>();
-        if (currentUser != null && !commentIds.isEmpty()) {
-            commentVoteRepository.findByUserIdAndCommentIdIn(currentUser.getId(), commentIds)
-                    .forEach(v -> userVotes.put(v.getComment().getId(), v.getVoteType()));
+    public List<CacheStatsDto> getCacheStats() {
+        return List.of(threads.stats());
+    }
+
+    @Scheduled(fixedDelay = 600_000)
+    public void purgeExpiredThreads() {
+        threads.purgeExpired();
+    }
+
+    private CommentThread threadFor(Long bookmarkId, Long announcementId) {
+        String key = threadKey(bookmarkId, announcementId);
+        CommentThread cached = threads.get(key);
+        if (cached != null) return cached;
+
+        long loadGeneration = threadGeneration.get();
+        CommentThread loaded = CommentThread.of(bookmarkId != null
+                ? commentRepository.findThreadShapeByBookmarkId(bookmarkId)
+                : commentRepository.findThreadShapeByAnnouncementId(announcementId));
+        if (threadGeneration.get() == loadGeneration) {
+            threads.put(key, loaded);
         }
+        return loaded;
+    }
+
+    private void evictThreadAfterCommit(String key) {
+        TransactionCallbacks.afterCommit(() -> {
+            threadGeneration.incrementAndGet();
+            threads.invalidate(key);
+        });
+    }
 
-        Map<Long, List<Comment>> childrenMap = new HashMap<>();
-        List<Comment> rootComments = new ArrayList<>();
+    private static String threadKey(Long bookmarkId, Long announcementId) {
+        return bookmarkId != null ? "b:" + bookmarkId : "a:" + announcementId;
+    }
 
-        for (Comment comment : allComments) {
-            if (comment.getParent() == null) {
-                rootComments.add(comment);
-            } else {
-                childrenMap.computeIfAbsent(comment.getParent().getId(), k -> new ArrayList<>()).add(comment);
+    private CursorPageDto<CommentResponseDto> threadPage(List<CommentThread.Node> siblings, CommentThread.Sort sort,
+                                                         String cursor, int size, User currentUser) {
+        if (size < 1 || size > MAX_THREAD_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_THREAD_PAGE_SIZE);
+        }
+        int start = CommentThread.startAfter(siblings, sort, cursor);
+        int end = Math.min(start + size, siblings.size());
+        List<CommentThread.Node> page = siblings.subList(start, end);
+
+        // Pick the replies to inline breadth-first, so shallow replies win the budget over deep ones
+        Map<Long, Integer> shownReplies = new HashMap<>();
+        List<Long> visibleIds = new ArrayList<>();
+        page.forEach(n -> visibleIds.add(n.id));
+        int budget = MAX_COMMENTS_PER_RESPONSE - page.size();
+        Deque<CommentThread.Node> queue = new ArrayDeque<>(page);
+        while (!queue.isEmpty()) {
+            CommentThread.Node node = queue.poll();
+            int shown = Math.min(Math.min(REPLY_PREVIEW, node.children.size()), budget);
+            budget -= shown;
+            shownReplies.put(node.id, shown);
+            for (CommentThread.Node child : node.children.subList(0, shown)) {
+                visibleIds.add(child.id);
+                queue.add(child);
             }
         }
 
-        return rootComments.stream()
-                .map(c -> buildCommentTree(c, childrenMap, userVotes, currentUser))
-                .collect(Collectors.toList());
-    }
+        Map<Long, Object[]> rows = new HashMap<>();
+        Map<Long, VoteType> userVotes = new HashMap<>();
+        if (!visibleIds.isEmpty()) {
+            commentRepository.findDisplayRowsByIdIn(visibleIds).forEach(r -> rows.put((Long) r[0], r));
+            if (currentUser != null) {
+                commentVoteRepository.findByUserIdAndCommentIdIn(currentUser.getId(), visibleIds)
+                        .forEach(v -> userVotes.put(v.getComment().getId(), v.getVoteType()));
+            }
+        }
 
-    private CommentResponseDto buildCommentTree(Comment comment, Map<Long, List<Comment>> childrenMap,
-                                                  Map<Long, VoteType> userVotes, User currentUser) {
-        List<Comment> children = childrenMap.getOrDefault(comment.getId(), Collections.emptyList());
-        List<CommentResponseDto> childDtos = children.stream()
-                .map(c -> buildCommentTree(c, childrenMap, userVotes, currentUser))
-                .collect(Collectors.toList());
+        boolean hasNext = end < siblings.size();
+        return CursorPageDto.<CommentResponseDto>builder()
+                .content(page.stream()
+                        .map(n -> toThreadDto(n, rows, shownReplies, userVotes, currentUser))
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList()))
+                .nextCursor(hasNext ? CommentThread.encode(sort, page.get(page.size() - 1)) : null)
+                .hasNext(hasNext)
+                .build();
+    }
 
-        boolean canEdit = currentUser != null && !comment.isDeleted() &&
-                comment.getUser().getId().equals(currentUser.getId());
-        boolean canDelete = currentUser != null && !comment.isDeleted() &&
-                comment.getUser().getId().equals(currentUser.getId());
+    private CommentResponseDto toThreadDto(CommentThread.Node node, Map<Long, Object[]> rows, Map<Long, Integer> shownReplies,
+                                           Map<Long, VoteType> userVotes, User currentUser) {
+        Object[] row = rows.get(node.id);
+        if (row == null) {
+            // Purged after the thread shape was read
+            return null;
+        }
+        int shown = shownReplies.getOrDefault(node.id, 0);
+        List<CommentResponseDto> replies = new ArrayList<>(shown);
+        for (CommentThread.Node child : node.children.subList(0, shown)) {
+            CommentResponseDto reply = toThreadDto(child, rows, shownReplies, userVotes, currentUser);
+            if (reply != null) replies.add(reply);
+        }
+        boolean hasMoreReplies = shown < node.children.size();
 
+        Long userId = (Long) row[2];
+        boolean deleted = (Boolean) row[9];
+        boolean isAuthor = currentUser != null && !deleted && userId.equals(currentUser.getId());
         String parentUsername = null;
-        if (comment.getParent() != null) {
-            parentUsername = comment.getParent().isDeleted()
-                    ? "[deleted]"
-                    : comment.getParent().getUser().getUsername();
+        if (row[13] != null) {
+            parentUsername = (Boolean) row[13] ? "[deleted]" : (String) row[14];
         }
-
-        int replyCount = countAllReplies(comment.getId(), childrenMap);
+        int likeCount = (Integer) row[7];
+        int dislikeCount = (Integer) row[8];
 
         return CommentResponseDto.builder()
-                .id(comment.getId())
-                .content(comment.getContent())
-                .username(comment.getUser().getUsername())
-                .userId(comment.getUser().getId())
-                .bookmarkId(comment.getBookmark() != null ? comment.getBookmark().getId() : null)
-                .announcementId(comment.getAnnouncement() != null ? comment.getAnnouncement().getId() : null)
-                .parentId(comment.getParent() != null ? comment.getParent().getId() : null)
+                .id(node.id)
+                .content((String) row[1])
+                .username((String) row[3])
+                .userId(userId)
+                .bookmarkId((Long) row[4])
+                .announcementId((Long) row[5])
+                .parentId(row[13] != null ? node.parentId : null)
                 .parentUsername(parentUsername)
-                .depth(comment.getDepth())
-                .likeCount(comment.getLikeCount())
-                .dislikeCount(comment.getDislikeCount())
-                .score(comment.getLikeCount() - comment.getDislikeCount())
-                .replyCount(replyCount)
-                .deleted(comment.isDeleted())
-                .edited(comment.isEdited())
-                .createdAt(comment.getCreatedAt())
-                .updatedAt(comment.getUpdatedAt())
-                .userVote(userVotes.get(comment.getId()))
-                .canEdit(canEdit)
-                .canDelete(canDelete)
-                .replies(childDtos)
+                .depth((Integer) row[6])
+                .likeCount(likeCount)
+                .dislikeCount(dislikeCount)
+                .score(likeCount - dislikeCount)
+                .replyCount(node.replyCount)
+                .directReplyCount(node.children.size())
+                .hasMoreReplies(hasMoreReplies)
+                .repliesCursor(hasMoreReplies && shown > 0
+                        ? CommentThread.encode(CommentThread.Sort.OLDEST, node.children.get(shown - 1)) : null)
+                .deleted(deleted)
+                .edited((Boolean) row[10])
+                .createdAt((LocalDateTime) row[11])
+                .updatedAt((LocalDateTime) row[12])
+                .userVote(userVotes.get(node.id))
+                .canEdit(isAuthor)
+                .canDelete(isAuthor)
+                .replies(replies)
                 .build();
     }
 
-    private int countAllReplies(Long commentId, Map<Long, List<Comment>> childrenMap) {
-        List<Comment> direct = childrenMap.getOrDefault(commentId, Collections.emptyList());
-        int count = direct.size();
-        for (Comment child : direct) {
-            count += countAllReplies(child.getId(), childrenMap);
-        }
-        return count;
-    }
-
     @Transactional
     public CommentResponseDto create(CommentRequestDto dto, User user) {
         if (dto.getBookmarkId() == null && dto.getAnnouncementId() == null) {
@@ -181,14 +281,20 @@ public class CommentService {
         if (bookmark != null) {
             bookmark.incrementCommentCount();
         }
-
-        // Trigger notifications
-        if (comment.getParent() != null) {
-            notificationService.notifyReply(comment, user);
-        } else if (bookmark != null) {
-            notificationService.notifyComment(comment, user);
-        }
-        notificationService.notifyMentions(comment, user);
+        evictThreadAfterCommit(threadKey(bookmark != null ? bookmark.getId() : null,
+                announcement != null ? announcement.getId() : null));
+
+        // Notifications are written by NotificationDispatcher once this commits
+        eventPublisher.publishEvent(CommentCreatedEvent.builder()
+                .commentId(comment.getId())
+                .authorId(user.getId())
+                .authorUsername(user.getUsername())
+                .content(comment.getContent())
+                .bookmarkId(bookmark != null ? bookmark.getId() : null)
+                .bookmarkTitle(bookmark != null ? bookmark.getTitle() : null)
+                .replyToUserId(parent != null && !parent.isDeleted() ? parent.getUser().getId() : null)
+                .bookmarkOwnerId(parent == null && bookmark != null ? bookmark.getUser().getId() : null)
+                .build());
 
         return CommentResponseDto.from(comment);
     }
@@ -238,41 +344,54 @@ public class CommentService {
         Optional<CommentVote> existingVote = commentVoteRepository.findByUserIdAndCommentId(user.getId(), commentId);
 
         VoteType resultVote = null;
+        VoteType removed = null;
+        VoteType added = null;
 
         if (existingVote.isPresent()) {
             CommentVote vote = existingVote.get();
             if (vote.getVoteType() == voteType) {
                 // Same vote: remove it
-                if (voteType == VoteType.LIKE) comment.decrementLikeCount();
-                else comment.decrementDislikeCount();
-                commentVoteRepository.delete(vote);
+                if (commentVoteRepository.deleteByIdAndVoteType(vote.getId(), voteType) == 1) {
+                    removed = voteType;
+                }
             } else {
                 // Different vote: switch
-                if (vote.getVoteType() == VoteType.LIKE) {
-                    comment.decrementLikeCount();
-                    comment.incrementDislikeCount();
-                } else {
-                    comment.decrementDislikeCount();
-                    comment.incrementLikeCount();
+                if (commentVoteRepository.changeVoteType(vote.getId(), vote.getVoteType(), voteType) == 1) {
+                    removed = vote.getVoteType();
+                    added = voteType;
                 }
-                vote.changeVoteType(voteType);
                 resultVote = voteType;
             }
         } else {
-            // New vote
-            if (voteType == VoteType.LIKE) comment.incrementLikeCount();
-            else comment.incrementDislikeCount();
-            commentVoteRepository.save(new CommentVote(user, comment, voteType));
+            // New vote; the (user, comment) unique key rejects a concurrent duplicate
+            try {
+                commentVoteRepository.saveAndFlush(new CommentVote(user, comment, voteType));
+            } catch (DataIntegrityViolationException e) {
+                throw new IllegalStateException("Vote already recorded");
+            }
+            added = voteType;
             resultVote = voteType;
-            if (voteType == VoteType.LIKE) {
-                notificationService.notifyVote(comment, user);
+            if (voteType == VoteType.LIKE && !comment.isDeleted()) {
+                eventPublisher.publishEvent(new CommentLikedEvent(commentId,
+                        comment.getBookmark() != null ? comment.getBookmark().getId() : null,
+                        comment.getUser().getId(), user.getId(), user.getUsername()));
             }
         }
 
+        int likeDelta = (added == VoteType.LIKE ? 1 : 0) - (removed == VoteType.LIKE ? 1 : 0);
+        int dislikeDelta = (added == VoteType.DISLIKE ? 1 : 0) - (removed == VoteType.DISLIKE ? 1 : 0);
+        if (likeDelta != 0 || dislikeDelta != 0) {
+            commentRepository.applyVoteDelta(commentId, likeDelta, dislikeDelta);
+        }
+
+        // Read back inside the transaction: our row lock makes these the tallies right after this vote
+        Object[] counts = commentRepository.findVoteCounts(commentId).get(0);
+        int likeCount = (Integer) counts[0];
+        int dislikeCount = (Integer) counts[1];
         return CommentVoteResponseDto.builder()
-                .likeCount(comment.getLikeCount())
-                .dislikeCount(comment.getDislikeCount())
-                .score(comment.getLikeCount() - comment.getDislikeCount())
+                .likeCount(likeCount)
+                .dislikeCount(dislikeCount)
+                .score(likeCount - dislikeCount)
                 .userVote(resultVote)
                 .build();
     }
@@ -319,6 +438,8 @@ public class CommentService {
 
         // 3. Delete the comment
         commentRepository.delete(comment);
+        evictThreadAfterCommit(threadKey(comment.getBookmark() != null ? comment.getBookmark().getId() : null,
+                comment.getAnnouncement() != null ? comment.getAnnouncement().getId() : null));
 
         String purgeTargetId = comment.getBookmark() != null
                 ? String.valueOf(comment.getBookmark().getId())
@@ -0,0 +1,140 @@
+package org.link.linkvault.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * Shape of one comment thread built from (id, parentId, score, createdAt) rows. Reply counts for
+ * every subtree are filled in by a single post-order pass, and sibling lists are paged by keyset
+ * so a viral post never has to render all of its comments at once.
+ */
+public final class CommentThread {
+
+    public enum Sort { OLDEST, NEWEST, TOP }
+
+    static final class Node {
+        final long id;
+        final Long parentId;
+        final int score;
+        final LocalDateTime createdAt;
+        final List<Node> children = new ArrayList<>();
+        int replyCount;
+
+        Node(long id, Long parentId, int score, LocalDateTime createdAt) {
+            this.id = id;
+            this.parentId = parentId;
+            this.score = score;
+            this.createdAt = createdAt;
+        }
+    }
+
+    // Replies always read in conversation order
+    private static final Comparator<Node> OLDEST_FIRST = Comparator.<Node, LocalDateTime>comparing(n -> n.createdAt)
+            .thenComparingLong(n -> n.id);
+
+    private final Map<Long, Node> nodes;
+    private final List<Node> roots = new ArrayList<>();
+    // Roots in the other sort orders, sorted on first use; threads are cached and never mutated
+    private final Map<Sort, List<Node>> sortedRoots = new EnumMap<>(Sort.class);
+
+    private CommentThread(Map<Long, Node> nodes) {
+        this.nodes = nodes;
+    }
+
+    static CommentThread of(List<Object[]> rows) {
+        Map<Long, Node> nodes = new HashMap<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            Node node = new Node((Long) row[0], (Long) row[1], ((Number) row[2]).intValue(), (LocalDateTime) row[3]);
+            nodes.put(node.id, node);
+        }
+        CommentThread thread = new CommentThread(nodes);
+        for (Node node : nodes.values()) {
+            Node parent = node.parentId != null ? nodes.get(node.parentId) : null;
+            if (parent != null) {
+                parent.children.add(node);
+            } else {
+                thread.roots.add(node);
+            }
+        }
+        thread.roots.sort(OLDEST_FIRST);
+
+        // Pre-order walk, then accumulate in reverse so each child is counted before its parent
+        List<Node> preOrder = new ArrayList<>(nodes.size());
+        Deque<Node> stack = new ArrayDeque<>(thread.roots);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            preOrder.add(node);
+            node.children.sort(OLDEST_FIRST);
+            node.children.forEach(stack::push);
+        }
+        for (int i = preOrder.size() - 1; i >= 0; i--) {
+            Node node = preOrder.get(i);
+            Node parent = node.parentId != null ? nodes.get(node.parentId) : null;
+            if (parent != null) {
+                parent.replyCount += 1 + node.replyCount;
+            }
+        }
+        return thread;
+    }
+
+    Node get(long id) {
+        return nodes.get(id);
+    }
+
+    int size() {
+        return nodes.size();
+    }
+
+    List<Node> roots(Sort sort) {
+        if (sort == Sort.OLDEST) return roots;
+        synchronized (sortedRoots) {
+            return sortedRoots.computeIfAbsent(sort, s -> {
+                List<Node> sorted = new ArrayList<>(roots);
+                sorted.sort(comparator(s));
+                return Collections.unmodifiableList(sorted);
+            });
+        }
+    }
+
+    static Comparator<Node> comparator(Sort sort) {
+        switch (sort) {
+            case NEWEST:
+                return OLDEST_FIRST.reversed();
+            case TOP:
+                return Comparator.<Node>comparingInt(n -> -n.score).thenComparing(OLDEST_FIRST);
+            default:
+                return OLDEST_FIRST;
+        }
+    }
+
+    /** Index of the first sibling after the cursor position; siblings must be sorted by {@code sort}. */
+    static int startAfter(List<Node> siblings, Sort sort, String token) {
+        if (token == null || token.isBlank()) return 0;
+        int found = Collections.binarySearch(siblings, decode(token, sort), comparator(sort));
+        return found >= 0 ? found + 1 : -found - 1;
+    }
+
+    static String encode(Sort sort, Node last) {
+        String raw = sort.name() + "|" + last.score + "|" + last.createdAt + "|" + last.id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Node decode(String token, Sort sort) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (parts.length != 4 || !parts[0].equals(sort.name())) {
+            throw new IllegalArgumentException("Cursor does not match sort order " + sort);
+        }
+        try {
+            return new Node(Long.parseLong(parts[3]), null, Integer.parseInt(parts[1]), LocalDateTime.parse(parts[2]));
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.link.linkvault.service;
+
+import lombok.RequiredArgsConstructor;
+import org.link.linkvault.entity.User;
+import org.link.linkvault.repository.UserRepository;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+
+/**
+ * Loads the signed-in user at most once per HTTP request. The entity is kept as a request
+ * attribute, so filters, the page chrome advice and the handler all share one lookup. Outside a
+ * request (schedulers, background workers, tests) every call goes to the repository.
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentUserResolver {
+
+    private static final String ATTRIBUTE = CurrentUserResolver.class.getName() + ".USER";
+
+    private final UserRepository userRepository;
+
+    // The authenticated user, or null for anonymous requests and accounts deleted mid-session
+    public User getCurrentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || auth instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return findByUsername(auth.getName()).orElse(null);
+    }
+
+    public Optional<User> findByUsername(String username) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request == null) {
+            return userRepository.findByUsername(username);
+        }
+        Object cached = request.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (cached instanceof User && ((User) cached).getUsername().equals(username)) {
+            return Optional.of((User) cached);
+        }
+        Optional<User> user = userRepository.findByUsername(username);
+        user.ifPresent(u -> request.setAttribute(ATTRIBUTE, u, RequestAttributes.SCOPE_REQUEST));
+        return user;
+    }
+
+    // For writes that replace or remove the account within the same request
+    public void evict() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.removeAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+}
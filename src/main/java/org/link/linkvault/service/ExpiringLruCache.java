@@ -0,0 +1,153 @@
+package org.link.linkvault.service;
+
+import org.link.linkvault.dto.CacheStatsDto;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Small size-bounded cache with per-entry expiry and LRU eviction. Lookups and writes take a
+ * single monitor, which is fine for the short critical sections and modest sizes used here.
+ */
+public class ExpiringLruCache<K, V> {
+
+    private final String name;
+    private final int maxSize;
+    private final long defaultTtlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    public ExpiringLruCache(String name, int maxSize, Duration defaultTtl) {
+        if (maxSize <= 0) throw new IllegalArgumentException("maxSize must be positive");
+        this.name = name;
+        this.maxSize = maxSize;
+        this.defaultTtlNanos = defaultTtl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() <= ExpiringLruCache.this.maxSize) return false;
+                evictions.incrementAndGet();
+                return true;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            entries.remove(key);
+            expirations.incrementAndGet();
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.value;
+    }
+
+    public void put(K key, V value) {
+        put(key, value, defaultTtlNanos);
+    }
+
+    public void put(K key, V value, Duration ttl) {
+        put(key, value, ttl.toNanos());
+    }
+
+    private synchronized void put(K key, V value, long ttlNanos) {
+        entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+    }
+
+    // Returns the live value, or atomically creates and stores one with the default TTL
+    public synchronized V getOrCreate(K key, Supplier<V> factory) {
+        V value = get(key);
+        if (value == null) {
+            value = factory.get();
+            put(key, value, defaultTtlNanos);
+        }
+        return value;
+    }
+
+    // Maps the live value (null if absent or expired) to a new one and stores it with a fresh TTL, atomically
+    public synchronized V compute(K key, UnaryOperator<V> remapping, Duration ttl) {
+        V value = remapping.apply(get(key));
+        put(key, value, ttl.toNanos());
+        return value;
+    }
+
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    // Removes every entry whose value matches, e.g. all cached views that reference a changed row
+    public synchronized int invalidateIf(Predicate<V> predicate) {
+        int removed = 0;
+        for (Iterator<Entry<V>> it = entries.values().iterator(); it.hasNext(); ) {
+            if (predicate.test(it.next().value)) {
+                it.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    // Drops expired entries eagerly; get() already ignores them, this only reclaims memory
+    public synchronized int purgeExpired() {
+        long now = System.nanoTime();
+        int removed = 0;
+        for (Iterator<Entry<V>> it = entries.values().iterator(); it.hasNext(); ) {
+            if (it.next().isExpired(now)) {
+                it.remove();
+                removed++;
+            }
+        }
+        expirations.addAndGet(removed);
+        return removed;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public CacheStatsDto stats() {
+        return CacheStatsDto.builder()
+                .name(name)
+                .size(size())
+                .maxSize(maxSize)
+                .hits(hits.get())
+                .misses(misses.get())
+                .evictions(evictions.get())
+                .expirations(expirations.get())
+                .build();
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAtNanos;
+
+        private Entry(V value, long expiresAtNanos) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package org.link.linkvault.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,16 +15,34 @@ import org.link.linkvault.entity.Folder;
 import org.link.linkvault.entity.Role;
 import org.link.linkvault.entity.Tag;
 import org.link.linkvault.entity.User;
+import org.link.linkvault.event.TagUsageChangedEvent;
 import org.link.linkvault.repository.BookmarkRepository;
 import org.link.linkvault.repository.FolderRepository;
 import org.link.linkvault.repository.TagRepository;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -28,197 +50,406 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ExportImportService {
 
+    private static final int EXPORT_PAGE_SIZE = 500;
+    private static final long NO_FOLDER = 0;
+    private static final int IMPORT_BATCH_SIZE = 500;
+    private static final int MAX_TITLE_LENGTH = 255;
+    private static final int MAX_URL_LENGTH = 2048;
+    private static final int MAX_DESCRIPTION_LENGTH = 1000;
+
     private final BookmarkRepository bookmarkRepository;
     private final TagRepository tagRepository;
     private final FolderRepository folderRepository;
-    private final FolderService folderService;
     private final ObjectMapper objectMapper;
+    private final BookmarkSearchIndex bookmarkSearchIndex;
+    private final TypeaheadIndex typeaheadIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
     // --- JSON Export ---
 
-    @Transactional(readOnly = true)
-    public String exportToJson(User currentUser) throws Exception {
-        List<Bookmark> bookmarks;
-        if (currentUser.getRole() == Role.COMMUNITY_ADMIN) {
-            bookmarks = bookmarkRepository.findAllWithTagsAndFolder();
-        } else {
-            bookmarks = bookmarkRepository.findByUserId(currentUser.getId(), Pageable.unpaged()).getContent();
+    /**
+     * Writes the export straight to {@code out}, one keyset page at a time, so memory use does not
+     * grow with the collection. The stream is flushed but left open for the caller to finish.
+     */
+    public void exportToJson(User currentUser, OutputStream out) throws IOException {
+        Map<Long, String> folderPaths = loadFolderPaths();
+        long total = isFullExport(currentUser)
+                ? bookmarkRepository.countPublic()
+                : bookmarkRepository.countActiveByUserId(currentUser.getId());
+        ObjectWriter entryWriter = objectMapper.writerFor(BookmarkExportDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            json.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            json.useDefaultPrettyPrinter();
+            json.writeStartObject();
+            json.writeStringField("exportDate", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            json.writeNumberField("totalBookmarks", total);
+            json.writeArrayFieldStart("bookmarks");
+            forEachExported(currentUser, row -> entryWriter.writeValue(json, BookmarkExportDto.builder()
+                    .title(row.title)
+                    .url(row.url)
+                    .description(row.description)
+                    .tagNames(row.tagNames)
+                    .folderPath(folderPaths.getOrDefault(row.folderKey, ""))
+                    .build()));
+            json.writeEndArray();
+            json.writeEndObject();
         }
+    }
+
+    // --- HTML Bookmark Export (Netscape format) ---
 
-        List<BookmarkExportDto> exportList = bookmarks.stream()
-                .map(b -> BookmarkExportDto.builder()
-                        .title(b.getTitle())
-                        .url(b.getUrl())
-                        .description(b.getDescription())
-                        .tagNames(b.getTags().stream().map(Tag::getName).collect(Collectors.toSet()))
-                        .folderPath(folderService.buildFolderPath(b.getFolder()))
-                        .build())
-                .collect(Collectors.toList());
-
-        BookmarkExportDto.ExportWrapper wrapper = BookmarkExportDto.ExportWrapper.builder()
-                .exportDate(LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
-                .totalBookmarks(exportList.size())
-                .bookmarks(exportList)
-                .build();
-
-        ObjectMapper prettyMapper = objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT);
-        return prettyMapper.writeValueAsString(wrapper);
+    public void exportToHtml(User currentUser, OutputStream out) throws IOException {
+        Map<Long, String> folderPaths = loadFolderPaths();
+        Writer html = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        html.write("<!DOCTYPE NETSCAPE-Bookmark-file-1>\n");
+        html.write("<!-- This is an automatically generated file. -->\n");
+        html.write("<META HTTP-EQUIV=\"Content-Type\" CONTENT=\"text/html; charset=UTF-8\">\n");
+        html.write("<TITLE>LinkVault Bookmarks</TITLE>\n");
+        html.write("<H1>LinkVault Bookmarks</H1>\n");
+        html.write("<DL><p>\n");
+
+        // Rows arrive grouped by folder (unfiled first), so each folder section is opened exactly once
+        long[] openFolder = {NO_FOLDER};
+        forEachExported(currentUser, row -> {
+            if (row.folderKey != openFolder[0]) {
+                if (openFolder[0] != NO_FOLDER) {
+                    html.write("    </DL><p>\n");
+                }
+                html.write("    <DT><H3>" + escapeHtml(folderPaths.getOrDefault(row.folderKey, "")) + "</H3>\n");
+                html.write("    <DL><p>\n");
+                openFolder[0] = row.folderKey;
+            }
+
+            String indent = row.folderKey == NO_FOLDER ? "    " : "        ";
+            html.write(indent + "<DT><A HREF=\"" + escapeHtml(row.url) + "\"");
+            if (row.favicon != null && !row.favicon.isEmpty()) {
+                html.write(" ICON=\"" + escapeHtml(row.favicon) + "\"");
+            }
+            if (!row.tagNames.isEmpty()) {
+                html.write(" TAGS=\"" + escapeHtml(String.join(",", row.tagNames)) + "\"");
+            }
+            html.write(">" + escapeHtml(row.title) + "</A>\n");
+            if (row.description != null && !row.description.isEmpty()) {
+                html.write(indent + "<DD>" + escapeHtml(row.description) + "\n");
+            }
+        });
+        if (openFolder[0] != NO_FOLDER) {
+            html.write("    </DL><p>\n");
+        }
+
+        html.write("</DL><p>\n");
+        html.flush();
     }
 
-    // --- JSON Import ---
+    @FunctionalInterface
+    private interface ExportVisitor {
+        void visit(ExportRow row) throws IOException;
+    }
 
-    @Transactional
-    public int importFromJson(User currentUser, String json) throws Exception {
-        BookmarkExportDto.ExportWrapper wrapper = objectMapper.readValue(json,
-                new TypeReference<BookmarkExportDto.ExportWrapper>() {});
+    // Community admins export every public bookmark; everyone else exports their own
+    private boolean isFullExport(User currentUser) {
+        return currentUser.getRole() == Role.COMMUNITY_ADMIN;
+    }
 
-        int imported = 0;
-        for (BookmarkExportDto dto : wrapper.getBookmarks()) {
-            if (bookmarkRepository.existsByUrlAndUserId(dto.getUrl(), currentUser.getId())) {
-                log.info("Skipping duplicate URL: {}", dto.getUrl());
-                continue;
+    /**
+     * Visits exported bookmarks in (folder, id) order: bookmarks without a folder first, then one
+     * folder at a time. Each segment is a keyset scan on id within a single folder, so every page is
+     * an index range read. Pages are read in their own short read-only transaction and copied into
+     * plain rows, so no entities outlive the page.
+     */
+    private void forEachExported(User currentUser, ExportVisitor visitor) throws IOException {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        boolean fullExport = isFullExport(currentUser);
+
+        forEachExportedInFolder(readOnly, currentUser, fullExport, null, visitor);
+        List<Long> folderIds = readOnly.execute(status -> fullExport
+                ? bookmarkRepository.findPublicExportFolderIds()
+                : bookmarkRepository.findExportFolderIdsByUserId(currentUser.getId()));
+        for (Long folderId : folderIds) {
+            // DISTINCT over a nullable column includes the no-folder group, already exported
+            if (folderId != null) {
+                forEachExportedInFolder(readOnly, currentUser, fullExport, folderId, visitor);
             }
+        }
+    }
 
-            Folder folder = resolveOrCreateFolderPath(dto.getFolderPath(), currentUser);
-
-            Bookmark bookmark = Bookmark.builder()
-                    .title(dto.getTitle())
-                    .url(dto.getUrl())
-                    .description(dto.getDescription())
-                    .folder(folder)
-                    .user(currentUser)
-                    .build();
-
-            if (dto.getTagNames() != null) {
-                for (String tagName : dto.getTagNames()) {
-                    Tag tag = tagRepository.findByName(tagName)
-                            .orElseGet(() -> tagRepository.save(new Tag(tagName)));
-                    bookmark.addTag(tag);
+    private void forEachExportedInFolder(TransactionTemplate readOnly, User currentUser, boolean fullExport,
+                                         Long folderId, ExportVisitor visitor) throws IOException {
+        long folderKey = folderId != null ? folderId : NO_FOLDER;
+        long afterId = 0;
+
+        while (true) {
+            long idCursor = afterId;
+            List<ExportRow> page = readOnly.execute(status -> {
+                PageRequest pageRequest = PageRequest.of(0, EXPORT_PAGE_SIZE);
+                List<Long> ids = fetchExportIds(currentUser, fullExport, folderId, idCursor, pageRequest);
+                if (ids.isEmpty()) return List.<ExportRow>of();
+
+                Map<Long, Bookmark> byId = bookmarkRepository.findAllWithTagsByIdIn(ids).stream()
+                        .collect(Collectors.toMap(Bookmark::getId, Function.identity()));
+                List<ExportRow> rows = new ArrayList<>(ids.size());
+                for (Long id : ids) {
+                    Bookmark b = byId.get(id);
+                    if (b != null) rows.add(new ExportRow(b, folderKey));
                 }
-            }
+                return rows;
+            });
+            if (page == null || page.isEmpty()) return;
 
-            bookmarkRepository.save(bookmark);
-            imported++;
+            for (ExportRow row : page) {
+                visitor.visit(row);
+            }
+            afterId = page.get(page.size() - 1).id;
+            if (page.size() < EXPORT_PAGE_SIZE) return;
         }
-        return imported;
     }
 
-    // --- HTML Bookmark Export (Netscape format) ---
+    private List<Long> fetchExportIds(User currentUser, boolean fullExport, Long folderId, long afterId,
+                                      PageRequest pageRequest) {
+        if (fullExport) {
+            return folderId == null
+                    ? bookmarkRepository.findPublicExportIdsWithoutFolder(afterId, pageRequest)
+                    : bookmarkRepository.findPublicExportIdsByFolderId(folderId, afterId, pageRequest);
+        }
+        return folderId == null
+                ? bookmarkRepository.findExportIdsByUserIdWithoutFolder(currentUser.getId(), afterId, pageRequest)
+                : bookmarkRepository.findExportIdsByUserIdAndFolderId(currentUser.getId(), folderId, afterId, pageRequest);
+    }
 
-    @Transactional(readOnly = true)
-    public String exportToHtml(User currentUser) {
-        List<Bookmark> bookmarks;
-        if (currentUser.getRole() == Role.COMMUNITY_ADMIN) {
-            bookmarks = bookmarkRepository.findAllWithTagsAndFolder();
-        } else {
-            bookmarks = bookmarkRepository.findByUserId(currentUser.getId(), Pageable.unpaged()).getContent();
+    // Folder id -> "Parent/Child" path, computed once per export instead of walking lazy parents per row
+    private Map<Long, String> loadFolderPaths() {
+        Map<Long, String> names = new HashMap<>();
+        Map<Long, Long> parents = new HashMap<>();
+        for (Object[] row : folderRepository.findAllForPathMap()) {
+            names.put((Long) row[0], (String) row[1]);
+            if (row[2] != null) parents.put((Long) row[0], (Long) row[2]);
+        }
+        Map<Long, String> paths = new HashMap<>(names.size());
+        for (Long folderId : names.keySet()) {
+            paths.put(folderId, folderPath(folderId, names, parents, paths));
         }
+        return paths;
+    }
 
-        StringBuilder html = new StringBuilder();
-        html.append("<!DOCTYPE NETSCAPE-Bookmark-file-1>\n");
-        html.append("<!-- This is an automatically generated file. -->\n");
-        html.append("<META HTTP-EQUIV=\"Content-Type\" CONTENT=\"text/html; charset=UTF-8\">\n");
-        html.append("<TITLE>LinkVault Bookmarks</TITLE>\n");
-        html.append("<H1>LinkVault Bookmarks</H1>\n");
-        html.append("<DL><p>\n");
-
-        // Group by folder
-        Map<String, List<Bookmark>> grouped = new LinkedHashMap<>();
-        grouped.put("", new ArrayList<>());
-
-        for (Bookmark b : bookmarks) {
-            String folderPath = folderService.buildFolderPath(b.getFolder());
-            grouped.computeIfAbsent(folderPath, k -> new ArrayList<>()).add(b);
+    private String folderPath(Long folderId, Map<Long, String> names, Map<Long, Long> parents, Map<Long, String> paths) {
+        Deque<Long> chain = new ArrayDeque<>();
+        Long current = folderId;
+        // Walk up until a folder with a known path; the depth cap guards against a corrupt parent cycle
+        while (current != null && !paths.containsKey(current) && names.containsKey(current) && chain.size() < 64) {
+            chain.push(current);
+            current = parents.get(current);
+        }
+        String path = current != null ? paths.get(current) : null;
+        while (!chain.isEmpty()) {
+            Long id = chain.pop();
+            path = path == null || path.isEmpty() ? names.get(id) : path + "/" + names.get(id);
+            paths.put(id, path);
         }
+        return paths.getOrDefault(folderId, "");
+    }
 
-        for (Map.Entry<String, List<Bookmark>> entry : grouped.entrySet()) {
-            String folder = entry.getKey();
-            if (!folder.isEmpty()) {
-                html.append("    <DT><H3>").append(escapeHtml(folder)).append("</H3>\n");
-                html.append("    <DL><p>\n");
-            }
+    private static final class ExportRow {
+        private final long id;
+        private final long folderKey;
+        private final String title;
+        private final String url;
+        private final String description;
+        private final String favicon;
+        private final Set<String> tagNames;
+
+        private ExportRow(Bookmark bookmark, long folderKey) {
+            this.id = bookmark.getId();
+            this.folderKey = folderKey;
+            this.title = bookmark.getTitle();
+            this.url = bookmark.getUrl();
+            this.description = bookmark.getDescription();
+            this.favicon = bookmark.getFavicon();
+            this.tagNames = bookmark.getTags().stream().map(Tag::getName)
+                    .collect(Collectors.toCollection(TreeSet::new));
+        }
+    }
 
-            for (Bookmark b : entry.getValue()) {
-                String indent = folder.isEmpty() ? "    " : "        ";
-                html.append(indent).append("<DT><A HREF=\"").append(escapeHtml(b.getUrl())).append("\"");
-                if (b.getFavicon() != null && !b.getFavicon().isEmpty()) {
-                    html.append(" ICON=\"").append(escapeHtml(b.getFavicon())).append("\"");
-                }
-                if (!b.getTags().isEmpty()) {
-                    String tags = b.getTags().stream().map(Tag::getName).collect(Collectors.joining(","));
-                    html.append(" TAGS=\"").append(escapeHtml(tags)).append("\"");
-                }
-                html.append(">").append(escapeHtml(b.getTitle())).append("</A>\n");
-                if (b.getDescription() != null && !b.getDescription().isEmpty()) {
-                    html.append(indent).append("<DD>").append(escapeHtml(b.getDescription())).append("\n");
+    // --- Streaming Import ---
+
+    /**
+     * Streams a LinkVault JSON export (or a bare array of entries) into the user's bookmarks.
+     * Runs outside a request transaction; each batch commits on its own.
+     */
+    public int importFromJson(User currentUser, InputStream in, ImportProgress progress) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            JsonToken root = parser.nextToken();
+            if (root == JsonToken.START_OBJECT) {
+                // Skip header fields (exportDate, totalBookmarks, ...) until the bookmarks array
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    JsonToken value = parser.nextToken();
+                    if ("bookmarks".equals(field) && value == JsonToken.START_ARRAY) {
+                        return importEntries(currentUser, () -> nextJsonEntry(parser), progress);
+                    }
+                    parser.skipChildren();
                 }
+                return 0;
             }
-
-            if (!folder.isEmpty()) {
-                html.append("    </DL><p>\n");
+            if (root == JsonToken.START_ARRAY) {
+                return importEntries(currentUser, () -> nextJsonEntry(parser), progress);
             }
+            throw new IllegalArgumentException("Not a LinkVault JSON export");
         }
-
-        html.append("</DL><p>\n");
-        return html.toString();
     }
 
-    // --- HTML Import (Netscape bookmark format) ---
+    private BookmarkExportDto nextJsonEntry(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        while (token != null && token != JsonToken.END_ARRAY) {
+            if (token == JsonToken.START_OBJECT) {
+                return objectMapper.readValue(parser, BookmarkExportDto.class);
+            }
+            parser.skipChildren();
+            token = parser.nextToken();
+        }
+        return null;
+    }
 
-    @Transactional
-    public int importFromHtml(User currentUser, String html) {
-        int imported = 0;
+    public int importFromHtml(User currentUser, InputStream in, ImportProgress progress) throws IOException {
+        try (Reader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            NetscapeBookmarkReader bookmarks = new NetscapeBookmarkReader(reader);
+            return importEntries(currentUser, bookmarks::next, progress);
+        }
+    }
 
-        String[] lines = html.split("\n");
-        String currentFolder = null;
+    @FunctionalInterface
+    private interface EntrySource {
+        BookmarkExportDto next() throws IOException;
+    }
 
-        for (String line : lines) {
-            String trimmed = line.trim();
+    private int importEntries(User currentUser, EntrySource source, ImportProgress progress) throws IOException {
+        // Loaded once per import instead of one existence/tag lookup per row
+        Set<String> knownUrls = new HashSet<>(bookmarkRepository.findUrlsByUserId(currentUser.getId()));
+        Map<String, Long> tagIds = new HashMap<>();
+        for (Object[] row : tagRepository.findAllIdAndName()) {
+            tagIds.put((String) row[1], (Long) row[0]);
+        }
+        Map<String, Long> folderIds = new HashMap<>();
 
-            // Detect folder headers: <DT><H3>FolderName</H3>
-            if (trimmed.matches("(?i).*<H3[^>]*>(.*?)</H3>.*")) {
-                currentFolder = trimmed.replaceAll("(?i).*<H3[^>]*>(.*?)</H3>.*", "$1").trim();
+        int imported = 0;
+        List<BookmarkExportDto> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        BookmarkExportDto entry;
+        while ((entry = source.next()) != null) {
+            progress.recordProcessed();
+            String url = entry.getUrl() != null && !entry.getUrl().isBlank() ? entry.getUrl().trim() : null;
+            String title = entry.getTitle() != null && !entry.getTitle().isBlank() ? entry.getTitle().trim() : url;
+            if (title == null || (url != null && (url.length() > MAX_URL_LENGTH || !knownUrls.add(url)))) {
+                log.debug("Skipping import entry: {}", url);
+                progress.recordSkipped();
+                continue;
             }
+            entry.setUrl(url);
+            entry.setTitle(truncate(title, MAX_TITLE_LENGTH));
+            entry.setDescription(truncate(entry.getDescription(), MAX_DESCRIPTION_LENGTH));
+            batch.add(entry);
+
+            if (batch.size() >= IMPORT_BATCH_SIZE) {
+                imported += writeBatch(currentUser, batch, tagIds, folderIds);
+                progress.recordImported(batch.size());
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            imported += writeBatch(currentUser, batch, tagIds, folderIds);
+            progress.recordImported(batch.size());
+        }
+        return imported;
+    }
 
-            // Detect bookmark links: <DT><A HREF="url" ...>title</A>
-            if (trimmed.matches("(?i).*<A\\s+HREF=\"[^\"]+\"[^>]*>.*</A>.*")) {
-                String url = trimmed.replaceAll("(?i).*HREF=\"([^\"]+)\".*", "$1");
-                String title = trimmed.replaceAll("(?i).*<A[^>]*>(.*?)</A>.*", "$1");
-
-                if (bookmarkRepository.existsByUrlAndUserId(url, currentUser.getId())) {
-                    continue;
-                }
+    /**
+     * Inserts one batch with JDBC batching (IDENTITY keys rule out Hibernate insert batching),
+     * then loads the rows once to feed the in-memory indexes. The persistence context lives only
+     * for this transaction, so memory stays flat however long the import runs.
+     */
+    private int writeBatch(User currentUser, List<BookmarkExportDto> batch,
+                           Map<String, Long> tagIds, Map<String, Long> folderIds) {
+        Integer written = transactionTemplate.execute(status -> {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Long> folderIdPerRow = new ArrayList<>(batch.size());
+            for (BookmarkExportDto dto : batch) {
+                folderIdPerRow.add(resolveFolderId(dto.getFolderPath(), currentUser, folderIds));
+            }
 
-                // Parse TAGS attribute if present
-                Set<String> tagNames = new HashSet<>();
-                if (trimmed.matches("(?i).*TAGS=\"[^\"]+\".*")) {
-                    String tags = trimmed.replaceAll("(?i).*TAGS=\"([^\"]+)\".*", "$1");
-                    tagNames.addAll(Arrays.asList(tags.split(",")));
+            List<Long> bookmarkIds = jdbcTemplate.execute((Connection con) -> {
+                try (PreparedStatement ps = con.prepareStatement(
+                        "INSERT INTO bookmarks (title, url, description, user_id, folder_id, is_private, deleted, " +
+                                "access_count, comment_count, created_at) VALUES (?, ?, ?, ?, ?, false, false, 0, 0, ?)",
+                        new String[]{"id"})) {
+                    for (int i = 0; i < batch.size(); i++) {
+                        BookmarkExportDto dto = batch.get(i);
+                        ps.setString(1, dto.getTitle());
+                        ps.setString(2, dto.getUrl());
+                        ps.setString(3, dto.getDescription());
+                        ps.setLong(4, currentUser.getId());
+                        ps.setObject(5, folderIdPerRow.get(i));
+                        ps.setTimestamp(6, now);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    List<Long> ids = new ArrayList<>(batch.size());
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        while (keys.next()) ids.add(keys.getLong(1));
+                    }
+                    return ids;
                 }
+            });
+            if (bookmarkIds == null || bookmarkIds.size() != batch.size()) {
+                throw new IllegalStateException("Import batch did not return generated keys");
+            }
 
-                Folder folder = resolveOrCreateFolderPath(currentFolder, currentUser);
-
-                Bookmark bookmark = Bookmark.builder()
-                        .title(title)
-                        .url(url)
-                        .folder(folder)
-                        .user(currentUser)
-                        .build();
-
+            List<Object[]> links = new ArrayList<>();
+            Map<Long, Integer> tagDeltas = new HashMap<>();
+            for (int i = 0; i < batch.size(); i++) {
+                Set<String> tagNames = batch.get(i).getTagNames();
+                if (tagNames == null) continue;
+                Set<Long> linked = new HashSet<>();
                 for (String tagName : tagNames) {
-                    String trimmedTag = tagName.trim();
-                    if (!trimmedTag.isEmpty()) {
-                        Tag tag = tagRepository.findByName(trimmedTag)
-                                .orElseGet(() -> tagRepository.save(new Tag(trimmedTag)));
-                        bookmark.addTag(tag);
+                    String name = tagName == null ? "" : tagName.trim();
+                    if (name.isEmpty()) continue;
+                    Long tagId = tagIds.computeIfAbsent(name, n -> tagRepository.save(new Tag(n)).getId());
+                    if (linked.add(tagId)) {
+                        links.add(new Object[]{bookmarkIds.get(i), tagId});
+                        tagDeltas.merge(tagId, 1, Integer::sum);
                     }
                 }
+            }
+            if (!links.isEmpty()) {
+                jdbcTemplate.batchUpdate("INSERT INTO bookmark_tags (bookmark_id, tag_id) VALUES (?, ?)", links);
+                // Relative update, so a concurrent edit of the same tag's counter is not overwritten
+                jdbcTemplate.batchUpdate("UPDATE tags SET bookmark_count = bookmark_count + ? WHERE id = ?",
+                        tagDeltas.entrySet().stream()
+                                .map(e -> new Object[]{e.getValue(), e.getKey()})
+                                .collect(Collectors.toList()));
+                eventPublisher.publishEvent(new TagUsageChangedEvent());
+            }
 
-                bookmarkRepository.save(bookmark);
-                imported++;
+            for (Bookmark bookmark : bookmarkRepository.findAllWithTagsByIdIn(bookmarkIds)) {
+                bookmarkSearchIndex.index(bookmark);
+                typeaheadIndex.indexBookmark(bookmark);
+                typeaheadIndex.adjustTagUsage(Collections.emptySet(), bookmark.getTags());
             }
-        }
-        return imported;
+            return bookmarkIds.size();
+        });
+        return written != null ? written : 0;
+    }
+
+    private Long resolveFolderId(String folderPath, User currentUser, Map<String, Long> folderIds) {
+        if (folderPath == null || folderPath.isBlank()) return null;
+        Long cached = folderIds.get(folderPath);
+        if (cached != null) return cached;
+        Folder folder = resolveOrCreateFolderPath(folderPath, currentUser);
+        Long folderId = folder != null ? folder.getId() : null;
+        if (folderId != null) folderIds.put(folderPath, folderId);
+        return folderId;
     }
 
     private Folder resolveOrCreateFolderPath(String folderPath, User currentUser) {
@@ -249,12 +480,18 @@ public class ExportImportService {
                 newFolder.setUser(currentUser);
                 newFolder.setDisplayOrder(candidates.size());
                 found = folderRepository.save(newFolder);
+                typeaheadIndex.indexFolder(found);
             }
             parent = found;
         }
         return parent;
     }
 
+    private String truncate(String text, int maxLength) {
+        if (text == null) return null;
+        return text.length() > maxLength ? text.substring(0, maxLength) : text;
+    }
+
     private String escapeHtml(String text) {
         if (text == null) return "";
         return text.replace("&", "&amp;")
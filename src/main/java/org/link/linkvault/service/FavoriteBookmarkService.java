@@ -6,9 +6,12 @@ import org.link.linkvault.dto.FavoriteReorderDto;
 import org.link.linkvault.entity.Bookmark;
 import org.link.linkvault.entity.FavoriteBookmark;
 import org.link.linkvault.entity.User;
+import org.link.linkvault.event.BookmarkEngagedEvent;
+import org.link.linkvault.event.ChromeSummaryChangedEvent;
 import org.link.linkvault.exception.ResourceNotFoundException;
 import org.link.linkvault.repository.BookmarkRepository;
 import org.link.linkvault.repository.FavoriteBookmarkRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,10 +26,11 @@ public class FavoriteBookmarkService {
 
     private final FavoriteBookmarkRepository favoriteBookmarkRepository;
     private final BookmarkRepository bookmarkRepository;
-    private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public boolean toggleFavorite(User user, Long bookmarkId) {
+        eventPublisher.publishEvent(ChromeSummaryChangedEvent.forUser(user.getId()));
         Optional<FavoriteBookmark> existing = favoriteBookmarkRepository.findByUserIdAndBookmarkId(user.getId(), bookmarkId);
         if (existing.isPresent()) {
             favoriteBookmarkRepository.delete(existing.get());
@@ -36,7 +40,8 @@ public class FavoriteBookmarkService {
                     .orElseThrow(() -> new ResourceNotFoundException("Bookmark not found: " + bookmarkId));
             int nextOrder = (int) favoriteBookmarkRepository.countByUserId(user.getId());
             favoriteBookmarkRepository.save(new FavoriteBookmark(user, bookmark, nextOrder));
-            notificationService.notifyFavorite(bookmark, user);
+            eventPublisher.publishEvent(new BookmarkEngagedEvent(BookmarkEngagedEvent.Kind.FAVORITED, bookmark.getId(),
+                    bookmark.getTitle(), bookmark.getUser().getId(), user.getId(), user.getUsername()));
             return true;
         }
     }
@@ -49,6 +54,7 @@ public class FavoriteBookmarkService {
 
     @Transactional
     public void reorder(User user, FavoriteReorderDto dto) {
+        eventPublisher.publishEvent(ChromeSummaryChangedEvent.forUser(user.getId()));
         for (FavoriteReorderDto.Item item : dto.getItems()) {
             favoriteBookmarkRepository.findByUserIdAndBookmarkId(user.getId(), item.getBookmarkId())
                     .ifPresent(fb -> fb.setDisplayOrder(item.getDisplayOrder()));
@@ -0,0 +1,70 @@
+package org.link.linkvault.service;
+
+import lombok.Getter;
+import org.link.linkvault.entity.Bookmark;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a bookmark feed: the sort key and id of the last row served. Handed to clients as
+ * an opaque URL-safe token; the id breaks ties so rows sharing a sort key are never skipped.
+ */
+@Getter
+public final class FeedCursor {
+
+    public enum Sort { NEWEST, POPULAR }
+
+    // Sentinels for the first page, so it runs the same keyset query as every other page
+    private static final LocalDateTime MAX_CREATED_AT = LocalDateTime.of(9999, 12, 31, 23, 59);
+
+    private final Sort sort;
+    private final LocalDateTime createdAt;
+    private final int accessCount;
+    private final long id;
+
+    private FeedCursor(Sort sort, LocalDateTime createdAt, int accessCount, long id) {
+        this.sort = sort;
+        this.createdAt = createdAt;
+        this.accessCount = accessCount;
+        this.id = id;
+    }
+
+    static FeedCursor first(Sort sort) {
+        return new FeedCursor(sort, MAX_CREATED_AT, Integer.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    static FeedCursor after(Sort sort, Bookmark last) {
+        return new FeedCursor(sort, last.getCreatedAt(), last.getAccessCount(), last.getId());
+    }
+
+    String encode() {
+        String key = sort == Sort.NEWEST ? createdAt.toString() : String.valueOf(accessCount);
+        String raw = sort.name() + "|" + key + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // A missing token means the first page; a token minted for another sort order is rejected
+    static FeedCursor decode(String token, Sort sort) {
+        if (token == null || token.isBlank()) return first(sort);
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (parts.length != 3 || !parts[0].equals(sort.name())) {
+            throw new IllegalArgumentException("Cursor does not match sort order " + sort);
+        }
+        try {
+            long id = Long.parseLong(parts[2]);
+            return sort == Sort.NEWEST
+                    ? new FeedCursor(sort, LocalDateTime.parse(parts[1]), Integer.MAX_VALUE, id)
+                    : new FeedCursor(sort, MAX_CREATED_AT, Integer.parseInt(parts[1]), id);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package org.link.linkvault.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.link.linkvault.entity.PhotoVariant;
+import org.link.linkvault.event.SystemSettingChangedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.annotation.PostConstruct;
@@ -32,6 +35,8 @@ public class FileVaultService {
     @Value("${linkvault.file-vault.max-file-size-mb:10}")
     private int maxFileSizeMb;
 
+    static final List<String> VARIANT_EXTENSIONS = List.of("jpg", "png");
+
     private Path uploadDir;
     private List<String> allowedTypes;
 
@@ -51,6 +56,14 @@ public class FileVaultService {
         log.info("FileVault initialized: path={}, allowedTypes={}, maxSize={}MB", uploadDir, allowedTypes, maxFileSizeMb);
     }
 
+    // Also runs once at startup, when the seeded settings are first loaded
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSettingChanged(SystemSettingChangedEvent event) {
+        if (event.affects("file-vault.")) {
+            reloadSettings();
+        }
+    }
+
     public void reloadSettings() {
         try {
             systemSettingsService.getValue("file-vault.upload-path").ifPresent(val -> {
@@ -111,12 +124,52 @@ public class FileVaultService {
         return filename;
     }
 
+    /**
+     * Name of a generated variant of {@code filename}, e.g. {@code <uuid>-feed.jpg}. Variants are
+     * written as JPEG or PNG whatever the original extension was.
+     */
+    public static String variantFilename(String filename, PhotoVariant variant, String extension) {
+        int dot = filename.lastIndexOf('.');
+        String base = dot > 0 ? filename.substring(0, dot) : filename;
+        return base + "-" + variant.getSuffix() + "." + extension;
+    }
+
+    // Whether the name is that of a generated variant rather than an uploaded original
+    public static boolean isVariantFilename(String filename) {
+        int dot = filename.lastIndexOf('.');
+        String base = dot > 0 ? filename.substring(0, dot) : filename;
+        for (PhotoVariant variant : PhotoVariant.values()) {
+            if (base.endsWith("-" + variant.getSuffix())) return true;
+        }
+        return false;
+    }
+
+    // Absolute path of a stored file, rejecting names that escape the upload directory
+    public Path resolve(String filename) {
+        Path filePath = uploadDir.resolve(filename).normalize();
+        if (!filePath.startsWith(uploadDir)) {
+            throw new IllegalArgumentException("Invalid file path");
+        }
+        return filePath;
+    }
+
+    /**
+     * The requested variant of a stored photo when it has been generated, otherwise null. The
+     * name is derived from the original's, so serving it needs no database lookup.
+     */
+    public Resource loadVariantAsResource(String filename, PhotoVariant variant) {
+        for (String extension : VARIANT_EXTENSIONS) {
+            Path path = resolve(variantFilename(filename, variant, extension));
+            if (Files.isReadable(path)) {
+                return loadAsResource(path.getFileName().toString());
+            }
+        }
+        return null;
+    }
+
     public Resource loadAsResource(String filename) {
         try {
-            Path filePath = uploadDir.resolve(filename).normalize();
-            if (!filePath.startsWith(uploadDir)) {
-                throw new IllegalArgumentException("Invalid file path");
-            }
+            Path filePath = resolve(filename);
             Resource resource = new UrlResource(filePath.toUri());
             if (resource.exists() && resource.isReadable()) {
                 return resource;
@@ -127,13 +180,16 @@ public class FileVaultService {
         }
     }
 
+    // Removes the file and any variants generated from it
     public void delete(String filename) {
         try {
-            Path filePath = uploadDir.resolve(filename).normalize();
-            if (!filePath.startsWith(uploadDir)) {
-                throw new IllegalArgumentException("Invalid file path");
-            }
+            Path filePath = resolve(filename);
             Files.deleteIfExists(filePath);
+            for (PhotoVariant variant : PhotoVariant.values()) {
+                for (String extension : VARIANT_EXTENSIONS) {
+                    Files.deleteIfExists(resolve(variantFilename(filename, variant, extension)));
+                }
+            }
             log.info("Deleted file: {}", filename);
         } catch (IOException e) {
             log.warn("Failed to delete file: {}", filename, e);
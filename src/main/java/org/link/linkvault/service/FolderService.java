@@ -12,6 +12,7 @@ import org.link.linkvault.repository.FolderRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -21,6 +22,7 @@ import java.util.stream.Collectors;
 public class FolderService {
 
     private final FolderRepository folderRepository;
+    private final TypeaheadIndex typeaheadIndex;
 
     private boolean isAdmin(User user) {
         return user.getRole() == Role.SUPER_ADMIN
@@ -83,6 +85,7 @@ public class FolderService {
         }
 
         Folder saved = folderRepository.save(folder);
+        typeaheadIndex.indexFolder(saved);
         return FolderResponseDto.from(saved);
     }
 
@@ -96,6 +99,7 @@ public class FolderService {
         }
 
         folder.updateName(requestDto.getName());
+        typeaheadIndex.indexFolder(folder);
         return FolderResponseDto.from(folder);
     }
 
@@ -108,7 +112,11 @@ public class FolderService {
             throw new SecurityException("Access denied");
         }
 
+        // Children are removed by cascade, so drop the whole subtree from typeahead
+        List<Long> subtreeIds = new ArrayList<>();
+        collectSubtreeIds(folder, subtreeIds);
         folderRepository.delete(folder);
+        typeaheadIndex.removeFolders(subtreeIds);
     }
 
     @Transactional
@@ -159,6 +167,13 @@ public class FolderService {
                 .collect(Collectors.toList());
     }
 
+    private void collectSubtreeIds(Folder folder, List<Long> ids) {
+        ids.add(folder.getId());
+        for (Folder child : folder.getChildren()) {
+            collectSubtreeIds(child, ids);
+        }
+    }
+
     public String buildFolderPath(Folder folder) {
         if (folder == null) return "";
         StringBuilder path = new StringBuilder(folder.getName());
@@ -0,0 +1,397 @@
+package org.link.linkvault.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.link.linkvault.dto.MapClusterDto;
+import org.link.linkvault.dto.MapPinDto;
+import org.link.linkvault.dto.MapViewportDto;
+import org.link.linkvault.entity.Bookmark;
+import org.link.linkvault.repository.BookmarkRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process grid index over geotagged, non-deleted bookmarks. Level L splits the world into
+ * 2^L x 2^L lat/lng cells; every level keeps per-cell counts and coordinate sums, so a viewport
+ * at any zoom is answered by visiting a bounded number of cells regardless of how many posts
+ * exist. Only the finest level keeps the pins themselves.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GeoGridIndex {
+
+    static final int MAX_LEVEL = 16;
+    // Cells at zoom + 2 are about 64px wide on 256px tiles, roughly one marker apart
+    private static final int CLUSTER_LEVEL_OFFSET = 2;
+    private static final int REBUILD_BATCH_SIZE = 5000;
+
+    private final BookmarkRepository bookmarkRepository;
+
+    @Value("${linkvault.map.pin-zoom:14}")
+    private int pinZoom;
+
+    @Value("${linkvault.map.max-cells:1024}")
+    private int maxCells;
+
+    @Value("${linkvault.map.max-pins:500}")
+    private int maxPins;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Pin> pinsById = new HashMap<>();
+    @SuppressWarnings("unchecked")
+    private final Map<Long, Cell>[] levels = new Map[MAX_LEVEL + 1];
+    private final Map<Long, Set<Long>> leafPinIds = new HashMap<>();
+    // Changes applied while a rebuild is loading its snapshot, replayed on top of it
+    private List<Runnable> pendingChanges;
+
+    {
+        for (int level = 0; level <= MAX_LEVEL; level++) {
+            levels[level] = new HashMap<>();
+        }
+    }
+
+    // --- Lifecycle ---
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long started = System.currentTimeMillis();
+        // Record changes from before the snapshot is read so commits landing mid-load are replayed
+        List<Runnable> changes = new ArrayList<>();
+        write(() -> pendingChanges = changes);
+        List<Pin> pins = new ArrayList<>();
+        try {
+            long afterId = 0L;
+            while (true) {
+                List<Object[]> rows = bookmarkRepository.findGeoPinRowsAfter(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                if (rows.isEmpty()) break;
+                for (Object[] row : rows) {
+                    pins.add(new Pin((Long) row[0], (Double) row[1], (Double) row[2],
+                            (String) row[3], (String) row[4], (Boolean) row[5]));
+                }
+                afterId = (Long) rows.get(rows.size() - 1)[0];
+            }
+        } catch (RuntimeException e) {
+            write(() -> pendingChanges = null);
+            throw e;
+        }
+
+        write(() -> {
+            pendingChanges = null;
+            pinsById.clear();
+            leafPinIds.clear();
+            for (Map<Long, Cell> cells : levels) cells.clear();
+            pins.forEach(this::add);
+            changes.forEach(Runnable::run);
+        });
+        log.info("Geo grid index rebuilt: {} pins in {}ms", pins.size(), System.currentTimeMillis() - started);
+    }
+
+    // --- Incremental maintenance (applied after the surrounding transaction commits) ---
+
+    public void index(Bookmark bookmark) {
+        if (bookmark.getId() == null) return;
+        if (bookmark.isDeleted() || bookmark.getLatitude() == null || bookmark.getLongitude() == null) {
+            remove(bookmark.getId());
+            return;
+        }
+        Pin pin = new Pin(bookmark.getId(), bookmark.getLatitude(), bookmark.getLongitude(),
+                bookmark.getMapEmoji(), bookmark.getTitle(), bookmark.isPrivatePost());
+        TransactionCallbacks.afterCommit(() -> upsert(pin));
+    }
+
+    // Direct insert for tests and benchmarks that run without a database
+    void put(long id, double latitude, double longitude, String mapEmoji, String title, boolean privatePost) {
+        upsert(new Pin(id, latitude, longitude, mapEmoji, title, privatePost));
+    }
+
+    private void upsert(Pin pin) {
+        change(() -> {
+            Pin previous = pinsById.get(pin.id);
+            if (previous != null) retire(previous);
+            add(pin);
+        });
+    }
+
+    public void remove(Long bookmarkId) {
+        TransactionCallbacks.afterCommit(() -> change(() -> {
+            Pin previous = pinsById.get(bookmarkId);
+            if (previous != null) retire(previous);
+        }));
+    }
+
+    private void change(Runnable change) {
+        write(() -> {
+            change.run();
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        });
+    }
+
+    private void write(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // --- Query ---
+
+    /**
+     * Pins or clusters inside the bounding box. Clusters are used below the pin zoom and whenever
+     * the box holds more than max-pins posts; a cluster cell holding a single post is returned as
+     * a pin. Longitudes outside [-180, 180] are wrapped, and a box crossing the antimeridian is
+     * split in two. The response never exceeds max-cells entries.
+     */
+    public MapViewportDto query(double south, double west, double north, double east, int zoom, boolean includePrivate) {
+        if (Double.isNaN(south) || Double.isNaN(west) || Double.isNaN(north) || Double.isNaN(east) || south > north) {
+            throw new IllegalArgumentException("Invalid bounding box");
+        }
+        List<double[]> ranges = longitudeRanges(west, east);
+        double lowLat = clampLat(south);
+        double highLat = clampLat(north);
+
+        int level = Math.max(0, Math.min(MAX_LEVEL, zoom + CLUSTER_LEVEL_OFFSET));
+        while (level > 0 && cellsCovered(ranges, lowLat, highLat, level) > maxCells) {
+            level--;
+        }
+
+        lock.readLock().lock();
+        try {
+            if (zoom >= pinZoom && level == MAX_LEVEL) {
+                List<MapPinDto> pins = collectPins(ranges, lowLat, highLat, includePrivate);
+                if (pins != null) {
+                    return MapViewportDto.builder()
+                            .zoom(zoom).clustered(false).totalCount(pins.size())
+                            .clusters(List.of()).pins(pins)
+                            .build();
+                }
+            }
+            return collectClusters(ranges, lowLat, highLat, level, zoom, includePrivate);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return pinsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Pins in the box, or null when there are more than max-pins of them
+    private List<MapPinDto> collectPins(List<double[]> ranges, double lowLat, double highLat, boolean includePrivate) {
+        List<MapPinDto> result = new ArrayList<>();
+        int yFrom = cellY(lowLat, MAX_LEVEL);
+        int yTo = cellY(highLat, MAX_LEVEL);
+        for (double[] range : ranges) {
+            int xFrom = cellX(range[0], MAX_LEVEL);
+            int xTo = cellX(range[1], MAX_LEVEL);
+            for (int y = yFrom; y <= yTo; y++) {
+                for (int x = xFrom; x <= xTo; x++) {
+                    Set<Long> ids = leafPinIds.get(key(x, y));
+                    if (ids == null) continue;
+                    for (Long id : ids) {
+                        Pin pin = pinsById.get(id);
+                        if (!pin.visibleTo(includePrivate) || !pin.within(lowLat, highLat, range)) continue;
+                        if (result.size() == maxPins) return null;
+                        result.add(pin.toDto());
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private MapViewportDto collectClusters(List<double[]> ranges, double lowLat, double highLat,
+                                           int level, int zoom, boolean includePrivate) {
+        Map<Long, Cell> cells = levels[level];
+        List<MapClusterDto> clusters = new ArrayList<>();
+        List<MapPinDto> pins = new ArrayList<>();
+        long total = 0;
+        int yFrom = cellY(lowLat, level);
+        int yTo = cellY(highLat, level);
+        for (double[] range : ranges) {
+            int xFrom = cellX(range[0], level);
+            int xTo = cellX(range[1], level);
+            for (int y = yFrom; y <= yTo; y++) {
+                for (int x = xFrom; x <= xTo; x++) {
+                    Cell cell = cells.get(key(x, y));
+                    if (cell == null) continue;
+                    Aggregate aggregate = includePrivate ? cell.all : cell.publicOnly;
+                    if (aggregate.count == 0) continue;
+                    total += aggregate.count;
+                    if (aggregate.count == 1) {
+                        pins.add(pinsById.get(aggregate.idXor).toDto());
+                    } else {
+                        clusters.add(MapClusterDto.builder()
+                                .latitude(aggregate.latSum / aggregate.count)
+                                .longitude(aggregate.lngSum / aggregate.count)
+                                .count(aggregate.count)
+                                .build());
+                    }
+                }
+            }
+        }
+        return MapViewportDto.builder()
+                .zoom(zoom).clustered(true).totalCount(total)
+                .clusters(clusters).pins(pins)
+                .build();
+    }
+
+    private void add(Pin pin) {
+        pinsById.put(pin.id, pin);
+        for (int level = 0; level <= MAX_LEVEL; level++) {
+            levels[level].computeIfAbsent(key(cellX(pin.lng, level), cellY(pin.lat, level)), k -> new Cell()).add(pin);
+        }
+        leafPinIds.computeIfAbsent(key(cellX(pin.lng, MAX_LEVEL), cellY(pin.lat, MAX_LEVEL)), k -> new LinkedHashSet<>())
+                .add(pin.id);
+    }
+
+    private void retire(Pin pin) {
+        pinsById.remove(pin.id);
+        for (int level = 0; level <= MAX_LEVEL; level++) {
+            long cellKey = key(cellX(pin.lng, level), cellY(pin.lat, level));
+            Cell cell = levels[level].get(cellKey);
+            if (cell != null && cell.remove(pin)) {
+                levels[level].remove(cellKey);
+            }
+        }
+        long leafKey = key(cellX(pin.lng, MAX_LEVEL), cellY(pin.lat, MAX_LEVEL));
+        Set<Long> ids = leafPinIds.get(leafKey);
+        if (ids != null) {
+            ids.remove(pin.id);
+            if (ids.isEmpty()) leafPinIds.remove(leafKey);
+        }
+    }
+
+    // --- Grid math ---
+
+    private static long cellsCovered(List<double[]> ranges, double lowLat, double highLat, int level) {
+        long rows = cellY(highLat, level) - cellY(lowLat, level) + 1L;
+        long columns = 0;
+        for (double[] range : ranges) {
+            columns += cellX(range[1], level) - cellX(range[0], level) + 1L;
+        }
+        return rows * columns;
+    }
+
+    // One or two [west, east] ranges inside [-180, 180]
+    static List<double[]> longitudeRanges(double west, double east) {
+        if (east - west >= 360) return List.of(new double[]{-180, 180});
+        double w = wrapLng(west);
+        double e = wrapLng(east);
+        if (w <= e) return List.of(new double[]{w, e});
+        return List.of(new double[]{w, 180}, new double[]{-180, e});
+    }
+
+    private static double wrapLng(double lng) {
+        if (lng >= -180 && lng <= 180) return lng;
+        double wrapped = ((lng + 180) % 360 + 360) % 360 - 180;
+        return wrapped == -180 && lng > 0 ? 180 : wrapped;
+    }
+
+    private static double clampLat(double lat) {
+        return Math.max(-90, Math.min(90, lat));
+    }
+
+    static int cellX(double lng, int level) {
+        int cells = 1 << level;
+        return Math.min(cells - 1, Math.max(0, (int) Math.floor((lng + 180) / 360 * cells)));
+    }
+
+    static int cellY(double lat, int level) {
+        int cells = 1 << level;
+        return Math.min(cells - 1, Math.max(0, (int) Math.floor((lat + 90) / 180 * cells)));
+    }
+
+    private static long key(int x, int y) {
+        return ((long) y << 32) | x;
+    }
+
+    private static final class Pin {
+        private final long id;
+        private final double lat;
+        private final double lng;
+        private final String emoji;
+        private final String title;
+        private final boolean privatePost;
+
+        private Pin(long id, double lat, double lng, String emoji, String title, boolean privatePost) {
+            this.id = id;
+            this.lat = lat;
+            this.lng = lng;
+            this.emoji = emoji;
+            this.title = title;
+            this.privatePost = privatePost;
+        }
+
+        boolean visibleTo(boolean includePrivate) {
+            return includePrivate || !privatePost;
+        }
+
+        boolean within(double lowLat, double highLat, double[] range) {
+            return lat >= lowLat && lat <= highLat && lng >= range[0] && lng <= range[1];
+        }
+
+        MapPinDto toDto() {
+            return MapPinDto.builder()
+                    .id(id).latitude(lat).longitude(lng)
+                    .mapEmoji(emoji).title(title).privatePost(privatePost)
+                    .build();
+        }
+    }
+
+    private static final class Cell {
+        private final Aggregate all = new Aggregate();
+        private final Aggregate publicOnly = new Aggregate();
+
+        void add(Pin pin) {
+            all.add(pin, 1);
+            if (!pin.privatePost) publicOnly.add(pin, 1);
+        }
+
+        // Returns true when the cell is now empty
+        boolean remove(Pin pin) {
+            all.add(pin, -1);
+            if (!pin.privatePost) publicOnly.add(pin, -1);
+            return all.count == 0;
+        }
+    }
+
+    private static final class Aggregate {
+        private long count;
+        private double latSum;
+        private double lngSum;
+        // XOR of member ids: while count is 1 it is exactly the remaining member's id
+        private long idXor;
+
+        void add(Pin pin, int sign) {
+            count += sign;
+            latSum += sign * pin.lat;
+            lngSum += sign * pin.lng;
+            idXor ^= pin.id;
+            if (count == 0) {
+                latSum = 0;
+                lngSum = 0;
+            }
+        }
+    }
+}
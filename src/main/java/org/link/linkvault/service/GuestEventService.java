@@ -1,47 +1,276 @@
 package org.link.linkvault.service;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.link.linkvault.dto.CacheStatsDto;
+import org.link.linkvault.dto.GuestEventStatsDto;
 import org.link.linkvault.dto.GuestFunnelStatsDto;
-import org.link.linkvault.entity.GuestEvent;
 import org.link.linkvault.entity.GuestEventType;
 import org.link.linkvault.repository.GuestEventRepository;
+import org.link.linkvault.repository.GuestEventRollupRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.annotation.PostConstruct;
+import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Guest analytics. Beacons are throttled per session in memory and handed to
+ * {@link GuestEventWriter} for batched inserts. Each closed hour is rolled up into one row per
+ * event type holding the event count and a {@link HyperLogLog} of the sessions, so funnel queries
+ * over any range merge rollups instead of counting distinct sessions in the raw table. Raw events
+ * older than the retention window are pruned once their hour is rolled up.
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class GuestEventService {
 
+    private static final int SESSION_ID_MAX_LENGTH = 100;
+    private static final int PAGE_URL_MAX_LENGTH = 500;
+    // Hours scanned and written per transaction when catching up
+    private static final int ROLLUP_CHUNK_HOURS = 24;
+
     private final GuestEventRepository guestEventRepository;
+    private final GuestEventRollupRepository guestEventRollupRepository;
+    private final GuestEventWriter guestEventWriter;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${linkvault.guest-events.max-events-per-session-hour:100}")
+    private int maxEventsPerSessionHour;
+
+    @Value("${linkvault.guest-events.max-tracked-sessions:100000}")
+    private int maxTrackedSessions;
+
+    @Value("${linkvault.guest-events.raw-retention-days:30}")
+    private int rawRetentionDays;
+
+    @Value("${linkvault.guest-events.prune-chunk-size:5000}")
+    private int pruneChunkSize;
+
+    // Events accepted per session in its current one-hour window
+    private ExpiringLruCache<String, AtomicInteger> sessionQuotas;
+    private TransactionTemplate transactionTemplate;
 
-    @Transactional
+    private final AtomicBoolean rollupRunning = new AtomicBoolean();
+    private final LongAdder throttled = new LongAdder();
+    private volatile LocalDateTime lastRollupAt;
+    private volatile int lastRollupHours;
+    private volatile long lastRollupEvents;
+    private volatile long lastPrunedEvents;
+    private volatile long lastRollupDurationMs;
+
+    @PostConstruct
+    void init() {
+        sessionQuotas = new ExpiringLruCache<>("guest-session-quotas", maxTrackedSessions, Duration.ofHours(1));
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // No I/O: the quota lives in memory and the insert is queued
     public void logEvent(String sessionId, GuestEventType eventType, String pageUrl) {
-        // Rate limit: max 100 events per session per hour
-        long recentCount = guestEventRepository.countBySessionIdAndCreatedAtAfter(
-                sessionId, LocalDateTime.now().minusHours(1));
-        if (recentCount >= 100) {
+        String session = truncate(sessionId, SESSION_ID_MAX_LENGTH);
+        AtomicInteger used = sessionQuotas.getOrCreate(session, AtomicInteger::new);
+        if (used.incrementAndGet() > maxEventsPerSessionHour) {
+            throttled.increment();
             return;
         }
-
-        GuestEvent event = GuestEvent.builder()
-                .sessionId(sessionId)
-                .eventType(eventType)
-                .pageUrl(pageUrl)
-                .build();
-        guestEventRepository.save(event);
+        guestEventWriter.enqueue(session, eventType, truncate(pageUrl, PAGE_URL_MAX_LENGTH));
     }
 
+    /**
+     * Distinct sessions per funnel step over the rolled-up hours starting in [from, to). The
+     * hour in progress is not rolled up yet, so it is not counted.
+     */
     public GuestFunnelStatsDto getFunnelStats(LocalDateTime from, LocalDateTime to) {
+        Map<GuestEventType, HyperLogLog> sessions = new EnumMap<>(GuestEventType.class);
+        for (Object[] row : guestEventRollupRepository.findNonEmptyBetween(from.truncatedTo(ChronoUnit.HOURS), to)) {
+            if (row[2] == null) continue;
+            sessions.computeIfAbsent((GuestEventType) row[0], t -> new HyperLogLog())
+                    .merge(HyperLogLog.fromBytes((byte[]) row[2]));
+        }
         return GuestFunnelStatsDto.builder()
-                .pageViews(guestEventRepository.countDistinctSessionsByEventType(GuestEventType.PAGE_VIEW, from, to))
-                .adShown(guestEventRepository.countDistinctSessionsByEventType(GuestEventType.AD_SHOWN, from, to))
-                .adClicked(guestEventRepository.countDistinctSessionsByEventType(GuestEventType.AD_CLICKED, from, to))
-                .adHidden(guestEventRepository.countDistinctSessionsByEventType(GuestEventType.AD_HIDDEN, from, to))
-                .signupStarted(guestEventRepository.countDistinctSessionsByEventType(GuestEventType.SIGNUP_STARTED, from, to))
-                .signupCompleted(guestEventRepository.countDistinctSessionsByEventType(GuestEventType.SIGNUP_COMPLETED, from, to))
+                .pageViews(estimate(sessions, GuestEventType.PAGE_VIEW))
+                .adShown(estimate(sessions, GuestEventType.AD_SHOWN))
+                .adClicked(estimate(sessions, GuestEventType.AD_CLICKED))
+                .adHidden(estimate(sessions, GuestEventType.AD_HIDDEN))
+                .signupStarted(estimate(sessions, GuestEventType.SIGNUP_STARTED))
+                .signupCompleted(estimate(sessions, GuestEventType.SIGNUP_COMPLETED))
+                .build();
+    }
+
+    /**
+     * Rolls up every closed hour after the watermark (or since the first raw event on an empty
+     * table), then prunes raw events past retention. Returns the number of hours rolled up.
+     */
+    // Each chunk commits on its own, so a long catch-up never holds one big transaction
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${linkvault.guest-events.rollup-cron:0 5 * * * *}")
+    public int rollupClosedHours() {
+        if (!rollupRunning.compareAndSet(false, true)) {
+            throw new IllegalStateException("Guest event rollup is already running");
+        }
+        try {
+            long started = System.nanoTime();
+            // Queued and in-flight events stamped in a closed hour must reach the table before it is scanned
+            guestEventWriter.flush();
+
+            LocalDateTime currentHour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+            LocalDateTime watermark = guestEventRollupRepository.findLatestBucketHour();
+            LocalDateTime start;
+            if (watermark != null) {
+                start = watermark.plusHours(1);
+            } else {
+                LocalDateTime earliest = guestEventRepository.findEarliestCreatedAt();
+                start = earliest != null ? earliest.truncatedTo(ChronoUnit.HOURS) : currentHour;
+            }
+
+            int hours = 0;
+            long events = 0;
+            for (LocalDateTime chunkStart = start; chunkStart.isBefore(currentHour); ) {
+                LocalDateTime chunkEnd = chunkStart.plusHours(ROLLUP_CHUNK_HOURS);
+                if (chunkEnd.isAfter(currentHour)) chunkEnd = currentHour;
+                events += rollupRange(chunkStart, chunkEnd);
+                hours += (int) ChronoUnit.HOURS.between(chunkStart, chunkEnd);
+                chunkStart = chunkEnd;
+            }
+
+            // Only rolled-up hours may be pruned, whatever the retention says
+            long pruned = rawRetentionDays > 0
+                    ? pruneBefore(min(LocalDateTime.now().minusDays(rawRetentionDays), currentHour))
+                    : 0;
+
+            lastRollupAt = LocalDateTime.now();
+            lastRollupHours = hours;
+            lastRollupEvents = events;
+            lastPrunedEvents = pruned;
+            lastRollupDurationMs = (System.nanoTime() - started) / 1_000_000;
+            if (hours > 0 || pruned > 0) {
+                log.info("Rolled up {} guest event(s) in {} hour(s) from {}, pruned {} raw event(s), took {} ms",
+                        events, hours, start, pruned, lastRollupDurationMs);
+            }
+            return hours;
+        } finally {
+            rollupRunning.set(false);
+        }
+    }
+
+    public GuestEventStatsDto getStats() {
+        return GuestEventStatsDto.builder()
+                .queueDepth(guestEventWriter.getQueueDepth())
+                .enqueued(guestEventWriter.getEnqueued())
+                .written(guestEventWriter.getWritten())
+                .dropped(guestEventWriter.getDropped())
+                .failed(guestEventWriter.getFailed())
+                .batches(guestEventWriter.getBatches())
+                .throttled(throttled.sum())
+                .rollupWatermark(guestEventRollupRepository.findLatestBucketHour())
+                .lastRollupAt(lastRollupAt)
+                .lastRollupHours(lastRollupHours)
+                .lastRollupEvents(lastRollupEvents)
+                .lastPrunedEvents(lastPrunedEvents)
+                .lastRollupDurationMs(lastRollupDurationMs)
                 .build();
     }
+
+    public List<CacheStatsDto> getCacheStats() {
+        return List.of(sessionQuotas.stats());
+    }
+
+    @Scheduled(fixedDelay = 600_000)
+    public void purgeExpiredEntries() {
+        sessionQuotas.purgeExpired();
+    }
+
+    // One scan of [start, end) and one row per (hour, type), committed together; returns the event count
+    private long rollupRange(LocalDateTime start, LocalDateTime end) {
+        Map<LocalDateTime, Map<GuestEventType, Bucket>> buckets = new HashMap<>();
+        jdbcTemplate.query("SELECT session_id, event_type, created_at FROM guest_events " +
+                        "WHERE created_at >= ? AND created_at < ?",
+                rs -> {
+                    LocalDateTime hour = rs.getTimestamp(3).toLocalDateTime().truncatedTo(ChronoUnit.HOURS);
+                    buckets.computeIfAbsent(hour, h -> new EnumMap<>(GuestEventType.class))
+                            .computeIfAbsent(GuestEventType.valueOf(rs.getString(2)), t -> new Bucket())
+                            .add(rs.getString(1));
+                },
+                Timestamp.valueOf(start), Timestamp.valueOf(end));
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>();
+        long events = 0;
+        for (LocalDateTime hour = start; hour.isBefore(end); hour = hour.plusHours(1)) {
+            Map<GuestEventType, Bucket> byType = buckets.getOrDefault(hour, Map.of());
+            for (GuestEventType type : GuestEventType.values()) {
+                Bucket bucket = byType.get(type);
+                long count = bucket != null ? bucket.events : 0;
+                events += count;
+                rows.add(new Object[]{Timestamp.valueOf(hour), type.name(), count,
+                        bucket != null ? bucket.sessions.toBytes() : null, now});
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                "INSERT INTO guest_event_rollups (bucket_hour, event_type, events, session_sketch, rolled_up_at) " +
+                "VALUES (?, ?, ?, ?, ?)", rows));
+        return events;
+    }
+
+    // Deletes raw events older than cutoff in id-range chunks, each in its own short transaction
+    private long pruneBefore(LocalDateTime cutoff) {
+        Timestamp cutoffTs = Timestamp.valueOf(cutoff);
+        Long minId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM guest_events WHERE created_at < ?", Long.class, cutoffTs);
+        Long maxId = jdbcTemplate.queryForObject(
+                "SELECT MAX(id) FROM guest_events WHERE created_at < ?", Long.class, cutoffTs);
+        if (minId == null || maxId == null) return 0;
+
+        long deleted = 0;
+        for (long from = minId; from <= maxId; from += pruneChunkSize) {
+            long to = Math.min(from + pruneChunkSize - 1, maxId);
+            long chunkFrom = from;
+            Integer removed = transactionTemplate.execute(status -> jdbcTemplate.update(
+                    "DELETE FROM guest_events WHERE id BETWEEN ? AND ? AND created_at < ?", chunkFrom, to, cutoffTs));
+            deleted += removed != null ? removed : 0;
+        }
+        return deleted;
+    }
+
+    private static long estimate(Map<GuestEventType, HyperLogLog> sessions, GuestEventType type) {
+        HyperLogLog sketch = sessions.get(type);
+        return sketch != null ? sketch.estimate() : 0;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    private static final class Bucket {
+        private long events;
+        private final HyperLogLog sessions = new HyperLogLog();
+
+        private void add(String sessionId) {
+            events++;
+            sessions.offer(sessionId);
+        }
+    }
 }
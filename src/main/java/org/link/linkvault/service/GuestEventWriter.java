@@ -0,0 +1,201 @@
+package org.link.linkvault.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.link.linkvault.entity.GuestEventType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Batches guest analytics beacons into the guest_events table off the request path. A single
+ * background thread drains the bounded queue; when it is full the event is dropped and counted,
+ * since a lost beacon only nudges an estimate. Taking a batch and committing it happen under one
+ * fair lock, so {@link #flush()} also waits out a batch the background thread is still writing.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GuestEventWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO guest_events (session_id, event_type, page_url, created_at) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${linkvault.guest-events.queue-capacity:20000}")
+    private int queueCapacity;
+
+    @Value("${linkvault.guest-events.batch-size:500}")
+    private int batchSize;
+
+    @Value("${linkvault.guest-events.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    private ArrayBlockingQueue<Entry> queue;
+    private TransactionTemplate transactionTemplate;
+    private Thread writer;
+    private volatile boolean running;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final AtomicLong droppedUnreported = new AtomicLong();
+    private final ReentrantLock writeLock = new ReentrantLock(true);
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        running = true;
+        writer = new Thread(this::drainLoop, "guest-event-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+        flush();
+    }
+
+    void enqueue(String sessionId, GuestEventType eventType, String pageUrl) {
+        if (queue.offer(new Entry(sessionId, eventType, pageUrl))) {
+            enqueued.increment();
+        } else {
+            dropped.increment();
+            droppedUnreported.incrementAndGet();
+        }
+    }
+
+    /**
+     * Waits for any batch in flight, then writes everything queued so far on the calling thread and
+     * returns the number of events taken from the queue. The rollup calls this first so a closed
+     * hour is complete in the table.
+     */
+    public int flush() {
+        List<Entry> batch = new ArrayList<>();
+        int total = 0;
+        writeLock.lock();
+        try {
+            while (queue.drainTo(batch, batchSize) > 0) {
+                total += batch.size();
+                write(batch);
+                batch.clear();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        return total;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getEnqueued() {
+        return enqueued.sum();
+    }
+
+    public long getWritten() {
+        return written.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    private void drainLoop() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                writeLock.lockInterruptibly();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            // Held while waiting too: a flush queued behind it is handed the lock at the next release
+            try {
+                Entry first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                reportDrops();
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Guest event writer iteration failed", e);
+            } finally {
+                writeLock.unlock();
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Entry> batch) {
+        List<Object[]> args = new ArrayList<>(batch.size());
+        for (Entry e : batch) {
+            args.add(new Object[]{e.sessionId, e.eventType.name(), e.pageUrl, Timestamp.valueOf(e.createdAt)});
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, args));
+            written.add(batch.size());
+            batches.increment();
+        } catch (RuntimeException e) {
+            failed.add(batch.size());
+            log.warn("Failed to write {} guest event(s): {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private void reportDrops() {
+        long count = droppedUnreported.getAndSet(0);
+        if (count > 0) {
+            log.warn("Guest event queue full, dropped {} event(s)", count);
+        }
+    }
+
+    private static final class Entry {
+        private final String sessionId;
+        private final GuestEventType eventType;
+        private final String pageUrl;
+        // Stamped on arrival, so the event lands in the hour it happened even if written later
+        private final LocalDateTime createdAt;
+
+        private Entry(String sessionId, GuestEventType eventType, String pageUrl) {
+            this.sessionId = sessionId;
+            this.eventType = eventType;
+            this.pageUrl = pageUrl;
+            this.createdAt = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package org.link.linkvault.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.link.linkvault.dto.ImportJobDto;
+import org.link.linkvault.entity.User;
+import org.link.linkvault.exception.ResourceNotFoundException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PreDestroy;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs bookmark imports in the background. The upload is spooled to a temp file so the request
+ * returns immediately; clients poll {@link #getJob} for progress.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImportJobService {
+
+    private static final int IMPORT_WORKERS = 2;
+    private static final long FINISHED_JOB_RETENTION_MINUTES = 60;
+
+    private enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private final ExportImportService exportImportService;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    // One slot per account, claimed before the upload is spooled so two submits cannot both pass the check
+    private final Map<Long, ImportJob> activeJobs = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(IMPORT_WORKERS, runnable -> {
+        Thread thread = new Thread(runnable, "bookmark-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ImportJobDto submit(User currentUser, String format, MultipartFile file) throws IOException {
+        if (!format.equals("json") && !format.equals("html")) {
+            throw new IllegalArgumentException("Unsupported import format: " + format);
+        }
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("Import file is empty");
+        }
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), currentUser.getId(), format);
+        ImportJob active = activeJobs.compute(currentUser.getId(),
+                (userId, existing) -> existing != null && !existing.isFinished() ? existing : job);
+        if (active != job) {
+            throw new IllegalStateException("An import is already running for this account");
+        }
+
+        Path spool = null;
+        try {
+            spool = Files.createTempFile("linkvault-import-", "." + format);
+            file.transferTo(spool);
+            job.totalBytes = Files.size(spool);
+            jobs.put(job.id, job);
+            Path queued = spool;
+            executor.execute(() -> run(job, currentUser, queued));
+        } catch (IOException | RuntimeException e) {
+            activeJobs.remove(currentUser.getId(), job);
+            jobs.remove(job.id);
+            if (spool != null) {
+                Files.deleteIfExists(spool);
+            }
+            throw e;
+        }
+        return toDto(job);
+    }
+
+    public ImportJobDto getJob(User currentUser, String jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null || !job.userId.equals(currentUser.getId())) {
+            throw new ResourceNotFoundException("Import job not found: " + jobId);
+        }
+        return toDto(job);
+    }
+
+    @Scheduled(fixedDelay = 600_000)
+    public void purgeFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(FINISHED_JOB_RETENTION_MINUTES);
+        jobs.values().removeIf(j -> j.isFinished() && j.finishedAt.isBefore(cutoff));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(ImportJob job, User currentUser, Path spool) {
+        job.status = Status.RUNNING;
+        try (InputStream in = new CountingInputStream(Files.newInputStream(spool), job.bytesRead)) {
+            int imported = job.format.equals("json")
+                    ? exportImportService.importFromJson(currentUser, in, job.progress)
+                    : exportImportService.importFromHtml(currentUser, in, job.progress);
+            job.status = Status.COMPLETED;
+            log.info("Import {} finished for user {}: {} imported, {} skipped",
+                    job.id, currentUser.getUsername(), imported, job.progress.getSkipped());
+        } catch (Exception e) {
+            log.warn("Import {} failed for user {}", job.id, currentUser.getUsername(), e);
+            job.error = e instanceof IllegalArgumentException || e instanceof IOException
+                    ? e.getMessage() : "Import failed after " + job.progress.getImported() + " bookmarks";
+            job.status = Status.FAILED;
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+            activeJobs.remove(job.userId, job);
+            try {
+                Files.deleteIfExists(spool);
+            } catch (IOException e) {
+                log.warn("Could not delete import spool file {}", spool);
+            }
+        }
+    }
+
+    private ImportJobDto toDto(ImportJob job) {
+        return ImportJobDto.builder()
+                .id(job.id)
+                .format(job.format)
+                .status(job.status.name())
+                .totalBytes(job.totalBytes)
+                .bytesRead(job.bytesRead.get())
+                .processed(job.progress.getProcessed())
+                .imported(job.progress.getImported())
+                .skipped(job.progress.getSkipped())
+                .error(job.error)
+                .createdAt(job.createdAt)
+                .finishedAt(job.finishedAt)
+                .build();
+    }
+
+    private static final class ImportJob {
+        private final String id;
+        private final Long userId;
+        private final String format;
+        private volatile long totalBytes;
+        private final AtomicLong bytesRead = new AtomicLong();
+        private final ImportProgress progress = new ImportProgress();
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private volatile Status status = Status.QUEUED;
+        private volatile String error;
+        private volatile LocalDateTime finishedAt;
+
+        private ImportJob(String id, Long userId, String format) {
+            this.id = id;
+            this.userId = userId;
+            this.format = format;
+        }
+
+        private boolean isFinished() {
+            return status == Status.COMPLETED || status == Status.FAILED;
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private final AtomicLong count;
+
+        private CountingInputStream(InputStream in, AtomicLong count) {
+            super(in);
+            this.count = count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) count.incrementAndGet();
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int off, int len) throws IOException {
+            int n = super.read(buffer, off, len);
+            if (n > 0) count.addAndGet(n);
+            return n;
+        }
+    }
+}
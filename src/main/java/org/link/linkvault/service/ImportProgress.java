@@ -0,0 +1,37 @@
+package org.link.linkvault.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live counters for a running import; written by the importer thread, read by progress polling.
+ */
+public class ImportProgress {
+
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+
+    void recordProcessed() {
+        processed.incrementAndGet();
+    }
+
+    void recordImported(int count) {
+        imported.addAndGet(count);
+    }
+
+    void recordSkipped() {
+        skipped.incrementAndGet();
+    }
+
+    public long getProcessed() {
+        return processed.get();
+    }
+
+    public long getImported() {
+        return imported.get();
+    }
+
+    public long getSkipped() {
+        return skipped.get();
+    }
+}
@@ -0,0 +1,75 @@
+package org.link.linkvault.service;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.Refill;
+import org.link.linkvault.dto.CacheStatsDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * In-memory buckets, bounded in count and dropped once idle for a full refill period. A bucket
+ * left alone that long is full again, so expiring it loses nothing; under an IP-spraying scan the
+ * LRU bound keeps memory flat, at the cost of resetting the least recently seen clients early.
+ */
+@Component
+@ConditionalOnProperty(name = "linkvault.rate-limit.backend", havingValue = "local", matchIfMissing = true)
+public class LocalRateLimitBackend implements RateLimitBackend {
+
+    @Value("${linkvault.rate-limit.max-entries:50000}")
+    private int maxEntries;
+
+    private ExpiringLruCache<String, PolicyBucket> buckets;
+
+    @PostConstruct
+    void init() {
+        // Each entry gets its policy's period as TTL; the default only applies if none is given
+        buckets = new ExpiringLruCache<>("rate-limit-buckets", maxEntries, Duration.ofMinutes(10));
+    }
+
+    @Override
+    public long tryConsume(String key, RateLimitPolicy policy) {
+        // A policy change replaces the bucket, so new limits apply at once. Lookup and create share the
+        // cache monitor so concurrent first requests land in one bucket; the TTL counts from the last request
+        PolicyBucket entry = buckets.compute(key,
+                existing -> existing != null && existing.policy == policy ? existing : new PolicyBucket(policy),
+                policy.getPeriod());
+        ConsumptionProbe probe = entry.bucket.tryConsumeAndReturnRemaining(1);
+        return probe.isConsumed() ? 0 : Math.max(1, probe.getNanosToWaitForRefill());
+    }
+
+    @Override
+    public String getName() {
+        return "local";
+    }
+
+    @Override
+    public List<CacheStatsDto> getCacheStats() {
+        return List.of(buckets.stats());
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void purgeExpiredEntries() {
+        buckets.purgeExpired();
+    }
+
+    private static final class PolicyBucket {
+        private final RateLimitPolicy policy;
+        private final Bucket bucket;
+
+        private PolicyBucket(RateLimitPolicy policy) {
+            this.policy = policy;
+            this.bucket = Bucket.builder()
+                    .addLimit(Bandwidth.classic(policy.getCapacity(),
+                            Refill.greedy(policy.getCapacity(), policy.getPeriod())))
+                    .build();
+        }
+    }
+}
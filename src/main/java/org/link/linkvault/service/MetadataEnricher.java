@@ -0,0 +1,318 @@
+package org.link.linkvault.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.HttpStatusException;
+import org.jsoup.UnsupportedMimeTypeException;
+import org.link.linkvault.dto.MetadataEnrichmentStatsDto;
+import org.link.linkvault.entity.Bookmark;
+import org.link.linkvault.entity.MetadataStatus;
+import org.link.linkvault.event.ChromeSummaryChangedEvent;
+import org.link.linkvault.repository.BookmarkRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fetches title, description and favicon for newly saved bookmarks off the request thread.
+ * Bookmarks are persisted as {@link MetadataStatus#PENDING}; jobs are submitted after commit,
+ * run on a bounded pool with a per-host concurrency cap, retried with exponential backoff,
+ * and patch the row in their own short transaction.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MetadataEnricher {
+
+    private static final long HOST_BUSY_DELAY_MS = 250;
+    private static final int MAX_TITLE_LENGTH = 255;
+
+    private final MetadataExtractor metadataExtractor;
+    private final BookmarkRepository bookmarkRepository;
+    private final BookmarkSearchIndex bookmarkSearchIndex;
+    private final GeoGridIndex geoGridIndex;
+    private final TypeaheadIndex typeaheadIndex;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${linkvault.metadata.workers:4}")
+    private int workers;
+
+    @Value("${linkvault.metadata.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${linkvault.metadata.per-host-limit:2}")
+    private int perHostLimit;
+
+    @Value("${linkvault.metadata.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${linkvault.metadata.retry-backoff-ms:2000}")
+    private long retryBackoffMs;
+
+    private ThreadPoolExecutor executor;
+    private ScheduledExecutorService delayScheduler;
+    private TransactionTemplate transactionTemplate;
+
+    // Active fetches per host; entries are dropped when they reach zero
+    private final Map<String, Integer> activeByHost = new ConcurrentHashMap<>();
+
+    private final AtomicInteger scheduledRetries = new AtomicInteger();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final LongAdder fetchCount = new LongAdder();
+    private final LongAdder fetchNanos = new LongAdder();
+    private final AtomicLong maxFetchNanos = new AtomicLong();
+
+    @PostConstruct
+    void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        // Workers only block on network I/O and keep no thread-local state, so this pool can be
+        // swapped for a virtual-thread executor on a newer JDK; the queue bound and host cap stay here.
+        executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), daemonThreads("metadata-fetch-"));
+        executor.allowCoreThreadTimeOut(true);
+        delayScheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("metadata-retry-"));
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // Rows still PENDING are picked up again by resumePending() on the next start
+        delayScheduler.shutdownNow();
+        executor.shutdown();
+        if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() {
+        List<Object[]> rows = bookmarkRepository.findIdAndUrlByMetadataStatus(MetadataStatus.PENDING);
+        for (Object[] row : rows) {
+            submit(new Job((Long) row[0], (String) row[1], 1));
+        }
+        if (!rows.isEmpty()) {
+            log.info("Resumed metadata enrichment for {} pending bookmarks", rows.size());
+        }
+    }
+
+    /**
+     * Queues enrichment for a bookmark that was just marked PENDING. Must be called inside the
+     * transaction that saved it; the job starts only once that transaction commits.
+     */
+    public void enqueue(Bookmark bookmark) {
+        Long bookmarkId = bookmark.getId();
+        String url = bookmark.getUrl();
+        if (bookmarkId == null || url == null) return;
+        TransactionCallbacks.afterCommit(() -> submit(new Job(bookmarkId, url, 1)));
+    }
+
+    public MetadataEnrichmentStatsDto getStats() {
+        long count = fetchCount.sum();
+        return MetadataEnrichmentStatsDto.builder()
+                .queueDepth(executor.getQueue().size())
+                .scheduledRetries(scheduledRetries.get())
+                .activeFetches(executor.getActiveCount())
+                .pendingBookmarks(bookmarkRepository.countByMetadataStatus(MetadataStatus.PENDING))
+                .submitted(submitted.get())
+                .completed(completed.get())
+                .failed(failed.get())
+                .retried(retried.get())
+                .rejected(rejected.get())
+                .fetchCount(count)
+                .avgFetchMs(count == 0 ? 0 : fetchNanos.sum() / 1_000_000.0 / count)
+                .maxFetchMs(maxFetchNanos.get() / 1_000_000.0)
+                .build();
+    }
+
+    // --- Job execution ---
+
+    private void submit(Job job) {
+        if (job.attempt == 1) submitted.incrementAndGet();
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            log.warn("Metadata queue full, giving up on bookmark {}", job.bookmarkId);
+            markFailed(job);
+        }
+    }
+
+    private void schedule(Job job, long delayMs) {
+        scheduledRetries.incrementAndGet();
+        try {
+            delayScheduler.schedule(() -> {
+                scheduledRetries.decrementAndGet();
+                submit(job);
+            }, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the row stays PENDING and is resumed on restart
+            scheduledRetries.decrementAndGet();
+        }
+    }
+
+    private void run(Job job) {
+        if (!tryAcquireHost(job.host)) {
+            schedule(job, HOST_BUSY_DELAY_MS);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            // Retries bypass the cache so a negative entry from the failed attempt doesn't end them early
+            Map<String, String> metadata = metadataExtractor.fetch(job.url, job.attempt > 1);
+            recordFetch(System.nanoTime() - start);
+            apply(job, metadata);
+            completed.incrementAndGet();
+        } catch (IllegalArgumentException e) {
+            log.warn("Skipping metadata for bookmark {}: {}", job.bookmarkId, e.getMessage());
+            markFailed(job);
+        } catch (IOException e) {
+            recordFetch(System.nanoTime() - start);
+            if (isRetryable(e) && job.attempt < maxAttempts) {
+                retried.incrementAndGet();
+                long backoff = retryBackoffMs << (job.attempt - 1);
+                long jitter = ThreadLocalRandom.current().nextLong(backoff / 5 + 1);
+                log.debug("Metadata fetch for {} failed (attempt {}), retrying in {} ms: {}",
+                        job.url, job.attempt, backoff + jitter, e.getMessage());
+                schedule(job.nextAttempt(), backoff + jitter);
+            } else {
+                log.warn("Failed to extract metadata from {} after {} attempt(s): {}",
+                        job.url, job.attempt, e.getMessage());
+                markFailed(job);
+            }
+        } catch (RuntimeException e) {
+            log.error("Metadata enrichment failed for bookmark {}", job.bookmarkId, e);
+            markFailed(job);
+        } finally {
+            releaseHost(job.host);
+        }
+    }
+
+    private boolean isRetryable(IOException e) {
+        if (e instanceof UnsupportedMimeTypeException || e instanceof MetadataExtractor.CachedFailureException) {
+            return false;
+        }
+        if (e instanceof HttpStatusException) {
+            int status = ((HttpStatusException) e).getStatusCode();
+            return status >= 500 || status == 408 || status == 429;
+        }
+        return true;
+    }
+
+    private void apply(Job job, Map<String, String> metadata) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            Bookmark bookmark = bookmarkRepository.findWithTagsAndFolderById(job.bookmarkId).orElse(null);
+            // The URL may have been edited while we were fetching; the newer job owns the row then
+            if (bookmark == null || !job.url.equals(bookmark.getUrl())) return;
+
+            String title = bookmark.getTitle();
+            String fetchedTitle = metadata.getOrDefault("title", "");
+            // The URL doubles as a placeholder title until the page title is known
+            if ((title == null || title.isBlank() || title.equals(job.url)) && !fetchedTitle.isBlank()) {
+                title = fetchedTitle.length() > MAX_TITLE_LENGTH ? fetchedTitle.substring(0, MAX_TITLE_LENGTH) : fetchedTitle;
+            }
+            String description = bookmark.getDescription();
+            if (description == null || description.isBlank()) {
+                description = metadata.getOrDefault("description", "");
+            }
+            bookmark.applyMetadata(title, description, metadata.getOrDefault("favicon", bookmark.getFavicon()));
+            bookmarkSearchIndex.index(bookmark);
+            geoGridIndex.index(bookmark);
+            typeaheadIndex.indexBookmark(bookmark);
+            eventPublisher.publishEvent(ChromeSummaryChangedEvent.forBookmark(bookmark.getId()));
+        });
+    }
+
+    private void markFailed(Job job) {
+        failed.incrementAndGet();
+        transactionTemplate.executeWithoutResult(tx -> bookmarkRepository.findById(job.bookmarkId)
+                .filter(b -> job.url.equals(b.getUrl()) && b.getMetadataStatus() == MetadataStatus.PENDING)
+                .ifPresent(b -> b.setMetadataStatus(MetadataStatus.FAILED)));
+    }
+
+    // --- Per-host limits ---
+
+    private boolean tryAcquireHost(String host) {
+        boolean[] acquired = {false};
+        activeByHost.compute(host, (h, active) -> {
+            int current = active == null ? 0 : active;
+            if (current >= perHostLimit) return active;
+            acquired[0] = true;
+            return current + 1;
+        });
+        return acquired[0];
+    }
+
+    private void releaseHost(String host) {
+        activeByHost.computeIfPresent(host, (h, active) -> active <= 1 ? null : active - 1);
+    }
+
+    private void recordFetch(long nanos) {
+        fetchCount.increment();
+        fetchNanos.add(nanos);
+        maxFetchNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Job {
+        private final Long bookmarkId;
+        private final String url;
+        private final String host;
+        private final int attempt;
+
+        private Job(Long bookmarkId, String url, int attempt) {
+            this.bookmarkId = bookmarkId;
+            this.url = url;
+            this.host = hostOf(url);
+            this.attempt = attempt;
+        }
+
+        private Job nextAttempt() {
+            return new Job(bookmarkId, url, attempt + 1);
+        }
+
+        private static String hostOf(String url) {
+            try {
+                String host = URI.create(url).getHost();
+                return host != null ? host.toLowerCase(Locale.ROOT) : "";
+            } catch (IllegalArgumentException e) {
+                return "";
+            }
+        }
+    }
+}
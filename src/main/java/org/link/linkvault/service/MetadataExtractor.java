@@ -1,15 +1,28 @@
 package org.link.linkvault.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.jsoup.Connection;
+import org.jsoup.HttpStatusException;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
+import org.link.linkvault.dto.CacheStatsDto;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
+import java.io.IOException;
 import java.net.InetAddress;
 import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 @Slf4j
@@ -17,60 +30,160 @@ import java.util.Map;
 public class MetadataExtractor {
 
     private static final int TIMEOUT_MS = 5000;
+    private static final int MAX_REDIRECTS = 5;
 
     @Value("${app.security.ssrf.allow-local:true}")
     private boolean allowLocal;
 
+    @Value("${linkvault.metadata.cache.max-entries:5000}")
+    private int cacheMaxEntries;
+
+    @Value("${linkvault.metadata.cache.ttl-minutes:360}")
+    private long cacheTtlMinutes;
+
+    @Value("${linkvault.metadata.cache.negative-ttl-seconds:120}")
+    private long negativeTtlSeconds;
+
+    // Kept short so a host that starts resolving to an internal address is re-checked quickly
+    @Value("${linkvault.metadata.cache.host-ttl-seconds:60}")
+    private long hostTtlSeconds;
+
+    @Value("${linkvault.metadata.cache.host-max-entries:2000}")
+    private int hostMaxEntries;
+
+    private ExpiringLruCache<String, CachedPage> pageCache;
+    private ExpiringLruCache<String, HostVerdict> hostCache;
+
+    @PostConstruct
+    void initCaches() {
+        pageCache = new ExpiringLruCache<>("metadata-pages", cacheMaxEntries, Duration.ofMinutes(cacheTtlMinutes));
+        hostCache = new ExpiringLruCache<>("metadata-hosts", hostMaxEntries, Duration.ofSeconds(hostTtlSeconds));
+    }
+
     public Map<String, String> extract(String url) {
+        try {
+            return fetch(url);
+        } catch (Exception e) {
+            log.warn("Failed to extract metadata from {}: {}", url, e.getMessage());
+            Map<String, String> metadata = new LinkedHashMap<>();
+            metadata.put("title", "");
+            metadata.put("description", "");
+            metadata.put("favicon", defaultFavicon(url));
+            return metadata;
+        }
+    }
+
+    public Map<String, String> fetch(String url) throws IOException {
+        return fetch(url, false);
+    }
+
+    /**
+     * Unlike extract(), failures propagate so callers can decide whether to retry:
+     * IllegalArgumentException for rejected URLs, IOException for network/HTTP errors.
+     * Results (including failures) are cached per normalized URL; {@code refresh} skips the
+     * cached entry and fetches again. The URL is validated on every call, cached or not.
+     */
+    public Map<String, String> fetch(String url, boolean refresh) throws IOException {
+        validateUrl(url);
+
+        String key = cacheKey(url);
+        CachedPage cached = refresh ? null : pageCache.get(key);
+        if (cached != null) {
+            if (cached.failure != null) {
+                throw new CachedFailureException(cached.failure);
+            }
+            return new LinkedHashMap<>(cached.metadata);
+        }
+
+        try {
+            Map<String, String> metadata = load(url);
+            pageCache.put(key, new CachedPage(Collections.unmodifiableMap(new LinkedHashMap<>(metadata)), null));
+            return metadata;
+        } catch (IOException e) {
+            pageCache.put(key, new CachedPage(null, e.getClass().getSimpleName() + ": " + e.getMessage()),
+                    Duration.ofSeconds(negativeTtlSeconds));
+            throw e;
+        }
+    }
+
+    public List<CacheStatsDto> getCacheStats() {
+        return List.of(pageCache.stats(), hostCache.stats());
+    }
+
+    @Scheduled(fixedDelay = 600_000)
+    public void purgeExpiredEntries() {
+        pageCache.purgeExpired();
+        hostCache.purgeExpired();
+    }
+
+    private Map<String, String> load(String url) throws IOException {
         Map<String, String> metadata = new LinkedHashMap<>();
         metadata.put("title", "");
         metadata.put("description", "");
-        metadata.put("favicon", buildDefaultFavicon(url));
+        metadata.put("favicon", defaultFavicon(url));
 
-        try {
-            validateUrl(url);
+        Document doc = connectFollowingValidatedRedirects(url);
+
+        // Title: <title> or og:title
+        String title = doc.title();
+        Element ogTitle = doc.selectFirst("meta[property=og:title]");
+        if (ogTitle != null && !ogTitle.attr("content").isEmpty()) {
+            title = ogTitle.attr("content");
+        }
+        metadata.put("title", title);
+
+        // Description: meta description or og:description
+        String description = "";
+        Element metaDesc = doc.selectFirst("meta[name=description]");
+        if (metaDesc != null) {
+            description = metaDesc.attr("content");
+        }
+        Element ogDesc = doc.selectFirst("meta[property=og:description]");
+        if (ogDesc != null && !ogDesc.attr("content").isEmpty()) {
+            description = ogDesc.attr("content");
+        }
+        metadata.put("description", truncate(description, 1000));
+
+        // Favicon: <link rel="icon"> or default /favicon.ico
+        Element iconLink = doc.selectFirst("link[rel~=(?i)(shortcut )?icon]");
+        if (iconLink != null && !iconLink.attr("abs:href").isEmpty()) {
+            metadata.put("favicon", iconLink.attr("abs:href"));
+        }
+
+        return metadata;
+    }
 
-            Document doc = Jsoup.connect(url)
+    // Redirects are followed by hand so every hop passes the same SSRF validation as the original URL
+    private Document connectFollowingValidatedRedirects(String url) throws IOException {
+        String current = url;
+        for (int hop = 0; hop <= MAX_REDIRECTS; hop++) {
+            Connection.Response response = Jsoup.connect(current)
                     .userAgent("Mozilla/5.0 (LinkVault Bot)")
                     .timeout(TIMEOUT_MS)
-                    .followRedirects(true)
-                    .get();
-
-            // Title: <title> or og:title
-            String title = doc.title();
-            Element ogTitle = doc.selectFirst("meta[property=og:title]");
-            if (ogTitle != null && !ogTitle.attr("content").isEmpty()) {
-                title = ogTitle.attr("content");
-            }
-            metadata.put("title", title);
+                    .followRedirects(false)
+                    .execute();
 
-            // Description: meta description or og:description
-            String description = "";
-            Element metaDesc = doc.selectFirst("meta[name=description]");
-            if (metaDesc != null) {
-                description = metaDesc.attr("content");
+            int status = response.statusCode();
+            if (status < 300 || status >= 400) {
+                return response.parse();
             }
-            Element ogDesc = doc.selectFirst("meta[property=og:description]");
-            if (ogDesc != null && !ogDesc.attr("content").isEmpty()) {
-                description = ogDesc.attr("content");
-            }
-            metadata.put("description", truncate(description, 1000));
-
-            // Favicon: <link rel="icon"> or default /favicon.ico
-            Element iconLink = doc.selectFirst("link[rel~=(?i)(shortcut )?icon]");
-            if (iconLink != null && !iconLink.attr("abs:href").isEmpty()) {
-                metadata.put("favicon", iconLink.attr("abs:href"));
+            String location = response.header("Location");
+            if (location == null || location.isBlank()) {
+                throw new HttpStatusException("Redirect without Location header", status, current);
             }
-
-        } catch (Exception e) {
-            log.warn("Failed to extract metadata from {}: {}", url, e.getMessage());
+            current = new URL(response.url(), location.trim()).toString();
+            validateUrl(current);
         }
-
-        return metadata;
+        throw new IOException("Too many redirects: " + url);
     }
 
-    private void validateUrl(String url) throws Exception {
-        URI uri = new URI(url);
+    private void validateUrl(String url) throws IOException {
+        URI uri;
+        try {
+            uri = new URI(url);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Malformed URL: " + e.getMessage());
+        }
         String scheme = uri.getScheme();
         if (scheme == null || (!scheme.equalsIgnoreCase("http") && !scheme.equalsIgnoreCase("https"))) {
             throw new IllegalArgumentException("Only http/https URLs are allowed");
@@ -82,22 +195,64 @@ public class MetadataExtractor {
         }
 
         if (!allowLocal) {
-            InetAddress address = InetAddress.getByName(host);
-            if (address.isLoopbackAddress() || address.isLinkLocalAddress()
-                    || address.isSiteLocalAddress() || address.isAnyLocalAddress()
-                    || address.isMulticastAddress()) {
+            String hostLower = host.toLowerCase(Locale.ROOT);
+            if (hostLower.equals("localhost") || hostLower.endsWith(".local")
+                    || hostLower.equals("169.254.169.254") || hostLower.equals("[::1]")) {
                 throw new IllegalArgumentException("Requests to internal addresses are not allowed");
             }
 
-            String hostLower = host.toLowerCase();
-            if (hostLower.equals("localhost") || hostLower.endsWith(".local")
-                    || hostLower.equals("169.254.169.254") || hostLower.equals("[::1]")) {
+            HostVerdict verdict = hostCache.get(hostLower);
+            if (verdict == null) {
+                verdict = resolveVerdict(hostLower);
+                hostCache.put(hostLower, verdict, verdict == HostVerdict.UNRESOLVABLE
+                        ? Duration.ofSeconds(Math.min(hostTtlSeconds, negativeTtlSeconds))
+                        : Duration.ofSeconds(hostTtlSeconds));
+            }
+            if (verdict == HostVerdict.UNRESOLVABLE) {
+                throw new UnknownHostException(host);
+            }
+            if (verdict == HostVerdict.INTERNAL) {
                 throw new IllegalArgumentException("Requests to internal addresses are not allowed");
             }
         }
     }
 
-    private String buildDefaultFavicon(String url) {
+    // Every resolved address must be public; a single internal record blocks the host
+    private HostVerdict resolveVerdict(String host) {
+        try {
+            for (InetAddress address : InetAddress.getAllByName(host)) {
+                if (address.isLoopbackAddress() || address.isLinkLocalAddress()
+                        || address.isSiteLocalAddress() || address.isAnyLocalAddress()
+                        || address.isMulticastAddress()) {
+                    return HostVerdict.INTERNAL;
+                }
+            }
+            return HostVerdict.PUBLIC;
+        } catch (UnknownHostException e) {
+            return HostVerdict.UNRESOLVABLE;
+        }
+    }
+
+    static String cacheKey(String url) {
+        try {
+            URI uri = new URI(url.trim()).normalize();
+            if (uri.getScheme() == null || uri.getHost() == null) return url;
+            String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+            int port = uri.getPort();
+            if ((port == 80 && scheme.equals("http")) || (port == 443 && scheme.equals("https"))) {
+                port = -1;
+            }
+            String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+            return scheme + "://" + uri.getHost().toLowerCase(Locale.ROOT)
+                    + (port == -1 ? "" : ":" + port)
+                    + path
+                    + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "");
+        } catch (URISyntaxException e) {
+            return url;
+        }
+    }
+
+    String defaultFavicon(String url) {
         try {
             URI uri = new URI(url);
             return uri.getScheme() + "://" + uri.getHost() + "/favicon.ico";
@@ -110,4 +265,28 @@ public class MetadataExtractor {
         if (text == null) return "";
         return text.length() > maxLength ? text.substring(0, maxLength) : text;
     }
+
+    enum HostVerdict {
+        PUBLIC, INTERNAL, UNRESOLVABLE
+    }
+
+    private static final class CachedPage {
+        private final Map<String, String> metadata;
+        private final String failure;
+
+        private CachedPage(Map<String, String> metadata, String failure) {
+            this.metadata = metadata;
+            this.failure = failure;
+        }
+    }
+
+    /**
+     * A recent fetch of the same URL failed; thrown without touching the network until the
+     * negative entry expires.
+     */
+    public static class CachedFailureException extends IOException {
+        public CachedFailureException(String message) {
+            super("Recently failed: " + message);
+        }
+    }
 }
@@ -1,12 +1,11 @@
 package org.link.linkvault.service;
 
 import lombok.RequiredArgsConstructor;
+import org.link.linkvault.dto.GuestFunnelStatsDto;
 import org.link.linkvault.dto.MonetizationStatsDto;
 import org.link.linkvault.entity.DonationStatus;
-import org.link.linkvault.entity.GuestEventType;
 import org.link.linkvault.repository.AdFreePassRepository;
 import org.link.linkvault.repository.DonationRepository;
-import org.link.linkvault.repository.GuestEventRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,7 +19,7 @@ public class MonetizationStatsService {
 
     private final AdFreePassRepository adFreePassRepository;
     private final DonationRepository donationRepository;
-    private final GuestEventRepository guestEventRepository;
+    private final GuestEventService guestEventService;
 
     public MonetizationStatsDto getStats() {
         LocalDateTime now = LocalDateTime.now();
@@ -35,9 +34,10 @@ public class MonetizationStatsService {
                 List.of(DonationStatus.COMPLETED)) ? 0 : 0; // Simplified count
         long totalDonations = donationRepository.count();
 
-        // Guest conversion rate (last 90 days)
-        long guestPageViews = guestEventRepository.countDistinctSessionsByEventType(GuestEventType.PAGE_VIEW, start, now);
-        long signupCompleted = guestEventRepository.countDistinctSessionsByEventType(GuestEventType.SIGNUP_COMPLETED, start, now);
+        // Guest conversion rate (last 90 days), from the hourly funnel rollups
+        GuestFunnelStatsDto funnel = guestEventService.getFunnelStats(start, now);
+        long guestPageViews = funnel.getPageViews();
+        long signupCompleted = funnel.getSignupCompleted();
         double conversionRate = guestPageViews > 0 ? (double) signupCompleted / guestPageViews * 100.0 : 0.0;
 
         return MonetizationStatsDto.builder()
@@ -0,0 +1,249 @@
+package org.link.linkvault.service;
+
+import org.jsoup.parser.Parser;
+import org.link.linkvault.dto.BookmarkExportDto;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Pull parser for the Netscape bookmark format exported by browsers and by LinkVault itself.
+ * Reads one character at a time and keeps only the current entry and the folder stack in memory,
+ * so large exports (including inline data: ICON attributes) never get buffered whole.
+ */
+final class NetscapeBookmarkReader {
+
+    private static final int MAX_TEXT_LENGTH = 4096;
+    private static final int MAX_ATTRIBUTE_LENGTH = 4096;
+    private static final Set<String> WANTED_ATTRIBUTES = Set.of("HREF", "TAGS");
+
+    private enum Capture { NONE, FOLDER, TITLE, DESCRIPTION }
+
+    private final Reader in;
+    private final Deque<String> folders = new ArrayDeque<>();
+    private final StringBuilder text = new StringBuilder();
+    private Capture capture = Capture.NONE;
+    private String pendingFolder;
+    private BookmarkExportDto pending;
+
+    NetscapeBookmarkReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Returns the next bookmark, or null at end of input. An entry is only handed out once the
+     * following tag shows that no &lt;DD&gt; description can still belong to it.
+     */
+    BookmarkExportDto next() throws IOException {
+        int c;
+        while ((c = in.read()) != -1) {
+            if (c != '<') {
+                if (capture != Capture.NONE && text.length() < MAX_TEXT_LENGTH) {
+                    text.append((char) c);
+                }
+                continue;
+            }
+            Tag tag = readTag();
+            if (tag == null) continue;
+            if (isInlineMarkup(tag)) continue;
+            finishCapture();
+
+            BookmarkExportDto ready = null;
+            if (pending != null && tag.completesEntry()) {
+                ready = pending;
+                pending = null;
+            }
+            handle(tag);
+            if (ready != null) return ready;
+        }
+        finishCapture();
+        BookmarkExportDto last = pending;
+        pending = null;
+        return last;
+    }
+
+    // Markup inside a link title or folder name is dropped unless it starts a new entry
+    private boolean isInlineMarkup(Tag tag) {
+        if (capture == Capture.TITLE) {
+            return !(tag.closing && tag.name.equals("A")) && !tag.completesEntry();
+        }
+        if (capture == Capture.FOLDER) {
+            return !(tag.closing && tag.name.equals("H3")) && !tag.completesEntry();
+        }
+        return false;
+    }
+
+    private void handle(Tag tag) {
+        if (tag.closing) {
+            if (tag.name.equals("DL") && !folders.isEmpty()) {
+                folders.pop();
+            }
+            return;
+        }
+        switch (tag.name) {
+            case "DL":
+                // A list opened right after <H3> holds that folder's children
+                folders.push(pendingFolder != null ? pendingFolder : "");
+                pendingFolder = null;
+                break;
+            case "H3":
+                startCapture(Capture.FOLDER);
+                break;
+            case "A":
+                pending = new BookmarkExportDto();
+                pending.setUrl(tag.attributes.get("HREF"));
+                pending.setTagNames(parseTags(tag.attributes.get("TAGS")));
+                pending.setFolderPath(currentFolderPath());
+                startCapture(Capture.TITLE);
+                break;
+            case "DD":
+                if (pending != null) startCapture(Capture.DESCRIPTION);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void startCapture(Capture mode) {
+        capture = mode;
+        text.setLength(0);
+    }
+
+    private void finishCapture() {
+        if (capture == Capture.NONE) return;
+        String value = unescape(text.toString()).trim();
+        switch (capture) {
+            case FOLDER:
+                pendingFolder = value;
+                break;
+            case TITLE:
+                if (pending != null) pending.setTitle(value);
+                break;
+            case DESCRIPTION:
+                if (pending != null && !value.isEmpty()) pending.setDescription(value);
+                break;
+            default:
+                break;
+        }
+        capture = Capture.NONE;
+        text.setLength(0);
+    }
+
+    private String currentFolderPath() {
+        StringBuilder path = new StringBuilder();
+        for (var it = folders.descendingIterator(); it.hasNext(); ) {
+            String folder = it.next();
+            if (folder.isEmpty()) continue;
+            if (path.length() > 0) path.append('/');
+            path.append(folder);
+        }
+        return path.toString();
+    }
+
+    private Set<String> parseTags(String tags) {
+        if (tags == null || tags.isBlank()) return new LinkedHashSet<>();
+        return Arrays.stream(tags.split(","))
+                .map(String::trim)
+                .filter(t -> !t.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    // Called after '<' was consumed; returns null for comments and declarations
+    private Tag readTag() throws IOException {
+        int c = in.read();
+        if (c == '!' || c == '?') {
+            skipDeclaration();
+            return null;
+        }
+        boolean closing = false;
+        if (c == '/') {
+            closing = true;
+            c = in.read();
+        }
+        StringBuilder name = new StringBuilder();
+        while (c != -1 && !Character.isWhitespace(c) && c != '>' && c != '/') {
+            if (name.length() < 16) name.append((char) c);
+            c = in.read();
+        }
+
+        Map<String, String> attributes = new HashMap<>(4);
+        while (c != -1 && c != '>') {
+            if (Character.isWhitespace(c) || c == '/') {
+                c = in.read();
+                continue;
+            }
+            StringBuilder attribute = new StringBuilder();
+            while (c != -1 && !Character.isWhitespace(c) && c != '=' && c != '>') {
+                if (attribute.length() < 32) attribute.append((char) c);
+                c = in.read();
+            }
+            while (c != -1 && Character.isWhitespace(c)) c = in.read();
+            if (c != '=') continue; // valueless attribute
+
+            c = in.read();
+            while (c != -1 && Character.isWhitespace(c)) c = in.read();
+            String attributeName = attribute.toString().toUpperCase(Locale.ROOT);
+            StringBuilder value = WANTED_ATTRIBUTES.contains(attributeName) ? new StringBuilder() : null;
+            if (c == '"' || c == '\'') {
+                int quote = c;
+                c = in.read();
+                while (c != -1 && c != quote) {
+                    if (value != null && value.length() < MAX_ATTRIBUTE_LENGTH) value.append((char) c);
+                    c = in.read();
+                }
+                c = in.read();
+            } else {
+                while (c != -1 && !Character.isWhitespace(c) && c != '>') {
+                    if (value != null && value.length() < MAX_ATTRIBUTE_LENGTH) value.append((char) c);
+                    c = in.read();
+                }
+            }
+            if (value != null) attributes.put(attributeName, unescape(value.toString()).trim());
+        }
+        return new Tag(name.toString().toUpperCase(Locale.ROOT), closing, attributes);
+    }
+
+    private void skipDeclaration() throws IOException {
+        int c = in.read();
+        if (c == '-' && (c = in.read()) == '-') {
+            // Comment: skip to the closing "-->"
+            int dashes = 0;
+            while ((c = in.read()) != -1) {
+                if (c == '>' && dashes >= 2) return;
+                dashes = c == '-' ? dashes + 1 : 0;
+            }
+            return;
+        }
+        while (c != -1 && c != '>') c = in.read();
+    }
+
+    private static String unescape(String value) {
+        return value.indexOf('&') < 0 ? value : Parser.unescapeEntities(value, true);
+    }
+
+    private static final class Tag {
+        private final String name;
+        private final boolean closing;
+        private final Map<String, String> attributes;
+
+        private Tag(String name, boolean closing, Map<String, String> attributes) {
+            this.name = name;
+            this.closing = closing;
+            this.attributes = attributes;
+        }
+
+        private boolean completesEntry() {
+            if (closing) return name.equals("DL");
+            return name.equals("DT") || name.equals("A") || name.equals("H3") || name.equals("DL");
+        }
+    }
+}
@@ -0,0 +1,476 @@
+package org.link.linkvault.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.link.linkvault.dto.CacheStatsDto;
+import org.link.linkvault.dto.NotificationDispatchStatsDto;
+import org.link.linkvault.dto.NotificationResponseDto;
+import org.link.linkvault.entity.NotificationType;
+import org.link.linkvault.event.BookmarkEngagedEvent;
+import org.link.linkvault.event.ChromeSummaryChangedEvent;
+import org.link.linkvault.event.CommentCreatedEvent;
+import org.link.linkvault.event.CommentLikedEvent;
+import org.link.linkvault.repository.NotificationRepository;
+import org.link.linkvault.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns comment, like, save and favorite events into notifications off the request path.
+ * Events are queued after commit and handled in batches by one background thread: mentions for
+ * the whole batch are resolved with a single IN query, and likes, saves and favorites on the
+ * same target are folded into one grouped row per recipient ("alice and 11 others liked your
+ * comment"), merging into the recipient's unread group when there is one.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationDispatcher {
+
+    private static final Pattern MENTION_PATTERN = Pattern.compile("@(\\w+)");
+    private static final int MAX_MENTIONS_PER_COMMENT = 20;
+    private static final int MAX_MESSAGE_LENGTH = 500;
+    private static final long IDLE_POLL_MS = 500;
+    private static final Set<NotificationType> GROUPED_TYPES =
+            EnumSet.of(NotificationType.VOTE, NotificationType.SAVE, NotificationType.FAVORITE);
+
+    // Recipient must still exist; a source user deleted meanwhile just leaves the link empty
+    private static final String INSERT_SQL = "INSERT INTO notifications (recipient_id, source_user_id, type, message, " +
+            "related_bookmark_id, related_comment_id, is_read, actor_count, created_at) " +
+            "SELECT r.id, (SELECT s.id FROM users s WHERE s.id = ?), ?, ?, ?, ?, false, ?, ? FROM users r WHERE r.id = ?";
+    // created_at is bumped so a growing group moves back to the top of the list
+    private static final String MERGE_SQL = "UPDATE notifications SET actor_count = ?, message = ?, created_at = ?, " +
+            "source_user_id = (SELECT s.id FROM users s WHERE s.id = ?) WHERE id = ? AND is_read = false";
+
+    private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NotificationPushRegistry pushRegistry;
+    private final UnreadCounterService unreadCounterService;
+
+    @Value("${linkvault.notifications.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${linkvault.notifications.batch-size:500}")
+    private int batchSize;
+
+    @Value("${linkvault.notifications.coalesce-window-ms:1000}")
+    private long coalesceWindowMs;
+
+    @Value("${linkvault.notifications.dedupe-ttl-hours:24}")
+    private long dedupeTtlHours;
+
+    private ArrayBlockingQueue<Object> queue;
+    private TransactionTemplate transactionTemplate;
+    // Reactions already notified, keyed type:actor:target, so like/unlike/like does not notify twice
+    private ExpiringLruCache<String, Boolean> notifiedReactions;
+    private Thread worker;
+    private volatile boolean running;
+
+    // Only one batch is dispatched at a time, whether by the worker or by flush()
+    private final Object dispatchLock = new Object();
+    // Events accepted but not yet dispatched, including a batch the worker is still holding
+    private final AtomicLong pending = new AtomicLong();
+
+    private final LongAdder received = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder inserted = new LongAdder();
+    private final LongAdder merged = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        notifiedReactions = new ExpiringLruCache<>("notification-dedupe", 100_000, Duration.ofHours(dedupeTtlHours));
+        running = true;
+        worker = new Thread(this::dispatchLoop, "notification-dispatcher");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+        dispatchQueued();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentCreated(CommentCreatedEvent event) {
+        accept(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentLiked(CommentLikedEvent event) {
+        if (event.getCommentAuthorId().equals(event.getVoterId())) return;
+        accept(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookmarkEngaged(BookmarkEngagedEvent event) {
+        if (event.getOwnerId().equals(event.getUserId())) return;
+        accept(event);
+    }
+
+    /**
+     * Dispatches everything accepted so far, waiting for a batch the worker may be holding.
+     * Tests and shutdown use this to make notifications visible without sleeping.
+     */
+    public void flush() {
+        dispatchQueued();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pending.get() > 0 && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    public NotificationDispatchStatsDto getStats() {
+        return NotificationDispatchStatsDto.builder()
+                .queueDepth(queue.size())
+                .queueCapacity(queueCapacity)
+                .received(received.sum())
+                .dropped(dropped.sum())
+                .batches(batches.sum())
+                .inserted(inserted.sum())
+                .merged(merged.sum())
+                .coalesced(coalesced.sum())
+                .deduplicated(deduplicated.sum())
+                .failed(failed.sum())
+                .build();
+    }
+
+    public List<CacheStatsDto> getCacheStats() {
+        return List.of(notifiedReactions.stats());
+    }
+
+    private void accept(Object event) {
+        received.increment();
+        pending.incrementAndGet();
+        if (!queue.offer(event)) {
+            pending.decrementAndGet();
+            dropped.increment();
+            log.warn("Notification queue full, dropped {}", event.getClass().getSimpleName());
+        }
+    }
+
+    private void dispatchLoop() {
+        List<Object> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Object first = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                // Hold the batch open briefly so a burst of reactions lands in one grouped row
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(coalesceWindowMs);
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) break;
+                    Object next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                synchronized (dispatchLock) {
+                    dispatch(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Notification dispatcher iteration failed", e);
+            } finally {
+                pending.addAndGet(-batch.size());
+                batch.clear();
+            }
+        }
+    }
+
+    private void dispatchQueued() {
+        List<Object> batch = new ArrayList<>();
+        synchronized (dispatchLock) {
+            while (queue.drainTo(batch, batchSize) > 0) {
+                try {
+                    dispatch(batch);
+                } catch (RuntimeException e) {
+                    log.error("Notification dispatch failed", e);
+                } finally {
+                    pending.addAndGet(-batch.size());
+                    batch.clear();
+                }
+            }
+        }
+    }
+
+    private void dispatch(List<Object> events) {
+        batches.increment();
+        List<Candidate> single = new ArrayList<>();
+        Map<String, Group> groups = new LinkedHashMap<>();
+        Set<String> reactionKeys = new HashSet<>();
+        Map<String, List<CommentCreatedEvent>> mentions = new HashMap<>();
+
+        for (Object event : events) {
+            if (event instanceof CommentCreatedEvent) {
+                CommentCreatedEvent e = (CommentCreatedEvent) event;
+                // Replying to yourself or commenting on your own bookmark notifies nobody
+                if (e.getReplyToUserId() != null) {
+                    if (!e.getReplyToUserId().equals(e.getAuthorId())) {
+                        single.add(new Candidate(e.getReplyToUserId(), e.getAuthorId(), e.getAuthorUsername(), NotificationType.REPLY,
+                                e.getAuthorUsername() + " replied to your comment", e.getBookmarkId(), e.getCommentId()));
+                    }
+                } else if (e.getBookmarkOwnerId() != null && !e.getBookmarkOwnerId().equals(e.getAuthorId())) {
+                    single.add(new Candidate(e.getBookmarkOwnerId(), e.getAuthorId(), e.getAuthorUsername(), NotificationType.COMMENT,
+                            e.getAuthorUsername() + " commented on your bookmark \"" + e.getBookmarkTitle() + "\"",
+                            e.getBookmarkId(), e.getCommentId()));
+                }
+                for (String username : mentionedUsernames(e)) {
+                    mentions.computeIfAbsent(username, u -> new ArrayList<>()).add(e);
+                }
+            } else if (event instanceof CommentLikedEvent) {
+                CommentLikedEvent e = (CommentLikedEvent) event;
+                addToGroup(groups, reactionKeys, NotificationType.VOTE, e.getCommentAuthorId(), e.getVoterId(), e.getVoterUsername(),
+                        e.getBookmarkId(), e.getCommentId(), null);
+            } else if (event instanceof BookmarkEngagedEvent) {
+                BookmarkEngagedEvent e = (BookmarkEngagedEvent) event;
+                NotificationType type = e.getKind() == BookmarkEngagedEvent.Kind.SAVED
+                        ? NotificationType.SAVE : NotificationType.FAVORITE;
+                addToGroup(groups, reactionKeys, type, e.getOwnerId(), e.getUserId(), e.getUsername(),
+                        e.getBookmarkId(), null, e.getBookmarkTitle());
+            }
+        }
+
+        if (!mentions.isEmpty()) {
+            for (Object[] row : userRepository.findIdAndUsernameByUsernameIn(mentions.keySet())) {
+                Long mentionedId = (Long) row[0];
+                for (CommentCreatedEvent e : mentions.get((String) row[1])) {
+                    if (mentionedId.equals(e.getAuthorId())) continue;
+                    single.add(new Candidate(mentionedId, e.getAuthorId(), e.getAuthorUsername(), NotificationType.MENTION,
+                            e.getAuthorUsername() + " mentioned you in a comment", e.getBookmarkId(), e.getCommentId()));
+                }
+            }
+        }
+        if (single.isEmpty() && groups.isEmpty()) return;
+
+        List<Delivery> deliveries = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(single, groups.values(), deliveries));
+        } catch (RuntimeException e) {
+            failed.add(single.size() + groups.size());
+            log.warn("Failed to write {} notification(s): {}", single.size() + groups.size(), e.getMessage());
+            return;
+        }
+        // Only reactions that actually produced a notification are suppressed from now on
+        for (String key : reactionKeys) {
+            notifiedReactions.put(key, Boolean.TRUE);
+        }
+        Set<Long> recipients = new HashSet<>();
+        for (Delivery delivery : deliveries) {
+            recipients.add(delivery.recipientId);
+            pushRegistry.pushNotification(delivery.recipientId, delivery.notification, delivery.newUnread);
+        }
+        for (Long recipientId : recipients) {
+            eventPublisher.publishEvent(ChromeSummaryChangedEvent.forUser(recipientId));
+        }
+    }
+
+    // Dedupe keys are collected per batch and recorded once the write commits
+    private void addToGroup(Map<String, Group> groups, Set<String> reactionKeys, NotificationType type,
+                            Long recipientId, Long actorId, String actorUsername, Long bookmarkId, Long commentId,
+                            String bookmarkTitle) {
+        Long targetId = type == NotificationType.VOTE ? commentId : bookmarkId;
+        String reactionKey = type + ":" + actorId + ":" + targetId;
+        if (notifiedReactions.get(reactionKey) != null || !reactionKeys.add(reactionKey)) {
+            deduplicated.increment();
+            return;
+        }
+        Group group = groups.computeIfAbsent(type + ":" + recipientId + ":" + targetId,
+                k -> new Group(type, recipientId, bookmarkId, commentId));
+        if (group.actors > 0) coalesced.increment();
+        group.actors++;
+        group.latestActorId = actorId;
+        group.latestActorUsername = actorUsername;
+        if (bookmarkTitle != null) group.bookmarkTitle = bookmarkTitle;
+    }
+
+    private void write(List<Candidate> single, Collection<Group> groups, List<Delivery> deliveries) {
+        LocalDateTime createdAt = LocalDateTime.now();
+        Timestamp now = Timestamp.valueOf(createdAt);
+        List<Object[]> inserts = new ArrayList<>();
+        for (Candidate c : single) {
+            inserts.add(insertArgs(c.recipientId, c.sourceUserId, c.type, c.message, c.bookmarkId, c.commentId, 1, now));
+            deliveries.add(new Delivery(c.recipientId, true, pushed(c.type, c.message, c.sourceUsername,
+                    c.bookmarkId, c.commentId, 1, createdAt)));
+        }
+
+        if (!groups.isEmpty()) {
+            Map<String, Object[]> existing = new HashMap<>();
+            Set<Long> groupRecipients = new HashSet<>();
+            groups.forEach(g -> groupRecipients.add(g.recipientId));
+            for (Object[] row : notificationRepository.findUnreadGroupable(groupRecipients, GROUPED_TYPES)) {
+                NotificationType type = (NotificationType) row[2];
+                Long targetId = type == NotificationType.VOTE ? (Long) row[4] : (Long) row[3];
+                existing.put(type + ":" + row[1] + ":" + targetId, row);
+            }
+            for (Group g : groups) {
+                Object[] row = existing.get(g.key());
+                if (row != null) {
+                    int total = ((Number) row[5]).intValue() + g.actors;
+                    int updated = jdbcTemplate.update(MERGE_SQL, total, g.message(total), now, g.latestActorId, row[0]);
+                    if (updated == 1) {
+                        merged.increment();
+                        // Still one unread row, so the counter does not move
+                        deliveries.add(new Delivery(g.recipientId, false, pushed(g.type, g.message(total),
+                                g.latestActorUsername, g.bookmarkId, g.commentId, total, createdAt)));
+                        continue;
+                    }
+                    // Read by the recipient since it was loaded; start a fresh group instead
+                }
+                inserts.add(insertArgs(g.recipientId, g.latestActorId, g.type, g.message(g.actors),
+                        g.bookmarkId, g.commentId, g.actors, now));
+                deliveries.add(new Delivery(g.recipientId, true, pushed(g.type, g.message(g.actors),
+                        g.latestActorUsername, g.bookmarkId, g.commentId, g.actors, createdAt)));
+            }
+        }
+
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+            inserted.add(inserts.size());
+            Map<Long, Integer> newUnread = new HashMap<>();
+            for (Delivery delivery : deliveries) {
+                if (delivery.newUnread) newUnread.merge(delivery.recipientId, 1, Integer::sum);
+            }
+            unreadCounterService.notificationsAdded(newUnread);
+        }
+    }
+
+    private static Object[] insertArgs(Long recipientId, Long sourceUserId, NotificationType type, String message,
+                                       Long bookmarkId, Long commentId, int actorCount, Timestamp now) {
+        return new Object[]{sourceUserId, type.name(), truncate(message), bookmarkId, commentId, actorCount, now,
+                recipientId};
+    }
+
+    // Rows are inserted in bulk without generated keys, so pushed copies carry no id
+    private static NotificationResponseDto pushed(NotificationType type, String message, String sourceUsername,
+                                                  Long bookmarkId, Long commentId, int actorCount,
+                                                  LocalDateTime createdAt) {
+        return NotificationResponseDto.builder()
+                .sourceUsername(sourceUsername)
+                .type(type)
+                .message(truncate(message))
+                .relatedBookmarkId(bookmarkId)
+                .relatedCommentId(commentId)
+                .actorCount(actorCount)
+                .createdAt(createdAt)
+                .build();
+    }
+
+    private static Set<String> mentionedUsernames(CommentCreatedEvent event) {
+        if (event.getContent() == null) return Collections.emptySet();
+        Set<String> usernames = new LinkedHashSet<>();
+        Matcher matcher = MENTION_PATTERN.matcher(event.getContent());
+        while (matcher.find() && usernames.size() < MAX_MENTIONS_PER_COMMENT) {
+            usernames.add(matcher.group(1));
+        }
+        return usernames;
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_MESSAGE_LENGTH ? message : message.substring(0, MAX_MESSAGE_LENGTH - 3) + "...";
+    }
+
+    private static final class Delivery {
+        private final Long recipientId;
+        private final boolean newUnread;
+        private final NotificationResponseDto notification;
+
+        private Delivery(Long recipientId, boolean newUnread, NotificationResponseDto notification) {
+            this.recipientId = recipientId;
+            this.newUnread = newUnread;
+            this.notification = notification;
+        }
+    }
+
+    private static final class Candidate {
+        private final Long recipientId;
+        private final Long sourceUserId;
+        private final String sourceUsername;
+        private final NotificationType type;
+        private final String message;
+        private final Long bookmarkId;
+        private final Long commentId;
+
+        private Candidate(Long recipientId, Long sourceUserId, String sourceUsername, NotificationType type,
+                          String message, Long bookmarkId, Long commentId) {
+            this.recipientId = recipientId;
+            this.sourceUserId = sourceUserId;
+            this.sourceUsername = sourceUsername;
+            this.type = type;
+            this.message = message;
+            this.bookmarkId = bookmarkId;
+            this.commentId = commentId;
+        }
+    }
+
+    // Reactions of one type on one target for one recipient, collected within a batch
+    private static final class Group {
+        private final NotificationType type;
+        private final Long recipientId;
+        private final Long bookmarkId;
+        private final Long commentId;
+        private int actors;
+        private Long latestActorId;
+        private String latestActorUsername;
+        private String bookmarkTitle;
+
+        private Group(NotificationType type, Long recipientId, Long bookmarkId, Long commentId) {
+            this.type = type;
+            this.recipientId = recipientId;
+            this.bookmarkId = bookmarkId;
+            this.commentId = commentId;
+        }
+
+        private String key() {
+            return type + ":" + recipientId + ":" + (type == NotificationType.VOTE ? commentId : bookmarkId);
+        }
+
+        private String message(int total) {
+            String who = total <= 1 ? latestActorUsername
+                    : latestActorUsername + " and " + (total - 1) + (total == 2 ? " other" : " others");
+            switch (type) {
+                case VOTE:
+                    return who + " liked your comment";
+                case SAVE:
+                    return who + " saved your bookmark \"" + bookmarkTitle + "\"";
+                default:
+                    return who + " favorited your bookmark \"" + bookmarkTitle + "\"";
+            }
+        }
+    }
+}
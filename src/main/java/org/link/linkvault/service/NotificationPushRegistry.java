@@ -0,0 +1,340 @@
+package org.link.linkvault.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.link.linkvault.dto.NotificationResponseDto;
+import org.link.linkvault.dto.PushStatsDto;
+import org.link.linkvault.entity.AnnouncementPriority;
+import org.link.linkvault.entity.Role;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the open Server-Sent Events streams per user and pushes new notifications, unread-count
+ * changes and high-priority announcements to them. Publishers only append to a small per-stream
+ * buffer (oldest events are dropped when a client falls behind); a few sender threads write the
+ * buffers out, so a slow client never blocks the code that produced the event. A periodic
+ * heartbeat keeps idle streams open through proxies and detects dead ones.
+ * <p>
+ * Buffers hold event factories rather than built events: {@link SseEmitter.SseEventBuilder}
+ * appends to its own state on every {@code build()}, so one builder must never be sent twice.
+ */
+@Slf4j
+@Component
+public class NotificationPushRegistry {
+
+    static final String COUNTER_NOTIFICATIONS = "notifications";
+    static final String COUNTER_ANNOUNCEMENTS = "announcements";
+
+    private static final Supplier<SseEmitter.SseEventBuilder> HEARTBEAT = () -> SseEmitter.event().comment("hb");
+
+    @Value("${linkvault.push.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${linkvault.push.heartbeat-seconds:25}")
+    private long heartbeatSeconds;
+
+    @Value("${linkvault.push.buffer-size:32}")
+    private int bufferSize;
+
+    @Value("${linkvault.push.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    @Value("${linkvault.push.sender-threads:4}")
+    private int senderThreads;
+
+    private final Map<Long, List<Connection>> connectionsByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private ExecutorService senders;
+    private ScheduledExecutorService heartbeats;
+
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder closed = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failedSends = new LongAdder();
+    private final LongAdder heartbeatsSent = new LongAdder();
+
+    @PostConstruct
+    void start() {
+        senders = Executors.newFixedThreadPool(senderThreads, daemonThreads("sse-send-"));
+        scheduleHeartbeats();
+    }
+
+    @PreDestroy
+    void stop() {
+        cancelHeartbeats();
+        senders.shutdownNow();
+        for (List<Connection> connections : connectionsByUser.values()) {
+            for (Connection connection : connections) {
+                connection.emitter.complete();
+            }
+        }
+        connectionsByUser.clear();
+    }
+
+    /**
+     * Opens a stream for the user and queues the current unread counts as its first event, so
+     * the page can drop its rendered counters and rely on deltas from then on.
+     */
+    public SseEmitter subscribe(Long userId, Role role, long unreadNotifications, long unreadAnnouncements) {
+        Connection connection = register(userId, role, new SseEmitter(emitterTimeoutMs));
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put(COUNTER_NOTIFICATIONS, unreadNotifications);
+        counts.put(COUNTER_ANNOUNCEMENTS, unreadAnnouncements);
+        offer(connection, event("unread-snapshot", counts));
+        return connection.emitter;
+    }
+
+    public void pushNotification(Long userId, NotificationResponseDto notification, boolean newUnread) {
+        List<Connection> connections = connectionsByUser.get(userId);
+        if (connections == null) return;
+        for (Connection connection : connections) {
+            offer(connection, event("notification", notification));
+            if (newUnread) {
+                offer(connection, event("unread-count", delta(COUNTER_NOTIFICATIONS, 1)));
+            }
+        }
+    }
+
+    public void pushUnreadDelta(Long userId, String counter, long delta) {
+        pushToUser(userId, event("unread-count", delta(counter, delta)));
+    }
+
+    // Absolute value, e.g. after "mark all as read"
+    public void pushUnreadCount(Long userId, String counter, long count) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("counter", counter);
+        data.put("count", count);
+        pushToUser(userId, event("unread-count", data));
+    }
+
+    /**
+     * Asks every connected user in the role (everyone when null) to refetch the counter. Used
+     * when an announcement is withdrawn or retargeted: whether it was still unread differs per
+     * user, so no single delta is right for all of them.
+     */
+    public void pushUnreadResync(String counter, Role targetRole) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("counter", counter);
+        for (List<Connection> connections : connectionsByUser.values()) {
+            for (Connection connection : connections) {
+                if (targetRole != null && targetRole != connection.role) continue;
+                offer(connection, event("unread-resync", data));
+            }
+        }
+    }
+
+    /**
+     * Tells every connected user the announcement targets about it: the unread counter always
+     * moves, and WARN or CRITICAL announcements are pushed in full so they can be shown at once.
+     */
+    public void pushAnnouncement(Long announcementId, String title, AnnouncementPriority priority, Role targetRole) {
+        Map<String, Object> announcement = new LinkedHashMap<>();
+        announcement.put("id", announcementId);
+        announcement.put("title", title);
+        announcement.put("priority", priority);
+        boolean highPriority = priority == AnnouncementPriority.WARN || priority == AnnouncementPriority.CRITICAL;
+        for (List<Connection> connections : connectionsByUser.values()) {
+            for (Connection connection : connections) {
+                if (targetRole != null && targetRole != connection.role) continue;
+                offer(connection, event("unread-count", delta(COUNTER_ANNOUNCEMENTS, 1)));
+                if (highPriority) {
+                    offer(connection, event("announcement", announcement));
+                }
+            }
+        }
+    }
+
+    public PushStatsDto getStats() {
+        return PushStatsDto.builder()
+                .connections(connectionCount.get())
+                .users(connectionsByUser.size())
+                .opened(opened.sum())
+                .closed(closed.sum())
+                .sent(sent.sum())
+                .dropped(dropped.sum())
+                .failedSends(failedSends.sum())
+                .heartbeats(heartbeatsSent.sum())
+                .build();
+    }
+
+    Connection register(Long userId, Role role, SseEmitter emitter) {
+        Connection connection = new Connection(userId, role, emitter);
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> {
+            remove(connection);
+            emitter.complete();
+        });
+        emitter.onError(e -> remove(connection));
+
+        // Cap check and add run inside compute so a concurrent remove() cannot drop the list in between
+        Connection[] evicted = new Connection[1];
+        connectionsByUser.compute(userId, (id, connections) -> {
+            List<Connection> list = connections != null ? connections : new CopyOnWriteArrayList<>();
+            if (list.size() >= maxConnectionsPerUser) {
+                evicted[0] = list.get(0);
+            }
+            list.add(connection);
+            return list;
+        });
+        connectionCount.incrementAndGet();
+        opened.increment();
+        if (evicted[0] != null) {
+            // Oldest tab goes first; EventSource there reconnects if the page is still open
+            remove(evicted[0]);
+            evicted[0].emitter.complete();
+        }
+        return connection;
+    }
+
+    // Package-private so tests that count frames can keep the timer from interleaving its own
+    void scheduleHeartbeats() {
+        heartbeats = Executors.newSingleThreadScheduledExecutor(daemonThreads("sse-heartbeat-"));
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    void cancelHeartbeats() {
+        heartbeats.shutdownNow();
+    }
+
+    // Queues a comment line on every idle stream; a failed write removes the stream
+    void heartbeat() {
+        for (List<Connection> connections : connectionsByUser.values()) {
+            for (Connection connection : connections) {
+                if (connection.isIdle() && offer(connection, HEARTBEAT)) {
+                    heartbeatsSent.increment();
+                }
+            }
+        }
+    }
+
+    private void pushToUser(Long userId, Supplier<SseEmitter.SseEventBuilder> event) {
+        List<Connection> connections = connectionsByUser.get(userId);
+        if (connections == null) return;
+        for (Connection connection : connections) {
+            offer(connection, event);
+        }
+    }
+
+    private boolean offer(Connection connection, Supplier<SseEmitter.SseEventBuilder> event) {
+        boolean schedule;
+        synchronized (connection) {
+            if (connection.closed) return false;
+            if (connection.buffer.size() >= bufferSize) {
+                connection.buffer.pollFirst();
+                dropped.increment();
+            }
+            connection.buffer.addLast(event);
+            schedule = !connection.draining;
+            connection.draining = true;
+        }
+        if (schedule) {
+            try {
+                senders.execute(() -> drain(connection));
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // At most one drain per connection runs at a time, which keeps events in order
+    private void drain(Connection connection) {
+        boolean idle = false;
+        try {
+            while (true) {
+                Supplier<SseEmitter.SseEventBuilder> next;
+                synchronized (connection) {
+                    next = connection.buffer.pollFirst();
+                    if (next == null || connection.closed) {
+                        // Cleared under the same lock as the empty poll, so a concurrent offer reschedules
+                        connection.draining = false;
+                        idle = true;
+                        return;
+                    }
+                }
+                try {
+                    connection.emitter.send(next.get());
+                    sent.increment();
+                } catch (IOException | RuntimeException e) {
+                    failedSends.increment();
+                    remove(connection);
+                    connection.emitter.completeWithError(e);
+                    return;
+                }
+            }
+        } finally {
+            if (!idle) {
+                synchronized (connection) {
+                    connection.draining = false;
+                }
+            }
+        }
+    }
+
+    private void remove(Connection connection) {
+        synchronized (connection) {
+            if (connection.closed) return;
+            connection.closed = true;
+            connection.buffer.clear();
+        }
+        connectionsByUser.computeIfPresent(connection.userId, (id, connections) -> {
+            connections.remove(connection);
+            return connections.isEmpty() ? null : connections;
+        });
+        connectionCount.decrementAndGet();
+        closed.increment();
+    }
+
+    private static Supplier<SseEmitter.SseEventBuilder> event(String name, Object data) {
+        return () -> SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON);
+    }
+
+    private static Map<String, Object> delta(String counter, long delta) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("counter", counter);
+        data.put("delta", delta);
+        return data;
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    static final class Connection {
+        private final Long userId;
+        private final Role role;
+        private final SseEmitter emitter;
+        // Guarded by this connection's monitor
+        private final ArrayDeque<Supplier<SseEmitter.SseEventBuilder>> buffer = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+
+        private Connection(Long userId, Role role, SseEmitter emitter) {
+            this.userId = userId;
+            this.role = role;
+            this.emitter = emitter;
+        }
+
+        private synchronized boolean isIdle() {
+            return !closed && buffer.isEmpty() && !draining;
+        }
+    }
+}
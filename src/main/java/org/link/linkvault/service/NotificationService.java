@@ -3,27 +3,26 @@ package org.link.linkvault.service;
 import lombok.RequiredArgsConstructor;
 import org.link.linkvault.dto.NotificationResponseDto;
 import org.link.linkvault.entity.*;
+import org.link.linkvault.event.ChromeSummaryChangedEvent;
 import org.link.linkvault.exception.ResourceNotFoundException;
 import org.link.linkvault.repository.NotificationRepository;
-import org.link.linkvault.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class NotificationService {
 
-    private static final Pattern MENTION_PATTERN = Pattern.compile("@(\\w+)");
-
     private final NotificationRepository notificationRepository;
-    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NotificationPushRegistry pushRegistry;
+    private final UnreadCounterService unreadCounterService;
 
     @Transactional
     public void createNotification(User recipient, User sourceUser, NotificationType type,
@@ -40,6 +39,8 @@ public class NotificationService {
                 .relatedCommentId(commentId)
                 .build();
         notificationRepository.save(notification);
+        unreadCounterService.notificationsAdded(recipient.getId(), 1);
+        eventPublisher.publishEvent(ChromeSummaryChangedEvent.forUser(recipient.getId()));
     }
 
     public Page<NotificationResponseDto> getNotifications(User user, Pageable pageable) {
@@ -49,7 +50,7 @@ public class NotificationService {
     }
 
     public long getUnreadCount(User user) {
-        return notificationRepository.countByRecipientIdAndReadFalse(user.getId());
+        return unreadCounterService.getUnreadNotifications(user);
     }
 
     @Transactional
@@ -59,74 +60,21 @@ public class NotificationService {
         if (!notification.getRecipient().getId().equals(user.getId())) {
             throw new SecurityException("Not authorized");
         }
-        notification.markAsRead();
-    }
-
-    @Transactional
-    public void markAllAsRead(User user) {
-        notificationRepository.markAllAsRead(user.getId());
-    }
-
-    @Transactional
-    public void notifyReply(Comment comment, User commenter) {
-        Comment parent = comment.getParent();
-        if (parent == null || parent.isDeleted()) return;
-        User parentAuthor = parent.getUser();
-        String message = commenter.getUsername() + " replied to your comment";
-        createNotification(parentAuthor, commenter, NotificationType.REPLY, message,
-                comment.getBookmark().getId(), comment.getId());
-    }
-
-    @Transactional
-    public void notifyMentions(Comment comment, User commenter) {
-        Matcher matcher = MENTION_PATTERN.matcher(comment.getContent());
-        while (matcher.find()) {
-            String mentionedUsername = matcher.group(1);
-            userRepository.findByUsername(mentionedUsername).ifPresent(mentioned -> {
-                String message = commenter.getUsername() + " mentioned you in a comment";
-                createNotification(mentioned, commenter, NotificationType.MENTION, message,
-                        comment.getBookmark().getId(), comment.getId());
-            });
-        }
-    }
-
-    @Transactional
-    public void notifyVote(Comment comment, User voter) {
-        if (comment.isDeleted()) return;
-        User author = comment.getUser();
-        if (author.getId().equals(voter.getId())) return;
-        // Deduplicate: skip if a vote notification already exists for this voter+comment
-        if (notificationRepository.existsBySourceUserIdAndRecipientIdAndTypeAndRelatedCommentId(
-                voter.getId(), author.getId(), NotificationType.VOTE, comment.getId())) {
+        if (notification.isRead() || notificationRepository.markAsReadIfUnread(notificationId) == 0) {
             return;
         }
-        String message = voter.getUsername() + " liked your comment";
-        createNotification(author, voter, NotificationType.VOTE, message,
-                comment.getBookmark().getId(), comment.getId());
+        unreadCounterService.notificationsRead(user.getId(), 1);
+        eventPublisher.publishEvent(ChromeSummaryChangedEvent.forUser(user.getId()));
+        TransactionCallbacks.afterCommit(() ->
+                pushRegistry.pushUnreadDelta(user.getId(), NotificationPushRegistry.COUNTER_NOTIFICATIONS, -1));
     }
 
     @Transactional
-    public void notifyComment(Comment comment, User commenter) {
-        Bookmark bookmark = comment.getBookmark();
-        User owner = bookmark.getUser();
-        String message = commenter.getUsername() + " commented on your bookmark \"" + bookmark.getTitle() + "\"";
-        createNotification(owner, commenter, NotificationType.COMMENT, message,
-                bookmark.getId(), comment.getId());
-    }
-
-    @Transactional
-    public void notifySave(Bookmark bookmark, User saver) {
-        User owner = bookmark.getUser();
-        String message = saver.getUsername() + " saved your bookmark \"" + bookmark.getTitle() + "\"";
-        createNotification(owner, saver, NotificationType.SAVE, message,
-                bookmark.getId(), null);
-    }
-
-    @Transactional
-    public void notifyFavorite(Bookmark bookmark, User favoriter) {
-        User owner = bookmark.getUser();
-        String message = favoriter.getUsername() + " favorited your bookmark \"" + bookmark.getTitle() + "\"";
-        createNotification(owner, favoriter, NotificationType.FAVORITE, message,
-                bookmark.getId(), null);
+    public void markAllAsRead(User user) {
+        int marked = notificationRepository.markAllAsRead(user.getId());
+        unreadCounterService.notificationsRead(user.getId(), marked);
+        eventPublisher.publishEvent(ChromeSummaryChangedEvent.forUser(user.getId()));
+        TransactionCallbacks.afterCommit(() ->
+                pushRegistry.pushUnreadCount(user.getId(), NotificationPushRegistry.COUNTER_NOTIFICATIONS, 0));
     }
 }
@@ -1,6 +1,7 @@
 package org.link.linkvault.service;
 
 import lombok.RequiredArgsConstructor;
+import org.link.linkvault.dto.CacheStatsDto;
 import org.link.linkvault.dto.PermissionResponseDto;
 import org.link.linkvault.entity.Permission;
 import org.link.linkvault.entity.Role;
@@ -8,11 +9,19 @@ import org.link.linkvault.entity.RolePermission;
 import org.link.linkvault.exception.ResourceNotFoundException;
 import org.link.linkvault.repository.PermissionRepository;
 import org.link.linkvault.repository.RolePermissionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,6 +33,50 @@ public class PermissionService {
     private final RolePermissionRepository rolePermissionRepository;
     private final AuditLogService auditLogService;
 
+    @Value("${linkvault.permissions.cache-ttl-minutes:60}")
+    private long cacheTtlMinutes;
+
+    // Role -> granted authorities; there are only a handful of roles, so every one stays resident
+    private ExpiringLruCache<Role, List<GrantedAuthority>> authoritiesByRole;
+    // Bumped on every invalidation; a load that overlaps one is returned but not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    @PostConstruct
+    void initCache() {
+        authoritiesByRole = new ExpiringLruCache<>("role-authorities", Role.values().length,
+                Duration.ofMinutes(cacheTtlMinutes));
+    }
+
+    /**
+     * Authorities for a role: its ROLE_ authority plus the granted permission names. SUPER_ADMIN
+     * holds every permission implicitly. Served from memory after the first load; grants and
+     * revokes drop the role's entry once they commit.
+     */
+    public List<GrantedAuthority> getAuthorities(Role role) {
+        List<GrantedAuthority> cached = authoritiesByRole.get(role);
+        if (cached != null) {
+            return cached;
+        }
+        long loadGeneration = generation.get();
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        authorities.add(new SimpleGrantedAuthority("ROLE_" + role.name()));
+        if (role == Role.SUPER_ADMIN) {
+            permissionRepository.findAll().forEach(p -> authorities.add(new SimpleGrantedAuthority(p.getName())));
+        } else {
+            rolePermissionRepository.findPermissionNamesByRole(role)
+                    .forEach(name -> authorities.add(new SimpleGrantedAuthority(name)));
+        }
+        List<GrantedAuthority> loaded = Collections.unmodifiableList(authorities);
+        if (generation.get() == loadGeneration) {
+            authoritiesByRole.put(role, loaded);
+        }
+        return loaded;
+    }
+
+    public List<CacheStatsDto> getCacheStats() {
+        return List.of(authoritiesByRole.stats());
+    }
+
     public List<PermissionResponseDto> getPermissionsForRole(Role role) {
         Set<String> granted = rolePermissionRepository.findPermissionNamesByRole(role)
                 .stream().collect(Collectors.toSet());
@@ -37,6 +90,11 @@ public class PermissionService {
         return permissionRepository.findAll();
     }
 
+    private void invalidate(Role role) {
+        generation.incrementAndGet();
+        authoritiesByRole.invalidate(role);
+    }
+
     @Transactional
     public void grantPermission(Role role, Long permissionId) {
         if (role == Role.SUPER_ADMIN) {
@@ -48,6 +106,7 @@ public class PermissionService {
         Permission permission = permissionRepository.findById(permissionId)
                 .orElseThrow(() -> new ResourceNotFoundException("Permission not found: " + permissionId));
         rolePermissionRepository.save(new RolePermission(role, permission));
+        TransactionCallbacks.afterCommit(() -> invalidate(role));
     }
 
     @Transactional
@@ -56,6 +115,7 @@ public class PermissionService {
             throw new IllegalArgumentException("Cannot modify SUPER_ADMIN permissions");
         }
         rolePermissionRepository.deleteByRoleAndPermissionId(role, permissionId);
+        TransactionCallbacks.afterCommit(() -> invalidate(role));
     }
 
     @Transactional
@@ -0,0 +1,345 @@
+package org.link.linkvault.service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+
+/**
+ * Decoding, resizing and re-encoding for photo variants, using only javax.imageio. Re-encoding
+ * writes pixels alone, which drops EXIF (GPS position, camera serials) from the output; the EXIF
+ * orientation is read first and applied to the pixels so portrait shots stay upright.
+ */
+final class PhotoImageProcessor {
+
+    // JPEG headers carrying EXIF sit near the start; the orientation scan never reads further
+    private static final int HEADER_SCAN_BYTES = 128 * 1024;
+    private static final int TAG_ORIENTATION = 0x0112;
+
+    private PhotoImageProcessor() {
+    }
+
+    /**
+     * Decodes the image, subsampling while reading so the decoded size stays close to
+     * {@code targetWidth} (measured after orientation) instead of the full camera resolution.
+     *
+     * @throws IllegalArgumentException if the format is unreadable or the image exceeds maxPixels
+     */
+    static Decoded decode(Path source, int targetWidth, long maxPixels) throws IOException {
+        int orientation = readJpegOrientation(source);
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new IllegalArgumentException("Image too large: " + width + "x" + height);
+                }
+                int uprightWidth = swapsAxes(orientation) ? height : width;
+                int subsampling = Math.max(1, uprightWidth / targetWidth);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return new Decoded(reader.read(0, param), orientation);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /** Scales to at most {@code maxWidth} (never up) and rotates/flips per the EXIF orientation. */
+    static BufferedImage render(Decoded decoded, int maxWidth, boolean keepAlpha) {
+        BufferedImage image = decoded.image;
+        boolean swap = swapsAxes(decoded.orientation);
+        int uprightWidth = swap ? image.getHeight() : image.getWidth();
+        double scale = Math.min(1.0, (double) maxWidth / uprightWidth);
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+        int type = keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        BufferedImage scaled = resize(image, width, height, type);
+        if (decoded.orientation <= 1 || decoded.orientation > 8) {
+            return scaled;
+        }
+        BufferedImage oriented = new BufferedImage(swap ? height : width, swap ? width : height, type);
+        Graphics2D g = oriented.createGraphics();
+        try {
+            g.drawImage(scaled, orientationTransform(decoded.orientation, width, height), null);
+        } finally {
+            g.dispose();
+        }
+        return oriented;
+    }
+
+    /** Writes to a temporary sibling and moves it into place, so readers never see a partial file. */
+    static long write(BufferedImage image, String format, float jpegQuality, Path target) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), ".variant-", ".tmp");
+        try {
+            Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+            if (!writers.hasNext()) {
+                throw new IOException("No image writer for " + format);
+            }
+            ImageWriter writer = writers.next();
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+                writer.setOutput(output);
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                if ("jpeg".equals(format)) {
+                    param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                    param.setCompressionQuality(jpegQuality);
+                }
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return Files.size(target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Halves with bilinear filtering until within 2x of the target, which avoids the aliasing of a single big step
+    private static BufferedImage resize(BufferedImage source, int width, int height, int type) {
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        do {
+            w = w / 2 >= width ? w / 2 : width;
+            h = h / 2 >= height ? h / 2 : height;
+            BufferedImage next = new BufferedImage(w, h, type);
+            Graphics2D g = next.createGraphics();
+            try {
+                if (type == BufferedImage.TYPE_INT_RGB) {
+                    // Transparent pixels would otherwise turn black in the JPEG
+                    g.setColor(Color.WHITE);
+                    g.fillRect(0, 0, w, h);
+                }
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, w, h, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (w != width || h != height);
+        return current;
+    }
+
+    private static boolean swapsAxes(int orientation) {
+        return orientation >= 5 && orientation <= 8;
+    }
+
+    // Maps source pixels of a w x h image to their upright position (EXIF orientation values 2-8)
+    private static AffineTransform orientationTransform(int orientation, int w, int h) {
+        switch (orientation) {
+            case 2: return new AffineTransform(-1, 0, 0, 1, w, 0);
+            case 3: return new AffineTransform(-1, 0, 0, -1, w, h);
+            case 4: return new AffineTransform(1, 0, 0, -1, 0, h);
+            case 5: return new AffineTransform(0, 1, 1, 0, 0, 0);
+            case 6: return new AffineTransform(0, 1, -1, 0, h, 0);
+            case 7: return new AffineTransform(0, -1, -1, 0, h, w);
+            case 8: return new AffineTransform(0, -1, 1, 0, 0, w);
+            default: return new AffineTransform();
+        }
+    }
+
+    /**
+     * Removes EXIF, XMP, IPTC and text metadata from an original in place without touching the
+     * pixel data: JPEG APP1/APP13/COM segments, PNG eXIf and text chunks, WebP EXIF and XMP chunks.
+     * Other formats (GIF carries no EXIF) are left alone. Returns whether the file was rewritten.
+     *
+     * @throws IOException if the file cannot be read or its container structure is malformed
+     */
+    static boolean stripMetadata(Path source, String contentType) throws IOException {
+        byte[] data = Files.readAllBytes(source);
+        byte[] stripped;
+        if ("image/jpeg".equals(contentType)) {
+            stripped = stripJpeg(data);
+        } else if ("image/png".equals(contentType)) {
+            stripped = stripPng(data);
+        } else if ("image/webp".equals(contentType)) {
+            stripped = stripWebp(data);
+        } else {
+            return false;
+        }
+        if (stripped.length == data.length) {
+            return false;
+        }
+        Path temp = Files.createTempFile(source.getParent(), ".strip-", ".tmp");
+        try {
+            Files.write(temp, stripped);
+            Files.move(temp, source, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Drops APP1 (EXIF, XMP), APP13 (IPTC) and comments ahead of the first scan; the scan is copied as is
+    private static byte[] stripJpeg(byte[] data) throws IOException {
+        if (data.length < 4 || (data[0] & 0xff) != 0xFF || (data[1] & 0xff) != 0xD8) {
+            throw new IOException("Not a JPEG stream");
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length);
+        out.write(data, 0, 2);
+        int pos = 2;
+        while (pos + 4 <= data.length && (data[pos] & 0xff) == 0xFF) {
+            int marker = data[pos + 1] & 0xff;
+            if (marker == 0xDA || marker == 0xD9) break;
+            int end = pos + 2 + (((data[pos + 2] & 0xff) << 8) | (data[pos + 3] & 0xff));
+            if (end > data.length) {
+                throw new IOException("Truncated JPEG segment");
+            }
+            if (marker != 0xE1 && marker != 0xED && marker != 0xFE) {
+                out.write(data, pos, end - pos);
+            }
+            pos = end;
+        }
+        out.write(data, pos, data.length - pos);
+        return out.toByteArray();
+    }
+
+    private static byte[] stripPng(byte[] data) throws IOException {
+        if (data.length < 8 || (data[0] & 0xff) != 0x89 || data[1] != 'P' || data[2] != 'N' || data[3] != 'G') {
+            throw new IOException("Not a PNG stream");
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length);
+        out.write(data, 0, 8);
+        int pos = 8;
+        while (pos + 12 <= data.length) {
+            int length = readInt(data, pos, false);
+            long end = (long) pos + 12 + length;
+            if (length < 0 || end > data.length) {
+                throw new IOException("Truncated PNG chunk");
+            }
+            String type = new String(data, pos + 4, 4, StandardCharsets.US_ASCII);
+            if (!type.equals("eXIf") && !type.equals("tEXt") && !type.equals("iTXt") && !type.equals("zTXt")) {
+                out.write(data, pos, (int) end - pos);
+            }
+            pos = (int) end;
+        }
+        out.write(data, pos, data.length - pos);
+        return out.toByteArray();
+    }
+
+    // Drops the EXIF and XMP chunks, clears their VP8X flags and rewrites the RIFF size
+    private static byte[] stripWebp(byte[] data) throws IOException {
+        if (data.length < 12 || data[0] != 'R' || data[1] != 'I' || data[2] != 'F' || data[3] != 'F'
+                || data[8] != 'W' || data[9] != 'E' || data[10] != 'B' || data[11] != 'P') {
+            throw new IOException("Not a WebP stream");
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length);
+        out.write(data, 0, 12);
+        int pos = 12;
+        while (pos + 8 <= data.length) {
+            int size = readInt(data, pos + 4, true);
+            long end = (long) pos + 8 + size + (size & 1);
+            if (size < 0 || end > data.length) {
+                throw new IOException("Truncated WebP chunk");
+            }
+            String fourCc = new String(data, pos, 4, StandardCharsets.US_ASCII);
+            if (fourCc.equals("VP8X") && size > 0) {
+                data[pos + 8] &= ~0x0C;
+            }
+            if (!fourCc.equals("EXIF") && !fourCc.equals("XMP ")) {
+                out.write(data, pos, (int) end - pos);
+            }
+            pos = (int) end;
+        }
+        byte[] result = out.toByteArray();
+        int riffSize = result.length - 8;
+        result[4] = (byte) riffSize;
+        result[5] = (byte) (riffSize >> 8);
+        result[6] = (byte) (riffSize >> 16);
+        result[7] = (byte) (riffSize >> 24);
+        return result;
+    }
+
+    /**
+     * Reads the orientation tag from a JPEG's EXIF block, walking segment headers up to the
+     * first scan. Returns 1 (upright) for non-JPEG input or when no tag is present.
+     */
+    static int readJpegOrientation(Path source) throws IOException {
+        byte[] data;
+        try (InputStream in = Files.newInputStream(source)) {
+            data = in.readNBytes(HEADER_SCAN_BYTES);
+        }
+        if (data.length < 4 || (data[0] & 0xff) != 0xFF || (data[1] & 0xff) != 0xD8) {
+            return 1;
+        }
+        int pos = 2;
+        while (pos + 4 <= data.length && (data[pos] & 0xff) == 0xFF) {
+            int marker = data[pos + 1] & 0xff;
+            if (marker == 0xDA || marker == 0xD9) break;
+            int length = ((data[pos + 2] & 0xff) << 8) | (data[pos + 3] & 0xff);
+            int segment = pos + 4;
+            if (marker == 0xE1 && segment + 6 <= data.length
+                    && data[segment] == 'E' && data[segment + 1] == 'x' && data[segment + 2] == 'i'
+                    && data[segment + 3] == 'f' && data[segment + 4] == 0 && data[segment + 5] == 0) {
+                return readTiffOrientation(data, segment + 6, Math.min(data.length, pos + 2 + length));
+            }
+            pos += 2 + length;
+        }
+        return 1;
+    }
+
+    private static int readTiffOrientation(byte[] data, int tiff, int end) {
+        if (tiff + 8 > end) return 1;
+        boolean little = data[tiff] == 'I' && data[tiff + 1] == 'I';
+        int ifd = tiff + readInt(data, tiff + 4, little);
+        if (ifd < tiff || ifd + 2 > end) return 1;
+        int entries = readShort(data, ifd, little);
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (entry + 12 > end) break;
+            if (readShort(data, entry, little) == TAG_ORIENTATION) {
+                int value = readShort(data, entry + 8, little);
+                return value >= 1 && value <= 8 ? value : 1;
+            }
+        }
+        return 1;
+    }
+
+    private static int readShort(byte[] data, int offset, boolean little) {
+        int a = data[offset] & 0xff;
+        int b = data[offset + 1] & 0xff;
+        return little ? (b << 8) | a : (a << 8) | b;
+    }
+
+    private static int readInt(byte[] data, int offset, boolean little) {
+        int hi = readShort(data, offset + (little ? 2 : 0), little);
+        int lo = readShort(data, offset + (little ? 0 : 2), little);
+        return (hi << 16) | lo;
+    }
+
+    static final class Decoded {
+        private final BufferedImage image;
+        private final int orientation;
+
+        private Decoded(BufferedImage image, int orientation) {
+            this.image = image;
+            this.orientation = orientation;
+        }
+    }
+}
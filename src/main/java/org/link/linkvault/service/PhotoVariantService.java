@@ -0,0 +1,262 @@
+package org.link.linkvault.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.link.linkvault.dto.PhotoVariantStatsDto;
+import org.link.linkvault.entity.PhotoVariant;
+import org.link.linkvault.entity.PhotoVariantStatus;
+import org.link.linkvault.entity.PostPhoto;
+import org.link.linkvault.repository.PostPhotoRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Generates the {@link PhotoVariant} renditions of uploaded photos off the request thread.
+ * Photos are saved as {@link PhotoVariantStatus#PENDING}; jobs are submitted after commit and run
+ * on a small bounded pool, since decoding is CPU- and memory-heavy. Each job decodes the original
+ * once, writes every variant with EXIF stripped, and records the paths in its own short
+ * transaction. Until then the original is served. Photos that end up SKIPPED or FAILED keep serving
+ * their original, so its metadata is stripped in place instead. Jobs the full queue turns away stay
+ * PENDING and are picked up by the periodic resume.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PhotoVariantService {
+
+    private final PostPhotoRepository postPhotoRepository;
+    private final FileVaultService fileVaultService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${linkvault.photo-variants.workers:2}")
+    private int workers;
+
+    @Value("${linkvault.photo-variants.queue-capacity:500}")
+    private int queueCapacity;
+
+    @Value("${linkvault.photo-variants.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    @Value("${linkvault.photo-variants.max-pixels:100000000}")
+    private long maxPixels;
+
+    private ThreadPoolExecutor executor;
+    private TransactionTemplate transactionTemplate;
+
+    // Photos queued or running, so a resume sweep never submits the same photo twice
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final LongAdder processNanos = new LongAdder();
+
+    @PostConstruct
+    void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), daemonThreads("photo-variants-"));
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // Unfinished photos stay PENDING and are resumed on the next start
+        executor.shutdown();
+        if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Queues variant generation for a photo being saved. Must be called inside the transaction
+     * that persists it; the id is read and the job submitted once that transaction commits.
+     */
+    public void enqueue(PostPhoto photo) {
+        TransactionCallbacks.afterCommit(() -> {
+            if (photo.getId() != null) {
+                submit(new Job(photo.getId(), photo.getStoragePath(), photo.getContentType()));
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelay = 600_000)
+    public void resumePending() {
+        int resumed = 0;
+        for (Object[] row : postPhotoRepository.findVariantJobsByStatus(PhotoVariantStatus.PENDING)) {
+            if (executor.getQueue().remainingCapacity() == 0) break;
+            if (submit(new Job((Long) row[0], (String) row[1], (String) row[2]))) {
+                resumed++;
+            }
+        }
+        if (resumed > 0) {
+            log.info("Resumed variant generation for {} pending photo(s)", resumed);
+        }
+    }
+
+    public PhotoVariantStatsDto getStats() {
+        long done = completed.get() + skipped.get() + failed.get();
+        return PhotoVariantStatsDto.builder()
+                .queueDepth(executor.getQueue().size())
+                .activeJobs(executor.getActiveCount())
+                .pendingPhotos(postPhotoRepository.countByVariantStatus(PhotoVariantStatus.PENDING))
+                .submitted(submitted.get())
+                .completed(completed.get())
+                .skipped(skipped.get())
+                .failed(failed.get())
+                .rejected(rejected.get())
+                .bytesIn(bytesIn.sum())
+                .bytesOut(bytesOut.sum())
+                .avgProcessMs(done == 0 ? 0 : processNanos.sum() / 1_000_000.0 / done)
+                .build();
+    }
+
+    // Returns false when the photo is already in flight or the queue is full
+    private boolean submit(Job job) {
+        if (!inFlight.add(job.photoId)) return false;
+        try {
+            executor.execute(() -> run(job));
+            submitted.incrementAndGet();
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(job.photoId);
+            rejected.incrementAndGet();
+            log.debug("Photo variant queue full, photo {} stays pending", job.photoId);
+            return false;
+        }
+    }
+
+    private void run(Job job) {
+        long start = System.nanoTime();
+        try {
+            String format = outputFormat(job.contentType);
+            if (format == null) {
+                // GIF keeps its animation and WebP has no bundled decoder: the original is served as is
+                stripOriginal(job);
+                markStatus(job, PhotoVariantStatus.SKIPPED);
+                skipped.incrementAndGet();
+                return;
+            }
+            Path source = fileVaultService.resolve(job.storagePath);
+            if (!Files.isReadable(source)) {
+                throw new IOException("Original missing: " + job.storagePath);
+            }
+            bytesIn.add(Files.size(source));
+
+            Map<PhotoVariant, String> paths = generate(source, job.storagePath, format);
+            Boolean recorded = transactionTemplate.execute(tx -> postPhotoRepository.findById(job.photoId)
+                    .map(photo -> {
+                        photo.recordVariants(paths);
+                        return true;
+                    })
+                    .orElse(false));
+            if (!Boolean.TRUE.equals(recorded)) {
+                // Deleted while we worked; its original is already gone, so drop the variants too
+                fileVaultService.delete(job.storagePath);
+                return;
+            }
+            completed.incrementAndGet();
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Could not generate variants for photo {}: {}", job.photoId, e.getMessage());
+            failed.incrementAndGet();
+            stripOriginal(job);
+            markStatus(job, PhotoVariantStatus.FAILED);
+        } catch (RuntimeException | OutOfMemoryError e) {
+            log.error("Variant generation failed for photo {}", job.photoId, e);
+            failed.incrementAndGet();
+            stripOriginal(job);
+            markStatus(job, PhotoVariantStatus.FAILED);
+        } finally {
+            processNanos.add(System.nanoTime() - start);
+            inFlight.remove(job.photoId);
+        }
+    }
+
+    // One decode, subsampled for the largest variant, shared by all sizes
+    private Map<PhotoVariant, String> generate(Path source, String storagePath, String format) throws IOException {
+        PhotoImageProcessor.Decoded decoded =
+                PhotoImageProcessor.decode(source, PhotoVariant.FULL.getMaxWidth(), maxPixels);
+        String extension = "png".equals(format) ? "png" : "jpg";
+        Map<PhotoVariant, String> paths = new EnumMap<>(PhotoVariant.class);
+        for (PhotoVariant variant : PhotoVariant.values()) {
+            BufferedImage image = PhotoImageProcessor.render(decoded, variant.getMaxWidth(), "png".equals(format));
+            String filename = FileVaultService.variantFilename(storagePath, variant, extension);
+            bytesOut.add(PhotoImageProcessor.write(image, format, jpegQuality, fileVaultService.resolve(filename)));
+            paths.put(variant, filename);
+        }
+        return paths;
+    }
+
+    private void stripOriginal(Job job) {
+        try {
+            PhotoImageProcessor.stripMetadata(fileVaultService.resolve(job.storagePath), job.contentType);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not strip metadata from photo {}: {}", job.photoId, e.getMessage());
+        }
+    }
+
+    private void markStatus(Job job, PhotoVariantStatus status) {
+        transactionTemplate.executeWithoutResult(tx -> postPhotoRepository.findById(job.photoId)
+                .filter(photo -> photo.getVariantStatus() == PhotoVariantStatus.PENDING)
+                .ifPresent(photo -> photo.setVariantStatus(status)));
+    }
+
+    private static String outputFormat(String contentType) {
+        if ("image/jpeg".equals(contentType)) return "jpeg";
+        if ("image/png".equals(contentType)) return "png";
+        return null;
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            // Encoding competes with request threads for CPU; let those win
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        };
+    }
+
+    private static final class Job {
+        private final Long photoId;
+        private final String storagePath;
+        private final String contentType;
+
+        private Job(Long photoId, String storagePath, String contentType) {
+            this.photoId = photoId;
+            this.storagePath = storagePath;
+            this.contentType = contentType;
+        }
+    }
+}
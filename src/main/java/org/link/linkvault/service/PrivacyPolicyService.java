@@ -5,10 +5,14 @@ import org.link.linkvault.dto.PrivacyPolicyResponseDto;
 import org.link.linkvault.entity.PrivacyPolicy;
 import org.link.linkvault.entity.User;
 import org.link.linkvault.repository.PrivacyPolicyRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,6 +23,38 @@ public class PrivacyPolicyService {
     private final PrivacyPolicyRepository privacyPolicyRepository;
     private final AuditLogService auditLogService;
 
+    // Returned by getActiveVersion when no policy is active; real versions start at 1
+    public static final int NO_POLICY = 0;
+    private static final int UNKNOWN = -1;
+
+    // Active version held in memory for the per-request consent check
+    private final AtomicInteger activeVersion = new AtomicInteger(UNKNOWN);
+
+    // The startup data may have inserted the first policy directly, so the next read reloads it
+    @EventListener(ApplicationReadyEvent.class)
+    void resetActiveVersion() {
+        activeVersion.set(UNKNOWN);
+    }
+
+    /**
+     * Version of the active policy, or {@link #NO_POLICY}. Loaded once and then replaced when
+     * {@link #update} commits a new version, so the consent filter does no I/O. SUPPORTS keeps
+     * the cached path from opening a transaction; the one-off load runs in the repository's own.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public int getActiveVersion() {
+        int version = activeVersion.get();
+        if (version != UNKNOWN) {
+            return version;
+        }
+        int loaded = privacyPolicyRepository.findByActiveTrue()
+                .map(PrivacyPolicy::getVersion)
+                .orElse(NO_POLICY);
+        // A commit from update() that landed meanwhile wins over what was just read
+        activeVersion.compareAndSet(UNKNOWN, loaded);
+        return activeVersion.get();
+    }
+
     public PrivacyPolicyResponseDto getActivePolicy() {
         return privacyPolicyRepository.findByActiveTrue()
                 .map(PrivacyPolicyResponseDto::from)
@@ -42,6 +78,8 @@ public class PrivacyPolicyService {
                 .build();
 
         PrivacyPolicyResponseDto result = PrivacyPolicyResponseDto.from(privacyPolicyRepository.save(newPolicy));
+        int publishedVersion = nextVersion;
+        TransactionCallbacks.afterCommit(() -> activeVersion.set(publishedVersion));
         auditLogService.log(actorUsername, AuditActionCodes.PRIVACY_POLICY_UPDATE, "PrivacyPolicy", null,
                 AuditDetailFormatter.format("version", String.valueOf(result.getVersion())));
         return result;
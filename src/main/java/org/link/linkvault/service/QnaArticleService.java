@@ -8,9 +8,11 @@ import org.link.linkvault.entity.QnaArticle;
 import org.link.linkvault.entity.QnaFeedback;
 import org.link.linkvault.entity.QnaStatus;
 import org.link.linkvault.entity.User;
+import org.link.linkvault.event.ChromeSummaryChangedEvent;
 import org.link.linkvault.exception.ResourceNotFoundException;
 import org.link.linkvault.repository.QnaArticleRepository;
 import org.link.linkvault.repository.QnaFeedbackRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -29,6 +31,7 @@ public class QnaArticleService {
     private final QnaArticleRepository qnaArticleRepository;
     private final QnaFeedbackRepository qnaFeedbackRepository;
     private final AuditLogService auditLogService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<QnaArticleResponseDto> findAllPublished() {
         return qnaArticleRepository.findAllPublished().stream()
@@ -77,6 +80,7 @@ public class QnaArticleService {
                 .createdBy(creator)
                 .build();
         QnaArticleResponseDto result = QnaArticleResponseDto.from(qnaArticleRepository.save(article));
+        eventPublisher.publishEvent(ChromeSummaryChangedEvent.forAllUsers());
         auditLogService.log(actorUsername, AuditActionCodes.QNA_CREATE, "QnaArticle", result.getId(),
                 AuditDetailFormatter.format("category", dto.getCategory()));
         return result;
@@ -91,6 +95,7 @@ public class QnaArticleService {
             article.setDisplayOrder(dto.getDisplayOrder());
         }
         article.incrementVersion();
+        eventPublisher.publishEvent(ChromeSummaryChangedEvent.forAllUsers());
         auditLogService.log(actorUsername, AuditActionCodes.QNA_UPDATE, "QnaArticle", id,
                 AuditDetailFormatter.format("category", dto.getCategory()));
         return QnaArticleResponseDto.from(article);
@@ -101,6 +106,7 @@ public class QnaArticleService {
         QnaArticle article = qnaArticleRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("QnA article not found: " + id));
         article.updateStatus(status);
+        eventPublisher.publishEvent(ChromeSummaryChangedEvent.forAllUsers());
         auditLogService.log(actorUsername, AuditActionCodes.QNA_STATUS_CHANGE, "QnaArticle", id,
                 AuditDetailFormatter.format("status", String.valueOf(status)));
     }
@@ -112,6 +118,7 @@ public class QnaArticleService {
         }
         qnaFeedbackRepository.deleteByQnaArticleId(id);
         qnaArticleRepository.deleteById(id);
+        eventPublisher.publishEvent(ChromeSummaryChangedEvent.forAllUsers());
         auditLogService.log(actorUsername, AuditActionCodes.QNA_DELETE, "QnaArticle", id, null);
     }
 
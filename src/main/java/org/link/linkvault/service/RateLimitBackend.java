@@ -0,0 +1,24 @@
+package org.link.linkvault.service;
+
+import org.link.linkvault.dto.CacheStatsDto;
+
+import java.util.List;
+
+/**
+ * Token-bucket store behind {@link RateLimitService}. The default keeps buckets in this JVM;
+ * a shared implementation (e.g. backed by Redis) can replace it by setting
+ * {@code linkvault.rate-limit.backend} to something other than {@code local}.
+ */
+public interface RateLimitBackend {
+
+    /**
+     * Takes one token from the bucket for {@code key} under {@code policy}.
+     *
+     * @return 0 when the request is allowed, otherwise nanoseconds until a token is available
+     */
+    long tryConsume(String key, RateLimitPolicy policy);
+
+    String getName();
+
+    List<CacheStatsDto> getCacheStats();
+}
@@ -0,0 +1,28 @@
+package org.link.linkvault.service;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Limit applied to one group of routes: {@code capacity} requests per {@code period}, refilled
+ * greedily. Per-user policies key signed-in callers by username and everyone else by client IP.
+ * Instances are immutable and replaced whenever the rate-limit settings change.
+ */
+@Getter
+public final class RateLimitPolicy {
+
+    private final String name;
+    private final int capacity;
+    private final Duration period;
+    private final boolean perUser;
+    private final String message;
+
+    public RateLimitPolicy(String name, int capacity, Duration period, boolean perUser, String message) {
+        this.name = name;
+        this.capacity = capacity;
+        this.period = period;
+        this.perUser = perUser;
+        this.message = message;
+    }
+}
@@ -0,0 +1,191 @@
+package org.link.linkvault.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.link.linkvault.dto.CacheStatsDto;
+import org.link.linkvault.dto.RateLimitStatsDto;
+import org.link.linkvault.event.SystemSettingChangedEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Maps requests to rate-limit policies and charges them against the {@link RateLimitBackend}.
+ * Which routes are limited, and whether by user or by IP, is fixed here; capacities and periods
+ * come from the {@code rate-limit.*} system settings and are rebuilt whenever those change.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RateLimitService {
+
+    static final String ENABLED_KEY = "rate-limit.enabled";
+    static final String KEY_PREFIX = "rate-limit.";
+
+    // Defaults mirror the seeded settings; login and registration stay per IP since there is no user yet
+    static final List<Route> ROUTES = List.of(
+            new Route("login", "POST", "/login", false, 10, 60, false,
+                    "Too many login attempts. Please try again later."),
+            new Route("register", "POST", "/api/auth/register", false, 5, 60, false,
+                    "Too many registration attempts. Please try again later."),
+            // Exact: /api/search/suggest is the in-memory typeahead, hit on every debounced keystroke
+            new Route("search", "GET", "/api/search", false, 60, 60, true,
+                    "Too many searches. Please slow down."),
+            new Route("search", "GET", "/api/search/", false, 60, 60, true,
+                    "Too many searches. Please slow down."),
+            new Route("suggest", "GET", "/api/search/suggest", false, 600, 60, true,
+                    "Too many suggestions requested. Please slow down."),
+            new Route("search", "GET", "/api/bookmarks/search", false, 60, 60, true,
+                    "Too many searches. Please slow down."),
+            new Route("guest-event", "POST", "/api/guest/event", false, 120, 60, false,
+                    "Too many requests. Please try again later."),
+            new Route("comment", "POST", "/api/comments", false, 10, 60, true,
+                    "You are commenting too quickly. Please wait a moment."),
+            new Route("import", "POST", "/api/data/import/", true, 5, 600, true,
+                    "Too many imports. Please try again later.")
+    );
+
+    private final SystemSettingsService systemSettingsService;
+    private final RateLimitBackend backend;
+
+    private volatile boolean enabled = true;
+    private volatile Map<String, RateLimitPolicy> policies = Map.of();
+
+    private final Map<String, LongAdder> allowed = new HashMap<>();
+    private final Map<String, LongAdder> rejected = new HashMap<>();
+
+    @PostConstruct
+    void init() {
+        for (Route route : ROUTES) {
+            allowed.putIfAbsent(route.policyName, new LongAdder());
+            rejected.putIfAbsent(route.policyName, new LongAdder());
+        }
+        reloadPolicies();
+    }
+
+    // Also runs once at startup, when the seeded settings are first loaded
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSettingChanged(SystemSettingChangedEvent event) {
+        if (event.affects(KEY_PREFIX)) {
+            reloadPolicies();
+        }
+    }
+
+    /**
+     * Charges one request. Returns null when it may proceed (or no policy covers it), otherwise
+     * the rejection with the policy's message and how long the caller should wait.
+     *
+     * @param username the authenticated caller, or null for anonymous requests
+     */
+    public Rejection tryAcquire(String method, String path, String clientIp, String username) {
+        if (!enabled) return null;
+        Route route = findRoute(method, path);
+        if (route == null) return null;
+        RateLimitPolicy policy = policies.get(route.policyName);
+
+        String key = policy.isPerUser() && username != null
+                ? policy.getName() + ":u:" + username
+                : policy.getName() + ":ip:" + clientIp;
+        long waitNanos = backend.tryConsume(key, policy);
+        if (waitNanos == 0) {
+            allowed.get(policy.getName()).increment();
+            return null;
+        }
+        rejected.get(policy.getName()).increment();
+        return new Rejection(policy, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)));
+    }
+
+    public List<CacheStatsDto> getCacheStats() {
+        return backend.getCacheStats();
+    }
+
+    public RateLimitStatsDto getStats() {
+        List<RateLimitStatsDto.PolicyStats> policyStats = new ArrayList<>();
+        for (RateLimitPolicy policy : policies.values()) {
+            policyStats.add(RateLimitStatsDto.PolicyStats.builder()
+                    .name(policy.getName())
+                    .capacity(policy.getCapacity())
+                    .periodSeconds(policy.getPeriod().getSeconds())
+                    .perUser(policy.isPerUser())
+                    .allowed(allowed.get(policy.getName()).sum())
+                    .rejected(rejected.get(policy.getName()).sum())
+                    .build());
+        }
+        return RateLimitStatsDto.builder()
+                .enabled(enabled)
+                .backend(backend.getName())
+                .store(backend.getCacheStats())
+                .policies(policyStats)
+                .build();
+    }
+
+    private void reloadPolicies() {
+        SettingsSnapshot settings = systemSettingsService.snapshot();
+        Map<String, RateLimitPolicy> loaded = new LinkedHashMap<>();
+        for (Route route : ROUTES) {
+            if (loaded.containsKey(route.policyName)) continue;
+            String prefix = KEY_PREFIX + route.policyName;
+            int capacity = settings.getInt(prefix + ".capacity", route.defaultCapacity);
+            int periodSeconds = settings.getInt(prefix + ".period-seconds", route.defaultPeriodSeconds);
+            loaded.put(route.policyName, new RateLimitPolicy(route.policyName, Math.max(1, capacity),
+                    Duration.ofSeconds(Math.max(1, periodSeconds)), route.perUser, route.message));
+        }
+        policies = Collections.unmodifiableMap(loaded);
+        enabled = settings.getBoolean(ENABLED_KEY, true);
+        log.debug("Rate-limit policies loaded (enabled={}): {}", enabled, loaded.keySet());
+    }
+
+    private static Route findRoute(String method, String path) {
+        for (Route route : ROUTES) {
+            if (route.matches(method, path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    @Getter
+    public static final class Rejection {
+        private final RateLimitPolicy policy;
+        private final long retryAfterSeconds;
+
+        private Rejection(RateLimitPolicy policy, long retryAfterSeconds) {
+            this.policy = policy;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+    }
+
+    static final class Route {
+        private final String policyName;
+        private final String method;
+        private final String path;
+        private final boolean prefix;
+        private final int defaultCapacity;
+        private final int defaultPeriodSeconds;
+        private final boolean perUser;
+        private final String message;
+
+        private Route(String policyName, String method, String path, boolean prefix,
+                      int defaultCapacity, int defaultPeriodSeconds, boolean perUser, String message) {
+            this.policyName = policyName;
+            this.method = method;
+            this.path = path;
+            this.prefix = prefix;
+            this.defaultCapacity = defaultCapacity;
+            this.defaultPeriodSeconds = defaultPeriodSeconds;
+            this.perUser = perUser;
+            this.message = message;
+        }
+
+        private boolean matches(String requestMethod, String requestPath) {
+            if (!method.equalsIgnoreCase(requestMethod)) return false;
+            return prefix ? requestPath.startsWith(path) : requestPath.equals(path);
+        }
+    }
+}
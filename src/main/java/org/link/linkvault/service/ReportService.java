@@ -29,6 +29,9 @@ public class ReportService {
     private final UserRepository userRepository;
     private final SystemSettingsService systemSettingsService;
     private final AuditLogService auditLogService;
+    private final BookmarkSearchIndex bookmarkSearchIndex;
+    private final GeoGridIndex geoGridIndex;
+    private final TypeaheadIndex typeaheadIndex;
 
     private static final int DEFAULT_AUTO_DISABLE_THRESHOLD = 5;
 
@@ -104,6 +107,9 @@ public class ReportService {
             for (Bookmark bm : userBookmarks) {
                 if (!bm.isDeleted()) {
                     bm.softDelete();
+                    bookmarkSearchIndex.remove(bm.getId());
+                    geoGridIndex.remove(bm.getId());
+                    typeaheadIndex.removeBookmark(bm.getId());
                     deletedPosts++;
                 }
             }
@@ -138,14 +144,6 @@ public class ReportService {
     }
 
     private int getAutoDisableThreshold() {
-        return systemSettingsService.getValue("report.auto-disable-threshold")
-                .map(val -> {
-                    try {
-                        return Integer.parseInt(val);
-                    } catch (NumberFormatException e) {
-                        return DEFAULT_AUTO_DISABLE_THRESHOLD;
-                    }
-                })
-                .orElse(DEFAULT_AUTO_DISABLE_THRESHOLD);
+        return systemSettingsService.snapshot().getInt("report.auto-disable-threshold", DEFAULT_AUTO_DISABLE_THRESHOLD);
     }
 }
@@ -34,9 +34,7 @@ public class RewardService {
     private static final String NONCE_SESSION_KEY = "reward_nonce";
 
     private int getIntSetting(String key, int defaultValue) {
-        return systemSettingsService.getValue(key)
-                .map(v -> { try { return Integer.parseInt(v); } catch (NumberFormatException e) { return defaultValue; } })
-                .orElse(defaultValue);
+        return systemSettingsService.snapshot().getInt(key, defaultValue);
     }
 
     public RewardStatusResponseDto getStatus(User user) {
@@ -84,7 +82,7 @@ public class RewardService {
         String nonce = UUID.randomUUID().toString();
         session.setAttribute(NONCE_SESSION_KEY, nonce);
 
-        String adTagUrl = systemSettingsService.getValue("reward.ima-ad-tag-url").orElse("");
+        String adTagUrl = systemSettingsService.snapshot().getString("reward.ima-ad-tag-url", "");
 
         return Map.of(
                 "nonce", nonce,
@@ -5,9 +5,12 @@ import org.link.linkvault.dto.BookmarkResponseDto;
 import org.link.linkvault.entity.Bookmark;
 import org.link.linkvault.entity.SavedBookmark;
 import org.link.linkvault.entity.User;
+import org.link.linkvault.event.BookmarkEngagedEvent;
+import org.link.linkvault.event.ChromeSummaryChangedEvent;
 import org.link.linkvault.exception.ResourceNotFoundException;
 import org.link.linkvault.repository.BookmarkRepository;
 import org.link.linkvault.repository.SavedBookmarkRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,10 +25,11 @@ public class SavedBookmarkService {
 
     private final SavedBookmarkRepository savedBookmarkRepository;
     private final BookmarkRepository bookmarkRepository;
-    private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public boolean toggleSave(User user, Long bookmarkId) {
+        eventPublisher.publishEvent(ChromeSummaryChangedEvent.forUser(user.getId()));
         Optional<SavedBookmark> existing = savedBookmarkRepository.findByUserIdAndBookmarkId(user.getId(), bookmarkId);
         if (existing.isPresent()) {
             savedBookmarkRepository.delete(existing.get());
@@ -34,7 +38,8 @@ public class SavedBookmarkService {
             Bookmark bookmark = bookmarkRepository.findById(bookmarkId)
                     .orElseThrow(() -> new ResourceNotFoundException("Bookmark not found: " + bookmarkId));
             savedBookmarkRepository.save(new SavedBookmark(user, bookmark));
-            notificationService.notifySave(bookmark, user);
+            eventPublisher.publishEvent(new BookmarkEngagedEvent(BookmarkEngagedEvent.Kind.SAVED, bookmark.getId(),
+                    bookmark.getTitle(), bookmark.getUser().getId(), user.getId(), user.getUsername()));
             return true;
         }
     }
@@ -0,0 +1,90 @@
+package org.link.linkvault.service;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable view of every system setting at one point in time. Numbers are parsed once when the
+ * snapshot is built, so typed reads are a single map lookup with no parsing or allocation.
+ * A reader that needs several related settings should take one snapshot and read them all from it.
+ */
+public final class SettingsSnapshot {
+
+    static final SettingsSnapshot EMPTY = new SettingsSnapshot(Collections.emptyMap(), 0);
+
+    private final Map<String, String> values;
+    private final Map<String, Integer> ints;
+    private final Map<String, Double> doubles;
+    private final long version;
+
+    private SettingsSnapshot(Map<String, String> values, long version) {
+        Map<String, Integer> parsedInts = new HashMap<>();
+        Map<String, Double> parsedDoubles = new HashMap<>();
+        values.forEach((key, value) -> {
+            if (value == null) return;
+            try {
+                parsedInts.put(key, Integer.parseInt(value));
+            } catch (NumberFormatException e) {
+                // Not an integer; getInt falls back to the default
+            }
+            try {
+                parsedDoubles.put(key, Double.parseDouble(value));
+            } catch (NumberFormatException e) {
+                // Not a number; getDouble falls back to the default
+            }
+        });
+        this.values = values;
+        this.ints = parsedInts;
+        this.doubles = parsedDoubles;
+        this.version = version;
+    }
+
+    static SettingsSnapshot of(Map<String, String> values, long version) {
+        return new SettingsSnapshot(Collections.unmodifiableMap(new HashMap<>(values)), version);
+    }
+
+    // Copy with one key replaced, or removed when value is null
+    SettingsSnapshot with(String key, String value) {
+        Map<String, String> copy = new HashMap<>(values);
+        if (value == null) {
+            copy.remove(key);
+        } else {
+            copy.put(key, value);
+        }
+        return new SettingsSnapshot(Collections.unmodifiableMap(copy), version + 1);
+    }
+
+    public String getString(String key, String defaultValue) {
+        String value = values.get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    // Present values are true only when they are exactly "true", matching how the admin UI stores flags
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = values.get(key);
+        return value != null ? "true".equals(value) : defaultValue;
+    }
+
+    public int getInt(String key, int defaultValue) {
+        Integer value = ints.get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    public double getDouble(String key, double defaultValue) {
+        Double value = doubles.get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    public boolean contains(String key) {
+        return values.containsKey(key);
+    }
+
+    public Map<String, String> asMap() {
+        return values;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
@@ -2,16 +2,27 @@ package org.link.linkvault.service;
 
 import lombok.RequiredArgsConstructor;
 import org.link.linkvault.entity.SystemSettings;
+import org.link.linkvault.event.SystemSettingChangedEvent;
 import org.link.linkvault.repository.SystemSettingsRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Optional;
-import java.util.Set;
+import javax.annotation.PostConstruct;
+import java.util.*;
 
+/**
+ * System settings are served from an in-memory {@link SettingsSnapshot} so hot paths never touch
+ * the database. The snapshot is replaced, never mutated: saving a setting publishes
+ * {@link SystemSettingChangedEvent}, and after commit this service's listener (ordered ahead of all
+ * others) re-reads the key and swaps in a new snapshot before other listeners run.
+ */
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
@@ -19,6 +30,7 @@ public class SystemSettingsService {
 
     private final SystemSettingsRepository systemSettingsRepository;
     private final AuditLogService auditLogService;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static final Set<String> AUDIT_POLICY_KEYS = new HashSet<>(Arrays.asList(
             "audit.retention.enabled", "audit.retention.days",
@@ -27,6 +39,40 @@ public class SystemSettingsService {
     private static final Set<String> LOCKOUT_POLICY_KEYS = new HashSet<>(Arrays.asList(
             "security.lockout-threshold", "security.lockout-duration-minutes"));
 
+    private volatile SettingsSnapshot snapshot = SettingsSnapshot.EMPTY;
+
+    @PostConstruct
+    void loadSnapshot() {
+        reloadSnapshot();
+    }
+
+    // Seed data is written straight to the repository during startup; pick it up once that is done
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        eventPublisher.publishEvent(SystemSettingChangedEvent.allKeys());
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSettingChanged(SystemSettingChangedEvent event) {
+        if (event.isAllKeys()) {
+            reloadSnapshot();
+            return;
+        }
+        String value = systemSettingsRepository.findBySettingKey(event.getKey())
+                .map(SystemSettings::getSettingValue)
+                .orElse(null);
+        synchronized (this) {
+            snapshot = snapshot.with(event.getKey(), value);
+        }
+    }
+
+    // Pure memory reads: SUPPORTS keeps them from opening a transaction and checking out a connection
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public SettingsSnapshot snapshot() {
+        return snapshot;
+    }
+
     public List<SystemSettings> findAll() {
         return systemSettingsRepository.findAllByOrderByCategoryAscSettingKeyAsc();
     }
@@ -35,9 +81,9 @@ public class SystemSettingsService {
         return systemSettingsRepository.findByCategoryOrderBySettingKeyAsc(category);
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Optional<String> getValue(String key) {
-        return systemSettingsRepository.findBySettingKey(key)
-                .map(SystemSettings::getSettingValue);
+        return Optional.ofNullable(snapshot.getString(key, null));
     }
 
     @Transactional
@@ -51,9 +97,13 @@ public class SystemSettingsService {
         if (LOCKOUT_POLICY_KEYS.contains(key)) {
             validateLockoutSetting(key, value);
         }
+        if (key.startsWith(RateLimitService.KEY_PREFIX)) {
+            validateRateLimitSetting(key, value);
+        }
 
         settings.updateValue(value);
         SystemSettings saved = systemSettingsRepository.save(settings);
+        eventPublisher.publishEvent(new SystemSettingChangedEvent(key));
 
         String actionCode;
         if (AUDIT_POLICY_KEYS.contains(key)) {
@@ -74,6 +124,7 @@ public class SystemSettingsService {
         if (existing.isPresent()) {
             SystemSettings settings = existing.get();
             settings.updateValue(value);
+            eventPublisher.publishEvent(new SystemSettingChangedEvent(key));
             return systemSettingsRepository.save(settings);
         }
         SystemSettings settings = SystemSettings.builder()
@@ -82,9 +133,22 @@ public class SystemSettingsService {
                 .description(description)
                 .category(category)
                 .build();
+        eventPublisher.publishEvent(new SystemSettingChangedEvent(key));
         return systemSettingsRepository.save(settings);
     }
 
+    private void reloadSnapshot() {
+        Map<String, String> values = new HashMap<>();
+        for (SystemSettings settings : systemSettingsRepository.findAll()) {
+            if (settings.getSettingValue() != null) {
+                values.put(settings.getSettingKey(), settings.getSettingValue());
+            }
+        }
+        synchronized (this) {
+            snapshot = SettingsSnapshot.of(values, snapshot.getVersion() + 1);
+        }
+    }
+
     private void validateLockoutSetting(String key, String value) {
         if (value == null || value.isBlank()) {
             throw new IllegalArgumentException("Value is required for setting: " + key);
@@ -102,6 +166,26 @@ public class SystemSettingsService {
         }
     }
 
+    private void validateRateLimitSetting(String key, String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Value is required for setting: " + key);
+        }
+        if (RateLimitService.ENABLED_KEY.equals(key)) {
+            if (!"true".equals(value) && !"false".equals(value)) {
+                throw new IllegalArgumentException(key + " must be 'true' or 'false'");
+            }
+            return;
+        }
+        try {
+            int val = Integer.parseInt(value);
+            if (val < 1 || val > 100_000) {
+                throw new IllegalArgumentException(key + " must be between 1 and 100000");
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " must be an integer");
+        }
+    }
+
     private void validateAuditSetting(String key, String value) {
         if (value == null || value.isBlank()) {
             throw new IllegalArgumentException("Value is required for setting: " + key);
@@ -1,32 +1,70 @@
 package org.link.linkvault.service;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.link.linkvault.dto.CacheStatsDto;
 import org.link.linkvault.dto.SystemStatsDto;
+import org.link.linkvault.entity.DailyBookmarkStat;
 import org.link.linkvault.entity.Tag;
-import org.link.linkvault.entity.User;
 import org.link.linkvault.repository.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.annotation.PostConstruct;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Admin dashboard statistics. Rankings come from single GROUP BY queries; bookmarks per day are
+ * served from the daily_bookmark_stats rollup for closed days, with only the days after the
+ * rollup watermark (normally just today) counted live. The assembled dashboard is cached briefly.
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class SystemStatsService {
 
+    static final int MAX_RANGE_DAYS = 366;
+    private static final String DASHBOARD_KEY = "dashboard";
+
     private final UserRepository userRepository;
     private final BookmarkRepository bookmarkRepository;
     private final TagRepository tagRepository;
     private final FolderRepository folderRepository;
+    private final DailyBookmarkStatRepository dailyBookmarkStatRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${linkvault.stats-cache.ttl-seconds:60}")
+    private long cacheTtlSeconds;
+
+    private ExpiringLruCache<String, SystemStatsDto> dashboardCache;
+
+    @PostConstruct
+    void initCache() {
+        dashboardCache = new ExpiringLruCache<>("system-stats", 1, Duration.ofSeconds(cacheTtlSeconds));
+    }
 
     public SystemStatsDto getSystemStats() {
+        SystemStatsDto cached = dashboardCache.get(DASHBOARD_KEY);
+        if (cached != null) return cached;
+
         long totalUsers = userRepository.count();
         long totalBookmarks = bookmarkRepository.count();
         long totalTags = tagRepository.count();
@@ -35,36 +73,23 @@ public class SystemStatsService {
         // Bookmarks per day (last 7 days)
         Map<String, Long> bookmarksPerDay = new LinkedHashMap<>();
         DateTimeFormatter fmt = DateTimeFormatter.ofPattern("MM/dd");
-        for (int i = 6; i >= 0; i--) {
-            LocalDate date = LocalDate.now().minusDays(i);
-            LocalDateTime start = date.atStartOfDay();
-            LocalDateTime end = date.atTime(LocalTime.MAX);
-            long count = bookmarkRepository.countByCreatedAtBetween(start, end);
-            bookmarksPerDay.put(date.format(fmt), count);
-        }
+        LocalDate today = LocalDate.now();
+        getBookmarksPerDay(today.minusDays(6), today)
+                .forEach((date, count) -> bookmarksPerDay.put(date.format(fmt), count));
 
         // Top 10 tags by bookmark count
         Map<String, Long> topTags = new LinkedHashMap<>();
-        List<Tag> tags = tagRepository.findAllOrderByBookmarkCountDesc();
-        int tagLimit = Math.min(tags.size(), 10);
-        for (int i = 0; i < tagLimit; i++) {
-            Tag tag = tags.get(i);
-            topTags.put(tag.getName(), (long) tag.getBookmarks().size());
+        for (Tag tag : tagRepository.findAllOrderByBookmarkCountDesc(PageRequest.of(0, 10))) {
+            topTags.put(tag.getName(), (long) tag.getBookmarkCount());
         }
 
         // Most active users by bookmark count
         Map<String, Long> mostActiveUsers = new LinkedHashMap<>();
-        List<User> users = userRepository.findAll();
-        users.sort((a, b) -> Long.compare(
-                userRepository.countBookmarksByUserId(b.getId()),
-                userRepository.countBookmarksByUserId(a.getId())));
-        int userLimit = Math.min(users.size(), 10);
-        for (int i = 0; i < userLimit; i++) {
-            User user = users.get(i);
-            mostActiveUsers.put(user.getUsername(), userRepository.countBookmarksByUserId(user.getId()));
+        for (Object[] row : userRepository.findTopUsersByBookmarkCount(PageRequest.of(0, 10))) {
+            mostActiveUsers.put((String) row[0], ((Number) row[1]).longValue());
         }
 
-        return SystemStatsDto.builder()
+        SystemStatsDto stats = SystemStatsDto.builder()
                 .totalUsers(totalUsers)
                 .totalBookmarks(totalBookmarks)
                 .totalTags(totalTags)
@@ -73,5 +98,90 @@ public class SystemStatsService {
                 .topTags(topTags)
                 .mostActiveUsers(mostActiveUsers)
                 .build();
+        dashboardCache.put(DASHBOARD_KEY, stats);
+        return stats;
+    }
+
+    /**
+     * Bookmarks created per day for every day in [from, to], oldest first. Rolled-up days cost
+     * one indexed read; days past the rollup watermark are counted with one grouped query.
+     */
+    public Map<LocalDate, Long> getBookmarksPerDay(LocalDate from, LocalDate to) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("Invalid date range: " + from + " to " + to);
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Date range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+
+        Map<LocalDate, Long> counts = new HashMap<>();
+        LocalDate watermark = dailyBookmarkStatRepository.findLatestStatDate();
+        LocalDate liveFrom = from;
+        if (watermark != null && !watermark.isBefore(from)) {
+            for (DailyBookmarkStat stat : dailyBookmarkStatRepository.findByStatDateBetweenOrderByStatDateAsc(from, to)) {
+                counts.put(stat.getStatDate(), stat.getBookmarksCreated());
+            }
+            liveFrom = watermark.plusDays(1);
+        }
+        if (!liveFrom.isAfter(to)) {
+            counts.putAll(countCreatedPerDay(liveFrom, to.plusDays(1)));
+        }
+
+        Map<LocalDate, Long> result = new LinkedHashMap<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            result.put(date, counts.getOrDefault(date, 0L));
+        }
+        return result;
+    }
+
+    /**
+     * Rolls up every closed day after the watermark (or since the first bookmark on an empty
+     * table) with one grouped scan of the new range. Days without bookmarks get a zero row so the
+     * rollup stays contiguous. Returns the number of days written.
+     */
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${linkvault.stats.rollup-cron:0 5 0 * * *}")
+    public int rollupClosedDays() {
+        LocalDate today = LocalDate.now();
+        LocalDate watermark = dailyBookmarkStatRepository.findLatestStatDate();
+        LocalDate start;
+        if (watermark != null) {
+            start = watermark.plusDays(1);
+        } else {
+            LocalDateTime earliest = bookmarkRepository.findEarliestCreatedAt();
+            start = earliest != null ? earliest.toLocalDate() : today;
+        }
+        if (!start.isBefore(today)) return 0;
+
+        Map<LocalDate, Long> counts = countCreatedPerDay(start, today);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>();
+        for (LocalDate date = start; date.isBefore(today); date = date.plusDays(1)) {
+            rows.add(new Object[]{Date.valueOf(date), counts.getOrDefault(date, 0L), now});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO daily_bookmark_stats (stat_date, bookmarks_created, rolled_up_at) VALUES (?, ?, ?)", rows);
+        log.info("Rolled up bookmark stats for {} day(s) from {}", rows.size(), start);
+        return rows.size();
+    }
+
+    public List<CacheStatsDto> getCacheStats() {
+        return List.of(dashboardCache.stats());
+    }
+
+    // Lets tests read fresh numbers without waiting out the TTL
+    void evictCache() {
+        dashboardCache.clear();
+    }
+
+    // Counts per day in [start, end) with one grouped query
+    private Map<LocalDate, Long> countCreatedPerDay(LocalDate start, LocalDate end) {
+        Map<LocalDate, Long> counts = new HashMap<>();
+        for (Object[] row : bookmarkRepository.countCreatedPerDay(start.atStartOfDay(), end.atStartOfDay())) {
+            LocalDate date = LocalDate.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue(), ((Number) row[2]).intValue());
+            counts.put(date, ((Number) row[3]).longValue());
+        }
+        return counts;
     }
 }
@@ -0,0 +1,48 @@
+package org.link.linkvault.service;
+
+import lombok.RequiredArgsConstructor;
+import org.link.linkvault.dto.TagResponseDto;
+import org.link.linkvault.event.TagUsageChangedEvent;
+import org.link.linkvault.repository.TagRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * All tags sorted by usage (then name), as rendered in the sidebar tag cloud. Built from the
+ * maintained bookmark counters and dropped after any commit that publishes TagUsageChangedEvent.
+ */
+@Component
+@RequiredArgsConstructor
+public class TagCloudCache {
+
+    private final TagRepository tagRepository;
+
+    private volatile List<TagResponseDto> tags;
+    // Bumped on every invalidation; a load that overlaps one is returned but not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public List<TagResponseDto> get() {
+        List<TagResponseDto> cached = tags;
+        if (cached != null) return cached;
+
+        long loadGeneration = generation.get();
+        List<TagResponseDto> loaded = Collections.unmodifiableList(tagRepository.findAllOrderByBookmarkCountDesc().stream()
+                .map(TagResponseDto::from)
+                .collect(Collectors.toList()));
+        if (generation.get() == loadGeneration) {
+            tags = loaded;
+        }
+        return loaded;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTagUsageChanged(TagUsageChangedEvent event) {
+        generation.incrementAndGet();
+        tags = null;
+    }
+}
@@ -1,11 +1,16 @@
 package org.link.linkvault.service;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.link.linkvault.dto.TagResponseDto;
 import org.link.linkvault.entity.Bookmark;
 import org.link.linkvault.entity.Tag;
+import org.link.linkvault.event.TagUsageChangedEvent;
 import org.link.linkvault.exception.ResourceNotFoundException;
 import org.link.linkvault.repository.TagRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,6 +19,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
@@ -21,11 +27,14 @@ public class TagService {
 
     private final TagRepository tagRepository;
     private final AuditLogService auditLogService;
+    private final BookmarkSearchIndex bookmarkSearchIndex;
+    private final TypeaheadIndex typeaheadIndex;
+    private final TagUsageCounter tagUsageCounter;
+    private final TagCloudCache tagCloudCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<TagResponseDto> findAll() {
-        return tagRepository.findAllWithBookmarks().stream()
-                .map(TagResponseDto::from)
-                .collect(Collectors.toList());
+        return tagCloudCache.get();
     }
 
     public TagResponseDto findById(Long id) {
@@ -40,6 +49,8 @@ public class TagService {
             throw new IllegalArgumentException("Tag already exists with name: " + name);
         }
         Tag tag = tagRepository.save(new Tag(name));
+        typeaheadIndex.indexTag(tag, 0);
+        eventPublisher.publishEvent(new TagUsageChangedEvent());
         return TagResponseDto.from(tag);
     }
 
@@ -50,8 +61,11 @@ public class TagService {
         // Remove tag from all bookmarks first
         for (Bookmark bookmark : new HashSet<>(tag.getBookmarks())) {
             bookmark.removeTag(tag);
+            bookmarkSearchIndex.index(bookmark);
         }
         tagRepository.delete(tag);
+        typeaheadIndex.removeTags(List.of(id));
+        eventPublisher.publishEvent(new TagUsageChangedEvent());
         auditLogService.log(actorUsername, AuditActionCodes.TAG_DELETE, "Tag", id, null);
     }
 
@@ -59,6 +73,7 @@ public class TagService {
     public void mergeTags(Set<Long> sourceTagIds, String targetTagName, String actorUsername) {
         Tag targetTag = tagRepository.findByName(targetTagName)
                 .orElseGet(() -> tagRepository.save(new Tag(targetTagName)));
+        int moved = 0;
 
         for (Long sourceId : sourceTagIds) {
             Tag sourceTag = tagRepository.findById(sourceId)
@@ -68,27 +83,48 @@ public class TagService {
                 continue;
             }
 
-            // Move bookmarks from source to target
+            // Move bookmarks from source to target; the source row is deleted, so only the target counts
             for (Bookmark bookmark : new HashSet<>(sourceTag.getBookmarks())) {
                 bookmark.removeTag(sourceTag);
-                bookmark.addTag(targetTag);
+                if (bookmark.addTag(targetTag)) {
+                    moved++;
+                }
+                bookmarkSearchIndex.index(bookmark);
             }
 
             tagRepository.delete(sourceTag);
+            typeaheadIndex.removeTags(List.of(sourceId));
+        }
+        if (moved > 0) {
+            tagUsageCounter.adjust(targetTag, moved);
         }
+        typeaheadIndex.indexTag(targetTag, targetTag.getBookmarkCount() + moved);
+        eventPublisher.publishEvent(new TagUsageChangedEvent());
         auditLogService.log(actorUsername, AuditActionCodes.TAG_MERGE, "Tag", null,
                 AuditDetailFormatter.format("target", targetTagName, "sourceCount", String.valueOf(sourceTagIds.size())));
     }
 
     @Transactional
     public int deleteUnusedTags(String actorUsername) {
+        // Cheap safety net for counters changed outside the services (e.g. manual SQL)
+        tagRepository.reconcileBookmarkCounts();
         List<Tag> unused = tagRepository.findUnusedTags();
         tagRepository.deleteAll(unused);
+        typeaheadIndex.removeTags(unused.stream().map(Tag::getId).collect(Collectors.toList()));
+        eventPublisher.publishEvent(new TagUsageChangedEvent());
         auditLogService.log(actorUsername, AuditActionCodes.TAG_CLEANUP, "Tag", null,
                 AuditDetailFormatter.format("deleted", String.valueOf(unused.size())));
         return unused.size();
     }
 
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileBookmarkCounts() {
+        int updated = tagRepository.reconcileBookmarkCounts();
+        log.info("Reconciled bookmark counts for {} tags", updated);
+        eventPublisher.publishEvent(new TagUsageChangedEvent());
+    }
+
     public List<TagResponseDto> searchByName(String query) {
         return tagRepository.findByNameContainingIgnoreCase(query).stream()
                 .map(TagResponseDto::from)
@@ -0,0 +1,68 @@
+package org.link.linkvault.service;
+
+import lombok.RequiredArgsConstructor;
+import org.link.linkvault.entity.Tag;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains tags.bookmark_count with relative UPDATEs, like the import path, so two transactions
+ * tagging the same tag both count. Deltas are netted per tag for the surrounding transaction and
+ * written just before it commits; a retag that removes and re-adds a tag writes nothing.
+ */
+@Component
+@RequiredArgsConstructor
+public class TagUsageCounter {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void adjust(Tag tag, int delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Tag usage changes must run inside a transaction");
+        }
+        pendingDeltas().merge(tag.getId(), delta, Integer::sum);
+    }
+
+    // Kept on the synchronization itself, so a suspended outer transaction keeps its own deltas
+    private Map<Long, Integer> pendingDeltas() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingDeltas && ((PendingDeltas) synchronization).owner == this) {
+                return ((PendingDeltas) synchronization).deltas;
+            }
+        }
+        PendingDeltas created = new PendingDeltas(this);
+        TransactionSynchronizationManager.registerSynchronization(created);
+        return created.deltas;
+    }
+
+    private void apply(Map<Long, Integer> deltas) {
+        List<Object[]> updates = deltas.entrySet().stream()
+                .filter(e -> e.getValue() != 0)
+                .map(e -> new Object[]{e.getValue(), e.getKey()})
+                .collect(Collectors.toList());
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE tags SET bookmark_count = bookmark_count + ? WHERE id = ?", updates);
+        }
+    }
+
+    private static final class PendingDeltas implements TransactionSynchronization {
+        private final TagUsageCounter owner;
+        private final Map<Long, Integer> deltas = new HashMap<>();
+
+        private PendingDeltas(TagUsageCounter owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            owner.apply(deltas);
+        }
+    }
+}
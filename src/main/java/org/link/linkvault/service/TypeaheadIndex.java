@@ -0,0 +1,433 @@
+package org.link.linkvault.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.link.linkvault.dto.SuggestionDto;
+import org.link.linkvault.entity.Bookmark;
+import org.link.linkvault.entity.Folder;
+import org.link.linkvault.entity.Role;
+import org.link.linkvault.entity.Tag;
+import org.link.linkvault.entity.User;
+import org.link.linkvault.repository.BookmarkRepository;
+import org.link.linkvault.repository.FolderRepository;
+import org.link.linkvault.repository.TagRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory prefix completion for tags, folder names and bookmark titles.
+ * Each entry is stored under a bounded number of sorted keys (full name plus leading word starts)
+ * and ranked by a popularity weight: bookmark count for tags, access count for titles.
+ * Short prefixes read from per-head sets kept in rank order; longer ones scan their narrow key range.
+ * Folders and private titles are scoped per owner.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TypeaheadIndex {
+
+    public static final int MAX_SUGGESTIONS = 10;
+    private static final int MAX_KEY_LENGTH = 48;
+    private static final int MAX_WORD_KEYS = 4;
+    private static final int HEAD_LENGTH = 3;
+    private static final int REBUILD_BATCH_SIZE = 5000;
+
+    private final TagRepository tagRepository;
+    private final FolderRepository folderRepository;
+    private final BookmarkRepository bookmarkRepository;
+
+    private final PrefixIndex tags = new PrefixIndex();
+    private final PrefixIndex allFolders = new PrefixIndex();
+    private final Map<Long, PrefixIndex> foldersByUser = new ConcurrentHashMap<>();
+    private final PrefixIndex publicTitles = new PrefixIndex();
+    private final Map<Long, PrefixIndex> privateTitlesByUser = new ConcurrentHashMap<>();
+    private final Map<Long, Long> privateTitleOwners = new ConcurrentHashMap<>();
+    // Writers serialize here; changes made while a rebuild loads its snapshot are replayed on top of it
+    private final Object writeLock = new Object();
+    private List<Runnable> pendingChanges;
+
+    private boolean isAdmin(User user) {
+        return user.getRole() == Role.SUPER_ADMIN
+                || user.getRole() == Role.COMMUNITY_ADMIN
+                || user.getRole() == Role.MODERATOR;
+    }
+
+    // --- Lifecycle ---
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long started = System.currentTimeMillis();
+        List<Runnable> changes = new ArrayList<>();
+        synchronized (writeLock) {
+            pendingChanges = changes;
+        }
+        List<Object[]> tagRows;
+        List<Object[]> folderRows;
+        List<Object[]> titleRows = new ArrayList<>();
+        try {
+            tagRows = tagRepository.findAllWithBookmarkCount();
+            folderRows = folderRepository.findAllForTypeahead();
+            long afterId = 0L;
+            while (true) {
+                List<Object[]> rows = bookmarkRepository.findTitlesForTypeahead(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                if (rows.isEmpty()) break;
+                titleRows.addAll(rows);
+                afterId = (Long) rows.get(rows.size() - 1)[0];
+            }
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                pendingChanges = null;
+            }
+            throw e;
+        }
+
+        synchronized (writeLock) {
+            pendingChanges = null;
+            tags.clear();
+            allFolders.clear();
+            foldersByUser.clear();
+            publicTitles.clear();
+            privateTitlesByUser.clear();
+            privateTitleOwners.clear();
+            for (Object[] row : tagRows) {
+                tags.put((Long) row[0], (String) row[1], (Long) row[2]);
+            }
+            for (Object[] row : folderRows) {
+                putFolder((Long) row[0], (String) row[1], (Long) row[2]);
+            }
+            for (Object[] row : titleRows) {
+                putTitle((Long) row[0], (String) row[1], (Long) row[2], (Boolean) row[3], ((Number) row[4]).longValue());
+            }
+            changes.forEach(Runnable::run);
+        }
+        log.info("Typeahead index rebuilt: {} tags, {} folders, {} titles in {}ms",
+                tags.size(), allFolders.size(), titleRows.size(), System.currentTimeMillis() - started);
+    }
+
+    // --- Queries ---
+
+    public List<SuggestionDto> suggestTags(String prefix, int limit) {
+        return tags.suggest(prefix, limit);
+    }
+
+    public List<SuggestionDto> suggestFolders(User user, String prefix, int limit) {
+        if (isAdmin(user)) {
+            return allFolders.suggest(prefix, limit);
+        }
+        PrefixIndex own = foldersByUser.get(user.getId());
+        return own != null ? own.suggest(prefix, limit) : Collections.emptyList();
+    }
+
+    /** Public titles for everyone, plus the caller's own private titles when signed in. */
+    public List<SuggestionDto> suggestBookmarks(User user, String prefix, int limit) {
+        List<SuggestionDto> suggestions = publicTitles.suggest(prefix, limit);
+        PrefixIndex own = user != null ? privateTitlesByUser.get(user.getId()) : null;
+        if (own == null) {
+            return suggestions;
+        }
+        List<SuggestionDto> merged = new ArrayList<>(suggestions);
+        merged.addAll(own.suggest(prefix, limit));
+        merged.sort(PrefixIndex.RANKING);
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    // --- Incremental maintenance (applied after the surrounding transaction commits) ---
+
+    public void indexBookmark(Bookmark bookmark) {
+        if (bookmark.getId() == null) return;
+        Long bookmarkId = bookmark.getId();
+        if (bookmark.isDeleted()) {
+            removeBookmark(bookmarkId);
+            return;
+        }
+        String title = bookmark.getTitle();
+        Long ownerId = bookmark.getUser() != null ? bookmark.getUser().getId() : null;
+        boolean privatePost = bookmark.isPrivatePost();
+        long weight = bookmark.getAccessCount();
+        TransactionCallbacks.afterCommit(() -> change(() -> {
+            removeTitle(bookmarkId);
+            putTitle(bookmarkId, title, ownerId, privatePost, weight);
+        }));
+    }
+
+    public void removeBookmark(Long bookmarkId) {
+        TransactionCallbacks.afterCommit(() -> change(() -> removeTitle(bookmarkId)));
+    }
+
+    public void indexTag(Tag tag, long bookmarkCount) {
+        Long tagId = tag.getId();
+        String name = tag.getName();
+        TransactionCallbacks.afterCommit(() -> change(() -> tags.put(tagId, name, bookmarkCount)));
+    }
+
+    /** Adjusts tag popularity when a bookmark's tag set changes. */
+    public void adjustTagUsage(Collection<Tag> removed, Collection<Tag> added) {
+        Map<Long, String> names = new HashMap<>();
+        Map<Long, Long> deltas = new HashMap<>();
+        for (Tag tag : removed) {
+            names.put(tag.getId(), tag.getName());
+            deltas.merge(tag.getId(), -1L, Long::sum);
+        }
+        for (Tag tag : added) {
+            names.put(tag.getId(), tag.getName());
+            deltas.merge(tag.getId(), 1L, Long::sum);
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+        if (deltas.isEmpty()) return;
+        TransactionCallbacks.afterCommit(() -> change(() ->
+                deltas.forEach((tagId, delta) -> tags.adjust(tagId, names.get(tagId), delta))));
+    }
+
+    public void removeTags(Collection<Long> tagIds) {
+        List<Long> ids = new ArrayList<>(tagIds);
+        TransactionCallbacks.afterCommit(() -> change(() -> ids.forEach(tags::remove)));
+    }
+
+    public void indexFolder(Folder folder) {
+        Long folderId = folder.getId();
+        String name = folder.getName();
+        Long ownerId = folder.getUser() != null ? folder.getUser().getId() : null;
+        TransactionCallbacks.afterCommit(() -> change(() -> {
+            removeFolder(folderId);
+            putFolder(folderId, name, ownerId);
+        }));
+    }
+
+    public void removeFolders(Collection<Long> folderIds) {
+        List<Long> ids = new ArrayList<>(folderIds);
+        TransactionCallbacks.afterCommit(() -> change(() -> ids.forEach(this::removeFolder)));
+    }
+
+    public void removeUser(Long userId) {
+        TransactionCallbacks.afterCommit(() -> change(() -> {
+            PrefixIndex folders = foldersByUser.remove(userId);
+            if (folders != null) {
+                folders.ids().forEach(allFolders::remove);
+            }
+            privateTitlesByUser.remove(userId);
+            privateTitleOwners.values().removeIf(userId::equals);
+            publicTitles.removeOwner(userId);
+        }));
+    }
+
+    private void change(Runnable change) {
+        synchronized (writeLock) {
+            change.run();
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        }
+    }
+
+    // --- Internal helpers ---
+
+    private void putFolder(Long folderId, String name, Long ownerId) {
+        allFolders.put(folderId, name, 0L, ownerId);
+        if (ownerId != null) {
+            foldersByUser.computeIfAbsent(ownerId, k -> new PrefixIndex()).put(folderId, name, 0L, ownerId);
+        }
+    }
+
+    private void removeFolder(Long folderId) {
+        Long ownerId = allFolders.ownerOf(folderId);
+        allFolders.remove(folderId);
+        if (ownerId != null) {
+            PrefixIndex own = foldersByUser.get(ownerId);
+            if (own != null) own.remove(folderId);
+        }
+    }
+
+    private void putTitle(Long bookmarkId, String title, Long ownerId, boolean privatePost, long weight) {
+        if (!privatePost) {
+            publicTitles.put(bookmarkId, title, weight, ownerId);
+        } else if (ownerId != null) {
+            privateTitlesByUser.computeIfAbsent(ownerId, k -> new PrefixIndex()).put(bookmarkId, title, weight, ownerId);
+            privateTitleOwners.put(bookmarkId, ownerId);
+        }
+    }
+
+    private void removeTitle(Long bookmarkId) {
+        publicTitles.remove(bookmarkId);
+        Long ownerId = privateTitleOwners.remove(bookmarkId);
+        PrefixIndex own = ownerId != null ? privateTitlesByUser.get(ownerId) : null;
+        if (own != null) {
+            own.remove(bookmarkId);
+        }
+    }
+
+    static String normalize(String text) {
+        if (text == null) return "";
+        String normalized = text.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+        return normalized.length() > MAX_KEY_LENGTH ? normalized.substring(0, MAX_KEY_LENGTH) : normalized;
+    }
+
+    /**
+     * Sorted key space of "normalizedKey\u0000id" so equal names from different owners coexist,
+     * plus a rank-ordered set of entries for every key head up to {@link #HEAD_LENGTH} characters.
+     * Reads are lock-free; writers serialize per index.
+     */
+    static final class PrefixIndex {
+
+        static final Comparator<SuggestionDto> RANKING = Comparator
+                .comparingLong(SuggestionDto::getWeight).reversed()
+                .thenComparing(SuggestionDto::getLabel, String.CASE_INSENSITIVE_ORDER);
+
+        private static final Comparator<Entry> ENTRY_RANKING = Comparator
+                .comparingLong((Entry e) -> e.weight).reversed()
+                .thenComparing(e -> e.label, String.CASE_INSENSITIVE_ORDER)
+                .thenComparing(e -> e.id);
+
+        private final ConcurrentSkipListMap<String, Entry> keys = new ConcurrentSkipListMap<>();
+        private final Map<String, ConcurrentSkipListSet<Entry>> heads = new ConcurrentHashMap<>();
+        private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+        void put(Long id, String label, long weight) {
+            put(id, label, weight, null);
+        }
+
+        synchronized void put(Long id, String label, long weight, Long ownerId) {
+            remove(id);
+            if (label == null || label.isBlank()) return;
+            Entry entry = new Entry(id, label, weight, ownerId, keysFor(label, id));
+            entries.put(id, entry);
+            for (String key : entry.keys) {
+                keys.put(key, entry);
+                for (String head : headsOf(key)) {
+                    heads.computeIfAbsent(head, k -> new ConcurrentSkipListSet<>(ENTRY_RANKING)).add(entry);
+                }
+            }
+        }
+
+        synchronized void adjust(Long id, String label, long delta) {
+            Entry current = entries.get(id);
+            long weight = Math.max(0, (current != null ? current.weight : 0) + delta);
+            put(id, current != null ? current.label : label, weight, current != null ? current.ownerId : null);
+        }
+
+        synchronized void remove(Long id) {
+            Entry entry = entries.remove(id);
+            if (entry == null) return;
+            for (String key : entry.keys) {
+                keys.remove(key);
+                for (String head : headsOf(key)) {
+                    ConcurrentSkipListSet<Entry> ranked = heads.get(head);
+                    if (ranked != null && ranked.remove(entry) && ranked.isEmpty()) {
+                        heads.remove(head);
+                    }
+                }
+            }
+        }
+
+        synchronized void removeOwner(Long ownerId) {
+            List<Long> owned = entries.values().stream()
+                    .filter(e -> ownerId.equals(e.ownerId))
+                    .map(e -> e.id)
+                    .collect(Collectors.toList());
+            owned.forEach(this::remove);
+        }
+
+        Long ownerOf(Long id) {
+            Entry entry = entries.get(id);
+            return entry != null ? entry.ownerId : null;
+        }
+
+        Collection<Long> ids() {
+            return new ArrayList<>(entries.keySet());
+        }
+
+        int size() {
+            return entries.size();
+        }
+
+        synchronized void clear() {
+            keys.clear();
+            heads.clear();
+            entries.clear();
+        }
+
+        List<SuggestionDto> suggest(String prefix, int limit) {
+            String normalized = normalize(prefix);
+            if (normalized.isEmpty() || limit <= 0) return Collections.emptyList();
+
+            Collection<Entry> ranked;
+            if (normalized.length() <= HEAD_LENGTH) {
+                // Every entry under this head matches and the set is already in rank order
+                ConcurrentSkipListSet<Entry> head = heads.get(normalized);
+                ranked = head != null ? head : Collections.emptySet();
+            } else {
+                // Past the head the key range is narrow: keep the heaviest matches while scanning it
+                TreeSet<Entry> top = new TreeSet<>(ENTRY_RANKING);
+                for (Entry entry : keys.subMap(normalized, normalized + Character.MAX_VALUE).values()) {
+                    if (top.add(entry) && top.size() > limit) {
+                        top.pollLast();
+                    }
+                }
+                ranked = top;
+            }
+            // A concurrent re-put can briefly expose both versions of one entry
+            Set<Long> seen = new HashSet<>();
+            return ranked.stream()
+                    .filter(e -> seen.add(e.id))
+                    .limit(limit)
+                    .map(e -> SuggestionDto.builder().id(e.id).label(e.label).weight(e.weight).build())
+                    .collect(Collectors.toList());
+        }
+
+        private static List<String> headsOf(String key) {
+            int end = Math.min(key.indexOf('\u0000'), HEAD_LENGTH);
+            List<String> result = new ArrayList<>(end);
+            for (int length = 1; length <= end; length++) {
+                result.add(key.substring(0, length));
+            }
+            return result;
+        }
+
+        private static String[] keysFor(String label, Long id) {
+            String normalized = normalize(label);
+            List<String> result = new ArrayList<>();
+            result.add(normalized + '\u0000' + id);
+            int from = 0;
+            for (int words = 0; words < MAX_WORD_KEYS; words++) {
+                int space = normalized.indexOf(' ', from);
+                if (space < 0 || space + 1 >= normalized.length()) break;
+                result.add(normalized.substring(space + 1) + '\u0000' + id);
+                from = space + 1;
+            }
+            return result.toArray(new String[0]);
+        }
+
+        private static final class Entry {
+            private final Long id;
+            private final String label;
+            private final long weight;
+            private final Long ownerId;
+            private final String[] keys;
+
+            Entry(Long id, String label, long weight, Long ownerId, String[] keys) {
+                this.id = id;
+                this.label = label;
+                this.weight = weight;
+                this.ownerId = ownerId;
+                this.keys = keys;
+            }
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package org.link.linkvault.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.link.linkvault.dto.UnreadCounterStatsDto;
+import org.link.linkvault.entity.AnnouncementStatus;
+import org.link.linkvault.entity.Role;
+import org.link.linkvault.entity.User;
+import org.link.linkvault.entity.UserUnreadCounter;
+import org.link.linkvault.event.ChromeSummaryChangedEvent;
+import org.link.linkvault.repository.AnnouncementRepository;
+import org.link.linkvault.repository.NotificationRepository;
+import org.link.linkvault.repository.UserUnreadCounterRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Owns the per-user unread counters behind the bell and the announcements badge. Reads are a
+ * primary-key lookup; a missing row is counted from the source tables and stored. Writers adjust
+ * the counters in their own transaction through the methods here, and only rows that already
+ * exist are touched, so a user who has never been counted costs nothing. The rare drift (a write
+ * racing the first count, or a path that changes unread state without going through here) is
+ * corrected by a periodic reconciliation.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class UnreadCounterService {
+
+    // Only when the user still exists and no concurrent read has created the row first
+    private static final String INIT_SQL = "INSERT INTO user_unread_counters (user_id, notifications, announcements, updated_at) " +
+            "SELECT u.id, ?, ?, ? FROM users u WHERE u.id = ? " +
+            "AND NOT EXISTS (SELECT 1 FROM user_unread_counters c WHERE c.user_id = u.id)";
+    private static final String ADD_NOTIFICATIONS_SQL =
+            "UPDATE user_unread_counters SET notifications = notifications + ? WHERE user_id = ?";
+    // Stored and actual counts for one keyset chunk of counter rows
+    private static final String RECONCILE_SELECT_SQL = "SELECT c.user_id, c.notifications, c.announcements, " +
+            "(SELECT COUNT(*) FROM notifications n WHERE n.recipient_id = c.user_id AND n.is_read = false), " +
+            "(SELECT COUNT(*) FROM announcements a WHERE a.status = 'PUBLISHED' " +
+            "AND (a.target_role IS NULL OR a.target_role = u.role) " +
+            "AND NOT EXISTS (SELECT 1 FROM announcement_reads r WHERE r.announcement_id = a.id AND r.user_id = c.user_id)) " +
+            "FROM user_unread_counters c JOIN users u ON u.id = c.user_id " +
+            "WHERE c.user_id > ? ORDER BY c.user_id LIMIT ?";
+    // Skips rows a writer moved after they were read; the next run picks them up
+    private static final String RECONCILE_UPDATE_SQL = "UPDATE user_unread_counters " +
+            "SET notifications = ?, announcements = ?, updated_at = ? " +
+            "WHERE user_id = ? AND notifications = ? AND announcements = ?";
+
+    private final UserUnreadCounterRepository counterRepository;
+    private final NotificationRepository notificationRepository;
+    private final AnnouncementRepository announcementRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NotificationPushRegistry pushRegistry;
+
+    @Value("${linkvault.unread-counters.reconcile-chunk-size:500}")
+    private int reconcileChunkSize;
+
+    // Separate transaction so the first read of a counter can store it from a read-only caller
+    private TransactionTemplate initTemplate;
+    // Joins a writing caller instead, so the count includes that caller's uncommitted rows
+    private TransactionTemplate joinTemplate;
+    private TransactionTemplate chunkTemplate;
+    private final AtomicBoolean reconciling = new AtomicBoolean();
+    private final LongAdder initialized = new LongAdder();
+    private volatile UnreadCounterStatsDto lastRun;
+
+    @PostConstruct
+    void init() {
+        initTemplate = new TransactionTemplate(transactionManager);
+        initTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        joinTemplate = new TransactionTemplate(transactionManager);
+        chunkTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public long getUnreadNotifications(User user) {
+        return Math.max(0, getCounter(user.getId(), user.getRole()).getNotifications());
+    }
+
+    public long getUnreadAnnouncements(User user) {
+        return Math.max(0, getCounter(user.getId(), user.getRole()).getAnnouncements());
+    }
+
+    public UserUnreadCounter getCounter(Long userId, Role role) {
+        return counterRepository.findById(userId).orElseGet(() -> initialize(userId, role));
+    }
+
+    // ---- Write-path adjustments; callers run these inside their own transaction ----
+
+    @Transactional
+    public void notificationsAdded(Long userId, long count) {
+        counterRepository.adjustNotifications(userId, count);
+    }
+
+    // Batched form for the notification dispatcher, which writes many recipients at once
+    @Transactional
+    public void notificationsAdded(Map<Long, Integer> countsByUser) {
+        if (countsByUser.isEmpty()) return;
+        List<Object[]> args = new ArrayList<>(countsByUser.size());
+        countsByUser.forEach((userId, count) -> args.add(new Object[]{count, userId}));
+        jdbcTemplate.batchUpdate(ADD_NOTIFICATIONS_SQL, args);
+    }
+
+    @Transactional
+    public void notificationsRead(Long userId, long count) {
+        if (count > 0) {
+            counterRepository.adjustNotifications(userId, -count);
+        }
+    }
+
+    @Transactional
+    public void sourceUserRemoved(Long sourceUserId) {
+        counterRepository.subtractUnreadFromSource(sourceUserId);
+    }
+
+    /**
+     * An announcement became visible (published, or re-targeted while published) to
+     * {@code targetRole}, or to everyone when it is null.
+     */
+    @Transactional
+    public void announcementPublished(Long announcementId, Role targetRole) {
+        adjustAnnouncements(announcementId, targetRole, 1);
+    }
+
+    // Call before the announcement's read receipts are deleted, or readers are decremented too
+    @Transactional
+    public void announcementUnpublished(Long announcementId, Role targetRole) {
+        adjustAnnouncements(announcementId, targetRole, -1);
+    }
+
+    // A first read receipt for an announcement, whether or not it counted for this user
+    @Transactional
+    public void announcementRead(User user, AnnouncementStatus status, Role targetRole) {
+        if (status == AnnouncementStatus.PUBLISHED && (targetRole == null || targetRole == user.getRole())) {
+            counterRepository.adjustAnnouncements(user.getId(), -1);
+        }
+    }
+
+    // Drops the row so it is counted afresh, e.g. after a role change moves announcement visibility
+    @Transactional
+    public void reset(Long userId) {
+        if (counterRepository.existsById(userId)) {
+            counterRepository.deleteById(userId);
+        }
+    }
+
+    // ---- Reconciliation ----
+
+    @Scheduled(cron = "${linkvault.unread-counters.reconcile-cron:0 15 * * * *}")
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (IllegalStateException e) {
+            log.info("Skipping unread counter reconciliation: {}", e.getMessage());
+        }
+    }
+
+    public UnreadCounterStatsDto getStats() {
+        UnreadCounterStatsDto run = lastRun;
+        return UnreadCounterStatsDto.builder()
+                .rows(counterRepository.count())
+                .initialized(initialized.sum())
+                .lastReconciledAt(run != null ? run.getLastReconciledAt() : null)
+                .lastChecked(run != null ? run.getLastChecked() : 0)
+                .lastCorrected(run != null ? run.getLastCorrected() : 0)
+                .lastOrphansRemoved(run != null ? run.getLastOrphansRemoved() : 0)
+                .lastDurationMs(run != null ? run.getLastDurationMs() : 0)
+                .build();
+    }
+
+    /**
+     * Recounts every stored counter in keyset chunks, one short transaction each, and rewrites the
+     * ones that drifted. Corrected users get a fresh page chrome and an absolute count on their
+     * notification streams.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public UnreadCounterStatsDto reconcile() {
+        if (!reconciling.compareAndSet(false, true)) {
+            throw new IllegalStateException("Unread counter reconciliation is already running");
+        }
+        try {
+            long started = System.nanoTime();
+            LocalDateTime startedAt = LocalDateTime.now();
+            Integer orphans = chunkTemplate.execute(status -> jdbcTemplate.update(
+                    "DELETE FROM user_unread_counters WHERE user_id NOT IN (SELECT id FROM users)"));
+
+            long checked = 0;
+            long corrected = 0;
+            long lastUserId = 0;
+            while (true) {
+                long after = lastUserId;
+                List<long[]> fixed = new ArrayList<>();
+                long[] chunk = chunkTemplate.execute(status -> reconcileChunk(after, fixed));
+                int rows = (int) chunk[0];
+                for (long[] counts : fixed) {
+                    eventPublisher.publishEvent(ChromeSummaryChangedEvent.forUser(counts[0]));
+                    pushRegistry.pushUnreadCount(counts[0], NotificationPushRegistry.COUNTER_NOTIFICATIONS, counts[1]);
+                    pushRegistry.pushUnreadCount(counts[0], NotificationPushRegistry.COUNTER_ANNOUNCEMENTS, counts[2]);
+                }
+                checked += rows;
+                corrected += fixed.size();
+                if (rows < reconcileChunkSize) break;
+                lastUserId = chunk[1];
+            }
+
+            UnreadCounterStatsDto result = UnreadCounterStatsDto.builder()
+                    .lastReconciledAt(startedAt)
+                    .lastChecked(checked)
+                    .lastCorrected(corrected)
+                    .lastOrphansRemoved(orphans != null ? orphans : 0)
+                    .lastDurationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started))
+                    .build();
+            lastRun = result;
+            if (corrected > 0) {
+                log.info("Unread counter reconciliation corrected {} of {} counters", corrected, checked);
+            }
+            return result;
+        } finally {
+            reconciling.set(false);
+        }
+    }
+
+    // Returns [rows checked, last user id] for the keyset; corrected [userId, notifications, announcements] go to fixed
+    private long[] reconcileChunk(long afterUserId, List<long[]> fixed) {
+        List<Object[]> drifted = new ArrayList<>();
+        List<long[]> actual = new ArrayList<>();
+        long[] chunk = {0, afterUserId};
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.query(RECONCILE_SELECT_SQL, rs -> {
+            long userId = rs.getLong(1);
+            chunk[0]++;
+            chunk[1] = userId;
+            long storedNotifications = rs.getLong(2);
+            long storedAnnouncements = rs.getLong(3);
+            long notifications = rs.getLong(4);
+            long announcements = rs.getLong(5);
+            if (storedNotifications != notifications || storedAnnouncements != announcements) {
+                drifted.add(new Object[]{notifications, announcements, now, userId, storedNotifications, storedAnnouncements});
+                actual.add(new long[]{userId, notifications, announcements});
+            }
+        }, afterUserId, reconcileChunkSize);
+
+        if (!drifted.isEmpty()) {
+            int[] updated = jdbcTemplate.batchUpdate(RECONCILE_UPDATE_SQL, drifted);
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] == 1) fixed.add(actual.get(i));
+            }
+        }
+        return chunk;
+    }
+
+    private void adjustAnnouncements(Long announcementId, Role targetRole, long delta) {
+        if (targetRole == null) {
+            counterRepository.adjustAnnouncementsForAll(announcementId, delta);
+        } else {
+            counterRepository.adjustAnnouncementsForRole(targetRole, announcementId, delta);
+        }
+    }
+
+    private UserUnreadCounter initialize(Long userId, Role role) {
+        TransactionTemplate template = TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                ? initTemplate : joinTemplate;
+        return template.execute(status -> {
+            long notifications = notificationRepository.countByRecipientIdAndReadFalse(userId);
+            long announcements = announcementRepository.countUnreadForUser(userId, role);
+            try {
+                if (jdbcTemplate.update(INIT_SQL, notifications, announcements,
+                        Timestamp.valueOf(LocalDateTime.now()), userId) == 1) {
+                    initialized.increment();
+                }
+            } catch (DuplicateKeyException e) {
+                // Another request stored the same counts first
+            }
+            return new UserUnreadCounter(userId, notifications, announcements);
+        });
+    }
+}
@@ -4,14 +4,20 @@ import lombok.RequiredArgsConstructor;
 import org.link.linkvault.dto.UserRequestDto;
 import org.link.linkvault.dto.UserResponseDto;
 import org.link.linkvault.entity.*;
+import org.link.linkvault.event.ChromeSummaryChangedEvent;
+import org.link.linkvault.event.TagUsageChangedEvent;
 import org.link.linkvault.exception.ResourceNotFoundException;
 import org.link.linkvault.repository.*;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import org.link.linkvault.entity.PrivacyPolicy;
 
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -23,6 +29,7 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final CommentVoteRepository commentVoteRepository;
+    private final CommentService commentService;
     private final CommentRepository commentRepository;
     private final SavedBookmarkRepository savedBookmarkRepository;
     private final FavoriteBookmarkRepository favoriteBookmarkRepository;
@@ -39,6 +46,13 @@ public class UserService {
     private final InvitationCodeRepository invitationCodeRepository;
     private final PrivacyPolicyRepository privacyPolicyRepository;
     private final AuditLogService auditLogService;
+    private final BookmarkSearchIndex bookmarkSearchIndex;
+    private final GeoGridIndex geoGridIndex;
+    private final TypeaheadIndex typeaheadIndex;
+    private final TagUsageCounter tagUsageCounter;
+    private final UnreadCounterService unreadCounterService;
+    private final CurrentUserResolver currentUserResolver;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<UserResponseDto> findAll() {
         return userRepository.findAll().stream()
@@ -52,8 +66,10 @@ public class UserService {
         return UserResponseDto.from(user, userRepository.countBookmarksByUserId(user.getId()));
     }
 
+    // No transaction of its own: a request-cached hit should not check out a connection
+    @Transactional(propagation = Propagation.SUPPORTS)
     public User getUserEntity(String username) {
-        return userRepository.findByUsername(username)
+        return currentUserResolver.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
     }
 
@@ -91,13 +107,18 @@ public class UserService {
         }
 
         user.updateProfile(dto.getEmail());
+        // An admin may be editing their own account; later reads in this request reload it
+        currentUserResolver.evict();
 
         if (dto.getPassword() != null && !dto.getPassword().isBlank()) {
             user.updatePassword(passwordEncoder.encode(dto.getPassword()));
         }
 
-        if (dto.getRole() != null) {
+        if (dto.getRole() != null && dto.getRole() != user.getRole()) {
             user.updateRole(dto.getRole());
+            // Announcement visibility follows the role, so the unread count is recounted
+            unreadCounterService.reset(id);
+            eventPublisher.publishEvent(ChromeSummaryChangedEvent.forUser(id));
         }
 
         if (dto.getEnabled() != null) {
@@ -140,7 +161,14 @@ public class UserService {
             savedBookmarkRepository.deleteByBookmarkId(bookmarkId);
             favoriteBookmarkRepository.deleteByBookmarkId(bookmarkId);
             // Clear ManyToMany tags
-            bookmark.getTags().clear();
+            typeaheadIndex.adjustTagUsage(bookmark.getTags(), Collections.emptySet());
+            for (Tag tag : new HashSet<>(bookmark.getTags())) {
+                if (bookmark.removeTag(tag)) {
+                    tagUsageCounter.adjust(tag, -1);
+                }
+            }
+            bookmarkSearchIndex.remove(bookmarkId);
+            geoGridIndex.remove(bookmarkId);
         }
         bookmarkRepository.deleteAll(userBookmarks);
 
@@ -149,12 +177,16 @@ public class UserService {
         commentRepository.findByUserId(userId)
                 .forEach(c -> commentVoteRepository.deleteByCommentId(c.getId()));
         commentRepository.deleteByUserId(userId);
+        // Their comments and detached replies reshape threads everywhere
+        commentService.evictAllThreads();
 
         // 4. Delete user's saved/favorite bookmarks (on other users' bookmarks)
         savedBookmarkRepository.deleteByUserId(userId);
         favoriteBookmarkRepository.deleteByUserId(userId);
 
         // 5. Delete notifications
+        unreadCounterService.sourceUserRemoved(userId);
+        unreadCounterService.reset(userId);
         notificationRepository.deleteByRecipientId(userId);
         notificationRepository.deleteBySourceUserId(userId);
 
@@ -176,6 +208,9 @@ public class UserService {
         // 11. Handle announcements created by this user
         List<Announcement> userAnnouncements = announcementRepository.findByCreatedById(userId);
         for (Announcement a : userAnnouncements) {
+            if (a.getStatus() == AnnouncementStatus.PUBLISHED) {
+                unreadCounterService.announcementUnpublished(a.getId(), a.getTargetRole());
+            }
             announcementReadRepository.deleteByAnnouncementId(a.getId());
         }
         announcementRepository.deleteAll(userAnnouncements);
@@ -200,6 +235,11 @@ public class UserService {
 
         // 15. Delete user
         userRepository.delete(user);
+        typeaheadIndex.removeUser(userId);
+        auditLogService.evictUser(user.getUsername());
+        // Their bookmarks, announcements and articles may show up in anyone's sidebar
+        eventPublisher.publishEvent(ChromeSummaryChangedEvent.forAllUsers());
+        eventPublisher.publishEvent(new TagUsageChangedEvent());
 
         auditLogService.log(actorUsername, AuditActionCodes.USER_DELETE, "User", userId, null);
     }
@@ -6,8 +6,10 @@ import org.link.linkvault.entity.ProfileVisibility;
 import org.link.linkvault.entity.Theme;
 import org.link.linkvault.entity.User;
 import org.link.linkvault.entity.UserSettings;
+import org.link.linkvault.event.ChromeSummaryChangedEvent;
 import org.link.linkvault.repository.UserRepository;
 import org.link.linkvault.repository.UserSettingsRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,6 +22,7 @@ public class UserSettingsService {
     private final UserSettingsRepository userSettingsRepository;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     public UserSettingsResponseDto getSettings(User user) {
         UserSettings settings = getOrCreateSettings(user);
@@ -37,6 +40,7 @@ public class UserSettingsService {
     public UserSettingsResponseDto updateTheme(User user, Theme theme) {
         UserSettings settings = getOrCreateSettings(user);
         settings.updateTheme(theme);
+        eventPublisher.publishEvent(ChromeSummaryChangedEvent.forUser(user.getId()));
         return UserSettingsResponseDto.from(settings);
     }
 
@@ -636,12 +636,39 @@ function importFile(format) {
     formData.append('file', input.files[0]);
 
     fetch('/api/data/import/' + format, { method: 'POST', headers: csrfHeaders(), body: formData })
-        .then(function(r) { return r.json(); })
-        .then(function(data) {
-            showToast(data.message);
-            setTimeout(function() { window.location.href = '/'; }, 1500);
+        .then(function(r) {
+            return r.json().then(function(data) {
+                if (!r.ok) throw new Error(data.message || 'Import failed');
+                return data;
+            });
+        })
+        .then(function(job) {
+            showToast('Import started...');
+            pollImportJob(job.id);
+        })
+        .catch(function(err) { showToast(err.message || 'Import failed', 'error'); });
+}
+
+function pollImportJob(jobId) {
+    fetch('/api/data/import/jobs/' + jobId)
+        .then(function(r) {
+            if (!r.ok) throw new Error();
+            return r.json();
+        })
+        .then(function(job) {
+            if (job.status === 'COMPLETED') {
+                var message = job.imported + ' bookmarks imported';
+                if (job.skipped) message += ' (' + job.skipped + ' skipped)';
+                showToast(message);
+                setTimeout(function() { window.location.href = '/'; }, 1500);
+            } else if (job.status === 'FAILED') {
+                showToast('Import failed: ' + (job.error || 'unknown error'), 'error');
+            } else {
+                showToast('Importing... ' + job.percent + '% (' + job.imported + ' imported)');
+                setTimeout(function() { pollImportJob(jobId); }, 1000);
+            }
         })
-        .catch(function() { showToast('Import failed', 'error'); });
+        .catch(function() { showToast('Lost track of import progress', 'error'); });
 }
 
 // ===== Feature 1: Sidebar Collapse =====
@@ -695,14 +722,14 @@ function onGlobalSearchInput() {
         return;
     }
     searchDebounceTimer = setTimeout(function() {
-        fetch('/api/search?q=' + encodeURIComponent(query))
+        fetch('/api/search/suggest?q=' + encodeURIComponent(query))
             .then(function(r) { return r.json(); })
             .then(function(data) { renderSearchResults(data); })
             .catch(function() {
                 document.getElementById('searchResults').innerHTML =
                     '<div style="padding:24px;text-align:center;color:var(--text-muted);">Search error</div>';
             });
-    }, 300);
+    }, 150);
 }
 
 function renderSearchResults(data) {
@@ -712,16 +739,16 @@ function renderSearchResults(data) {
         data.bookmarks.forEach(function(b) {
             html += '<a href="/bookmark/' + b.id + '" class="search-result-item">' +
                 '<span class="search-result-icon">&#128279;</span>' +
-                '<span>' + escapeHtml(b.title) + '</span></a>';
+                '<span>' + escapeHtml(b.label) + '</span></a>';
         });
         html += '</div>';
     }
     if (data.tags && data.tags.length > 0) {
         html += '<div class="search-result-group"><div class="search-result-group-title">Tags</div>';
         data.tags.forEach(function(t) {
-            html += '<a href="/tag/' + encodeURIComponent(t.name) + '" class="search-result-item">' +
+            html += '<a href="/tag/' + encodeURIComponent(t.label) + '" class="search-result-item">' +
                 '<span class="search-result-icon">&#127991;</span>' +
-                '<span>' + escapeHtml(t.name) + ' (' + t.bookmarkCount + ')</span></a>';
+                '<span>' + escapeHtml(t.label) + ' (' + t.weight + ')</span></a>';
         });
         html += '</div>';
     }
@@ -730,7 +757,7 @@ function renderSearchResults(data) {
         data.folders.forEach(function(f) {
             html += '<a href="/folder/' + f.id + '" class="search-result-item">' +
                 '<span class="search-result-icon">&#128193;</span>' +
-                '<span>' + escapeHtml(f.name) + '</span></a>';
+                '<span>' + escapeHtml(f.label) + '</span></a>';
         });
         html += '</div>';
     }
@@ -909,8 +936,7 @@ function markAllNotificationsRead() {
             notifHasMore = true;
             document.getElementById('notificationList').innerHTML = '';
             loadNotifications();
-            var badge = document.querySelector('.notification-badge');
-            if (badge) badge.remove();
+            setUnreadCount('notifications', 0);
             showToast('All notifications marked as read');
         })
         .catch(function() { showToast('Error marking notifications', 'error'); });
@@ -919,26 +945,101 @@ function markAllNotificationsRead() {
 function pollUnreadCount() {
     fetch('/api/notifications/unread-count')
         .then(function(r) { return r.json(); })
-        .then(function(data) {
-            var bellBtn = document.querySelector('.notification-bell-btn');
-            if (!bellBtn) return;
-            var existing = bellBtn.querySelector('.notification-badge');
-            if (data.count > 0) {
-                if (existing) {
-                    existing.textContent = data.count;
-                } else {
-                    var badge = document.createElement('span');
-                    badge.className = 'notification-badge';
-                    badge.textContent = data.count;
-                    bellBtn.appendChild(badge);
-                }
-            } else {
-                if (existing) existing.remove();
-            }
-        })
+        .then(function(data) { setUnreadCount('notifications', data.count); })
         .catch(function() {});
 }
 
+// Unread counters as last rendered, kept current by the push stream
+var unreadCounts = {};
+
+function setUnreadCount(counter, count) {
+    count = Math.max(0, count);
+    unreadCounts[counter] = count;
+    var host, cls;
+    if (counter === 'notifications') {
+        host = document.querySelector('.notification-bell-btn');
+        cls = 'notification-badge';
+    } else {
+        host = document.querySelector('.sidebar-link[href="/announcements"]');
+        cls = 'sidebar-announcement-badge';
+    }
+    if (!host) return;
+    var existing = host.querySelector('.' + cls);
+    if (count > 0) {
+        if (existing) {
+            existing.textContent = count;
+        } else {
+            var badge = document.createElement('span');
+            badge.className = cls;
+            badge.textContent = count;
+            host.appendChild(badge);
+        }
+    } else if (existing) {
+        existing.remove();
+    }
+}
+
+// Server-Sent Events replace the unread-count poll; polling stays as the fallback
+var notificationPollTimer = null;
+
+function startNotificationPolling() {
+    if (notificationPollTimer) return;
+    pollUnreadCount();
+    notificationPollTimer = setInterval(pollUnreadCount, 60000);
+}
+
+function initNotificationStream() {
+    if (!document.querySelector('.notification-bell-btn')) return;
+    if (!window.EventSource) {
+        startNotificationPolling();
+        return;
+    }
+    var source = new EventSource('/api/notifications/stream');
+    var failures = 0;
+    source.addEventListener('open', function() { failures = 0; });
+    source.addEventListener('unread-snapshot', function(e) {
+        var data = JSON.parse(e.data);
+        setUnreadCount('notifications', data.notifications);
+        setUnreadCount('announcements', data.announcements);
+    });
+    source.addEventListener('unread-count', function(e) {
+        var data = JSON.parse(e.data);
+        if (data.count !== undefined) {
+            setUnreadCount(data.counter, data.count);
+        } else {
+            setUnreadCount(data.counter, (unreadCounts[data.counter] || 0) + data.delta);
+        }
+    });
+    // Sent when an announcement is withdrawn: only the server knows whether it was still unread here
+    source.addEventListener('unread-resync', function(e) {
+        var counter = JSON.parse(e.data).counter;
+        fetch('/api/' + counter + '/unread-count')
+            .then(function(r) { return r.json(); })
+            .then(function(data) { setUnreadCount(counter, data.count); })
+            .catch(function() {});
+    });
+    source.addEventListener('notification', function(e) {
+        var panel = document.getElementById('notificationPanel');
+        if (panel && panel.style.display === 'flex') {
+            notifPage = 0;
+            notifHasMore = true;
+            document.getElementById('notificationList').innerHTML = '';
+            loadNotifications();
+        }
+    });
+    source.addEventListener('announcement', function(e) {
+        var data = JSON.parse(e.data);
+        showToast(data.title, data.priority === 'CRITICAL' ? 'error' : 'warning');
+    });
+    source.onerror = function() {
+        // EventSource retries by itself; give up and poll if the stream keeps failing
+        if (++failures >= 3 || source.readyState === EventSource.CLOSED) {
+            source.close();
+            startNotificationPolling();
+        }
+    };
+}
+
 function formatNotifTime(dateStr) {
     if (!dateStr) return '';
     var d = new Date(dateStr);
@@ -1048,6 +1149,54 @@ function initTheme() {
     }
 }
 
+// ===== Feed Infinite Scroll =====
+var feedLoading = false;
+
+function initFeedScroll() {
+    var grid = document.getElementById('feedGrid');
+    if (!grid || !('IntersectionObserver' in window)) return;
+
+    var observer = new IntersectionObserver(function(entries) {
+        entries.forEach(function(entry) {
+            if (entry.isIntersecting) loadMoreFeed(grid, observer, entry.target);
+        });
+    }, { rootMargin: '400px 0px' });
+
+    var sentinel = grid.querySelector('.feed-sentinel');
+    if (sentinel) observer.observe(sentinel);
+}
+
+function loadMoreFeed(grid, observer, sentinel) {
+    if (feedLoading) return;
+    feedLoading = true;
+    observer.unobserve(sentinel);
+
+    fetch('/feed/more?cursor=' + encodeURIComponent(sentinel.dataset.nextCursor))
+        .then(function(r) {
+            if (!r.ok) throw new Error('HTTP ' + r.status);
+            return r.text();
+        })
+        .then(function(html) {
+            sentinel.remove();
+            grid.insertAdjacentHTML('beforeend', html);
+            // Ad slots in the new slice still need filling; AdSense marks the ones it has handled
+            if (window.adsbygoogle) {
+                grid.querySelectorAll('ins.adsbygoogle:not([data-adsbygoogle-status])').forEach(function() {
+                    window.adsbygoogle.push({});
+                });
+            }
+            var next = grid.querySelector('.feed-sentinel');
+            if (next) observer.observe(next);
+        })
+        .catch(function() {
+            // Leave the sentinel so scrolling again retries
+            observer.observe(sentinel);
+        })
+        .finally(function() {
+            feedLoading = false;
+        });
+}
+
 // ===== Init =====
 document.addEventListener('DOMContentLoaded', function() {
     initTheme();
@@ -1056,10 +1205,10 @@ document.addEventListener('DOMContentLoaded', function() {
     initEventDelegation();
     initFavoritesDragDrop();
     initPhotoDropZone();
+    initFeedScroll();
     var urlInput = document.getElementById('bmUrl');
     if (urlInput) urlInput.addEventListener('blur', checkDuplicateUrl);
-    pollUnreadCount();
-    setInterval(pollUnreadCount, 60000);
+    initNotificationStream();
 
     // Infinite scroll for notification panel
     var notifList = document.getElementById('notificationList');
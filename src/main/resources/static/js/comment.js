@@ -1,27 +1,47 @@
 // ===== Comment System =====
 
-var COLLAPSE_THRESHOLD = 3;
+var THREAD_PAGE_SIZE = 20;
 var MAX_VISUAL_DEPTH = 2;
-var expandedThreads = {};
 
 function loadComments() {
-    fetch('/api/comments/bookmark/' + bookmarkId)
+    fetchCommentPage(null, true);
+}
+
+function fetchCommentPage(cursor, reset) {
+    var url = '/api/comments/bookmark/' + bookmarkId + '?size=' + THREAD_PAGE_SIZE +
+        (cursor ? '&cursor=' + encodeURIComponent(cursor) : '');
+    fetch(url)
         .then(function(r) { return r.json(); })
-        .then(function(comments) {
+        .then(function(page) {
             var container = document.getElementById('commentsContainer');
             var noComments = document.getElementById('noComments');
 
-            if (comments.length === 0) {
+            if (reset) {
                 container.innerHTML = '';
-                container.appendChild(noComments);
-                noComments.style.display = '';
-                return;
+                if (page.content.length === 0) {
+                    container.appendChild(noComments);
+                    noComments.style.display = '';
+                    return;
+                }
             }
 
-            container.innerHTML = '';
-            comments.forEach(function(comment) {
+            var moreBtn = document.getElementById('moreComments');
+            if (moreBtn) moreBtn.remove();
+            page.content.forEach(function(comment) {
                 container.appendChild(renderComment(comment, 0));
             });
+
+            if (page.hasNext) {
+                moreBtn = document.createElement('button');
+                moreBtn.id = 'moreComments';
+                moreBtn.className = 'comment-collapse-btn';
+                moreBtn.textContent = 'Load more comments';
+                moreBtn.onclick = function() {
+                    moreBtn.disabled = true;
+                    fetchCommentPage(page.nextCursor, false);
+                };
+                container.appendChild(moreBtn);
+            }
         })
         .catch(function() {
             showToast('Error loading comments', 'error');
@@ -89,8 +109,9 @@ function renderComment(comment, visualDepth) {
 
     wrapper.appendChild(div);
 
-    // Render replies
-    if (comment.replies && comment.replies.length > 0) {
+    // Replies arrive as a short preview; the rest load on demand
+    var replies = comment.replies || [];
+    if (replies.length > 0 || comment.hasMoreReplies) {
         var threadDiv = document.createElement('div');
         // Cap visual nesting: after MAX_VISUAL_DEPTH, stop adding thread containers
         var nextVisualDepth = visualDepth + 1;
@@ -99,49 +120,12 @@ function renderComment(comment, visualDepth) {
         }
         threadDiv.id = 'thread-' + comment.id;
 
-        var shouldCollapse = comment.replies.length > COLLAPSE_THRESHOLD && !expandedThreads[comment.id];
-
-        if (shouldCollapse) {
-            // Show last 2 as preview
-            var previewCount = 2;
-            var hidden = comment.replies.length - previewCount;
-
-            // Expand button
-            var expandBtn = document.createElement('button');
-            expandBtn.className = 'comment-collapse-btn';
-            expandBtn.textContent = 'View ' + hidden + ' more ' + (hidden === 1 ? 'reply' : 'replies');
-            expandBtn.onclick = (function(cid) {
-                return function() {
-                    expandedThreads[cid] = true;
-                    loadComments();
-                };
-            })(comment.id);
-            threadDiv.appendChild(expandBtn);
-
-            // Render only the last 2
-            var previewReplies = comment.replies.slice(-previewCount);
-            previewReplies.forEach(function(reply) {
-                threadDiv.appendChild(renderComment(reply, nextVisualDepth));
-            });
-        } else {
-            // Render all replies
-            comment.replies.forEach(function(reply) {
-                threadDiv.appendChild(renderComment(reply, nextVisualDepth));
-            });
-
-            // Collapse button if over threshold
-            if (comment.replies.length > COLLAPSE_THRESHOLD) {
-                var collapseBtn = document.createElement('button');
-                collapseBtn.className = 'comment-collapse-btn';
-                collapseBtn.textContent = 'Hide replies';
-                collapseBtn.onclick = (function(cid) {
-                    return function() {
-                        delete expandedThreads[cid];
-                        loadComments();
-                    };
-                })(comment.id);
-                threadDiv.appendChild(collapseBtn);
-            }
+        replies.forEach(function(reply) {
+            threadDiv.appendChild(renderComment(reply, nextVisualDepth));
+        });
+        if (comment.hasMoreReplies) {
+            threadDiv.appendChild(moreRepliesButton(comment.id, comment.repliesCursor,
+                comment.directReplyCount - replies.length, nextVisualDepth));
         }
 
         wrapper.appendChild(threadDiv);
@@ -150,6 +134,34 @@ function renderComment(comment, visualDepth) {
     return wrapper;
 }
 
+function moreRepliesButton(commentId, cursor, remaining, visualDepth) {
+    var btn = document.createElement('button');
+    btn.className = 'comment-collapse-btn';
+    btn.textContent = 'View ' + remaining + ' more ' + (remaining === 1 ? 'reply' : 'replies');
+    btn.onclick = function() {
+        btn.disabled = true;
+        fetch('/api/comments/' + commentId + '/replies' + (cursor ? '?cursor=' + encodeURIComponent(cursor) : ''))
+            .then(function(r) { return r.json(); })
+            .then(function(page) {
+                var threadDiv = btn.parentNode;
+                page.content.forEach(function(reply) {
+                    threadDiv.insertBefore(renderComment(reply, visualDepth), btn);
+                });
+                if (page.hasNext) {
+                    threadDiv.replaceChild(moreRepliesButton(commentId, page.nextCursor,
+                        remaining - page.content.length, visualDepth), btn);
+                } else {
+                    btn.remove();
+                }
+            })
+            .catch(function() {
+                btn.disabled = false;
+                showToast('Error loading replies', 'error');
+            });
+    };
+    return btn;
+}
+
 function scrollToComment(commentId) {
     var el = document.querySelector('[data-id="' + commentId + '"]');
     if (el) {
@@ -204,8 +216,6 @@ function submitReply(parentId, bmId) {
     })
     .then(function() {
         showToast('Reply posted');
-        // Keep thread expanded after posting
-        expandedThreads[parentId] = true;
         loadComments();
     })
     .catch(function(err) {
@@ -273,8 +283,14 @@ function voteComment(commentId, voteType) {
         if (!r.ok) return r.json().then(function(e) { throw e; });
         return r.json();
     })
-    .then(function() {
-        loadComments();
+    .then(function(result) {
+        // Update in place so comments loaded with "load more" stay on screen
+        var buttons = document.querySelectorAll('.comment-item[data-id="' + commentId + '"] > .comment-actions .vote-btn');
+        if (buttons.length < 2) return;
+        buttons[0].innerHTML = '&#9650; ' + result.likeCount;
+        buttons[0].classList.toggle('vote-active', result.userVote === 'LIKE');
+        buttons[1].innerHTML = '&#9660; ' + result.dislikeCount;
+        buttons[1].classList.toggle('vote-active', result.userVote === 'DISLIKE');
     })
     .catch(function(err) {
         showToast(err.message || 'Error voting', 'error');
@@ -197,6 +197,8 @@ var discoveryMap = null;
 var discoveryMarkers = [];
 var discoveryPosts = [];
 var currentMode = 'USER';
+var viewportTimer = null;
+var viewportRequest = 0;
 
 function initDiscoveryMap() {
     var mapEl = document.getElementById('discoveryMap');
@@ -212,67 +214,110 @@ function initDiscoveryMap() {
         maxZoom: 19
     }).addTo(discoveryMap);
 
+    // Only the visible area is loaded; refetch after the user stops panning/zooming
+    discoveryMap.on('moveend', function() {
+        clearTimeout(viewportTimer);
+        viewportTimer = setTimeout(loadMapData, 200);
+    });
+
     loadMapData();
     initMapSearch();
 }
 
 function loadMapData() {
-    var url = '/api/bookmarks/map-data';
+    if (!discoveryMap) return;
+    var bounds = discoveryMap.getBounds();
+    var url = '/api/bookmarks/map-viewport?south=' + bounds.getSouth() + '&west=' + bounds.getWest() +
+        '&north=' + bounds.getNorth() + '&east=' + bounds.getEast() + '&zoom=' + discoveryMap.getZoom();
     if (currentMode === 'ADMIN' && typeof IS_ADMIN !== 'undefined' && IS_ADMIN) {
-        url += '?admin=true';
+        url += '&admin=true';
     }
 
+    // Ignore responses that arrive after a newer request was sent
+    var requestId = ++viewportRequest;
     fetch(url)
         .then(function(r) { return r.json(); })
-        .then(function(posts) {
-            discoveryPosts = posts;
-            renderMarkers();
+        .then(function(viewport) {
+            if (requestId !== viewportRequest) return;
+            discoveryPosts = viewport.pins || [];
+            renderMarkers(viewport.clusters || []);
         })
         .catch(function() {
             console.error('Failed to load map data');
         });
 }
 
-function renderMarkers() {
+function createClusterIcon(count) {
+    var size = count < 10 ? 34 : count < 100 ? 40 : count < 1000 ? 46 : 52;
+    return L.divIcon({
+        className: 'emoji-marker cluster-marker',
+        html: count >= 1000 ? Math.round(count / 100) / 10 + 'k' : String(count),
+        iconSize: [size, size],
+        iconAnchor: [size / 2, size / 2]
+    });
+}
+
+function renderMarkers(clusters) {
     // Clear existing markers
     discoveryMarkers.forEach(function(m) {
         discoveryMap.removeLayer(m);
     });
     discoveryMarkers = [];
 
-    discoveryPosts.forEach(function(post) {
-        if (!post.latitude || !post.longitude) return;
+    clusters.forEach(function(cluster) {
+        var marker = L.marker([cluster.latitude, cluster.longitude], { icon: createClusterIcon(cluster.count) });
+        marker.on('click', function() {
+            discoveryMap.setView([cluster.latitude, cluster.longitude], Math.min(discoveryMap.getZoom() + 2, 19));
+        });
+        marker.addTo(discoveryMap);
+        discoveryMarkers.push(marker);
+    });
 
-        //var icon = post.mapEmoji ? createEmojiIcon(post.mapEmoji) : createEmojiIcon('📍');
+    discoveryPosts.forEach(function(post) {
         var isPrivateAlert = (currentMode === 'ADMIN' && post.privatePost === true);
         var icon = createEmojiIcon(post.mapEmoji || '📍', isPrivateAlert);
         var marker = L.marker([post.latitude, post.longitude], { icon: icon });
 
-        // Glass-card popup
-        var popupHtml = '<div class="glass-popup"><div class="glass-card">';
-        if (post.leadPhotoUrl) {
-            popupHtml += '<div class="glass-photo"><img src="' + escapeHtml(post.leadPhotoUrl) + '" alt=""/></div>';
-        }
-        popupHtml += '<div class="glass-card-body">';
-        popupHtml += '<div style="font-weight:600;font-size:0.9rem;margin-bottom:4px;">' + escapeHtml(post.title) + '</div>';
-        if (post.address) {
-            popupHtml += '<div style="font-size:0.78rem;color:#888;margin-bottom:2px;">📍 ' + escapeHtml(post.address) + '</div>';
-        }
-        if (post.ownerUsername) {
-            popupHtml += '<div style="font-size:0.72rem;color:#aaa;margin-bottom:6px;">by ' + escapeHtml(post.ownerUsername) + '</div>';
-        }
-        if (post.privatePost) {
-            popupHtml += '<div style="font-size:0.7rem;color:var(--accent);margin-bottom:4px;">🔒 Private</div>';
-        }
-        popupHtml += '<a href="/bookmark/' + post.id + '" class="open-btn">Open</a>';
-        popupHtml += '</div></div></div>';
-
-        marker.bindPopup(popupHtml, { className: 'glass-popup-wrapper', maxWidth: 240 });
+        // Pins are compact; the popup fetches the full post when opened
+        marker.bindPopup(buildPopupHtml(post), { className: 'glass-popup-wrapper', maxWidth: 240 });
+        marker.on('popupopen', function() {
+            if (marker.detailLoaded) return;
+            fetch('/api/bookmarks/' + post.id)
+                .then(function(r) { return r.ok ? r.json() : null; })
+                .then(function(detail) {
+                    if (!detail) return;
+                    marker.detailLoaded = true;
+                    marker.setPopupContent(buildPopupHtml(detail));
+                })
+                .catch(function() {});
+        });
         marker.addTo(discoveryMap);
         discoveryMarkers.push(marker);
     });
 }
 
+function buildPopupHtml(post) {
+    // Glass-card popup
+    var popupHtml = '<div class="glass-popup"><div class="glass-card">';
+    if (post.leadPhotoUrl) {
+        popupHtml += '<div class="glass-photo"><img src="' + escapeHtml(post.leadPhotoUrl) + '" alt=""/></div>';
+    }
+    popupHtml += '<div class="glass-card-body">';
+    popupHtml += '<div style="font-weight:600;font-size:0.9rem;margin-bottom:4px;">' + escapeHtml(post.title) + '</div>';
+    if (post.address) {
+        popupHtml += '<div style="font-size:0.78rem;color:#888;margin-bottom:2px;">📍 ' + escapeHtml(post.address) + '</div>';
+    }
+    if (post.ownerUsername) {
+        popupHtml += '<div style="font-size:0.72rem;color:#aaa;margin-bottom:6px;">by ' + escapeHtml(post.ownerUsername) + '</div>';
+    }
+    if (post.privatePost) {
+        popupHtml += '<div style="font-size:0.7rem;color:var(--accent);margin-bottom:4px;">🔒 Private</div>';
+    }
+    popupHtml += '<a href="/bookmark/' + post.id + '" class="open-btn">Open</a>';
+    popupHtml += '</div></div></div>';
+    return popupHtml;
+}
+
 // ===== Map Search =====
 var mapSearchTimer = null;
 
@@ -311,7 +356,7 @@ function handleMapSearch(query) {
     var resultsDiv = document.getElementById('mapSearchResults');
     var lowerQuery = query.toLowerCase();
 
-    // Internal filter
+    // Internal filter (over the pins currently loaded for the viewport)
     var internalResults = discoveryPosts.filter(function(p) {
         var titleMatch = p.title && p.title.toLowerCase().indexOf(lowerQuery) !== -1;
         var addressMatch = p.address && p.address.toLowerCase().indexOf(lowerQuery) !== -1;
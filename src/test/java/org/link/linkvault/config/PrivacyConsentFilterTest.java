@@ -0,0 +1,93 @@
+package org.link.linkvault.config;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.link.linkvault.entity.Role;
+import org.link.linkvault.entity.User;
+import org.link.linkvault.repository.UserRepository;
+import org.link.linkvault.service.PrivacyPolicyService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: the in-memory policy version only moves after commit
+@SpringBootTest
+class PrivacyConsentFilterTest {
+
+    @Autowired
+    private PrivacyConsentFilter privacyConsentFilter;
+
+    @Autowired
+    private PrivacyPolicyService privacyPolicyService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private MockHttpServletResponse pageView(MockHttpSession session) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bookmarks");
+        request.setSession(session);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        privacyConsentFilter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    void consentedUser_passesWithoutQueries_andIsRedirectedAfterPolicyBump() throws Exception {
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        User user = User.builder()
+                .username("consentfilter")
+                .email("consentfilter@test.com")
+                .password("encoded")
+                .role(Role.MEMBER)
+                .enabled(true)
+                .build();
+        user.agreeToPrivacyPolicy(privacyPolicyService.getActiveVersion());
+        userRepository.save(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user.getUsername(), null, List.of()));
+        MockHttpSession session = new MockHttpSession();
+
+        // First page view of the session reads the user's agreed version once
+        assertNull(pageView(session).getRedirectedUrl());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        for (int i = 0; i < 100; i++) {
+            assertNull(pageView(session).getRedirectedUrl());
+        }
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getTransactionCount());
+        assertEquals(0, statistics.getConnectCount());
+
+        int bumped = privacyPolicyService.update("Updated policy", admin, "system").getVersion();
+        assertEquals(bumped, privacyPolicyService.getActiveVersion());
+        assertEquals("/privacy-consent", pageView(session).getRedirectedUrl());
+
+        // Consent recorded for the session lets the user through again
+        MockHttpServletRequest consent = new MockHttpServletRequest();
+        consent.setSession(session);
+        PrivacyConsentFilter.rememberAgreedVersion(consent, bumped);
+        assertNull(pageView(session).getRedirectedUrl());
+    }
+}
@@ -0,0 +1,235 @@
+package org.link.linkvault.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.link.linkvault.dto.BookmarkRequestDto;
+import org.link.linkvault.dto.BookmarkResponseDto;
+import org.link.linkvault.entity.Bookmark;
+import org.link.linkvault.entity.Role;
+import org.link.linkvault.entity.User;
+import org.link.linkvault.repository.BookmarkRepository;
+import org.link.linkvault.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: the buffer writes through its own JDBC batch
+@SpringBootTest
+class AccessCounterBufferTest {
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    @Autowired
+    private BookmarkRepository bookmarkRepository;
+
+    @Autowired
+    private AccessCounterBuffer accessCounterBuffer;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User createUser(String username) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@test.com")
+                .password("encoded")
+                .role(Role.MEMBER)
+                .enabled(true)
+                .build());
+    }
+
+    private BookmarkResponseDto createPost(User owner, String title) {
+        BookmarkRequestDto dto = new BookmarkRequestDto();
+        dto.setTitle(title);
+        return bookmarkService.create(owner, dto);
+    }
+
+    @Test
+    void concurrentViews_areMergedBeforeFlushAndPersistedAfter() throws Exception {
+        User owner = createUser("accessowner");
+        BookmarkResponseDto hot = createPost(owner, "Hot post");
+        BookmarkResponseDto cold = createPost(owner, "Cold post");
+        bookmarkService.recordAccess(cold.getId(), owner);
+        accessCounterBuffer.flush();
+
+        int threads = 8;
+        int viewsPerThread = 250;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < viewsPerThread; i++) {
+                        bookmarkService.recordAccess(hot.getId(), owner);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) future.get();
+        } finally {
+            pool.shutdown();
+        }
+        int total = threads * viewsPerThread;
+
+        // Rankings see the buffered views even if the row was not written yet
+        List<BookmarkResponseDto> frequent = bookmarkService.findFrequentlyAccessed(owner, 1);
+        assertEquals(hot.getId(), frequent.get(0).getId());
+        assertEquals(total, frequent.get(0).getAccessCount());
+        assertEquals(hot.getId(), bookmarkService.findRecentlyAccessed(1).get(0).getId());
+
+        accessCounterBuffer.flush();
+        assertEquals(0, accessCounterBuffer.pendingHits(hot.getId()));
+        assertEquals(total, bookmarkRepository.findById(hot.getId()).orElseThrow().getAccessCount());
+        assertNotNull(bookmarkRepository.findById(hot.getId()).orElseThrow().getLastAccessedAt());
+        assertEquals(1, bookmarkRepository.findById(cold.getId()).orElseThrow().getAccessCount());
+
+        // Idle counters are evicted after a couple of flushes without losing later views
+        accessCounterBuffer.flush();
+        accessCounterBuffer.flush();
+        bookmarkService.recordAccess(hot.getId(), owner);
+        accessCounterBuffer.flush();
+        assertEquals(total + 1, bookmarkRepository.findById(hot.getId()).orElseThrow().getAccessCount());
+    }
+
+    @Test
+    void failedChunk_rollsBackTheWholeFlush_soRetriedDeltasCountOnce() {
+        User owner = createUser("accesschunks");
+        // One more than a batch, so the flush writes two chunks
+        List<Bookmark> bookmarks = new ArrayList<>();
+        for (int i = 0; i < 501; i++) {
+            bookmarks.add(Bookmark.builder().title("Chunk " + i).user(owner).build());
+        }
+        bookmarkRepository.saveAll(bookmarks).forEach(b -> accessCounterBuffer.record(b.getId()));
+
+        JdbcTemplate jdbcTemplate = (JdbcTemplate) ReflectionTestUtils.getField(accessCounterBuffer, "jdbcTemplate");
+        AtomicInteger chunks = new AtomicInteger();
+        ReflectionTestUtils.setField(accessCounterBuffer, "jdbcTemplate", new JdbcTemplate(jdbcTemplate.getDataSource()) {
+            @Override
+            public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+                if (chunks.incrementAndGet() == 2) throw new DataAccessResourceFailureException("second chunk failed");
+                return super.batchUpdate(sql, batchArgs);
+            }
+        });
+        try {
+            assertEquals(0, accessCounterBuffer.flush());
+        } finally {
+            ReflectionTestUtils.setField(accessCounterBuffer, "jdbcTemplate", jdbcTemplate);
+        }
+        assertEquals(2, chunks.get());
+        assertEquals(501, accessCounterBuffer.flush());
+
+        Integer countedOnce = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM bookmarks WHERE user_id = ? AND access_count = 1", Integer.class, owner.getId());
+        assertEquals(501, countedOnce);
+    }
+
+    // Run with -Dlinkvault.benchmark=true (optionally -Dlinkvault.benchmark.threads=32)
+    @Test
+    @EnabledIfSystemProperty(named = "linkvault.benchmark", matches = "true")
+    void benchmark_rowWritePerViewVersusBuffer() throws Exception {
+        User owner = createUser("accessbench");
+        int threads = Integer.getInteger("linkvault.benchmark.threads", 16);
+        int viewsPerThread = 500;
+
+        // Both paths load the row the same way so only the counting differs
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+
+        Long warmup = createPost(owner, "Warm-up").getId();
+        run(threads, 50, () -> transactionTemplate.executeWithoutResult(status ->
+                bookmarkRepository.findById(warmup).orElseThrow().recordAccess()));
+        run(threads, 50, () -> readOnly.executeWithoutResult(status ->
+                accessCounterBuffer.record(bookmarkRepository.findById(warmup).orElseThrow().getId())));
+
+        Long before = createPost(owner, "Row write per view").getId();
+        // Old path: one write transaction per view, all contending for the same row
+        Result rowWrites = run(threads, viewsPerThread, () -> transactionTemplate.executeWithoutResult(status ->
+                bookmarkRepository.findById(before).orElseThrow().recordAccess()));
+        rowWrites.persisted = bookmarkRepository.findById(before).orElseThrow().getAccessCount();
+
+        Long after = createPost(owner, "Buffered views").getId();
+        Result buffered = run(threads, viewsPerThread, () -> readOnly.executeWithoutResult(status ->
+                accessCounterBuffer.record(bookmarkRepository.findById(after).orElseThrow().getId())));
+        long flushStart = System.nanoTime();
+        accessCounterBuffer.flush();
+        buffered.flushMs = (System.nanoTime() - flushStart) / 1_000_000.0;
+        buffered.persisted = bookmarkRepository.findById(after).orElseThrow().getAccessCount();
+
+        System.out.printf("%n[access benchmark] %d threads x %d views on one bookmark%n", threads, viewsPerThread);
+        rowWrites.print("row write");
+        buffered.print("buffered");
+        System.out.printf("[access benchmark]   buffered flush %.2f ms%n", buffered.flushMs);
+
+        assertEquals(threads * viewsPerThread, buffered.persisted);
+    }
+
+    private Result run(int threads, int viewsPerThread, Runnable view) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        long[][] latencies = new long[threads][viewsPerThread];
+        AtomicInteger failures = new AtomicInteger();
+        for (int t = 0; t < threads; t++) {
+            int slot = t;
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < viewsPerThread; i++) {
+                    long begin = System.nanoTime();
+                    try {
+                        view.run();
+                    } catch (RuntimeException e) {
+                        failures.incrementAndGet(); // lock timeouts
+                    }
+                    latencies[slot][i] = System.nanoTime() - begin;
+                }
+                return null;
+            });
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.MINUTES));
+
+        Result result = new Result();
+        result.views = threads * viewsPerThread;
+        result.elapsedMs = (System.nanoTime() - begin) / 1_000_000.0;
+        result.failures = failures.get();
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        result.p50Ms = all[all.length / 2] / 1_000_000.0;
+        result.p99Ms = all[(int) (all.length * 0.99)] / 1_000_000.0;
+        return result;
+    }
+
+    private static final class Result {
+        private int views;
+        private double elapsedMs;
+        private int failures;
+        private double p50Ms;
+        private double p99Ms;
+        private double flushMs;
+        private int persisted;
+
+        private void print(String label) {
+            System.out.printf("[access benchmark]   %-10s %9.0f views/s   p50 %7.3f ms   p99 %7.3f ms   " +
+                            "lock failures %d   lost updates %d%n",
+                    label, views / (elapsedMs / 1000.0), p50Ms, p99Ms, failures, views - failures - persisted);
+        }
+    }
+}
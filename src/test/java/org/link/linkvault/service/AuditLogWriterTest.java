@@ -0,0 +1,186 @@
+package org.link.linkvault.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.link.linkvault.dto.AuditWriterStatsDto;
+import org.link.linkvault.entity.Role;
+import org.link.linkvault.entity.User;
+import org.link.linkvault.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class AuditLogWriterTest {
+
+    @Autowired
+    private AuditLogService auditLogService;
+
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
+    @Autowired
+    private SystemSettingsService systemSettingsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User createUser(String username) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@test.com")
+                .password("encoded")
+                .role(Role.MEMBER)
+                .enabled(true)
+                .build());
+    }
+
+    @Test
+    void asyncEntry_isMaskedLinkedAndWrittenByTheBackgroundWriter() throws Exception {
+        User actor = createUser("auditasync");
+        systemSettingsService.createOrUpdate("audit.masking.level", "STRICT", null, "AUDIT_POLICY");
+        try {
+            auditLogService.log("auditasync", AuditActionCodes.TAG_MERGE, "Tag", 41L,
+                    "email=someone@example.com url=https://example.com/private");
+            auditLogService.log("auditnobody", AuditActionCodes.TAG_MERGE, "Tag", 42L, null);
+
+            Map<String, Object> row = awaitRow(AuditActionCodes.TAG_MERGE, 41L);
+            assertEquals(actor.getId(), ((Number) row.get("USER_ID")).longValue());
+            assertEquals("auditasync", row.get("ACTOR_USERNAME"));
+            String details = (String) row.get("DETAILS");
+            assertFalse(details.contains("someone@example.com"), details);
+            assertFalse(details.contains("example.com/private"), details);
+
+            // Unknown actors are recorded without a user link
+            Map<String, Object> orphan = awaitRow(AuditActionCodes.TAG_MERGE, 42L);
+            assertNull(orphan.get("USER_ID"));
+            assertNull(orphan.get("ACTOR_USERNAME"));
+        } finally {
+            systemSettingsService.createOrUpdate("audit.masking.level", "BASIC", null, "AUDIT_POLICY");
+        }
+    }
+
+    @Test
+    void sensitiveAction_isDurableBeforeReturnEvenIfCallerRollsBack() {
+        createUser("auditsync");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            auditLogService.log("auditsync", AuditActionCodes.DONATION_REFUND, "Donation", 77L, "amount=5");
+            status.setRollbackOnly();
+        });
+        Integer rows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM audit_logs WHERE action = ? AND entity_id = 77", Integer.class,
+                AuditActionCodes.DONATION_REFUND);
+        assertEquals(1, rows);
+    }
+
+    @Test
+    void warmCaches_logIssuesNoQueriesOnTheCaller() {
+        createUser("auditwarm");
+        auditLogService.log("auditwarm", AuditActionCodes.MENU_UPDATE, "Menu", 1L, "name=warm");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        for (int i = 0; i < 20; i++) {
+            auditLogService.log("auditwarm", AuditActionCodes.MENU_UPDATE, "Menu", 1L, "name=warm");
+        }
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void fullQueue_dropsAreCountedAndEverythingAcceptedIsWritten() throws Exception {
+        AuditLogWriter writer = new AuditLogWriter(jdbcTemplate, transactionManager);
+        ReflectionTestUtils.setField(writer, "queueCapacity", 8);
+        ReflectionTestUtils.setField(writer, "batchSize", 4);
+        ReflectionTestUtils.setField(writer, "flushIntervalMs", 50L);
+        writer.start();
+
+        int producers = 4;
+        int perProducer = 500;
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    writer.enqueue(new AuditLogWriter.Entry(null, null, "AUDIT_DROP_TEST", "Test", (long) i, null));
+                }
+            }));
+        }
+        for (Future<?> future : futures) future.get();
+        pool.shutdown();
+        writer.stop();
+
+        AuditWriterStatsDto stats = writer.getStats(AuditLogWriter.WriteMode.ASYNC);
+        assertEquals(producers * perProducer, stats.getEnqueued() + stats.getDropped());
+        assertTrue(stats.getDropped() > 0, "a queue of 8 cannot absorb 2,000 entries at once");
+        assertEquals(stats.getEnqueued(), stats.getWritten());
+        assertEquals(0, stats.getFailed());
+        assertEquals(0, stats.getQueueDepth());
+        assertTrue(stats.getMaxBatchSize() <= 4);
+        Long rows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM audit_logs WHERE action = 'AUDIT_DROP_TEST'", Long.class);
+        assertEquals(stats.getWritten(), rows);
+    }
+
+    // Run with -Dlinkvault.benchmark=true
+    @Test
+    @EnabledIfSystemProperty(named = "linkvault.benchmark", matches = "true")
+    void benchmark_callerLatencySyncVersusAsync() {
+        createUser("auditbench");
+        int rounds = 5000;
+        for (AuditLogWriter.WriteMode mode : AuditLogWriter.WriteMode.values()) {
+            ReflectionTestUtils.setField(auditLogService, "writeMode", mode);
+            for (int i = 0; i < 500; i++) {
+                auditLogService.log("auditbench", AuditActionCodes.BOOKMARK_UPDATE, "Bookmark", (long) i, "title=warm");
+            }
+            long started = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                auditLogService.log("auditbench", AuditActionCodes.BOOKMARK_UPDATE, "Bookmark", (long) i, "title=bench");
+            }
+            double micros = (System.nanoTime() - started) / 1_000.0 / rounds;
+            auditLogWriter.flush();
+            System.out.printf("[audit benchmark] %s: %.1f us per log() call%n", mode, micros);
+        }
+        ReflectionTestUtils.setField(auditLogService, "writeMode", AuditLogWriter.WriteMode.ASYNC);
+        System.out.printf("[audit benchmark] writer stats: avg batch %.1f, max batch %d%n",
+                auditLogWriter.getStats(AuditLogWriter.WriteMode.ASYNC).getAvgBatchSize(),
+                auditLogWriter.getStats(AuditLogWriter.WriteMode.ASYNC).getMaxBatchSize());
+    }
+
+    // The background writer may already hold the entry in a batch, so wait for its commit
+    private Map<String, Object> awaitRow(String action, Long entityId) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            auditLogWriter.flush();
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                    "SELECT user_id, actor_username, details FROM audit_logs WHERE action = ? AND entity_id = ?",
+                    action, entityId);
+            if (!rows.isEmpty()) return rows.get(0);
+            Thread.sleep(50);
+        }
+        return fail("audit entry " + action + "/" + entityId + " was never written");
+    }
+}
@@ -0,0 +1,131 @@
+package org.link.linkvault.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.link.linkvault.dto.AuditLogResponseDto;
+import org.link.linkvault.dto.AuditRetentionResultDto;
+import org.link.linkvault.entity.Role;
+import org.link.linkvault.entity.User;
+import org.link.linkvault.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class AuditRetentionTest {
+
+    @Autowired
+    private AuditRetentionService auditRetentionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path archiveDir;
+
+    private Object originalPath;
+
+    @BeforeEach
+    void useTempArchive() {
+        originalPath = ReflectionTestUtils.getField(auditRetentionService, "archivePath");
+        ReflectionTestUtils.setField(auditRetentionService, "archivePath", archiveDir.toString());
+        ReflectionTestUtils.setField(auditRetentionService, "chunkSize", 1000);
+        ReflectionTestUtils.setField(auditRetentionService, "chunkPauseMs", 0L);
+    }
+
+    @AfterEach
+    void restoreArchive() {
+        ReflectionTestUtils.setField(auditRetentionService, "archivePath", originalPath);
+    }
+
+    @Test
+    void softMode_archivesInChunksThenServesSearchFromTheArchive() {
+        User actor = userRepository.save(User.builder()
+                .username("retentionactor")
+                .email("retentionactor@test.com")
+                .password("encoded")
+                .role(Role.MEMBER)
+                .enabled(true)
+                .build());
+        // 2,500 expired rows spread over three months in the distant past, plus recent rows that must survive
+        LocalDateTime base = LocalDateTime.of(2001, 1, 15, 12, 0);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            rows.add(new Object[]{actor.getId(), "RETENTION_TEST", "Bookmark", (long) i, "n=" + i, "retentionactor",
+                    Timestamp.valueOf(base.plusMonths(i / 1000).plusMinutes(i))});
+        }
+        for (int i = 0; i < 5; i++) {
+            rows.add(new Object[]{actor.getId(), "RETENTION_TEST", "Bookmark", 9000L + i, null, "retentionactor",
+                    Timestamp.valueOf(LocalDateTime.now())});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO audit_logs (user_id, action, entity_type, entity_id, details, " +
+                "actor_username, timestamp) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+
+        AuditRetentionResultDto result = auditRetentionService.purgeBefore(LocalDateTime.of(2002, 1, 1, 0, 0), true);
+        assertEquals(2500, result.getRowsDeleted());
+        assertEquals(2500, result.getRowsArchived());
+        assertEquals(3, result.getChunks());
+        assertEquals(List.of("audit-2001-01.jsonl.gz", "audit-2001-02.jsonl.gz", "audit-2001-03.jsonl.gz"),
+                result.getArchiveFiles());
+        assertEquals(5, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM audit_logs WHERE action = 'RETENTION_TEST'", Integer.class));
+
+        // Newest first across months, bounded by the limit
+        List<AuditLogResponseDto> latest = auditRetentionService.searchArchive(
+                null, null, "RETENTION_TEST", "retentionactor", null, null, 3);
+        assertEquals(List.of(2499L, 2498L, 2497L), entityIds(latest));
+        assertEquals("retentionactor", latest.get(0).getActorLabel());
+        assertEquals("n=2499", latest.get(0).getDetails());
+
+        List<AuditLogResponseDto> january = auditRetentionService.searchArchive(
+                LocalDate.of(2001, 1, 1), LocalDate.of(2001, 1, 31), "RETENTION_TEST", null, null, null, 500);
+        assertEquals(500, january.size());
+        assertEquals(999L, january.get(0).getEntityId());
+
+        List<AuditLogResponseDto> single = auditRetentionService.searchArchive(
+                null, null, null, null, "Bookmark", 1500L, 10);
+        assertEquals(List.of(1500L), entityIds(single));
+
+        assertThrows(IllegalArgumentException.class, () -> auditRetentionService.searchArchive(
+                LocalDate.of(2001, 2, 1), LocalDate.of(2001, 1, 1), null, null, null, null, 10));
+    }
+
+    @Test
+    void hardMode_deletesWithoutWritingAnArchive() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            rows.add(new Object[]{"RETENTION_HARD", (long) i, Timestamp.valueOf(LocalDateTime.of(1999, 6, 1, 0, 0).plusMinutes(i))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO audit_logs (action, entity_id, timestamp) VALUES (?, ?, ?)", rows);
+
+        AuditRetentionResultDto result = auditRetentionService.purgeBefore(LocalDateTime.of(2000, 1, 1, 0, 0), false);
+        assertEquals(1200, result.getRowsDeleted());
+        assertEquals(0, result.getRowsArchived());
+        assertEquals(2, result.getChunks());
+        assertTrue(result.getArchiveFiles().isEmpty());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM audit_logs WHERE action = 'RETENTION_HARD'", Integer.class));
+        assertTrue(auditRetentionService.searchArchive(null, null, "RETENTION_HARD", null, null, null, 10).isEmpty());
+    }
+
+    private static List<Long> entityIds(List<AuditLogResponseDto> entries) {
+        List<Long> ids = new ArrayList<>();
+        entries.forEach(e -> ids.add(e.getEntityId()));
+        return ids;
+    }
+}
@@ -0,0 +1,137 @@
+package org.link.linkvault.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.link.linkvault.entity.Permission;
+import org.link.linkvault.entity.Role;
+import org.link.linkvault.entity.User;
+import org.link.linkvault.repository.PermissionRepository;
+import org.link.linkvault.repository.RolePermissionRepository;
+import org.link.linkvault.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: permission changes only reach the role table after commit
+@SpringBootTest
+class AuthenticationLookupTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CurrentUserResolver currentUserResolver;
+
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Autowired
+    private PermissionService permissionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private RolePermissionRepository rolePermissionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void clearContext() {
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        return statistics;
+    }
+
+    private static Set<String> names(UserDetails details) {
+        return details.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.toSet());
+    }
+
+    @Test
+    void currentUser_isLoadedOncePerRequest() {
+        User user = userRepository.save(User.builder()
+                .username("lookuponce")
+                .email("lookuponce@test.com")
+                .password("encoded")
+                .role(Role.MEMBER)
+                .enabled(true)
+                .build());
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user.getUsername(), null, List.of()));
+
+        Statistics statistics = statistics();
+        User first = currentUserResolver.getCurrentUser();
+        for (int i = 0; i < 10; i++) {
+            assertSame(first, userService.getUserEntity(user.getUsername()));
+        }
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        // Another user's lookup is not served from the current user's slot
+        assertNotEquals(user.getId(), userService.getUserEntity("admin").getId());
+
+        // A new request loads again
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        statistics.clear();
+        assertEquals(user.getId(), currentUserResolver.getCurrentUser().getId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void roleAuthorities_areCached_andRefreshedAfterToggle() {
+        userRepository.save(User.builder()
+                .username("lookupmoderator")
+                .email("lookupmoderator@test.com")
+                .password("encoded")
+                .role(Role.MODERATOR)
+                .enabled(true)
+                .build());
+        Set<String> granted = Set.copyOf(rolePermissionRepository.findPermissionNamesByRole(Role.MODERATOR));
+        Permission permission = permissionRepository.findAll().stream()
+                .filter(p -> !granted.contains(p.getName()))
+                .findFirst().orElseThrow();
+
+        customUserDetailsService.loadUserByUsername("lookupmoderator");
+        Statistics statistics = statistics();
+        UserDetails details = customUserDetailsService.loadUserByUsername("lookupmoderator");
+        // Only the user row; the role's authorities come from memory
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertTrue(names(details).contains("ROLE_MODERATOR"));
+        assertFalse(names(details).contains(permission.getName()));
+
+        permissionService.togglePermission(Role.MODERATOR, permission.getId(), true, "system");
+        try {
+            assertTrue(names(customUserDetailsService.loadUserByUsername("lookupmoderator"))
+                    .contains(permission.getName()));
+        } finally {
+            permissionService.togglePermission(Role.MODERATOR, permission.getId(), false, "system");
+        }
+        assertFalse(names(customUserDetailsService.loadUserByUsername("lookupmoderator"))
+                .contains(permission.getName()));
+    }
+}
@@ -0,0 +1,205 @@
+package org.link.linkvault.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.link.linkvault.dto.BookmarkRequestDto;
+import org.link.linkvault.dto.BookmarkResponseDto;
+import org.link.linkvault.dto.CursorPageDto;
+import org.link.linkvault.entity.Bookmark;
+import org.link.linkvault.entity.Role;
+import org.link.linkvault.entity.User;
+import org.link.linkvault.repository.BookmarkRepository;
+import org.link.linkvault.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+class BookmarkFeedTest {
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    @Autowired
+    private BookmarkRepository bookmarkRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SystemSettingsService systemSettingsService;
+
+    @Autowired
+    private PrivacyPolicyService privacyPolicyService;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    private User createUser(String username) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@test.com")
+                .password("encoded")
+                .role(Role.MEMBER)
+                .enabled(true)
+                .build());
+    }
+
+    private List<Long> walk(FeedCursor.Sort sort, int size) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageDto<BookmarkResponseDto> page = bookmarkService.findFeed(sort, cursor, size);
+            page.getContent().forEach(b -> ids.add(b.getId()));
+            assertEquals(page.isHasNext(), page.getNextCursor() != null);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    @Test
+    void feedMore_carriesTheUserAndAdsLikeTheFirstPage() throws Exception {
+        // Signed-in page views pass the consent filter only with the current policy agreed
+        User owner = User.builder()
+                .username("feedscroller")
+                .email("feedscroller@test.com")
+                .password("encoded")
+                .role(Role.MEMBER)
+                .enabled(true)
+                .build();
+        owner.agreeToPrivacyPolicy(privacyPolicyService.getActiveVersion());
+        owner = userRepository.save(owner);
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            BookmarkRequestDto dto = new BookmarkRequestDto();
+            dto.setTitle("Scroll post " + i);
+            created.add(bookmarkService.create(owner, dto).getId());
+        }
+        // Pushed to the top of the feed so other tests' posts cannot interleave
+        Timestamp future = Timestamp.valueOf(LocalDateTime.now().plusDays(1).withNano(0));
+        for (Long id : created) {
+            jdbcTemplate.update("UPDATE bookmarks SET created_at = ? WHERE id = ?", future, id);
+        }
+        String cursor = bookmarkService.findFeed(FeedCursor.Sort.NEWEST, null, 1).getNextCursor();
+
+        String adsEnabled = systemSettingsService.getValue("feature.ads-enabled").orElse("false");
+        systemSettingsService.updateValue("feature.ads-enabled", "true", "system");
+        try {
+            // Built by hand: @AutoConfigureMockMvc would start a second context on the same in-memory database
+            MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).apply(springSecurity()).build();
+            String html = mockMvc.perform(get("/feed/more").param("cursor", cursor).param("size", "6")
+                            .with(user(owner.getUsername())))
+                    .andExpect(status().isOk())
+                    .andExpect(model().attribute("currentUser", owner.getUsername()))
+                    .andExpect(model().attribute("isGuest", false))
+                    .andReturn().getResponse().getContentAsString();
+            assertTrue(html.contains("Scroll post 0"));
+            assertTrue(html.contains("class=\"ad-card\""), "ads continue after the first page");
+        } finally {
+            systemSettingsService.updateValue("feature.ads-enabled", adsEnabled, "system");
+        }
+    }
+
+    @Test
+    void cursorWalk_matchesOffsetOrderIncludingTies() {
+        User owner = createUser("feedwalker");
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            BookmarkRequestDto dto = new BookmarkRequestDto();
+            dto.setTitle("Feed post " + i);
+            dto.setPrivatePost(i == 6);
+            created.add(bookmarkService.create(owner, dto).getId());
+        }
+        // Identical sort keys must still page deterministically by id
+        Timestamp sameInstant = Timestamp.valueOf(LocalDateTime.now().minusDays(1).withNano(0));
+        for (Long id : created) {
+            jdbcTemplate.update("UPDATE bookmarks SET created_at = ?, access_count = 3 WHERE id = ?", sameInstant, id);
+        }
+
+        List<Long> byCursor = walk(FeedCursor.Sort.NEWEST, 3);
+        List<Long> byOffset = bookmarkRepository.findAllPublic(PageRequest.of(0, 10_000,
+                        Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id"))))
+                .getContent().stream().map(Bookmark::getId).collect(Collectors.toList());
+        assertEquals(byOffset, byCursor);
+        assertFalse(byCursor.contains(created.get(6)), "private posts stay out of the public feed");
+
+        List<Long> popular = walk(FeedCursor.Sort.POPULAR, 4);
+        assertEquals(byCursor.size(), popular.size());
+        assertEquals(popular.size(), new HashSet<>(popular).size());
+
+        String newestCursor = bookmarkService.findFeed(FeedCursor.Sort.NEWEST, null, 1).getNextCursor();
+        assertThrows(IllegalArgumentException.class, () -> bookmarkService.findFeed(FeedCursor.Sort.POPULAR, newestCursor, 5));
+        assertThrows(IllegalArgumentException.class, () -> bookmarkService.findFeed(FeedCursor.Sort.NEWEST, "not-a-cursor", 5));
+        assertThrows(IllegalArgumentException.class, () -> bookmarkService.findFeed(FeedCursor.Sort.NEWEST, null, 0));
+    }
+
+    // Run with -Dlinkvault.benchmark=true
+    @Test
+    @EnabledIfSystemProperty(named = "linkvault.benchmark", matches = "true")
+    void benchmark_offsetVersusCursorAtDepth() {
+        User owner = createUser("feedbench");
+        int pageSize = 20;
+        int total = 10_000 * pageSize + pageSize;
+        LocalDateTime base = LocalDateTime.now().minusYears(1);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            rows.add(new Object[]{"Bench " + i, owner.getId(), Timestamp.valueOf(base.plusSeconds(i))});
+            if (rows.size() == 5000 || i == total - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO bookmarks (title, user_id, is_private, deleted, access_count, comment_count, created_at) " +
+                        "VALUES (?, ?, false, false, 0, 0, ?)", rows);
+                rows.clear();
+            }
+        }
+
+        Sort newest = Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id"));
+        // Query cost only: both sides then map the same rows to DTOs
+        System.out.printf("%n[feed benchmark] %d public posts, page size %d%n", bookmarkRepository.count(), pageSize);
+        for (int pageNumber : new int[]{0, 99, 9_999}) {
+            double offsetMs = time(() -> bookmarkRepository.findAllPublic(PageRequest.of(pageNumber, pageSize, newest)));
+
+            // Cursor for the page boundary, taken from the last row of the previous page
+            String cursor = null;
+            if (pageNumber > 0) {
+                Bookmark last = bookmarkRepository.findAllPublic(PageRequest.of(pageNumber * pageSize - 1, 1, newest))
+                        .getContent().get(0);
+                cursor = FeedCursor.after(FeedCursor.Sort.NEWEST, last).encode();
+            }
+            FeedCursor start = FeedCursor.decode(cursor, FeedCursor.Sort.NEWEST);
+            double cursorMs = time(() -> bookmarkRepository.findPublicFeedByCreatedAt(
+                    start.getCreatedAt(), start.getId(), PageRequest.of(0, pageSize + 1)));
+            System.out.printf("[feed benchmark] page %5d: offset+count %.2f ms, cursor %.2f ms%n",
+                    pageNumber + 1, offsetMs, cursorMs);
+        }
+    }
+
+    private double time(Supplier<?> query) {
+        for (int i = 0; i < 5; i++) query.get();
+        int rounds = 20;
+        long started = System.nanoTime();
+        for (int i = 0; i < rounds; i++) query.get();
+        return (System.nanoTime() - started) / 1_000_000.0 / rounds;
+    }
+}
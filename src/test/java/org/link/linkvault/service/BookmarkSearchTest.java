@@ -0,0 +1,234 @@
+package org.link.linkvault.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.link.linkvault.dto.BookmarkRequestDto;
+import org.link.linkvault.dto.BookmarkResponseDto;
+import org.link.linkvault.dto.FolderRequestDto;
+import org.link.linkvault.dto.FolderResponseDto;
+import org.link.linkvault.dto.SuggestionDto;
+import org.link.linkvault.entity.Role;
+import org.link.linkvault.entity.User;
+import org.link.linkvault.repository.BookmarkRepository;
+import org.link.linkvault.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: the index is only updated after commit
+@SpringBootTest
+class BookmarkSearchTest {
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    @Autowired
+    private BookmarkRepository bookmarkRepository;
+
+    @Autowired
+    private BookmarkSearchIndex bookmarkSearchIndex;
+
+    @Autowired
+    private TypeaheadIndex typeaheadIndex;
+
+    @Autowired
+    private FolderService folderService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User createUser(String username) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@test.com")
+                .password("encoded")
+                .role(Role.MEMBER)
+                .enabled(true)
+                .build());
+    }
+
+    private BookmarkResponseDto createPost(User owner, String title, String description, boolean privatePost, String... tags) {
+        BookmarkRequestDto dto = new BookmarkRequestDto();
+        dto.setTitle(title);
+        dto.setDescription(description);
+        dto.setPrivatePost(privatePost);
+        dto.setTagNames(Set.of(tags));
+        return bookmarkService.create(owner, dto);
+    }
+
+    private List<String> titles(Page<BookmarkResponseDto> page) {
+        return page.getContent().stream().map(BookmarkResponseDto::getTitle).collect(Collectors.toList());
+    }
+
+    @Test
+    void searchByKeywordPublic_ranksMatchesAndHonorsVisibility() {
+        User owner = createUser("searchowner");
+        BookmarkResponseDto titleHit = createPost(owner, "Zephyrine caching handbook", "Notes", false, "backend");
+        BookmarkResponseDto bodyHit = createPost(owner, "Weekend recipes", "zephyrine herbs and handbook tips", false);
+        BookmarkResponseDto privateHit = createPost(owner, "Zephyrine secrets", "", true);
+        BookmarkResponseDto deletedHit = createPost(owner, "Zephyrine archive", "", false);
+        bookmarkService.delete(owner, deletedHit.getId());
+
+        try {
+            Page<BookmarkResponseDto> single = bookmarkService.searchByKeywordPublic("zephyrine", PageRequest.of(0, 10));
+            assertEquals(List.of("Zephyrine caching handbook", "Weekend recipes"), titles(single));
+            assertEquals(2, single.getTotalElements());
+
+            Page<BookmarkResponseDto> multi = bookmarkService.searchByKeywordPublic("Zephyrine HANDBOOK", PageRequest.of(0, 10));
+            assertEquals(2, multi.getTotalElements());
+
+            Page<BookmarkResponseDto> prefix = bookmarkService.searchByKeywordPublic("zephyr cach", PageRequest.of(0, 10));
+            assertEquals(List.of("Zephyrine caching handbook"), titles(prefix));
+
+            Page<BookmarkResponseDto> byTag = bookmarkService.searchByKeyword(owner, "zephyrine backend", PageRequest.of(0, 10));
+            assertEquals(List.of("Zephyrine caching handbook"), titles(byTag));
+
+            bookmarkService.restore(owner, deletedHit.getId());
+            assertEquals(3, bookmarkService.searchByKeywordPublic("zephyrine", PageRequest.of(0, 10)).getTotalElements());
+        } finally {
+            for (BookmarkResponseDto post : List.of(titleHit, bodyHit, privateHit, deletedHit)) {
+                bookmarkRepository.findById(post.getId()).filter(b -> !b.isDeleted())
+                        .ifPresent(b -> bookmarkService.delete(owner, b.getId()));
+                bookmarkService.purge(owner, post.getId());
+            }
+        }
+        assertEquals(0, bookmarkService.searchByKeywordPublic("zephyrine", PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    void typeahead_scopesFoldersAndPrivateTitlesPerUser() {
+        User owner = createUser("typeaheadowner");
+        User other = createUser("typeaheadother");
+        BookmarkResponseDto popular = createPost(owner, "Quokka field notes", "", false, "quokkatag");
+        BookmarkResponseDto secret = createPost(owner, "Quokka diary", "", true, "quokkatag");
+        FolderResponseDto folder = folderService.create(owner, new FolderRequestDto("Quokka research", null));
+
+        try {
+            List<String> ownerTitles = labels(typeaheadIndex.suggestBookmarks(owner, "quok", 5));
+            assertTrue(ownerTitles.containsAll(List.of("Quokka field notes", "Quokka diary")));
+            assertEquals(List.of("Quokka field notes"), labels(typeaheadIndex.suggestBookmarks(other, "quok", 5)));
+            assertEquals(List.of("Quokka field notes"), labels(typeaheadIndex.suggestBookmarks(null, "field", 5)));
+
+            List<SuggestionDto> tags = typeaheadIndex.suggestTags("quokkat", 5);
+            assertEquals(1, tags.size());
+            assertEquals(2, tags.get(0).getWeight());
+
+            assertEquals(List.of("Quokka research"), labels(typeaheadIndex.suggestFolders(owner, "quokka r", 5)));
+            assertTrue(typeaheadIndex.suggestFolders(other, "quokka", 5).isEmpty());
+        } finally {
+            folderService.delete(owner, folder.getId());
+            for (BookmarkResponseDto post : List.of(popular, secret)) {
+                bookmarkService.delete(owner, post.getId());
+                bookmarkService.purge(owner, post.getId());
+            }
+        }
+        assertTrue(typeaheadIndex.suggestBookmarks(owner, "quok", 5).isEmpty());
+        assertTrue(typeaheadIndex.suggestFolders(owner, "quokka", 5).isEmpty());
+        assertEquals(0, typeaheadIndex.suggestTags("quokkat", 5).get(0).getWeight());
+    }
+
+    @Test
+    void typeahead_ranksPopularCompletionsThatSortLate() {
+        TypeaheadIndex.PrefixIndex index = new TypeaheadIndex.PrefixIndex();
+        for (long id = 1; id <= 600; id++) {
+            index.put(id, String.format("alpha %03d", id), 1L);
+        }
+        index.put(1000L, "alpha zulu", 50L);
+        index.put(1001L, "alps", 40L);
+
+        assertEquals(List.of("alpha zulu", "alps"), labels(index.suggest("al", 2)));
+        assertEquals(List.of("alpha zulu"), labels(index.suggest("alpha", 1)));
+        assertEquals(List.of("alpha zulu"), labels(index.suggest("zu", 1)));
+
+        index.adjust(1001L, "alps", 20L);
+        assertEquals(List.of("alps", "alpha zulu"), labels(index.suggest("alp", 2)));
+        index.remove(1001L);
+        assertEquals(List.of("alpha zulu"), labels(index.suggest("alp", 1)));
+    }
+
+    private List<String> labels(List<SuggestionDto> suggestions) {
+        return suggestions.stream().map(SuggestionDto::getLabel).collect(Collectors.toList());
+    }
+
+    // Run with -Dlinkvault.benchmark=true (optionally -Dlinkvault.benchmark.sizes=10000,100000)
+    private static final String LIKE_FILTER = "WHERE deleted = false AND is_private = false AND (" +
+            "LOWER(title) LIKE LOWER(CONCAT('%', ?, '%')) OR LOWER(description) LIKE LOWER(CONCAT('%', ?, '%')))";
+    private static final String LIKE_PAGE = "SELECT id FROM bookmarks " + LIKE_FILTER + " ORDER BY created_at DESC LIMIT 20";
+    private static final String LIKE_COUNT = "SELECT COUNT(*) FROM bookmarks " + LIKE_FILTER;
+
+    @Test
+    @EnabledIfSystemProperty(named = "linkvault.benchmark", matches = "true")
+    void benchmark_indexVersusLikeScan() {
+        User owner = createUser("searchbench");
+        String[] vocabulary = {"spring", "java", "kotlin", "travel", "coffee", "seoul", "busan", "photo",
+                "design", "music", "guide", "review", "cloud", "database", "index", "garden", "market",
+                "museum", "hiking", "recipe", "startup", "finance", "camera", "cinema", "library"};
+        String[] keywords = {"spring", "museum hiking", "databa", "zzz-nohit"};
+        Random random = new Random(42);
+        int inserted = 0;
+
+        try {
+            for (String size : System.getProperty("linkvault.benchmark.sizes", "10000,100000,1000000").split(",")) {
+                int target = Integer.parseInt(size.trim());
+                while (inserted < target) {
+                    int batch = Math.min(5000, target - inserted);
+                    List<Object[]> rows = new ArrayList<>(batch);
+                    for (int i = 0; i < batch; i++) {
+                        String title = vocabulary[random.nextInt(vocabulary.length)] + " "
+                                + vocabulary[random.nextInt(vocabulary.length)] + " note " + (inserted + i);
+                        String description = vocabulary[random.nextInt(vocabulary.length)] + " "
+                                + vocabulary[random.nextInt(vocabulary.length)] + " "
+                                + vocabulary[random.nextInt(vocabulary.length)];
+                        rows.add(new Object[]{title, description, owner.getId(), random.nextInt(20) == 0,
+                                Timestamp.valueOf(LocalDateTime.now().minusMinutes(inserted + i))});
+                    }
+                    jdbcTemplate.batchUpdate("INSERT INTO bookmarks (title, description, user_id, is_private, deleted, " +
+                            "access_count, comment_count, created_at) VALUES (?, ?, ?, ?, false, 0, 0, ?)", rows);
+                    inserted += batch;
+                }
+
+                long rebuildStart = System.nanoTime();
+                bookmarkSearchIndex.rebuild();
+                long rebuildMs = (System.nanoTime() - rebuildStart) / 1_000_000;
+                System.out.printf("%n[search benchmark] %,d bookmarks, index rebuild %d ms%n", target, rebuildMs);
+
+                for (String keyword : keywords) {
+                    // Single-token baseline: the removed LIKE query, page plus count, matching the raw string as a substring
+                    double likeMs = time(() -> {
+                        jdbcTemplate.queryForList(LIKE_PAGE, Long.class, keyword, keyword);
+                        jdbcTemplate.queryForObject(LIKE_COUNT, Long.class, keyword, keyword);
+                    });
+                    double indexMs = time(() -> bookmarkService.searchByKeywordPublic(keyword, PageRequest.of(0, 20)));
+                    System.out.printf("[search benchmark]   %-14s LIKE %9.2f ms   index %9.2f ms%n",
+                            "'" + keyword + "'", likeMs, indexMs);
+                }
+            }
+        } finally {
+            jdbcTemplate.update("DELETE FROM bookmarks WHERE user_id = ?", owner.getId());
+            bookmarkSearchIndex.rebuild();
+        }
+    }
+
+    private double time(Runnable query) {
+        for (int i = 0; i < 3; i++) query.run();
+        int runs = 10;
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) query.run();
+        return (System.nanoTime() - start) / 1_000_000.0 / runs;
+    }
+}
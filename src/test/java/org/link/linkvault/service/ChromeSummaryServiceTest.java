@@ -0,0 +1,189 @@
+package org.link.linkvault.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.link.linkvault.dto.BookmarkRequestDto;
+import org.link.linkvault.dto.BookmarkResponseDto;
+import org.link.linkvault.dto.ChromeSummaryDto;
+import org.link.linkvault.dto.PrivacyPolicyResponseDto;
+import org.link.linkvault.entity.Role;
+import org.link.linkvault.entity.Theme;
+import org.link.linkvault.entity.User;
+import org.link.linkvault.event.ChromeSummaryChangedEvent;
+import org.link.linkvault.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Not @Transactional: cached summaries are only invalidated after commit
+@SpringBootTest
+class ChromeSummaryServiceTest {
+
+    @Autowired
+    private ChromeSummaryService chromeSummaryService;
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    @Autowired
+    private SavedBookmarkService savedBookmarkService;
+
+    @Autowired
+    private FavoriteBookmarkService favoriteBookmarkService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+
+    @Autowired
+    private AnnouncementService announcementService;
+
+    @Autowired
+    private QnaArticleService qnaArticleService;
+
+    @Autowired
+    private UserSettingsService userSettingsService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PrivacyPolicyService privacyPolicyService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    private User createUser(String username) {
+        User user = User.builder()
+                .username(username)
+                .email(username + "@test.com")
+                .password("encoded")
+                .role(Role.MEMBER)
+                .enabled(true)
+                .build();
+        PrivacyPolicyResponseDto policy = privacyPolicyService.getActivePolicy();
+        if (policy != null) {
+            user.agreeToPrivacyPolicy(policy.getVersion());
+        }
+        return userRepository.save(user);
+    }
+
+    private long statementsDuring(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void summary_isCachedAndInvalidatedByWrites() {
+        User owner = createUser("chromeowner");
+        User reader = createUser("chromereader");
+        BookmarkRequestDto dto = new BookmarkRequestDto();
+        dto.setTitle("Chrome original title");
+        BookmarkResponseDto post = bookmarkService.create(owner, dto);
+
+        ChromeSummaryDto initial = chromeSummaryService.getSummary(reader);
+        assertEquals(0, initial.getSavedCount());
+        assertEquals("DARK", initial.getTheme());
+        assertEquals(0, statementsDuring(() -> chromeSummaryService.getSummary(reader)));
+        long ownerUnread = chromeSummaryService.getSummary(owner).getUnreadNotificationCount();
+
+        savedBookmarkService.toggleSave(reader, post.getId());
+        assertEquals(1, chromeSummaryService.getSummary(reader).getSavedCount());
+        notificationDispatcher.flush();
+        // Saving notifies the owner, which must drop the owner's cached counter too
+        assertEquals(ownerUnread + 1, chromeSummaryService.getSummary(owner).getUnreadNotificationCount());
+
+        favoriteBookmarkService.toggleFavorite(reader, post.getId());
+        assertEquals("Chrome original title", chromeSummaryService.getSummary(reader).getFavorites().get(0).getBookmarkTitle());
+
+        dto.setTitle("Chrome renamed title");
+        bookmarkService.update(owner, post.getId(), dto);
+        assertEquals("Chrome renamed title", chromeSummaryService.getSummary(reader).getFavorites().get(0).getBookmarkTitle());
+
+        userSettingsService.updateTheme(reader, Theme.LIGHT);
+        assertEquals("LIGHT", chromeSummaryService.getSummary(reader).getTheme());
+
+        notificationService.markAllAsRead(owner);
+        assertEquals(0, chromeSummaryService.getSummary(owner).getUnreadNotificationCount());
+    }
+
+    // Run with -Dlinkvault.benchmark=true
+    @Test
+    @EnabledIfSystemProperty(named = "linkvault.benchmark", matches = "true")
+    void benchmark_pageChromeQueryCounts() throws Exception {
+        User member = createUser("chromebench");
+        int renders = 200;
+
+        // Previous MenuModelAdvice: a user lookup per attribute plus one query per counter
+        long legacy = statementsDuring(() -> {
+            savedBookmarkService.getCount(userService.getUserEntity(member.getUsername()));
+            favoriteBookmarkService.getFavorites(userService.getUserEntity(member.getUsername()));
+            notificationService.getUnreadCount(userService.getUserEntity(member.getUsername()));
+            announcementService.getUnreadCountForUser(userService.getUserEntity(member.getUsername()));
+            qnaArticleService.hasRecentlyUpdatedArticles();
+            userSettingsService.getThemeForUser(userService.getUserEntity(member.getUsername()).getId());
+        });
+
+        eventPublisher.publishEvent(ChromeSummaryChangedEvent.forAllUsers());
+        long cold = statementsDuring(() -> chromeSummaryService.getSummary(userService.getUserEntity(member.getUsername())));
+        long warm = statementsDuring(() -> chromeSummaryService.getSummary(userService.getUserEntity(member.getUsername())));
+
+        // Built by hand: @AutoConfigureMockMvc would start a second context on the same in-memory database
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).apply(springSecurity()).build();
+        eventPublisher.publishEvent(ChromeSummaryChangedEvent.forAllUsers());
+        long pageCold = statementsDuring(() -> renderImportPage(mockMvc));
+        long pageWarm = statementsDuring(() -> renderImportPage(mockMvc));
+
+        long start = System.nanoTime();
+        for (int i = 0; i < renders; i++) renderImportPage(mockMvc);
+        double warmMs = (System.nanoTime() - start) / 1_000_000.0 / renders;
+
+        System.out.printf("%n[chrome benchmark] chrome statements: legacy %d, summary cold %d, summary warm %d%n",
+                legacy, cold, warm);
+        System.out.printf("[chrome benchmark] /import page statements: cold %d, warm %d, warm render %.2f ms%n",
+                pageCold, pageWarm, warmMs);
+        assertTrue(warm < legacy);
+    }
+
+    private void renderImportPage(MockMvc mockMvc) {
+        try {
+            mockMvc.perform(get("/import").with(user("chromebench"))).andExpect(status().isOk());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
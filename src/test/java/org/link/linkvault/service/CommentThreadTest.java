@@ -0,0 +1,236 @@
+package org.link.linkvault.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.link.linkvault.dto.BookmarkRequestDto;
+import org.link.linkvault.dto.CommentRequestDto;
+import org.link.linkvault.dto.CommentResponseDto;
+import org.link.linkvault.dto.CursorPageDto;
+import org.link.linkvault.entity.Role;
+import org.link.linkvault.entity.User;
+import org.link.linkvault.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CommentThreadTest {
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User createUser(String username) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@test.com")
+                .password("encoded")
+                .role(Role.MEMBER)
+                .enabled(true)
+                .build());
+    }
+
+    private Long createBookmark(User owner, String title) {
+        BookmarkRequestDto dto = new BookmarkRequestDto();
+        dto.setTitle(title);
+        return bookmarkService.create(owner, dto).getId();
+    }
+
+    private Long comment(User user, Long bookmarkId, Long parentId, String content) {
+        return commentService.create(new CommentRequestDto(content, bookmarkId, null, parentId), user).getId();
+    }
+
+    private List<CommentResponseDto> allRoots(Long bookmarkId, User viewer, CommentThread.Sort sort, int size) {
+        List<CommentResponseDto> roots = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageDto<CommentResponseDto> page = commentService.getThreadForBookmark(bookmarkId, viewer, sort, cursor, size);
+            roots.addAll(page.getContent());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return roots;
+    }
+
+    @Test
+    void thread_countsSubtreesAndLoadsRepliesOnDemand() {
+        User author = createUser("threadauthor");
+        User replier = createUser("threadreplier");
+        Long bookmarkId = createBookmark(author, "Threaded post");
+
+        // A reply chain five deep under the first comment, plus five direct replies
+        Long root = comment(author, bookmarkId, null, "root");
+        Long parent = root;
+        for (int i = 0; i < 5; i++) {
+            parent = comment(replier, bookmarkId, parent, "chain " + i);
+        }
+        List<Long> direct = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            direct.add(comment(replier, bookmarkId, root, "direct " + i));
+        }
+        comment(author, bookmarkId, null, "second root");
+
+        CursorPageDto<CommentResponseDto> page = commentService.getThreadForBookmark(
+                bookmarkId, replier, CommentThread.Sort.OLDEST, null, 20);
+        assertEquals(2, page.getContent().size());
+        assertFalse(page.isHasNext());
+
+        CommentResponseDto first = page.getContent().get(0);
+        assertEquals(10, first.getReplyCount());
+        assertEquals(6, first.getDirectReplyCount());
+        assertEquals(3, first.getReplies().size());
+        assertTrue(first.isHasMoreReplies());
+        CommentResponseDto chain = first.getReplies().get(0);
+        assertEquals(4, chain.getReplyCount());
+        assertEquals("threadauthor", chain.getParentUsername());
+        assertTrue(chain.isCanEdit());
+        assertFalse(first.isCanEdit());
+
+        // Load the remaining direct replies in pages of two
+        List<Long> loaded = new ArrayList<>();
+        first.getReplies().forEach(r -> loaded.add(r.getId()));
+        String cursor = first.getRepliesCursor();
+        do {
+            CursorPageDto<CommentResponseDto> replies = commentService.getReplies(root, null, cursor, 2);
+            replies.getContent().forEach(r -> loaded.add(r.getId()));
+            cursor = replies.getNextCursor();
+        } while (cursor != null);
+        assertEquals(6, loaded.size());
+        assertTrue(loaded.containsAll(direct));
+
+        assertThrows(IllegalArgumentException.class, () -> commentService.getReplies(root, null, "not-a-cursor", 2));
+        assertThrows(IllegalArgumentException.class,
+                () -> commentService.getThreadForBookmark(bookmarkId, null, CommentThread.Sort.TOP, first.getRepliesCursor(), 5));
+    }
+
+    @Test
+    void rootPages_coverEveryCommentOnceInEachSortOrder() {
+        User author = createUser("threadpager");
+        Long bookmarkId = createBookmark(author, "Busy post");
+        Set<Long> created = new HashSet<>();
+        for (int i = 0; i < 11; i++) {
+            created.add(comment(author, bookmarkId, null, "comment " + i));
+        }
+        // Ties on score and timestamp must still page deterministically
+        jdbcTemplate.update("UPDATE comments SET created_at = ?, like_count = 2 WHERE bookmark_id = ?",
+                Timestamp.valueOf(LocalDateTime.now().withNano(0)), bookmarkId);
+        jdbcTemplate.update("UPDATE comments SET like_count = 9 WHERE id = ?", created.iterator().next());
+
+        for (CommentThread.Sort sort : CommentThread.Sort.values()) {
+            List<CommentResponseDto> roots = allRoots(bookmarkId, null, sort, 3);
+            Set<Long> ids = new HashSet<>();
+            roots.forEach(r -> ids.add(r.getId()));
+            assertEquals(created, ids, "sort " + sort);
+            assertEquals(11, roots.size(), "sort " + sort);
+        }
+        assertEquals(9, allRoots(bookmarkId, null, CommentThread.Sort.TOP, 3).get(0).getScore());
+    }
+
+    @Test
+    void threadPage_queryCountDoesNotGrowWithThreadSize() {
+        User author = createUser("threadcounter");
+        Long bookmarkId = createBookmark(author, "Counted post");
+        for (int i = 0; i < 30; i++) {
+            Long root = comment(author, bookmarkId, null, "root " + i);
+            comment(author, bookmarkId, root, "reply " + i);
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        CursorPageDto<CommentResponseDto> page = commentService.getThreadForBookmark(
+                bookmarkId, author, CommentThread.Sort.TOP, null, 20);
+
+        // Thread shape, display rows, viewer votes
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(20, page.getContent().size());
+        assertEquals(1, page.getContent().get(0).getReplies().size());
+
+        // Later pages and reply pages reuse the cached shape: only what they render is read
+        statistics.clear();
+        CursorPageDto<CommentResponseDto> next = commentService.getThreadForBookmark(
+                bookmarkId, author, CommentThread.Sort.TOP, page.getNextCursor(), 20);
+        assertEquals(10, next.getContent().size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        statistics.clear();
+        commentService.getReplies(page.getContent().get(0).getId(), null, null, 20);
+        // Owner lookup, display rows
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        // A new comment drops the cached shape once it commits
+        comment(author, bookmarkId, null, "late root");
+        assertEquals(31, allRoots(bookmarkId, author, CommentThread.Sort.OLDEST, 50).size());
+    }
+
+    // Run with -Dlinkvault.benchmark=true
+    @Test
+    @EnabledIfSystemProperty(named = "linkvault.benchmark", matches = "true")
+    void benchmark_viralThreadFirstPage() {
+        User author = createUser("threadbench");
+        Long bookmarkId = createBookmark(author, "Viral post");
+        LocalDateTime base = LocalDateTime.now().minusDays(1);
+        Random random = new Random(7);
+
+        // 2,000 top-level comments, then two waves of replies under random earlier comments
+        List<Long> ids = insertComments(author, bookmarkId, Collections.nCopies(2000, null), 0, base);
+        List<Long> parents = new ArrayList<>();
+        for (int i = 0; i < 8000; i++) parents.add(ids.get(random.nextInt(ids.size())));
+        List<Long> wave = insertComments(author, bookmarkId, parents, 1, base.plusHours(1));
+        parents.clear();
+        for (int i = 0; i < 10000; i++) parents.add(wave.get(random.nextInt(wave.size())));
+        insertComments(author, bookmarkId, parents, 2, base.plusHours(2));
+
+        for (CommentThread.Sort sort : CommentThread.Sort.values()) {
+            for (int i = 0; i < 5; i++) commentService.getThreadForBookmark(bookmarkId, author, sort, null, 20);
+            int rounds = 20;
+            CursorPageDto<CommentResponseDto> page = null;
+            long started = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                page = commentService.getThreadForBookmark(bookmarkId, author, sort, null, 20);
+            }
+            double millis = (System.nanoTime() - started) / 1_000_000.0 / rounds;
+            int rendered = countRendered(page.getContent());
+            System.out.printf("[comment benchmark] 20,000 comments, %s first page: %d comments rendered, %.2f ms%n",
+                    sort, rendered, millis);
+            assertTrue(rendered <= 200);
+        }
+    }
+
+    private List<Long> insertComments(User author, Long bookmarkId, List<Long> parents, int depth, LocalDateTime createdAt) {
+        Long maxBefore = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM comments", Long.class);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < parents.size(); i++) {
+            rows.add(new Object[]{"Bench " + depth + "-" + i, author.getId(), bookmarkId, parents.get(i), depth,
+                    i % 13, Timestamp.valueOf(createdAt.plusSeconds(i))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO comments (content, user_id, bookmark_id, parent_id, depth, like_count, " +
+                "dislike_count, deleted, edited, created_at) VALUES (?, ?, ?, ?, ?, ?, 0, false, false, ?)", rows);
+        return jdbcTemplate.queryForList("SELECT id FROM comments WHERE id > ? AND bookmark_id = ? ORDER BY id",
+                Long.class, maxBefore, bookmarkId);
+    }
+
+    private int countRendered(List<CommentResponseDto> comments) {
+        int count = comments.size();
+        for (CommentResponseDto comment : comments) count += countRendered(comment.getReplies());
+        return count;
+    }
+}
@@ -0,0 +1,177 @@
+package org.link.linkvault.service;
+
+import org.junit.jupiter.api.Test;
+import org.link.linkvault.entity.Bookmark;
+import org.link.linkvault.entity.Role;
+import org.link.linkvault.entity.Tag;
+import org.link.linkvault.entity.User;
+import org.link.linkvault.repository.BookmarkRepository;
+import org.link.linkvault.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: imports commit batch by batch
+@SpringBootTest
+class ExportImportServiceTest {
+
+    @Autowired
+    private ExportImportService exportImportService;
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    @Autowired
+    private BookmarkRepository bookmarkRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FolderService folderService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User createUser(String username) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@test.com")
+                .password("encoded")
+                .role(Role.MEMBER)
+                .enabled(true)
+                .build());
+    }
+
+    private Map<String, Bookmark> importedByUrl(User owner) {
+        return transactionTemplate.execute(status -> {
+            List<Long> ids = bookmarkRepository.findByUserId(owner.getId(), PageRequest.of(0, 100))
+                    .map(Bookmark::getId).getContent();
+            Map<String, Bookmark> byUrl = bookmarkRepository.findAllWithTagsByIdIn(ids).stream()
+                    .collect(Collectors.toMap(Bookmark::getUrl, b -> b));
+            // Touch lazy state while the session is open
+            byUrl.values().forEach(b -> folderService.buildFolderPath(b.getFolder()));
+            return byUrl;
+        });
+    }
+
+    @Test
+    void importFromHtml_streamsNestedFoldersTagsAndDescriptions() throws Exception {
+        User owner = createUser("htmlimporter");
+        String html = "<!DOCTYPE NETSCAPE-Bookmark-file-1>\n" +
+                "<!-- comment with <A HREF=\"http://ignored.example\">tag</A> -->\n" +
+                "<TITLE>Bookmarks</TITLE><H1>Bookmarks</H1>\n" +
+                "<DL><p>\n" +
+                "    <DT><A HREF=\"https://root.example/\" ADD_DATE=\"1\" ICON=\"data:image/png;base64,AAAA\">Root &amp; Co</A>\n" +
+                "    <DT><H3 ADD_DATE=\"1\">Travel</H3>\n" +
+                "    <DL><p>\n" +
+                "        <DT><A HREF=\"https://seoul.example/\" TAGS=\"korea, city\">Seoul <b>guide</b></A>\n" +
+                "        <DD>Palaces and markets\n" +
+                "        <DT><H3>Food</H3>\n" +
+                "        <DL><p>\n" +
+                "            <DT><A HREF=\"https://busan.example/\">Busan eats</A><DT><A HREF=\"https://root.example/\">Dup</A>\n" +
+                "        </DL><p>\n" +
+                "    </DL><p>\n" +
+                "    <DT><A HREF=\"https://last.example/\">Last</A>\n" +
+                "</DL><p>\n";
+
+        ImportProgress progress = new ImportProgress();
+        int imported = exportImportService.importFromHtml(owner,
+                new ByteArrayInputStream(html.getBytes(StandardCharsets.UTF_8)), progress);
+
+        assertEquals(4, imported);
+        assertEquals(5, progress.getProcessed());
+        assertEquals(1, progress.getSkipped());
+
+        Map<String, Bookmark> byUrl = importedByUrl(owner);
+        assertEquals("Root & Co", byUrl.get("https://root.example/").getTitle());
+        assertNull(byUrl.get("https://root.example/").getFolder());
+        Bookmark seoul = byUrl.get("https://seoul.example/");
+        assertEquals("Seoul guide", seoul.getTitle());
+        assertEquals("Palaces and markets", seoul.getDescription());
+        assertEquals(Set.of("korea", "city"), seoul.getTags().stream().map(Tag::getName).collect(Collectors.toSet()));
+        assertEquals("Travel", seoul.getFolder().getName());
+        assertEquals("Food", byUrl.get("https://busan.example/").getFolder().getName());
+        assertNull(byUrl.get("https://last.example/").getFolder());
+
+        assertEquals(List.of("Seoul guide"), bookmarkService.searchByKeyword(owner, "palaces", PageRequest.of(0, 10))
+                .map(b -> b.getTitle()).getContent());
+    }
+
+    @Test
+    void importFromJson_batchesEntriesAndSkipsKnownUrls() throws Exception {
+        User owner = createUser("jsonimporter");
+        StringBuilder json = new StringBuilder("{\"exportDate\":\"2024-01-01T00:00:00\",\"meta\":{\"bookmarks\":[]},\"bookmarks\":[");
+        int entries = 1203;
+        for (int i = 0; i < entries; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"title\":\"Entry ").append(i).append("\",\"url\":\"https://bulk.example/").append(i % 1200)
+                    .append("\",\"tagNames\":[\"bulk\"],\"folderPath\":\"Imports/Bulk\",\"extra\":[1,2]}");
+        }
+        json.append("],\"totalBookmarks\":").append(entries).append('}');
+
+        ImportProgress progress = new ImportProgress();
+        int imported = exportImportService.importFromJson(owner,
+                new ByteArrayInputStream(json.toString().getBytes(StandardCharsets.UTF_8)), progress);
+
+        assertEquals(1200, imported);
+        assertEquals(3, progress.getSkipped());
+        assertEquals(1200, bookmarkRepository.findUrlsByUserId(owner.getId()).size());
+
+        ImportProgress again = new ImportProgress();
+        assertEquals(0, exportImportService.importFromJson(owner,
+                new ByteArrayInputStream(json.toString().getBytes(StandardCharsets.UTF_8)), again));
+        assertEquals(entries, again.getSkipped());
+    }
+
+    @Test
+    void export_streamsRoundTripForBothFormats() throws Exception {
+        User source = createUser("exportsource");
+        String html = "<DL><p>\n" +
+                "<DT><A HREF=\"https://unfiled.example/\">Unfiled</A>\n" +
+                "<DT><H3>Work</H3><DL><p>\n" +
+                "  <DT><H3>Reports</H3><DL><p>\n" +
+                "    <DT><A HREF=\"https://report.example/\" TAGS=\"q1,finance\">Quarterly &lt;Q1&gt;</A><DD>Numbers\n" +
+                "  </DL><p>\n" +
+                "  <DT><A HREF=\"https://wiki.example/\">Wiki</A>\n" +
+                "</DL><p>\n" +
+                "</DL><p>\n";
+        exportImportService.importFromHtml(source, new ByteArrayInputStream(html.getBytes(StandardCharsets.UTF_8)),
+                new ImportProgress());
+        Map<String, String> expected = snapshot(importedByUrl(source));
+
+        ByteArrayOutputStream htmlOut = new ByteArrayOutputStream();
+        exportImportService.exportToHtml(source, htmlOut);
+        User htmlCopy = createUser("exporthtmlcopy");
+        assertEquals(3, exportImportService.importFromHtml(htmlCopy,
+                new ByteArrayInputStream(htmlOut.toByteArray()), new ImportProgress()));
+        assertEquals(expected, snapshot(importedByUrl(htmlCopy)));
+
+        ByteArrayOutputStream jsonOut = new ByteArrayOutputStream();
+        exportImportService.exportToJson(source, jsonOut);
+        assertTrue(jsonOut.toString(StandardCharsets.UTF_8).contains("\"totalBookmarks\" : 3"));
+        User jsonCopy = createUser("exportjsoncopy");
+        assertEquals(3, exportImportService.importFromJson(jsonCopy,
+                new ByteArrayInputStream(jsonOut.toByteArray()), new ImportProgress()));
+        assertEquals(expected, snapshot(importedByUrl(jsonCopy)));
+    }
+
+    private Map<String, String> snapshot(Map<String, Bookmark> byUrl) {
+        return transactionTemplate.execute(status -> byUrl.values().stream().collect(Collectors.toMap(
+                Bookmark::getUrl,
+                b -> b.getTitle() + "|" + b.getDescription() + "|"
+                        + folderService.buildFolderPath(bookmarkRepository.findById(b.getId()).orElseThrow().getFolder()) + "|"
+                        + b.getTags().stream().map(Tag::getName).sorted().collect(Collectors.joining(",")))));
+    }
+}
@@ -0,0 +1,155 @@
+package org.link.linkvault.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.link.linkvault.dto.MapClusterDto;
+import org.link.linkvault.dto.MapViewportDto;
+import org.link.linkvault.repository.BookmarkRepository;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoGridIndexTest {
+
+    private GeoGridIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new GeoGridIndex(null);
+        ReflectionTestUtils.setField(index, "pinZoom", 14);
+        ReflectionTestUtils.setField(index, "maxCells", 1024);
+        ReflectionTestUtils.setField(index, "maxPins", 500);
+    }
+
+    @Test
+    void query_clustersAtLowZoomAndReturnsPinsAtHighZoom() {
+        // Three posts within a block of each other in Seoul, one in Busan, one private
+        index.put(1, 37.5665, 126.9780, "A", "City hall", false);
+        index.put(2, 37.5670, 126.9785, "B", "Plaza", false);
+        index.put(3, 37.5668, 126.9790, "C", "Cafe", false);
+        index.put(4, 35.1796, 129.0756, "D", "Busan", false);
+        index.put(5, 37.5669, 126.9782, "E", "Hidden", true);
+
+        MapViewportDto country = index.query(33, 124, 39, 131, 7, false);
+        assertTrue(country.isClustered());
+        assertEquals(4, country.getTotalCount());
+        assertEquals(1, country.getClusters().size());
+        MapClusterDto seoul = country.getClusters().get(0);
+        assertEquals(3, seoul.getCount());
+        assertEquals(37.5668, seoul.getLatitude(), 0.001);
+        // A cell holding a single post comes back as a pin
+        assertEquals(1, country.getPins().size());
+        assertEquals("Busan", country.getPins().get(0).getTitle());
+
+        assertEquals(5, index.query(33, 124, 39, 131, 7, true).getTotalCount());
+
+        MapViewportDto street = index.query(37.565, 126.976, 37.568, 126.981, 16, false);
+        assertFalse(street.isClustered());
+        assertEquals(3, street.getPins().size());
+        assertEquals(4, index.query(37.565, 126.976, 37.568, 126.981, 16, true).getPins().size());
+    }
+
+    @Test
+    void updatesMoveAndRemovePins() {
+        index.put(1, 37.5665, 126.9780, null, "Moving", false);
+        index.put(2, 37.5670, 126.9785, null, "Staying", false);
+        assertEquals(1, index.query(33, 124, 39, 131, 7, false).getClusters().size());
+
+        index.put(1, 35.1796, 129.0756, null, "Moving", false);
+        MapViewportDto moved = index.query(33, 124, 39, 131, 7, false);
+        assertEquals(0, moved.getClusters().size());
+        assertEquals(2, moved.getPins().size());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void query_handlesAntimeridianAndWorldWrap() {
+        index.put(1, 0, 179.5, null, "East", false);
+        index.put(2, 0, -179.5, null, "West", false);
+
+        assertEquals(2, index.query(-10, 170, 10, 190, 5, false).getTotalCount());
+        assertEquals(2, index.query(-85, -540, 85, 540, 0, false).getTotalCount());
+        assertThrows(IllegalArgumentException.class, () -> index.query(10, 0, -10, 1, 5, false));
+    }
+
+    // Run with -Dlinkvault.benchmark=true
+    @Test
+    void rebuild_replaysChangesCommittedWhileLoading() {
+        // Snapshot still holds pin 1; pin 2 is created and pin 1 deleted while it is being read
+        List<Object[]> snapshot = new ArrayList<>();
+        snapshot.add(new Object[]{1L, 37.5665, 126.9780, null, "Deleted mid-load", false});
+        GeoGridIndex[] target = new GeoGridIndex[1];
+        BookmarkRepository repository = (BookmarkRepository) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{BookmarkRepository.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("findGeoPinRowsAfter")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    if ((Long) args[0] > 0) return Collections.emptyList();
+                    target[0].put(2, 35.1796, 129.0756, null, "Created mid-load", false);
+                    target[0].remove(1L);
+                    return snapshot;
+                });
+        GeoGridIndex rebuilt = new GeoGridIndex(repository);
+        ReflectionTestUtils.setField(rebuilt, "pinZoom", 14);
+        ReflectionTestUtils.setField(rebuilt, "maxCells", 1024);
+        ReflectionTestUtils.setField(rebuilt, "maxPins", 500);
+        target[0] = rebuilt;
+
+        rebuilt.rebuild();
+
+        MapViewportDto korea = rebuilt.query(33, 124, 39, 131, 16, false);
+        assertEquals(1, korea.getTotalCount());
+        assertEquals("Created mid-load", korea.getPins().get(0).getTitle());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "linkvault.benchmark", matches = "true")
+    void benchmark_viewportQueriesAtOneMillionPins() {
+        int posts = 1_000_000;
+        Random random = new Random(42);
+        long loadStart = System.nanoTime();
+        for (int i = 1; i <= posts; i++) {
+            // Mostly around a few cities, the rest spread worldwide
+            double lat;
+            double lng;
+            if (i % 4 == 0) {
+                lat = random.nextDouble() * 140 - 70;
+                lng = random.nextDouble() * 360 - 180;
+            } else {
+                lat = 37.5 + random.nextGaussian() * 0.5 * (i % 3 + 1);
+                lng = 127.0 + random.nextGaussian() * 0.5 * (i % 3 + 1);
+            }
+            index.put(i, lat, lng, "📍", "Post " + i, i % 10 == 0);
+        }
+        double loadSeconds = (System.nanoTime() - loadStart) / 1e9;
+
+        double[][] viewports = {
+                {-70, -180, 70, 180, 2},
+                {30, 120, 45, 135, 6},
+                {37.3, 126.7, 37.8, 127.3, 11},
+                {37.55, 126.96, 37.58, 127.0, 15},
+        };
+        for (double[] v : viewports) {
+            for (int i = 0; i < 50; i++) index.query(v[0], v[1], v[2], v[3], (int) v[4], false);
+            int rounds = 500;
+            MapViewportDto last = null;
+            long start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                last = index.query(v[0], v[1], v[2], v[3], (int) v[4], false);
+            }
+            double micros = (System.nanoTime() - start) / 1000.0 / rounds;
+            int items = last.getClusters().size() + last.getPins().size();
+            System.out.printf("[map benchmark] zoom %2d: %4d items (%d posts in view), %.1f us/query%n",
+                    (int) v[4], items, last.getTotalCount(), micros);
+            assertTrue(items <= 1024);
+        }
+        System.out.printf("[map benchmark] loaded %d pins in %.1fs%n", posts, loadSeconds);
+    }
+}
@@ -0,0 +1,104 @@
+package org.link.linkvault.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.link.linkvault.dto.GuestFunnelStatsDto;
+import org.link.linkvault.entity.GuestEventType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: events are written by the background writer and rolled up in their own transactions
+@SpringBootTest
+class GuestEventRollupTest {
+
+    @Autowired
+    private GuestEventService guestEventService;
+
+    @Autowired
+    private GuestEventWriter guestEventWriter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private void insertRaw(String sessionId, GuestEventType type, LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO guest_events (session_id, event_type, created_at) VALUES (?, ?, ?)",
+                sessionId, type.name(), Timestamp.valueOf(createdAt));
+    }
+
+    private long rawCount(String sessionPrefix) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM guest_events WHERE session_id LIKE ?",
+                Long.class, sessionPrefix + "%");
+    }
+
+    @Test
+    void logEvent_throttlesPerSessionInMemory_andQueuesInserts() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        for (int i = 0; i < 130; i++) {
+            guestEventService.logEvent("throttle-session", GuestEventType.PAGE_VIEW, "/feed");
+        }
+        // No quota lookup and no insert on the caller's thread
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        guestEventWriter.flush();
+        assertEquals(100, rawCount("throttle-session"));
+        assertTrue(guestEventService.getStats().getThrottled() >= 30);
+    }
+
+    @Test
+    void funnel_readsMergedHourlyRollups_andRawEventsArePrunedAfterRollup() {
+        LocalDateTime hour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime recent = hour.minusHours(5).plusMinutes(10);
+        LocalDateTime earlier = hour.minusHours(4).plusMinutes(20);
+        LocalDateTime old = hour.minusDays(40).plusMinutes(30);
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            rows.add(new Object[]{"funnel-" + i, GuestEventType.PAGE_VIEW.name(), Timestamp.valueOf(recent)});
+            // The same sessions again in the next hour must not be counted twice
+            rows.add(new Object[]{"funnel-" + i, GuestEventType.PAGE_VIEW.name(), Timestamp.valueOf(earlier)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO guest_events (session_id, event_type, created_at) VALUES (?, ?, ?)", rows);
+        for (int i = 0; i < 25; i++) {
+            insertRaw("funnel-" + i, GuestEventType.SIGNUP_COMPLETED, earlier);
+        }
+        insertRaw("funnel-old", GuestEventType.SIGNUP_STARTED, old);
+
+        assertTrue(guestEventService.rollupClosedHours() >= 40 * 24);
+        assertEquals(hour.minusHours(1), guestEventService.getStats().getRollupWatermark());
+        // Past the 30-day retention and rolled up, so only the rollup keeps it
+        assertEquals(0, rawCount("funnel-old"));
+        assertEquals(2025, rawCount("funnel-"));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        GuestFunnelStatsDto funnel = guestEventService.getFunnelStats(hour.minusDays(60), LocalDateTime.now());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        assertEquals(1000, funnel.getPageViews(), 1000 * 0.05);
+        assertEquals(25, funnel.getSignupCompleted(), 1);
+        assertEquals(1, funnel.getSignupStarted());
+        assertEquals(0, funnel.getAdClicked());
+        // A range that ends before the recent hours only sees the old event
+        assertEquals(0, guestEventService.getFunnelStats(hour.minusDays(60), hour.minusDays(1)).getPageViews());
+
+        // Nothing new closed since, so a second run writes nothing
+        assertEquals(0, guestEventService.rollupClosedHours());
+    }
+}
@@ -0,0 +1,57 @@
+package org.link.linkvault.service;
+
+import org.junit.jupiter.api.Test;
+import org.link.linkvault.dto.BookmarkRequestDto;
+import org.link.linkvault.dto.BookmarkResponseDto;
+import org.link.linkvault.entity.MetadataStatus;
+import org.link.linkvault.entity.Role;
+import org.link.linkvault.entity.User;
+import org.link.linkvault.repository.BookmarkRepository;
+import org.link.linkvault.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: enrichment jobs are only submitted after commit
+@SpringBootTest
+class MetadataEnricherTest {
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    @Autowired
+    private BookmarkRepository bookmarkRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void create_persistsPendingAndSettlesInBackground() throws InterruptedException {
+        User owner = userRepository.save(User.builder()
+                .username("enrichowner")
+                .email("enrichowner@test.com")
+                .password("encoded")
+                .role(Role.MEMBER)
+                .enabled(true)
+                .build());
+
+        BookmarkRequestDto dto = new BookmarkRequestDto();
+        dto.setUrl("ftp://files.example.com/archive");
+        BookmarkResponseDto created = bookmarkService.create(owner, dto);
+
+        assertEquals(MetadataStatus.PENDING, created.getMetadataStatus());
+        assertEquals("ftp://files.example.com/archive", created.getTitle());
+
+        // Non-http schemes are rejected by the extractor without any network access
+        MetadataStatus status = created.getMetadataStatus();
+        for (int i = 0; i < 50 && status == MetadataStatus.PENDING; i++) {
+            Thread.sleep(100);
+            status = bookmarkRepository.findById(created.getId()).orElseThrow().getMetadataStatus();
+        }
+        assertEquals(MetadataStatus.FAILED, status);
+
+        bookmarkService.delete(owner, created.getId());
+        bookmarkService.purge(owner, created.getId());
+    }
+}
@@ -0,0 +1,127 @@
+package org.link.linkvault.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.jsoup.HttpStatusException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetadataExtractorTest {
+
+    private HttpServer server;
+    private String base;
+    private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+    private MetadataExtractor extractor;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            hits.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+            if (path.startsWith("/to-private")) {
+                exchange.getResponseHeaders().add("Location", "http://10.0.0.1/admin");
+                exchange.sendResponseHeaders(302, -1);
+            } else if (path.startsWith("/to-loopback")) {
+                exchange.getResponseHeaders().add("Location", "http://localhost:" + port() + "/page");
+                exchange.sendResponseHeaders(302, -1);
+            } else if (path.startsWith("/broken")) {
+                exchange.sendResponseHeaders(500, -1);
+            } else {
+                byte[] body = "<html><head><title>Local page</title></head></html>".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+            exchange.close();
+        });
+        server.start();
+        base = "http://127.0.0.1:" + port();
+
+        extractor = new MetadataExtractor();
+        ReflectionTestUtils.setField(extractor, "allowLocal", false);
+        ReflectionTestUtils.setField(extractor, "cacheMaxEntries", 100);
+        ReflectionTestUtils.setField(extractor, "cacheTtlMinutes", 60L);
+        ReflectionTestUtils.setField(extractor, "negativeTtlSeconds", 1L);
+        ReflectionTestUtils.setField(extractor, "hostTtlSeconds", 60L);
+        ReflectionTestUtils.setField(extractor, "hostMaxEntries", 100);
+        extractor.initCaches();
+        // Let the test server through the SSRF check as if it were a public host; redirect targets are still resolved
+        @SuppressWarnings("unchecked")
+        ExpiringLruCache<String, MetadataExtractor.HostVerdict> hostCache =
+                (ExpiringLruCache<String, MetadataExtractor.HostVerdict>) ReflectionTestUtils.getField(extractor, "hostCache");
+        hostCache.put("127.0.0.1", MetadataExtractor.HostVerdict.PUBLIC, Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private int port() {
+        return server.getAddress().getPort();
+    }
+
+    private int hitCount(String path) {
+        AtomicInteger count = hits.get(path);
+        return count != null ? count.get() : 0;
+    }
+
+    @Test
+    void fetch_rejectsRedirectsToPrivateOrLoopbackAddresses() {
+        IllegalArgumentException toPrivate = assertThrows(IllegalArgumentException.class,
+                () -> extractor.fetch(base + "/to-private"));
+        assertTrue(toPrivate.getMessage().contains("internal"));
+
+        assertThrows(IllegalArgumentException.class, () -> extractor.fetch(base + "/to-loopback"));
+        // The loopback target was validated before any request reached it
+        assertEquals(1, hitCount("/to-loopback"));
+        assertEquals(0, hitCount("/page"));
+
+        assertThrows(IllegalArgumentException.class, () -> extractor.fetch("http://localhost:" + port() + "/page"));
+        assertEquals(0, hitCount("/page"));
+    }
+
+    @Test
+    void fetch_servesCachedPagesAndFailuresWithoutRefetching() throws Exception {
+        assertEquals("Local page", extractor.fetch(base + "/page").get("title"));
+        assertEquals("Local page", extractor.fetch("HTTP://127.0.0.1:" + port() + "/page").get("title"));
+        assertEquals(1, hitCount("/page"));
+
+        assertThrows(HttpStatusException.class, () -> extractor.fetch(base + "/broken"));
+        MetadataExtractor.CachedFailureException cached = assertThrows(MetadataExtractor.CachedFailureException.class,
+                () -> extractor.fetch(base + "/broken"));
+        assertTrue(cached.getMessage().contains("HttpStatusException"));
+        assertEquals(1, hitCount("/broken"));
+
+        // An explicit refresh bypasses the negative entry
+        assertThrows(HttpStatusException.class, () -> extractor.fetch(base + "/broken", true));
+        assertEquals(2, hitCount("/broken"));
+    }
+
+    @Test
+    void fetch_refetchesOnceTheNegativeEntryExpires() throws Exception {
+        assertThrows(HttpStatusException.class, () -> extractor.fetch(base + "/broken"));
+        assertThrows(MetadataExtractor.CachedFailureException.class, () -> extractor.fetch(base + "/broken"));
+        assertEquals(1, hitCount("/broken"));
+
+        Thread.sleep(1_100);
+        assertThrows(HttpStatusException.class, () -> extractor.fetch(base + "/broken"));
+        assertEquals(2, hitCount("/broken"));
+    }
+}
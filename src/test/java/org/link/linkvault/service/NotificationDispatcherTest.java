@@ -0,0 +1,188 @@
+package org.link.linkvault.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.link.linkvault.dto.BookmarkRequestDto;
+import org.link.linkvault.dto.CommentRequestDto;
+import org.link.linkvault.entity.NotificationType;
+import org.link.linkvault.event.BookmarkEngagedEvent;
+import org.link.linkvault.entity.Role;
+import org.link.linkvault.entity.User;
+import org.link.linkvault.entity.VoteType;
+import org.link.linkvault.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class NotificationDispatcherTest {
+
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    @Autowired
+    private SavedBookmarkService savedBookmarkService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User createUser(String username) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@test.com")
+                .password("encoded")
+                .role(Role.MEMBER)
+                .enabled(true)
+                .build());
+    }
+
+    private List<Map<String, Object>> notificationsFor(User recipient, NotificationType type) {
+        return jdbcTemplate.queryForList("SELECT message, actor_count, is_read, related_comment_id FROM notifications " +
+                "WHERE recipient_id = ? AND type = ? ORDER BY id", recipient.getId(), type.name());
+    }
+
+    @Test
+    void likeBurst_isCoalescedIntoOneGroupedNotification() {
+        User author = createUser("dispauthor");
+        BookmarkRequestDto dto = new BookmarkRequestDto();
+        dto.setTitle("Dispatch post");
+        Long bookmarkId = bookmarkService.create(author, dto).getId();
+        Long commentId = commentService.create(new CommentRequestDto("Like me", bookmarkId, null, null), author).getId();
+
+        for (int i = 0; i < 12; i++) {
+            commentService.vote(commentId, VoteType.LIKE, createUser("displiker" + i));
+        }
+        // Toggling a like off and on again does not notify twice
+        User fickle = userRepository.findByUsername("displiker0").orElseThrow();
+        commentService.vote(commentId, VoteType.LIKE, fickle);
+        commentService.vote(commentId, VoteType.LIKE, fickle);
+        notificationDispatcher.flush();
+
+        List<Map<String, Object>> votes = notificationsFor(author, NotificationType.VOTE);
+        assertEquals(1, votes.size());
+        assertEquals(12, ((Number) votes.get(0).get("ACTOR_COUNT")).intValue());
+        assertEquals("displiker11 and 11 others liked your comment", votes.get(0).get("MESSAGE"));
+
+        // Later likes merge into the unread group; once read, a new group starts
+        commentService.vote(commentId, VoteType.LIKE, createUser("displiker12"));
+        notificationDispatcher.flush();
+        assertEquals(13, ((Number) notificationsFor(author, NotificationType.VOTE).get(0).get("ACTOR_COUNT")).intValue());
+
+        jdbcTemplate.update("UPDATE notifications SET is_read = true WHERE recipient_id = ?", author.getId());
+        commentService.vote(commentId, VoteType.LIKE, createUser("displiker13"));
+        notificationDispatcher.flush();
+        votes = notificationsFor(author, NotificationType.VOTE);
+        assertEquals(2, votes.size());
+        assertEquals("displiker13 liked your comment", votes.get(1).get("MESSAGE"));
+
+        User saver = createUser("dispsaver");
+        savedBookmarkService.toggleSave(saver, bookmarkId);
+        savedBookmarkService.toggleSave(author, bookmarkId);
+        notificationDispatcher.flush();
+        List<Map<String, Object>> saves = notificationsFor(author, NotificationType.SAVE);
+        assertEquals(1, saves.size(), "saving your own bookmark does not notify");
+        assertEquals("dispsaver saved your bookmark \"Dispatch post\"", saves.get(0).get("MESSAGE"));
+    }
+
+    @Test
+    void commentWritePath_leavesNotificationsToTheDispatcher() {
+        User author = createUser("dispowner");
+        User commenter = createUser("dispcommenter");
+        User mentionedA = createUser("dispmentiona");
+        User mentionedB = createUser("dispmentionb");
+        BookmarkRequestDto dto = new BookmarkRequestDto();
+        dto.setTitle("Mention post");
+        Long bookmarkId = bookmarkService.create(author, dto).getId();
+        Long rootId = commentService.create(new CommentRequestDto("Root", bookmarkId, null, null), author).getId();
+        notificationDispatcher.flush();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        Long replyId = commentService.create(new CommentRequestDto(
+                "Thanks @dispmentiona and @dispmentionb, also @dispmentiona and @nosuchuser",
+                bookmarkId, null, rootId), commenter).getId();
+        long writeStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        notificationDispatcher.flush();
+        long dispatchStatements = statistics.getPrepareStatementCount();
+
+        // Bookmark, parent, comment insert, comment count; nothing per mention
+        assertTrue(writeStatements <= 5, "write path ran " + writeStatements + " statements");
+        // One IN lookup for every mention in the batch
+        assertEquals(1, dispatchStatements);
+
+        assertEquals(1, notificationsFor(author, NotificationType.REPLY).size());
+        assertEquals(replyId, ((Number) notificationsFor(mentionedA, NotificationType.MENTION).get(0)
+                .get("RELATED_COMMENT_ID")).longValue());
+        assertEquals(1, notificationsFor(mentionedA, NotificationType.MENTION).size());
+        assertEquals(1, notificationsFor(mentionedB, NotificationType.MENTION).size());
+    }
+
+    @Test
+    void failedWrite_doesNotSuppressTheRetriedReaction() {
+        User owner = createUser("dispretryowner");
+        User fan = createUser("dispretryfan");
+        BookmarkRequestDto dto = new BookmarkRequestDto();
+        dto.setTitle("Retry post");
+        Long bookmarkId = bookmarkService.create(owner, dto).getId();
+
+        BookmarkEngagedEvent favorited = new BookmarkEngagedEvent(BookmarkEngagedEvent.Kind.FAVORITED,
+                bookmarkId, "Retry post", owner.getId(), fan.getId(), fan.getUsername());
+
+        // Reject rows for this bookmark so the batch write rolls back
+        jdbcTemplate.execute("ALTER TABLE notifications ADD CONSTRAINT test_block_retry CHECK (related_bookmark_id <> "
+                + bookmarkId + ")");
+        try {
+            notificationDispatcher.onBookmarkEngaged(favorited);
+            notificationDispatcher.flush();
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE notifications DROP CONSTRAINT test_block_retry");
+        }
+        assertTrue(notificationsFor(owner, NotificationType.FAVORITE).isEmpty());
+
+        notificationDispatcher.onBookmarkEngaged(favorited);
+        notificationDispatcher.flush();
+        assertEquals(1, notificationsFor(owner, NotificationType.FAVORITE).size());
+    }
+
+    @Test
+    void selfReplyAndCommentOnOwnBookmark_notifyNobody() {
+        User author = createUser("dispselfauthor");
+        User other = createUser("dispselfother");
+        BookmarkRequestDto dto = new BookmarkRequestDto();
+        dto.setTitle("Self post");
+        Long bookmarkId = bookmarkService.create(author, dto).getId();
+
+        Long rootId = commentService.create(new CommentRequestDto("Own post", bookmarkId, null, null), author).getId();
+        commentService.create(new CommentRequestDto("Own reply", bookmarkId, null, rootId), author);
+        notificationDispatcher.flush();
+        assertTrue(notificationsFor(author, NotificationType.COMMENT).isEmpty());
+        assertTrue(notificationsFor(author, NotificationType.REPLY).isEmpty());
+
+        // Someone else still notifies the author
+        commentService.create(new CommentRequestDto("Other reply", bookmarkId, null, rootId), other);
+        notificationDispatcher.flush();
+        assertEquals(1, notificationsFor(author, NotificationType.REPLY).size());
+    }
+}
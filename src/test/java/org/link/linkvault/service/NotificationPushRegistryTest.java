@@ -0,0 +1,399 @@
+package org.link.linkvault.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.link.linkvault.dto.AnnouncementRequestDto;
+import org.link.linkvault.dto.BookmarkRequestDto;
+import org.link.linkvault.dto.CommentRequestDto;
+import org.link.linkvault.dto.NotificationResponseDto;
+import org.link.linkvault.dto.PushStatsDto;
+import org.link.linkvault.entity.AnnouncementPriority;
+import org.link.linkvault.entity.AnnouncementStatus;
+import org.link.linkvault.entity.Role;
+import org.link.linkvault.entity.User;
+import org.link.linkvault.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+class NotificationPushRegistryTest {
+
+    @Autowired
+    private NotificationPushRegistry pushRegistry;
+
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    @Autowired
+    private AnnouncementService announcementService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    private static final ObjectMapper JSON = new ObjectMapper().findAndRegisterModules();
+
+    // Standalone registry so connection counts are not shared with the application context
+    private NotificationPushRegistry registry;
+
+    @BeforeEach
+    void createRegistry() {
+        registry = new NotificationPushRegistry();
+        ReflectionTestUtils.setField(registry, "emitterTimeoutMs", 0L);
+        ReflectionTestUtils.setField(registry, "heartbeatSeconds", 3600L);
+        ReflectionTestUtils.setField(registry, "bufferSize", 32);
+        ReflectionTestUtils.setField(registry, "maxConnectionsPerUser", 5);
+        ReflectionTestUtils.setField(registry, "senderThreads", 4);
+        registry.start();
+    }
+
+    @AfterEach
+    void stopRegistry() {
+        registry.stop();
+    }
+
+    @Test
+    void slowClient_dropsOldestEventsAndDeadClientIsRemoved() throws Exception {
+        BlockingEmitter slow = new BlockingEmitter();
+        registry.register(1L, Role.MEMBER, slow);
+        registry.pushNotification(1L, notification("first"), false);
+        assertTrue(slow.entered.await(5, TimeUnit.SECONDS));
+
+        // The sender is stuck on the first event; 40 more overflow a 32-event buffer
+        for (int i = 0; i < 40; i++) {
+            registry.pushNotification(1L, notification("n" + i), false);
+        }
+        assertEquals(8, registry.getStats().getDropped());
+
+        slow.release.countDown();
+        await(() -> slow.payloads.size() == 33);
+        assertTrue(slow.payloads.get(1).contains("n8"), "oldest events are the ones dropped");
+        assertTrue(slow.payloads.get(32).contains("n39"));
+
+        FailingEmitter dead = new FailingEmitter();
+        registry.register(2L, Role.MEMBER, dead);
+        registry.pushUnreadDelta(2L, NotificationPushRegistry.COUNTER_NOTIFICATIONS, 1);
+        await(() -> registry.getStats().getConnections() == 1);
+        PushStatsDto stats = registry.getStats();
+        assertEquals(1, stats.getFailedSends());
+        assertEquals(1, stats.getClosed());
+        assertEquals(1, stats.getUsers());
+
+        // Heartbeats only go to the live, idle stream
+        registry.heartbeat();
+        await(() -> slow.payloads.size() == 34);
+        assertTrue(slow.payloads.get(33).startsWith(":hb"));
+    }
+
+    @Test
+    void connectionsPerUserAreCapped_andAnnouncementsFollowTargetRole() {
+        List<RecordingEmitter> tabs = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            RecordingEmitter tab = new RecordingEmitter();
+            tabs.add(tab);
+            registry.register(1L, Role.MEMBER, tab);
+        }
+        RecordingEmitter admin = new RecordingEmitter();
+        registry.register(2L, Role.MODERATOR, admin);
+        assertEquals(6, registry.getStats().getConnections());
+        assertTrue(tabs.get(0).completed, "oldest tab is closed when the cap is exceeded");
+
+        registry.pushAnnouncement(10L, "Maintenance", AnnouncementPriority.CRITICAL, Role.MODERATOR);
+        registry.pushAnnouncement(11L, "Newsletter", AnnouncementPriority.INFO, null);
+        await(() -> admin.payloads.size() == 3 && tabs.get(5).payloads.size() == 1);
+        assertTrue(admin.payloads.get(1).contains("event:announcement"));
+        assertTrue(admin.payloads.get(1).contains("Maintenance"));
+        assertTrue(tabs.get(5).payloads.get(0).contains("\"counter\":\"announcements\""));
+        assertTrue(tabs.get(0).payloads.isEmpty());
+    }
+
+    @Test
+    void dispatchedNotificationsAndReadsArePushedToTheRecipient() {
+        User author = createUser("pushauthor");
+        User commenter = createUser("pushcommenter");
+        BookmarkRequestDto dto = new BookmarkRequestDto();
+        dto.setTitle("Push post");
+        Long bookmarkId = bookmarkService.create(author, dto).getId();
+
+        // The scheduled heartbeat would add frames of its own whenever its period elapses mid-test
+        pushRegistry.cancelHeartbeats();
+        RecordingEmitter stream = new RecordingEmitter();
+        pushRegistry.register(author.getId(), Role.MEMBER, stream);
+        try {
+            commentService.create(new CommentRequestDto("Hello", bookmarkId, null, null), commenter);
+            notificationDispatcher.flush();
+            await(() -> stream.payloads.size() == 2);
+            assertTrue(stream.payloads.get(0).contains("event:notification"));
+            assertTrue(stream.payloads.get(0).contains("pushcommenter commented on your bookmark"));
+            assertTrue(stream.payloads.get(1).contains("\"delta\":1"));
+
+            Long notificationId = jdbcTemplate.queryForObject(
+                    "SELECT id FROM notifications WHERE recipient_id = ?", Long.class, author.getId());
+            notificationService.markAsRead(notificationId, author);
+            notificationService.markAsRead(notificationId, author);
+            notificationService.markAllAsRead(author);
+            await(() -> stream.payloads.size() == 4);
+            assertTrue(stream.payloads.get(2).contains("\"delta\":-1"));
+            assertTrue(stream.payloads.get(3).contains("\"count\":0"));
+        } finally {
+            stream.complete();
+            pushRegistry.heartbeat();
+            pushRegistry.scheduleHeartbeats();
+        }
+    }
+
+    @Test
+    void withdrawnOrRetargetedAnnouncements_askTheAffectedStreamsToResync() {
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        User member = createUser("pushresyncmember");
+        // The scheduled heartbeat would add frames of its own whenever its period elapses mid-test
+        pushRegistry.cancelHeartbeats();
+        RecordingEmitter memberStream = new RecordingEmitter();
+        RecordingEmitter moderatorStream = new RecordingEmitter();
+        pushRegistry.register(member.getId(), Role.MEMBER, memberStream);
+        pushRegistry.register(admin.getId(), Role.MODERATOR, moderatorStream);
+        try {
+            AnnouncementRequestDto dto = new AnnouncementRequestDto();
+            dto.setTitle("Moderator notice");
+            dto.setContent("Body");
+            dto.setPriority(AnnouncementPriority.INFO);
+            dto.setStatus(AnnouncementStatus.PUBLISHED);
+            dto.setTargetRole(Role.MODERATOR);
+            Long id = announcementService.create(dto, admin, admin.getUsername()).getId();
+            await(() -> moderatorStream.payloads.size() == 1);
+
+            announcementService.updateStatus(id, AnnouncementStatus.ARCHIVED, admin.getUsername());
+            await(() -> moderatorStream.payloads.size() == 2);
+            assertTrue(moderatorStream.payloads.get(1).contains("event:unread-resync"));
+            assertTrue(moderatorStream.payloads.get(1).contains("{\"counter\":\"announcements\"}"));
+
+            // Retargeting to everyone reaches both roles, deleting reaches the new audience
+            announcementService.updateStatus(id, AnnouncementStatus.PUBLISHED, admin.getUsername());
+            await(() -> moderatorStream.payloads.size() == 3);
+            dto.setTargetRole(null);
+            announcementService.update(id, dto, admin.getUsername());
+            announcementService.delete(id, admin.getUsername());
+            await(() -> moderatorStream.payloads.size() == 5 && memberStream.payloads.size() == 2);
+            assertTrue(memberStream.payloads.stream().allMatch(p -> p.contains("event:unread-resync")));
+        } finally {
+            memberStream.complete();
+            moderatorStream.complete();
+            pushRegistry.heartbeat();
+            pushRegistry.scheduleHeartbeats();
+        }
+    }
+
+    @Test
+    void realEmitters_writeEachSharedEventOnce() throws Exception {
+        User owner = createUser("pushbytes");
+        // Built by hand: @AutoConfigureMockMvc would start a second context on the same in-memory database
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).apply(springSecurity()).build();
+        // The scheduled heartbeat would add frames of its own whenever its period elapses mid-test
+        pushRegistry.cancelHeartbeats();
+        try {
+            MockHttpServletResponse firstTab = openStream(mockMvc, owner);
+            MockHttpServletResponse secondTab = openStream(mockMvc, owner);
+            await(() -> firstTab.getContentAsByteArray().length > 0 && secondTab.getContentAsByteArray().length > 0);
+
+            // One delta and one heartbeat fan out to both tabs, and are sent twice in a row
+            for (int i = 0; i < 2; i++) {
+                pushRegistry.pushUnreadDelta(owner.getId(), NotificationPushRegistry.COUNTER_NOTIFICATIONS, 1);
+                int events = 2 + 2 * i;
+                await(() -> eventCount(firstTab) == events && eventCount(secondTab) == events);
+                pushRegistry.heartbeat();
+                await(() -> eventCount(firstTab) == events + 1 && eventCount(secondTab) == events + 1);
+            }
+
+            String stream = firstTab.getContentAsString();
+            assertEquals(stream, secondTab.getContentAsString());
+            String[] events = stream.split("\n\n");
+            assertEquals(5, events.length);
+            assertEquals(events[1], events[3]);
+            assertEquals(":hb", events[2]);
+            assertEquals(":hb", events[4]);
+            assertEquals("event:unread-count\ndata:{\"counter\":\"notifications\",\"delta\":1}", events[1]);
+        } finally {
+            pushRegistry.scheduleHeartbeats();
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "linkvault.benchmark", matches = "true")
+    void benchmark_tenThousandIdleConnections() {
+        ReflectionTestUtils.setField(registry, "maxConnectionsPerUser", 1);
+        int connections = 10_000;
+        List<SseEmitter> emitters = new ArrayList<>(connections);
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        for (long userId = 1; userId <= connections; userId++) {
+            SseEmitter emitter = new DiscardingEmitter();
+            emitters.add(emitter);
+            registry.register(userId, Role.MEMBER, emitter);
+        }
+        System.gc();
+        long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+
+        long start = System.nanoTime();
+        registry.heartbeat();
+        await(() -> registry.getStats().getSent() == connections);
+        long heartbeatMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        start = System.nanoTime();
+        registry.pushAnnouncement(1L, "Broadcast", AnnouncementPriority.WARN, null);
+        await(() -> registry.getStats().getSent() == 3L * connections);
+        long broadcastMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        System.out.printf("push registry: %d idle connections, ~%d bytes each, heartbeat sweep %d ms, " +
+                        "broadcast (2 events each) %d ms%n", connections,
+                Math.max(0, heapAfter - heapBefore) / connections, heartbeatMs, broadcastMs);
+        assertEquals(connections, registry.getStats().getConnections());
+        assertEquals(0, registry.getStats().getDropped());
+    }
+
+    private User createUser(String username) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@test.com")
+                .password("encoded")
+                .role(Role.MEMBER)
+                .enabled(true)
+                .build());
+    }
+
+    private MockHttpServletResponse openStream(MockMvc mockMvc, User owner) throws Exception {
+        return mockMvc.perform(get("/api/notifications/stream").with(user(owner.getUsername())))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+    }
+
+    private static int eventCount(MockHttpServletResponse response) {
+        try {
+            return response.getContentAsString().split("\n\n").length;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static NotificationResponseDto notification(String message) {
+        return NotificationResponseDto.builder().message(message).build();
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) fail("condition not met in time");
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("interrupted");
+            }
+        }
+    }
+
+    private static String render(SseEmitter.SseEventBuilder event) {
+        StringBuilder text = new StringBuilder();
+        for (var part : event.build()) {
+            Object data = part.getData();
+            text.append(MediaType.APPLICATION_JSON.equals(part.getMediaType())
+                    ? toJson(data) : String.valueOf(data));
+        }
+        return text.toString();
+    }
+
+    private static String toJson(Object data) {
+        try {
+            return JSON.writeValueAsString(data);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Stands in for an idle client that accepts everything; nothing is serialized
+    private static class DiscardingEmitter extends SseEmitter {
+        @Override
+        public void send(SseEventBuilder builder) {
+        }
+    }
+
+    // Records what would be written to the client instead of writing to a response
+    private static class RecordingEmitter extends SseEmitter {
+        final List<String> payloads = Collections.synchronizedList(new ArrayList<>());
+        volatile boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (completed) throw new IllegalStateException("completed");
+            payloads.add(render(builder));
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+    }
+
+    private static class BlockingEmitter extends RecordingEmitter {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            entered.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            super.send(builder);
+        }
+    }
+
+    private static class FailingEmitter extends RecordingEmitter {
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            throw new IOException("Broken pipe");
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package org.link.linkvault.service;
+
+import org.junit.jupiter.api.Test;
+import org.link.linkvault.dto.BookmarkRequestDto;
+import org.link.linkvault.dto.PhotoResponseDto;
+import org.link.linkvault.entity.PhotoVariant;
+import org.link.linkvault.entity.PhotoVariantStatus;
+import org.link.linkvault.entity.PostPhoto;
+import org.link.linkvault.entity.Role;
+import org.link.linkvault.entity.User;
+import org.link.linkvault.repository.PostPhotoRepository;
+import org.link.linkvault.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Not @Transactional: jobs are only submitted once the upload commits
+@SpringBootTest
+class PhotoVariantServiceTest {
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    @Autowired
+    private PhotoVariantService photoVariantService;
+
+    @Autowired
+    private FileVaultService fileVaultService;
+
+    @Autowired
+    private PostPhotoRepository postPhotoRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Test
+    void upload_generatesRotatedExifFreeVariants_andServesOriginalUntilReady() throws Exception {
+        User user = userRepository.save(User.builder()
+                .username("variantowner")
+                .email("variantowner@test.com")
+                .password("encoded")
+                .role(Role.MEMBER)
+                .enabled(true)
+                .build());
+        BookmarkRequestDto dto = new BookmarkRequestDto();
+        dto.setTitle("Photo post");
+        MockMultipartFile upload = new MockMultipartFile("photos", "camera.jpg", "image/jpeg",
+                withExifOrientation(landscapeJpeg(2000, 1500), 6));
+
+        Long bookmarkId = bookmarkService.create(user, dto, List.of(upload)).getId();
+        PostPhoto photo = postPhotoRepository.findByBookmarkId(bookmarkId).get(0);
+        String original = photo.getStoragePath();
+
+        // Before the job has run every URL points at the original, asking for the variant it stands in for
+        PhotoResponseDto before = PhotoResponseDto.from(photo);
+        assertEquals("/files/photos/" + original + "?size=thumbnail", before.getThumbnailUrl());
+        assertEquals("/files/photos/" + original + "?size=feed", before.getFeedUrl());
+        assertEquals("/files/photos/" + original, before.getUrl());
+
+        photo = awaitSettled(photo);
+        assertEquals(PhotoVariantStatus.READY, photo.getVariantStatus());
+
+        // Orientation 6 turns the 2000x1500 sensor image into a 1500x2000 portrait
+        BufferedImage feed = ImageIO.read(fileVaultService.resolve(photo.getFeedPath()).toFile());
+        assertEquals(960, feed.getWidth());
+        assertEquals(1280, feed.getHeight());
+        BufferedImage thumbnail = ImageIO.read(fileVaultService.resolve(photo.getThumbnailPath()).toFile());
+        assertEquals(320, thumbnail.getWidth());
+        BufferedImage full = ImageIO.read(fileVaultService.resolve(photo.getFullPath()).toFile());
+        assertEquals(1500, full.getWidth());
+
+        byte[] feedBytes = Files.readAllBytes(fileVaultService.resolve(photo.getFeedPath()));
+        assertFalse(new String(feedBytes, StandardCharsets.ISO_8859_1).contains("Exif"));
+
+        PhotoResponseDto after = PhotoResponseDto.from(photo);
+        assertEquals("/files/photos/" + photo.getThumbnailPath(), after.getThumbnailUrl());
+        assertEquals("/files/photos/" + photo.getFullPath(), after.getUrl());
+        assertNotNull(fileVaultService.loadVariantAsResource(original, PhotoVariant.FEED));
+        assertTrue(photoVariantService.getStats().getCompleted() >= 1);
+
+        // The original's own URL now serves the full variant, never the EXIF-carrying upload
+        byte[] served = mockMvc().perform(get("/files/photos/" + original))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertFalse(new String(served, StandardCharsets.ISO_8859_1).contains("Exif"));
+        assertEquals(1500, ImageIO.read(new ByteArrayInputStream(served)).getWidth());
+        // A URL handed out while pending now gets the thumbnail, not the full image
+        byte[] pendingThumbnail = mockMvc().perform(get(before.getThumbnailUrl()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(320, ImageIO.read(new ByteArrayInputStream(pendingThumbnail)).getWidth());
+
+        bookmarkService.delete(user, bookmarkId);
+        bookmarkService.purge(user, bookmarkId);
+        Path feedPath = fileVaultService.resolve(photo.getFeedPath());
+        assertFalse(Files.exists(feedPath));
+        assertNull(fileVaultService.loadVariantAsResource(original, PhotoVariant.FEED));
+    }
+
+    @Test
+    void undecodableUpload_failsAndServesItsOriginalWithoutExif() throws Exception {
+        User user = userRepository.save(User.builder()
+                .username("variantbroken")
+                .email("variantbroken@test.com")
+                .password("encoded")
+                .role(Role.MEMBER)
+                .enabled(true)
+                .build());
+        BookmarkRequestDto dto = new BookmarkRequestDto();
+        dto.setTitle("Broken photo post");
+        byte[] broken = withExifOrientation(new byte[]{(byte) 0xFF, (byte) 0xD8, 'n', 'o', 't', ' ', 'a', ' ', 's', 'c', 'a', 'n'}, 6);
+        MockMultipartFile upload = new MockMultipartFile("photos", "broken.jpg", "image/jpeg", broken);
+
+        Long bookmarkId = bookmarkService.create(user, dto, List.of(upload)).getId();
+        PostPhoto photo = awaitSettled(postPhotoRepository.findByBookmarkId(bookmarkId).get(0));
+        assertEquals(PhotoVariantStatus.FAILED, photo.getVariantStatus());
+
+        byte[] served = mockMvc().perform(get("/files/photos/" + photo.getStoragePath()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertFalse(new String(served, StandardCharsets.ISO_8859_1).contains("Exif"));
+        assertTrue(new String(served, StandardCharsets.ISO_8859_1).endsWith("not a scan"));
+
+        bookmarkService.delete(user, bookmarkId);
+        bookmarkService.purge(user, bookmarkId);
+    }
+
+    private PostPhoto awaitSettled(PostPhoto photo) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 15_000;
+        while (photo.getVariantStatus() == PhotoVariantStatus.PENDING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            photo = postPhotoRepository.findById(photo.getId()).orElseThrow();
+        }
+        return photo;
+    }
+
+    // Built by hand: @AutoConfigureMockMvc would start a second context on the same in-memory database
+    private MockMvc mockMvc() {
+        return MockMvcBuilders.webAppContextSetup(webApplicationContext).apply(springSecurity()).build();
+    }
+
+    private static byte[] landscapeJpeg(int width, int height) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.ORANGE);
+        g.fillRect(0, 0, width, height);
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpeg", out);
+        return out.toByteArray();
+    }
+
+    // Inserts a minimal big-endian APP1 Exif segment holding only the orientation tag after SOI
+    private static byte[] withExifOrientation(byte[] jpeg, int orientation) {
+        byte[] tiff = {
+                'M', 'M', 0, 42, 0, 0, 0, 8,
+                0, 1,
+                0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, (byte) orientation, 0, 0,
+                0, 0, 0, 0
+        };
+        byte[] exif = {'E', 'x', 'i', 'f', 0, 0};
+        int length = 2 + exif.length + tiff.length;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(jpeg, 0, 2);
+        out.write(0xFF);
+        out.write(0xE1);
+        out.write(length >> 8);
+        out.write(length & 0xff);
+        out.write(exif, 0, exif.length);
+        out.write(tiff, 0, tiff.length);
+        out.write(jpeg, 2, jpeg.length - 2);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,119 @@
+package org.link.linkvault.service;
+
+import org.junit.jupiter.api.Test;
+import org.link.linkvault.config.RateLimitFilter;
+import org.link.linkvault.dto.CacheStatsDto;
+import org.link.linkvault.dto.RateLimitStatsDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: policies are rebuilt from settings after commit
+@SpringBootTest
+class RateLimitServiceTest {
+
+    @Autowired
+    private RateLimitService rateLimitService;
+
+    @Autowired
+    private RateLimitBackend rateLimitBackend;
+
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    @Autowired
+    private SystemSettingsService systemSettingsService;
+
+    private RateLimitStatsDto.PolicyStats policyStats(String name) {
+        return rateLimitService.getStats().getPolicies().stream()
+                .filter(p -> p.getName().equals(name))
+                .findFirst().orElseThrow();
+    }
+
+    @Test
+    void searchPolicy_followsSettings_andKeysSignedInCallersByUser() {
+        String original = systemSettingsService.getValue("rate-limit.search.capacity").orElse("60");
+        systemSettingsService.updateValue("rate-limit.search.capacity", "3", "system");
+        try {
+            assertEquals(3, policyStats("search").getCapacity());
+            long rejectedBefore = policyStats("search").getRejected();
+            for (int i = 0; i < 3; i++) {
+                assertNull(rateLimitService.tryAcquire("GET", "/api/search", "10.1.0.1", "ratelimituser"));
+            }
+            // Same user from another address shares the bucket; both routes share the policy
+            RateLimitService.Rejection rejection =
+                    rateLimitService.tryAcquire("GET", "/api/bookmarks/search", "10.1.0.2", "ratelimituser");
+            assertNotNull(rejection);
+            assertTrue(rejection.getRetryAfterSeconds() >= 1);
+            assertEquals(rejectedBefore + 1, policyStats("search").getRejected());
+
+            assertNull(rateLimitService.tryAcquire("GET", "/api/search", "10.1.0.1", "ratelimitother"));
+            assertNull(rateLimitService.tryAcquire("GET", "/api/search", "10.1.0.1", null));
+            // Unlimited routes are never charged, and the typeahead has its own budget
+            assertNull(rateLimitService.tryAcquire("GET", "/api/bookmarks", "10.1.0.1", "ratelimituser"));
+            assertNull(rateLimitService.tryAcquire("GET", "/api/search/suggest", "10.1.0.1", "ratelimituser"));
+            assertNotNull(rateLimitService.tryAcquire("GET", "/api/search/", "10.1.0.1", "ratelimituser"));
+        } finally {
+            systemSettingsService.updateValue("rate-limit.search.capacity", original, "system");
+        }
+        // The new policy replaces the old buckets, so the user can search again
+        assertNull(rateLimitService.tryAcquire("GET", "/api/search", "10.1.0.1", "ratelimituser"));
+        assertThrows(IllegalArgumentException.class,
+                () -> systemSettingsService.updateValue("rate-limit.search.capacity", "0", "system"));
+    }
+
+    @Test
+    void loginFilter_answers429WithRetryAfter() throws Exception {
+        MockHttpServletResponse response = null;
+        for (int i = 0; i < 11; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/login");
+            request.setRemoteAddr("10.2.0.1");
+            response = new MockHttpServletResponse();
+            rateLimitFilter.doFilter(request, response, new MockFilterChain());
+        }
+        assertEquals(429, response.getStatus());
+        assertNotNull(response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains("Too many login attempts"));
+    }
+
+    @Test
+    void loginFilter_ignoresForwardedForFromUntrustedPeers() throws Exception {
+        // A direct client rotating X-Forwarded-For still lands in the bucket of its own address
+        MockHttpServletResponse response = null;
+        for (int i = 0; i < 11; i++) {
+            response = login("10.3.0.1", "203.0.113." + i);
+        }
+        assertEquals(429, response.getStatus());
+
+        // Behind the trusted local proxy, the forwarded client address picks the bucket
+        for (int i = 0; i < 11; i++) {
+            assertEquals(200, login("127.0.0.1", "198.51.100." + i + ", 127.0.0.1").getStatus());
+        }
+    }
+
+    private MockHttpServletResponse login(String remoteAddr, String forwardedFor) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/login");
+        request.setRemoteAddr(remoteAddr);
+        request.addHeader("X-Forwarded-For", forwardedFor);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    void ipSpraying_keepsBucketStoreBounded() {
+        CacheStatsDto before = rateLimitBackend.getCacheStats().get(0);
+        int requests = before.getMaxSize() * 2;
+        for (int i = 0; i < requests; i++) {
+            String ip = "172." + (16 + (i >> 16 & 15)) + "." + (i >> 8 & 255) + "." + (i & 255);
+            assertNull(rateLimitService.tryAcquire("POST", "/api/guest/event", ip, null));
+        }
+        CacheStatsDto after = rateLimitBackend.getCacheStats().get(0);
+        assertTrue(after.getSize() <= after.getMaxSize());
+        assertTrue(after.getEvictions() - before.getEvictions() >= requests - after.getMaxSize());
+    }
+}
@@ -0,0 +1,98 @@
+package org.link.linkvault.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: the snapshot is only swapped after commit
+@SpringBootTest
+class SystemSettingsSnapshotTest {
+
+    @Autowired
+    private SystemSettingsService systemSettingsService;
+
+    @Autowired
+    private AdPolicyService adPolicyService;
+
+    @Autowired
+    private FileVaultService fileVaultService;
+
+    @Autowired
+    private AccessCounterBuffer accessCounterBuffer;
+
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+
+    @Autowired
+    private GuestEventWriter guestEventWriter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void hotPathReads_runNoQueries() {
+        String adsEnabled = systemSettingsService.getValue("feature.ads-enabled").orElse("false");
+        systemSettingsService.updateValue("feature.ads-enabled", "true", "system");
+        try {
+            // Statistics are global: write out what earlier tests buffered so a timed flush cannot land mid-loop
+            accessCounterBuffer.flush();
+            notificationDispatcher.flush();
+            guestEventWriter.flush();
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            statistics.setStatisticsEnabled(true);
+            statistics.clear();
+            for (int i = 0; i < 1000; i++) {
+                adPolicyService.getAdInsertionPositions(20, true, 5);
+                adPolicyService.getAdsenseClientId();
+                adPolicyService.shouldShowAds(null);
+                systemSettingsService.getValue("security.lockout-threshold");
+                systemSettingsService.snapshot();
+            }
+            assertEquals(0, statistics.getPrepareStatementCount());
+            // No transaction or pooled connection either, not just no statements
+            assertEquals(0, statistics.getTransactionCount());
+            assertEquals(0, statistics.getConnectCount());
+            assertFalse(adPolicyService.getAdInsertionPositions(20, true, 5).isEmpty());
+        } finally {
+            systemSettingsService.updateValue("feature.ads-enabled", adsEnabled, "system");
+        }
+    }
+
+    @Test
+    void committedUpdate_swapsSnapshotBeforeListenersRun_andRollbackKeepsIt() {
+        SettingsSnapshot before = systemSettingsService.snapshot();
+        String original = before.getString("file-vault.max-file-size-mb", "10");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            systemSettingsService.updateValue("file-vault.max-file-size-mb", "3", "system");
+            status.setRollbackOnly();
+        });
+        assertSame(before, systemSettingsService.snapshot());
+
+        systemSettingsService.updateValue("file-vault.max-file-size-mb", "7", "system");
+        try {
+            SettingsSnapshot after = systemSettingsService.snapshot();
+            assertTrue(after.getVersion() > before.getVersion());
+            assertEquals(7, after.getInt("file-vault.max-file-size-mb", 0));
+            // The previous snapshot is untouched, so readers holding it keep a consistent view
+            assertEquals(original, before.getString("file-vault.max-file-size-mb", null));
+            // FileVaultService reloaded from the new snapshot in its own listener
+            assertEquals(7, ReflectionTestUtils.getField(fileVaultService, "maxFileSizeMb"));
+        } finally {
+            systemSettingsService.updateValue("file-vault.max-file-size-mb", original, "system");
+        }
+        assertEquals(Integer.parseInt(original), ReflectionTestUtils.getField(fileVaultService, "maxFileSizeMb"));
+    }
+}
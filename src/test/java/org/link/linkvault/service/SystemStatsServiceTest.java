@@ -0,0 +1,116 @@
+package org.link.linkvault.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.link.linkvault.dto.BookmarkRequestDto;
+import org.link.linkvault.dto.BookmarkResponseDto;
+import org.link.linkvault.dto.SystemStatsDto;
+import org.link.linkvault.entity.Role;
+import org.link.linkvault.entity.User;
+import org.link.linkvault.repository.BookmarkRepository;
+import org.link.linkvault.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class SystemStatsServiceTest {
+
+    @Autowired
+    private SystemStatsService systemStatsService;
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    @Autowired
+    private BookmarkRepository bookmarkRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User createUser(String username) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@test.com")
+                .password("encoded")
+                .role(Role.MEMBER)
+                .enabled(true)
+                .build());
+    }
+
+    private BookmarkResponseDto createBookmark(User owner, String title) {
+        BookmarkRequestDto dto = new BookmarkRequestDto();
+        dto.setTitle(title);
+        return bookmarkService.create(owner, dto);
+    }
+
+    private long actualCount(LocalDate date) {
+        return bookmarkRepository.countByCreatedAtBetween(date.atStartOfDay(), date.plusDays(1).atStartOfDay().minusNanos(1));
+    }
+
+    @Test
+    void bookmarksPerDay_combinesRollupWithLiveTail() {
+        User owner = createUser("statsrollup");
+        LocalDate today = LocalDate.now();
+        BookmarkResponseDto old = createBookmark(owner, "Three days ago");
+        createBookmark(owner, "Today");
+        jdbcTemplate.update("UPDATE bookmarks SET created_at = ? WHERE id = ?",
+                Timestamp.valueOf(today.minusDays(3).atTime(12, 0)), old.getId());
+
+        // Start over so the backdated bookmark is part of the rollup
+        jdbcTemplate.update("DELETE FROM daily_bookmark_stats");
+        assertTrue(systemStatsService.rollupClosedDays() >= 3);
+        assertEquals(0, systemStatsService.rollupClosedDays());
+
+        Map<LocalDate, Long> perDay = systemStatsService.getBookmarksPerDay(today.minusDays(6), today);
+        assertEquals(7, perDay.size());
+        for (Map.Entry<LocalDate, Long> entry : perDay.entrySet()) {
+            assertEquals(actualCount(entry.getKey()), entry.getValue(), "count for " + entry.getKey());
+        }
+        assertTrue(perDay.get(today.minusDays(3)) >= 1);
+
+        // Today is counted live, so new bookmarks show up without another rollup
+        long before = perDay.get(today);
+        createBookmark(owner, "Today again");
+        assertEquals(before + 1, systemStatsService.getBookmarksPerDay(today, today).get(today));
+
+        assertThrows(IllegalArgumentException.class, () -> systemStatsService.getBookmarksPerDay(today, today.minusDays(1)));
+    }
+
+    @Test
+    void dashboard_queryCountDoesNotGrowWithUsers() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        for (int i = 0; i < 15; i++) {
+            createBookmark(createUser("statsactive" + i), "Active " + i);
+        }
+
+        systemStatsService.evictCache();
+        statistics.clear();
+        SystemStatsDto stats = systemStatsService.getSystemStats();
+        long statements = statistics.getPrepareStatementCount();
+
+        // 4 totals, watermark, rollup rows, live tail, top tags, top users
+        assertTrue(statements <= 9, "dashboard issued " + statements + " statements");
+        assertEquals(10, stats.getMostActiveUsers().size());
+        assertEquals(7, stats.getBookmarksPerDay().size());
+
+        statistics.clear();
+        assertSame(stats, systemStatsService.getSystemStats());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+}
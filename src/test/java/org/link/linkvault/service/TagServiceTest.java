@@ -0,0 +1,138 @@
+package org.link.linkvault.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.link.linkvault.dto.BookmarkRequestDto;
+import org.link.linkvault.dto.BookmarkResponseDto;
+import org.link.linkvault.dto.TagResponseDto;
+import org.link.linkvault.entity.Role;
+import org.link.linkvault.entity.User;
+import org.link.linkvault.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: the tag cloud is only invalidated after commit
+@SpringBootTest
+class TagServiceTest {
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    private User createUser(String username) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@test.com")
+                .password("encoded")
+                .role(Role.MEMBER)
+                .enabled(true)
+                .build());
+    }
+
+    private BookmarkResponseDto createBookmark(User owner, String title, String... tags) {
+        BookmarkRequestDto dto = new BookmarkRequestDto();
+        dto.setTitle(title);
+        dto.setTagNames(Set.of(tags));
+        return bookmarkService.create(owner, dto);
+    }
+
+    private Integer countOf(String tagName) {
+        return tagService.findAll().stream()
+                .filter(t -> t.getName().equals(tagName))
+                .map(TagResponseDto::getBookmarkCount)
+                .findFirst()
+                .orElse(null);
+    }
+
+    @Test
+    void bookmarkCounts_followTaggingMergeAndCleanup() {
+        User owner = createUser("tagcounter");
+        BookmarkResponseDto first = createBookmark(owner, "Tag count one", "tc-alpha", "tc-beta");
+        createBookmark(owner, "Tag count two", "tc-alpha");
+
+        assertEquals(2, countOf("tc-alpha"));
+        assertEquals(1, countOf("tc-beta"));
+
+        // Cached listing reads neither tags nor bookmarks
+        statistics.clear();
+        tagService.findAll();
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        BookmarkRequestDto retag = new BookmarkRequestDto();
+        retag.setTitle("Tag count one");
+        retag.setTagNames(Set.of("tc-gamma"));
+        bookmarkService.update(owner, first.getId(), retag);
+        assertEquals(1, countOf("tc-alpha"));
+        assertEquals(0, countOf("tc-beta"));
+        assertEquals(1, countOf("tc-gamma"));
+
+        Long alphaId = tagService.findAll().stream().filter(t -> t.getName().equals("tc-alpha")).findFirst().orElseThrow().getId();
+        Long gammaId = tagService.findAll().stream().filter(t -> t.getName().equals("tc-gamma")).findFirst().orElseThrow().getId();
+        tagService.mergeTags(Set.of(alphaId, gammaId), "tc-merged", "admin");
+        assertNull(countOf("tc-alpha"));
+        assertEquals(2, countOf("tc-merged"));
+
+        tagService.deleteUnusedTags("admin");
+        assertNull(countOf("tc-beta"));
+        assertEquals(2, countOf("tc-merged"));
+    }
+
+    @Test
+    void concurrentTaggingOfTheSameTag_losesNoUpdates() throws Exception {
+        User owner = createUser("tagracer");
+        createBookmark(owner, "Tag race seed", "tc-race");
+        int writers = 8;
+        int perWriter = 5;
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perWriter; i++) {
+                        createBookmark(owner, "Tag race " + writer + "-" + i, "tc-race");
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1 + writers * perWriter, countOf("tc-race"));
+    }
+}
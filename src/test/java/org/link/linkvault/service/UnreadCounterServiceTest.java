@@ -0,0 +1,166 @@
+package org.link.linkvault.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.link.linkvault.dto.AnnouncementRequestDto;
+import org.link.linkvault.dto.BookmarkRequestDto;
+import org.link.linkvault.dto.CommentRequestDto;
+import org.link.linkvault.dto.UnreadCounterStatsDto;
+import org.link.linkvault.entity.AnnouncementPriority;
+import org.link.linkvault.entity.AnnouncementStatus;
+import org.link.linkvault.entity.Role;
+import org.link.linkvault.entity.User;
+import org.link.linkvault.repository.AnnouncementRepository;
+import org.link.linkvault.repository.NotificationRepository;
+import org.link.linkvault.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: counters are initialized and adjusted across committed transactions
+@SpringBootTest
+class UnreadCounterServiceTest {
+
+    @Autowired
+    private UnreadCounterService unreadCounterService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+
+    @Autowired
+    private AnnouncementService announcementService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private AnnouncementRepository announcementRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User createUser(String username, Role role) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@test.com")
+                .password("encoded")
+                .role(role)
+                .enabled(true)
+                .build());
+    }
+
+    private Long publish(String title, Role targetRole, User creator) {
+        AnnouncementRequestDto dto = new AnnouncementRequestDto();
+        dto.setTitle(title);
+        dto.setContent("Content for " + title);
+        dto.setPriority(AnnouncementPriority.INFO);
+        dto.setStatus(AnnouncementStatus.PUBLISHED);
+        dto.setTargetRole(targetRole);
+        return announcementService.create(dto, creator, creator.getUsername()).getId();
+    }
+
+    private void assertMatchesSource(User user) {
+        assertEquals(notificationRepository.countByRecipientIdAndReadFalse(user.getId()),
+                unreadCounterService.getUnreadNotifications(user), "notifications for " + user.getUsername());
+        assertEquals(announcementRepository.countUnreadForUser(user.getId(), user.getRole()),
+                unreadCounterService.getUnreadAnnouncements(user), "announcements for " + user.getUsername());
+    }
+
+    @Test
+    void notificationCounter_followsDispatchAndReads_andIsReadByPrimaryKey() {
+        User owner = createUser("unreadowner", Role.MEMBER);
+        User commenter = createUser("unreadcommenter", Role.MEMBER);
+        BookmarkRequestDto dto = new BookmarkRequestDto();
+        dto.setTitle("Unread post");
+        Long bookmarkId = bookmarkService.create(owner, dto).getId();
+        assertEquals(0, unreadCounterService.getUnreadNotifications(owner));
+
+        for (int i = 0; i < 3; i++) {
+            commentService.create(new CommentRequestDto("Comment " + i, bookmarkId, null, null), commenter);
+        }
+        notificationDispatcher.flush();
+        assertEquals(3, unreadCounterService.getUnreadNotifications(owner));
+
+        Long firstId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM notifications WHERE recipient_id = ?", Long.class, owner.getId());
+        notificationService.markAsRead(firstId, owner);
+        notificationService.markAsRead(firstId, owner);
+        assertEquals(2, unreadCounterService.getUnreadNotifications(owner));
+        assertMatchesSource(owner);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        notificationService.getUnreadCount(owner);
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        notificationService.markAllAsRead(owner);
+        assertEquals(0, unreadCounterService.getUnreadNotifications(owner));
+        assertMatchesSource(owner);
+    }
+
+    @Test
+    void announcementCounter_followsPublishReadAndArchive() {
+        User admin = createUser("unreadadmin", Role.SUPER_ADMIN);
+        User member = createUser("unreadmember", Role.MEMBER);
+        User moderator = createUser("unreadmoderator", Role.MODERATOR);
+        long memberBefore = unreadCounterService.getUnreadAnnouncements(member);
+        long moderatorBefore = unreadCounterService.getUnreadAnnouncements(moderator);
+
+        Long everyone = publish("For everyone", null, admin);
+        Long moderatorsOnly = publish("For moderators", Role.MODERATOR, admin);
+        assertEquals(memberBefore + 1, unreadCounterService.getUnreadAnnouncements(member));
+        assertEquals(moderatorBefore + 2, unreadCounterService.getUnreadAnnouncements(moderator));
+
+        announcementService.markAsRead(everyone, member);
+        announcementService.markAsRead(everyone, member);
+        // Reading an announcement that was never counted for the reader changes nothing
+        announcementService.acknowledge(moderatorsOnly, member);
+        assertEquals(memberBefore, unreadCounterService.getUnreadAnnouncements(member));
+
+        // Archiving only moves the counters of users who had not read it
+        announcementService.updateStatus(everyone, AnnouncementStatus.ARCHIVED, admin.getUsername());
+        assertEquals(memberBefore, unreadCounterService.getUnreadAnnouncements(member));
+        assertEquals(moderatorBefore + 1, unreadCounterService.getUnreadAnnouncements(moderator));
+
+        announcementService.delete(moderatorsOnly, admin.getUsername());
+        assertMatchesSource(member);
+        assertMatchesSource(moderator);
+    }
+
+    @Test
+    void reconcile_correctsDriftedCounters() {
+        User member = createUser("unreaddrift", Role.MEMBER);
+        unreadCounterService.getUnreadNotifications(member);
+        jdbcTemplate.update("UPDATE user_unread_counters SET notifications = 42, announcements = announcements + 7 " +
+                "WHERE user_id = ?", member.getId());
+        jdbcTemplate.update("INSERT INTO user_unread_counters (user_id, notifications, announcements, updated_at) " +
+                "VALUES (999999, 1, 1, CURRENT_TIMESTAMP)");
+
+        UnreadCounterStatsDto run = unreadCounterService.reconcile();
+        assertTrue(run.getLastCorrected() >= 1);
+        assertEquals(1, run.getLastOrphansRemoved());
+        assertMatchesSource(member);
+        assertEquals(run.getLastCorrected(), unreadCounterService.getStats().getLastCorrected());
+    }
+}
@@ -0,0 +1,169 @@
+package org.link.linkvault.service;
+
+import org.junit.jupiter.api.Test;
+import org.link.linkvault.dto.AnnouncementResponseDto;
+import org.link.linkvault.dto.BookmarkRequestDto;
+import org.link.linkvault.dto.CommentRequestDto;
+import org.link.linkvault.dto.CommentVoteResponseDto;
+import org.link.linkvault.entity.*;
+import org.link.linkvault.repository.AnnouncementRepository;
+import org.link.linkvault.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class VoteCounterConcurrencyTest {
+
+    private static final int VOTERS = 300;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private AnnouncementService announcementService;
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    @Autowired
+    private AnnouncementRepository announcementRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User createUser(String username) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@test.com")
+                .password("encoded")
+                .role(Role.MEMBER)
+                .enabled(true)
+                .build());
+    }
+
+    @Test
+    void parallelVoters_leaveExactTallies() throws Exception {
+        User author = createUser("hotauthor");
+        BookmarkRequestDto bookmark = new BookmarkRequestDto();
+        bookmark.setTitle("Hot post");
+        Long bookmarkId = bookmarkService.create(author, bookmark).getId();
+        Long commentId = commentService.create(new CommentRequestDto("Hot take", bookmarkId, null, null), author).getId();
+        Long announcementId = announcementRepository.save(Announcement.builder()
+                .title("Hot announcement")
+                .content("Vote on this")
+                .priority(AnnouncementPriority.INFO)
+                .status(AnnouncementStatus.PUBLISHED)
+                .enableVoting(true)
+                .createdBy(author)
+                .build()).getId();
+
+        List<User> voters = new ArrayList<>();
+        for (int i = 0; i < VOTERS; i++) {
+            voters.add(createUser("hotvoter" + i));
+        }
+
+        // Every voter runs a short sequence: like, dislike, like→dislike switch, or like→like toggle-off
+        List<Callable<Void>> sequences = new ArrayList<>();
+        for (int i = 0; i < VOTERS; i++) {
+            User voter = voters.get(i);
+            int kind = i % 4;
+            sequences.add(() -> {
+                VoteType first = kind == 1 ? VoteType.DISLIKE : VoteType.LIKE;
+                commentService.vote(commentId, first, voter);
+                announcementService.vote(announcementId, first, voter);
+                if (kind >= 2) {
+                    VoteType second = kind == 2 ? VoteType.DISLIKE : VoteType.LIKE;
+                    commentService.vote(commentId, second, voter);
+                    announcementService.vote(announcementId, second, voter);
+                }
+                return null;
+            });
+        }
+        assertEquals(0, runConcurrently(sequences).get(), "no vote may fail");
+
+        int expectedLikes = VOTERS / 4;
+        int expectedDislikes = VOTERS / 2;
+        assertTallies("comments", commentId, "comment_votes", "comment_id", expectedLikes, expectedDislikes);
+        assertTallies("announcements", announcementId, "announcement_votes", "announcement_id", expectedLikes, expectedDislikes);
+
+        // Double-submitted clicks: whichever request loses is rejected or toggles, but tallies still match the vote rows
+        List<Callable<Void>> duplicates = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            User voter = createUser("hotdouble" + i);
+            for (int copy = 0; copy < 2; copy++) {
+                duplicates.add(() -> {
+                    commentService.vote(commentId, VoteType.LIKE, voter);
+                    return null;
+                });
+            }
+        }
+        runConcurrently(duplicates);
+        assertTallies("comments", commentId, "comment_votes", "comment_id", -1, expectedDislikes);
+
+        // The response reflects the tallies straight after the caller's own vote
+        int likesBefore = jdbcTemplate.queryForObject("SELECT like_count FROM comments WHERE id = ?", Integer.class, commentId);
+        CommentVoteResponseDto response = commentService.vote(commentId, VoteType.LIKE, createUser("hotlate"));
+        assertEquals(likesBefore + 1, response.getLikeCount());
+        assertEquals(expectedDislikes, response.getDislikeCount());
+        assertEquals(VoteType.LIKE, response.getUserVote());
+
+        AnnouncementResponseDto announcementResponse =
+                announcementService.vote(announcementId, VoteType.DISLIKE, createUser("hotlate2"));
+        assertEquals(expectedLikes, announcementResponse.getLikeCount());
+        assertEquals(expectedDislikes + 1, announcementResponse.getDislikeCount());
+    }
+
+    // Returns the number of tasks that failed with a conflict; any other failure fails the test
+    private AtomicInteger runConcurrently(List<Callable<Void>> tasks) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Future<Void>> futures = new ArrayList<>();
+        for (Callable<Void> task : tasks) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+        try {
+            for (Future<Void> future : futures) {
+                try {
+                    future.get(60, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    if (!(e.getCause() instanceof IllegalStateException)) throw e;
+                    conflicts.incrementAndGet();
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return conflicts;
+    }
+
+    // A negative expectation only checks that the tally matches the stored vote rows
+    private void assertTallies(String table, Long id, String voteTable, String fk, int likes, int dislikes) {
+        Map<String, Object> tallies = jdbcTemplate.queryForMap(
+                "SELECT like_count, dislike_count FROM " + table + " WHERE id = ?", id);
+        Integer likeRows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + voteTable + " WHERE " + fk + " = ? AND vote_type = 'LIKE'", Integer.class, id);
+        Integer dislikeRows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + voteTable + " WHERE " + fk + " = ? AND vote_type = 'DISLIKE'", Integer.class, id);
+        assertEquals(likeRows, ((Number) tallies.get("LIKE_COUNT")).intValue(), table + " likes");
+        assertEquals(dislikeRows, ((Number) tallies.get("DISLIKE_COUNT")).intValue(), table + " dislikes");
+        if (likes >= 0) assertEquals(likes, likeRows, table + " like rows");
+        assertEquals(dislikes, dislikeRows, table + " dislike rows");
+    }
+}